@@ -12,8 +12,12 @@
 package org.eclipse.scanning.api.annotation.scan;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -22,8 +26,8 @@ import java.util.HashSet;
 import java.util.Hashtable;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.IServiceResolver;
 import org.eclipse.scanning.api.event.EventException;
@@ -42,8 +46,11 @@ import org.slf4j.LoggerFactory;
  * to be injected into the method. 
  * 
  * If attemps to parse all the reflection stuff up-front so that a call
- * to invoke(...) during the scan can be as efficiently despatched using
- * method.invoke(...) as possible.
+ * to invoke(...) during the scan can be as efficiently despatched as 
+ * possible. Each method is called through a MethodHandle and the argument
+ * which a context object is injected into is only worked out once for
+ * each class of context object. The whole class and interface hierarchy
+ * of the context object is used to find the argument.
  * 
  * This class could be made into a general purpose annotation parsing
  * and method calling class once tested.
@@ -59,10 +66,9 @@ public class AnnotationManager {
 	
 	private static Logger logger = LoggerFactory.getLogger(AnnotationManager.class);
 	
-	private Map<Class<? extends Annotation>, Collection<MethodWrapper>> annotationMap;
-	private Map<Class<?>, Collection<Class<?>>>                         cachedClasses;
-	private Map<Class<?>, Object>                                       services;
-	private Collection<Object>                                          extraContext;
+	private Map<Class<? extends Annotation>, MethodWrapper[]> annotationMap;
+	private Map<Class<?>, Object>                             services;
+	private volatile Object[]                                 extraContext;
 
 	private Collection<Class<? extends Annotation>> annotations;
 	private IServiceResolver resolver;
@@ -105,7 +111,7 @@ public class AnnotationManager {
 	private AnnotationManager(IServiceResolver resolver, Collection<Class<? extends Annotation>> a) {
 		this.resolver = resolver;
 		this.annotationMap = new Hashtable<>(31); // Intentionally synch
-		this.cachedClasses = new Hashtable<>(31); // Intentionally synch
+		this.extraContext  = new Object[0];
 		this.annotations = a;
 		
 		if (resolver!=null) {
@@ -190,12 +196,15 @@ public class AnnotationManager {
 			if (as!=null) for (Annotation annotation : as) {
 				Class<? extends Annotation> clazz = annotation.annotationType();
 				if (this.annotations.contains(clazz)) {
-					Collection<MethodWrapper> ms = annotationMap.get(clazz);
+					MethodWrapper[] ms = annotationMap.get(clazz);
+					MethodWrapper   wrapper = new MethodWrapper(clazz, device, methods[i]);
 					if (ms == null) {
-						ms = new ArrayList<>(31);
-						annotationMap.put(clazz, ms);
+						ms = new MethodWrapper[]{wrapper};
+					} else {
+						ms = Arrays.copyOf(ms, ms.length+1);
+						ms[ms.length-1] = wrapper;
 					}
-					ms.add(new MethodWrapper(clazz, device, methods[i]));
+					annotationMap.put(clazz, ms);
 				}
 			}
 		}
@@ -215,8 +224,11 @@ public class AnnotationManager {
 	 */
 	public void invoke(Class<? extends Annotation> annotation, Object... context) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException, InstantiationException, ScanningException, EventException {
 		try {
-			final Collection<MethodWrapper> as = annotationMap.get(annotation);
-			if (as!=null) for (MethodWrapper wrapper : as) wrapper.invoke(context);
+			final MethodWrapper[] as = annotationMap.get(annotation);
+			if (as!=null) {
+				final Object[] extra = extraContext;
+				for (int i = 0; i < as.length; i++) as[i].invoke(extra, context);
+			}
 			
 		} catch (InvocationTargetException wapperExceptioned) {
 		    Throwable supressed = wapperExceptioned.getTargetException();
@@ -229,105 +241,114 @@ public class AnnotationManager {
 		}
 	}
 	
+	/**
+	 * Wraps an annotated method. The method is unreflected once into a
+	 * MethodHandle which takes the argument array so that calling it during
+	 * the scan is a direct call. Which argument a given context object binds
+	 * to is resolved once per context class and cached.
+	 */
 	private class MethodWrapper {
 		
-		private Object          instance;
-		private Method          method;
-		private List<Class<?>>  argClasses;
-		private Object[]        arguments; // Must be object[] for speed and is not variable
+		private final Object                     instance;
+		private final Method                     method;
+		private final Class<?>[]                 argClasses;
+		private final Object[]                   arguments; // Must be object[] for speed and is not variable
+		private final MethodHandle               handle;
+		private final Map<Class<?>, Integer>     bindings;
 		
 		MethodWrapper(final Class<? extends Annotation> aclass, Object instance, Method method) throws IllegalArgumentException {
 			this.instance = instance;
 			this.method   = method;
+			this.argClasses = method.getParameterTypes();
 			
-			final Class<?>[] args = method.getParameterTypes();
-			this.argClasses = args!=null?Arrays.asList(args):null;
-			
-			if (argClasses!=null) {
-				final Set<?> unique = new HashSet<>(argClasses);
+			final Set<?> unique = new HashSet<>(Arrays.asList(argClasses));
 				
-				/**
-				 * We do not allow duplications in the classes list because a given service or
-				 * information object should be required once. Type is used to determine argument 
-				 * position as well, therefore duplicates do not work with the current alg.
-				 */
-			    if (unique.size()!=argClasses.size()) throw new IllegalArgumentException("Duplicated types are not allowed in injected methods!\n"
-			    		+ "Your annotation of @"+aclass.getSimpleName()+" sits over a method '"+method.getName()+"' on class '"+instance.getClass().getSimpleName()+"' with duplicated types!\n"
-			    	    + "More than one of any given type is not allowed. Have you seen '"+ScanInformation.class.getSimpleName()+"' class, which can be used to provide various metrics about the scan?");
-			}
+			/**
+			 * We do not allow duplications in the classes list because a given service or
+			 * information object should be required once. Type is used to determine argument 
+			 * position as well, therefore duplicates do not work with the current alg.
+			 */
+		    if (unique.size()!=argClasses.length) throw new IllegalArgumentException("Duplicated types are not allowed in injected methods!\n"
+		    		+ "Your annotation of @"+aclass.getSimpleName()+" sits over a method '"+method.getName()+"' on class '"+instance.getClass().getSimpleName()+"' with duplicated types!\n"
+		    	    + "More than one of any given type is not allowed. Have you seen '"+ScanInformation.class.getSimpleName()+"' class, which can be used to provide various metrics about the scan?");
 			
-			if (args!=null) {
-				this.arguments= new Object[args.length];
-				for (int i = 0; i < args.length; i++) {
-					if (args[i] == IPosition.class) continue;
-				    // Find OSGi service for it, if any.
-					try {
-						arguments[i] = getService(args[i]);
-					} catch (Exception ne) {
-						continue;
-					}
+			this.arguments = new Object[argClasses.length];
+			for (int i = 0; i < argClasses.length; i++) {
+				if (argClasses[i] == IPosition.class) continue;
+			    // Find OSGi service for it, if any.
+				try {
+					arguments[i] = getService(argClasses[i]);
+				} catch (Exception ne) {
+					continue;
 				}
 			}
+			this.bindings = new ConcurrentHashMap<>(7);
+			this.handle   = createHandle(instance, method);
 		}
 		
-		public void invoke(Object... objects) throws IllegalAccessException, IllegalArgumentException, InvocationTargetException {
-			
-			if (arguments!=null) { // Put the context into the args (if there are any)
-				
-				List<Object> context = getContext(objects);
-				for (int i = 0; i < context.size(); i++) {
-					
-				    final Collection<Class<?>> classes = getCachedClasses(context.get(i));
-				    
-				    // Find the first class in classes which is in argClasses
-				    // NOTE this is why duplicates are not supported, type of argument used to map to injected class.
-                	Optional<Class<?>> contained = classes.stream().filter(x -> argClasses.contains(x)).findFirst();
-                	if (contained.isPresent()) {
-                	    final int index = argClasses.indexOf(contained.get());
-                	    arguments[index] = context.get(i);
-                    }
-				}
-				boolean accessible = method.isAccessible();
-				try {
-					method.setAccessible(true);
-					method.invoke(instance, arguments);
-				} finally {
-					method.setAccessible(accessible);
-				}
-			} else {
-				method.invoke(instance);
+		private MethodHandle createHandle(Object instance, Method method) throws IllegalArgumentException {
+			try {
+				method.setAccessible(true); // Once only, the handle keeps the access.
+				MethodHandle mh = MethodHandles.lookup().unreflect(method);
+				if (!Modifier.isStatic(method.getModifiers())) mh = mh.bindTo(instance);
+				return mh.asSpreader(Object[].class, argClasses.length)
+						 .asType(MethodType.methodType(void.class, Object[].class));
+			} catch (IllegalAccessException | SecurityException ne) {
+				throw new IllegalArgumentException("Cannot access method '"+method.getName()+"' on class '"+instance.getClass().getSimpleName()+"'", ne);
 			}
 		}
-	}
-
-	/**
-	 * TODO Cache for speed?
-	 * @param object
-	 * @return
-	 */
-	private Collection<Class<?>> getCachedClasses(Object object) {
 		
-		final Class<?> clazz = object.getClass();
-		if (cachedClasses.containsKey(clazz)) return cachedClasses.get(clazz);
-		
-		final Collection<Class<?>> classes = new HashSet<>();
-		classes.add(clazz);
-		Class<?>[] interfaces = clazz.getInterfaces();
-		for (Class<?> class1 : interfaces)  classes.add(class1);
+		public void invoke(Object[] extra, Object... objects) throws InvocationTargetException {
+			
+			if (arguments.length>0) { // Put the context into the args (if there are any)
+				// Same order as getContext(...) but without copying it.
+				for (int i = 0; i < extra.length; i++) bind(extra[i]);
+				if (objects!=null) for (int i = 0; i < objects.length; i++) bind(objects[i]);
+			}
+			try {
+				handle.invokeExact(arguments);
+			} catch (Throwable ne) {
+				throw new InvocationTargetException(ne, "Problem invoking method '"+method.getName()+"' on "+instance);
+			}
+		}
 		
-		// TODO Currently only support one level deep
-		classes.add(clazz.getSuperclass());
-		interfaces = clazz.getSuperclass().getInterfaces();
-		for (Class<?> class1 : interfaces)  classes.add(class1);
+		private void bind(Object object) {
+			if (object==null) return;
+			final int index = getArgumentIndex(object.getClass());
+			if (index>-1) arguments[index] = object;
+		}
 		
-		cachedClasses.put(clazz, classes);
+		/**
+		 * NOTE this is why duplicates are not supported, type of argument used to map to injected class.
+		 * @param clazz
+		 * @return the index of the argument which the class binds to, or -1 if it binds to none.
+		 */
+		private int getArgumentIndex(Class<?> clazz) {
+			Integer index = bindings.get(clazz);
+			if (index==null) {
+				index = resolveArgumentIndex(clazz);
+				bindings.put(clazz, index);
+			}
+			return index;
+		}
 		
-		return classes;
+		/**
+		 * Finds the most specific argument type which the class or any class 
+		 * or interface in its hierarchy is.
+		 */
+		private int resolveArgumentIndex(Class<?> clazz) {
+			int found = -1;
+			for (int i = 0; i < argClasses.length; i++) {
+				if (!argClasses[i].isAssignableFrom(clazz)) continue;
+				if (found<0 || argClasses[found].isAssignableFrom(argClasses[i])) found = i;
+			}
+			return found;
+		}
 	}
-	
+
 	public List<Object> getContext(Object[] objects) {
 		List<Object> context = new ArrayList<>();
-		if (extraContext!=null) context.addAll(extraContext);
+		context.addAll(Arrays.asList(extraContext));
 		if (objects!=null && objects.length>0) {
 			for (Object object : objects) {
 				if (object != null) {
@@ -339,25 +360,31 @@ public class AnnotationManager {
 	}
 
 	/**
+	 * The extra context is copied on write so that invoke(...) may read it
+	 * without copying or locking.
+	 * 
 	 * @return true if item was added, false if there was a problem
 	 * @param object
 	 */
-	public boolean addContext(Object object) {
+	public synchronized boolean addContext(Object object) {
 		if (object==null) {
 			logger.info("Null object context accidentally added to "+getClass().getSimpleName());
 			return false;
 		}
-		if (extraContext == null) extraContext = new HashSet<>();
-		return extraContext.add(object);
+		for (Object existing : extraContext) if (existing.equals(object)) return false;
+		Object[] context = Arrays.copyOf(extraContext, extraContext.length+1);
+		context[context.length-1] = object;
+		extraContext = context;
+		return true;
 	}
 
 	/**
 	 * 
 	 * @param object
 	 */
-	public void removeContext(Object object) {
-		if (extraContext == null) return;
-		extraContext.remove(object);
+	public synchronized void removeContext(Object object) {
+		final List<Object> context = new ArrayList<>(Arrays.asList(extraContext));
+		if (context.remove(object)) extraContext = context.toArray();
 	}
 
 	private Object getService(Class<?> class1) {
@@ -369,7 +396,6 @@ public class AnnotationManager {
 
 	public void dispose() {
 		annotationMap.clear();
-		cachedClasses.clear();
-		if (extraContext!=null) extraContext.clear();
+		extraContext = new Object[0];
 	}
 }
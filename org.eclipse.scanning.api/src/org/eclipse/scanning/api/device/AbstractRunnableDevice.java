@@ -35,6 +35,7 @@ import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
@@ -86,6 +87,12 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 	protected IRunnableDeviceService     runnableDeviceService;
 	protected IScannableDeviceService    connectorService;
 	private   IPublisher<ScanBean>       publisher;
+	private   IPublisher<ScanProgressBean> progressPublisher;
+
+	// The least time in ms between publishing the bean or progress for
+	// a point, 0 to publish every point.
+	private   long                       progressInterval;
+	private   long                       progressDeltaInterval;
 
 	// Listeners
 	private   Collection<IRunListener>   rlisteners;
@@ -122,6 +129,8 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 		this.scanId     = UUID.randomUUID().toString();
 		this.scanAttributes = new HashMap<>();
 		setRequireMetrics(Boolean.getBoolean(getClass().getName()+".Metrics"));
+		setMaxProgressRate(Double.parseDouble(System.getProperty("org.eclipse.scanning.device.maxProgressRate", "0")));
+		setMaxProgressDeltaRate(Double.parseDouble(System.getProperty("org.eclipse.scanning.device.maxProgressDeltaRate", "20")));
 	}
 
 	/**
@@ -225,6 +234,10 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 
 			fireStateChanged(bean.getPreviousDeviceState(), nstate);
 
+			// The next point after a change of state is always published.
+			lastProgressTime      = -1;
+			lastProgressDeltaTime = -1;
+
 			if (publisher!=null) {
 				publisher.broadcast(bean);
 			}
@@ -246,18 +259,25 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 
 	private long lastPositionTime = -1;
 	private long total=0;
+	private long lastProgressTime      = -1;
+	private long lastProgressDeltaTime = -1;
 	/**
+	 * Called when a point has been completed. The listeners are told about every
+	 * point but the bean is published at most at the maximum progress rate so that
+	 * fast scans do not send more events than the broker and clients can read. The
+	 * first point, the last point and the first point after a change of state are
+	 * always published.
 	 *
 	 * @param pos
-	 * @param count 0-based position count (1 is added to calculate % complete)
+	 * @param count 1-based count of the positions completed, the position is the last when it equals size
 	 * @param size
 	 * @throws EventException
 	 * @throws ScanningException
 	 */
 	protected void positionComplete(IPosition pos, int count, int size) throws EventException, ScanningException {
 
+		final long currentTime = System.currentTimeMillis();
 		if (requireMetrics) {
-			long currentTime = System.currentTimeMillis();
 			if (lastPositionTime>-1) {
 				long time = currentTime-lastPositionTime;
 				System.out.println("Point "+count+" timed at "+time+" ms");
@@ -272,12 +292,23 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 		bean.setPosition(pos);
 		bean.setPreviousDeviceState(bean.getDeviceState());
 		if (size>-1) bean.setPercentComplete(((double)(count)/size)*100);
-		if (bean.getDeviceState()==DeviceState.RUNNING) { // Only set this message if we are still running.
-			bean.setMessage("Point " + (pos.getStepIndex() + 1) +" of " + size);
-		}
-		if (publisher != null) {
+
+		final boolean last = size>-1 && count>=size;
+		if (publisher != null && isProgressDue(lastProgressTime, progressInterval, currentTime, last)) {
+			if (bean.getDeviceState()==DeviceState.RUNNING) { // Only set this message if we are still running.
+				bean.setMessage("Point " + (pos.getStepIndex() + 1) +" of " + size);
+			}
 			publisher.broadcast(bean);
+			lastProgressTime = currentTime;
 		}
+		if (progressPublisher != null && isProgressDue(lastProgressDeltaTime, progressDeltaInterval, currentTime, last)) {
+			progressPublisher.broadcast(new ScanProgressBean(bean.getUniqueId(), count, size, bean.getPercentComplete()));
+			lastProgressDeltaTime = currentTime;
+		}
+	}
+
+	private static boolean isProgressDue(long lastTime, long interval, long currentTime, boolean last) {
+		return last || lastTime<0 || interval<1 || currentTime-lastTime>=interval;
 	}
 
 	public String getScanId() {
@@ -293,6 +324,61 @@ public abstract class AbstractRunnableDevice<T> implements IRunnableEventDevice<
 	public void setPublisher(IPublisher<ScanBean> publisher) {
 		this.publisher = publisher;
 	}
+	public IPublisher<ScanProgressBean> getProgressPublisher() {
+		return progressPublisher;
+	}
+	/**
+	 * Set a publisher for the small progress events sent as points complete, may be null.
+	 * @param progressPublisher
+	 */
+	public void setProgressPublisher(IPublisher<ScanProgressBean> progressPublisher) {
+		this.progressPublisher = progressPublisher;
+	}
+
+	/**
+	 * @return the most times a second that the bean is published as points complete, 0 if it is published for every point.
+	 */
+	public double getMaxProgressRate() {
+		return toRate(progressInterval);
+	}
+
+	/**
+	 * Set the most times a second that the bean is published as points complete.
+	 * Changes of state and the last point are always published. The default is
+	 * set with the system property <code>org.eclipse.scanning.device.maxProgressRate</code>
+	 * and is 0, which publishes every point.
+	 *
+	 * @param rate updates per second or 0 to publish every point.
+	 */
+	public void setMaxProgressRate(double rate) {
+		this.progressInterval = toInterval(rate);
+	}
+
+	/**
+	 * @return the most times a second that progress events are published, 0 if one is published for every point.
+	 */
+	public double getMaxProgressDeltaRate() {
+		return toRate(progressDeltaInterval);
+	}
+
+	/**
+	 * Set the most times a second that progress events are sent to the progress
+	 * publisher, if there is one. The default is set with the system property
+	 * <code>org.eclipse.scanning.device.maxProgressDeltaRate</code> and is 20.
+	 *
+	 * @param rate updates per second or 0 to publish every point.
+	 */
+	public void setMaxProgressDeltaRate(double rate) {
+		this.progressDeltaInterval = toInterval(rate);
+	}
+
+	private static long toInterval(double rate) {
+		return rate>0 ? Math.round(1000d/rate) : 0;
+	}
+
+	private static double toRate(long interval) {
+		return interval>0 ? 1000d/interval : 0;
+	}
 
 	@Override
 	public void addRunListener(IRunListener l) {
@@ -15,6 +15,8 @@ import static java.util.function.Function.identity;
 import static java.util.stream.Collectors.toMap;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.IScannable;
@@ -29,7 +31,9 @@ import org.eclipse.scanning.api.event.scan.DeviceAction;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
 import org.eclipse.scanning.api.malcolm.attributes.IDeviceAttribute;
+import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositioner;
 
 /**
  * TODO FIXME Is the idea of having request/response calls correct for exposing
@@ -78,7 +82,9 @@ public class DeviceRequestHandler implements IRequestHandler<DeviceRequest> {
 	@Override
 	public DeviceRequest process(DeviceRequest request) {
 		try {
-			if (request.getDeviceType()==DeviceType.SCANNABLE) {
+			if (request.getDeviceType()==DeviceType.SCANNABLE && request.getDeviceNames()!=null) {
+				processScannableBatch(request, cservice, dservice, publisher);
+			} else if (request.getDeviceType()==DeviceType.SCANNABLE) {
 				processScannables(request, cservice);
 			} else {
 				processRunnables(request, dservice);
@@ -157,6 +163,59 @@ public class DeviceRequestHandler implements IRequestHandler<DeviceRequest> {
 	}
 
 
+	/**
+	 * Reads, moves or subscribes to the named scannables in one request. The
+	 * positions and information of the scannables are returned as they are
+	 * for one named scannable. Moves are made by a positioner, which moves
+	 * scannables of the same level together. A scannable which cannot be read
+	 * does not stop the others being read, its error is returned by name.
+	 */
+	private static void processScannableBatch(DeviceRequest request, IScannableDeviceService cservice, IRunnableDeviceService dservice, IPublisher<DeviceRequest> publisher) throws Exception {
+
+		DeviceAction action = request.getDeviceAction();
+		if (action==DeviceAction.UNSUBSCRIBE) {
+			PositionSubscription.unsubscribe((String)request.getDeviceValue());
+			return;
+		}
+		if (action==DeviceAction.RENEW) {
+			if (!PositionSubscription.renew((String)request.getDeviceValue())) throw new EventException("There is no subscription "+request.getDeviceValue()+", it may have expired");
+			return;
+		}
+
+		if (action==DeviceAction.SET && request.getDeviceValues()!=null && dservice==null) {
+			cservice.setPositions(request.getDeviceValues());
+		} else if (action==DeviceAction.SET && request.getDeviceValues()!=null) {
+			IPositioner positioner = dservice.createPositioner();
+			try {
+				boolean ok = positioner.setPosition(new MapPosition(request.getDeviceValues()));
+				if (!ok) throw new EventException("Cannot move "+request.getDeviceValues().keySet());
+			} finally {
+				positioner.close();
+			}
+		}
+
+		if (action==DeviceAction.SUBSCRIBE) PositionSubscription.subscribe(request, cservice, publisher);
+
+		final Map<String, Object> values = new LinkedHashMap<>(request.getDeviceNames().size());
+		final Map<String, String> errors = new LinkedHashMap<>(3);
+		for (String name : request.getDeviceNames()) {
+			try {
+				IScannable<Object> device = cservice.getScannable(name);
+				if (device==null) throw new EventException("There is no created device called '"+name+"'");
+				Object value = device.getPosition();
+
+				DeviceInformation<?> info = new DeviceInformation<Object>(device.getName());
+				merge(info, device);
+				values.put(name, value);
+				request.addDeviceInformation(info);
+			} catch (Exception ne) {
+				errors.put(name, ne.getMessage()!=null ? ne.getMessage() : ne.toString());
+			}
+		}
+		request.setDeviceValues(values);
+		request.setDeviceErrors(errors.isEmpty() ? null : errors);
+	}
+
 	private static void merge(DeviceInformation<?> info, IScannable<?> device) throws Exception {
 		info.setLevel(device.getLevel());
 		info.setUnit(device.getUnit());
@@ -14,6 +14,7 @@ package org.eclipse.scanning.api.device;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -24,6 +25,8 @@ import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionListenable;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
 
 /**
  * Clients do not need to consume this service, it is used to provide connection
@@ -119,6 +122,79 @@ public interface IScannableDeviceService {
 		return scannables;
 	}
 	
+	/**
+	 * Reads the positions of many scannables. A remote service does this
+	 * in one request rather than one for each scannable.
+	 * 
+	 * @param scannableNames
+	 * @return the positions by name, in the order of the names.
+	 * @throws ScanningException
+	 */
+	default Map<String, Object> getPositions(List<String> scannableNames) throws ScanningException {
+		final Map<String, Object> positions = new LinkedHashMap<>(scannableNames.size());
+		for (String scannableName : scannableNames) {
+			try {
+				positions.put(scannableName, getScannable(scannableName).getPosition());
+			} catch (ScanningException ne) {
+				throw ne;
+			} catch (Exception ne) {
+				throw new ScanningException("Cannot read the position of "+scannableName, ne);
+			}
+		}
+		return positions;
+	}
+
+	/**
+	 * Moves many scannables, returning when they have all moved. A remote
+	 * service does this in one request, moving them with a positioner.
+	 * 
+	 * @param positions by scannable name
+	 * @throws ScanningException
+	 */
+	default void setPositions(Map<String, Object> positions) throws ScanningException {
+		for (Map.Entry<String, Object> entry : positions.entrySet()) {
+			try {
+				getScannable(entry.getKey()).setPosition(entry.getValue());
+			} catch (ScanningException ne) {
+				throw ne;
+			} catch (Exception ne) {
+				throw new ScanningException("Cannot move "+entry.getKey()+" to "+entry.getValue(), ne);
+			}
+		}
+	}
+
+	/**
+	 * Listens to the positions of many scannables. A remote service makes one
+	 * subscription for them and the server sends the positions which have changed
+	 * no more often than the update interval, so a client showing many scannables
+	 * is not sent every step of every move.
+	 * 
+	 * @param scannableNames
+	 * @param updateInterval the least time in ms between updates, used only by remote services.
+	 * @param listener told of positionChanged with the positions which have changed.
+	 * @throws ScanningException
+	 */
+	default void addPositionListener(List<String> scannableNames, long updateInterval, IPositionListener listener) throws ScanningException {
+		for (String scannableName : scannableNames) {
+			IScannable<?> scannable = getScannable(scannableName);
+			if (scannable instanceof IPositionListenable) ((IPositionListenable)scannable).addPositionListener(listener);
+		}
+	}
+
+	/**
+	 * Stops a listener added for many scannables.
+	 * 
+	 * @param scannableNames
+	 * @param listener
+	 * @throws ScanningException
+	 */
+	default void removePositionListener(List<String> scannableNames, IPositionListener listener) throws ScanningException {
+		for (String scannableName : scannableNames) {
+			IScannable<?> scannable = getScannable(scannableName);
+			if (scannable instanceof IPositionListenable) ((IPositionListenable)scannable).removePositionListener(listener);
+		}
+	}
+
 	/**
 	 * Returns the set of global per-scan monitors that should be added to all scans.
 	 * This is used to support legacy (GDA8) spring configurations. Should not be called
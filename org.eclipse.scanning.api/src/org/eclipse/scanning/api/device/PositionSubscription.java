@@ -0,0 +1,202 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.device;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.IScannable;
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.scan.DeviceAction;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionListenable;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A subscription made by a client to the positions of some scannables.
+ * The positions which change are kept and sent together, no more often
+ * than the update interval, as a response with the unique id of the request
+ * which made the subscription. Only the last position of each scannable
+ * is sent, so a fast move is not sent to the client step by step.
+ * <p>
+ * A subscription is stopped if the client does not renew it within
+ * {@link DeviceRequest#getSubscriptionLease()}, so those of clients which
+ * have gone without unsubscribing do not last for ever.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class PositionSubscription implements IPositionListener {
+
+	private static final Logger logger = LoggerFactory.getLogger(PositionSubscription.class);
+
+	private static final Map<String, PositionSubscription> subscriptions = new ConcurrentHashMap<>();
+
+	private static ScheduledExecutorService executor;
+	private static ScheduledFuture<?>       sweep;
+
+	private static synchronized ScheduledExecutorService getExecutor() {
+		if (executor==null) {
+			executor = Executors.newSingleThreadScheduledExecutor(r -> {
+				Thread thread = new Thread(r, "Position subscriptions");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return executor;
+	}
+
+	/**
+	 * Starts looking for subscriptions which have not been renewed.
+	 */
+	private static synchronized void startSweep() {
+		final long lease = DeviceRequest.getSubscriptionLease();
+		if (sweep!=null || lease<1) return;
+		final long period = Math.max(1, lease/2);
+		sweep = getExecutor().scheduleWithFixedDelay(() -> expire(lease), period, period, TimeUnit.MILLISECONDS);
+	}
+
+	private static void expire(long lease) {
+		final long now = System.currentTimeMillis();
+		for (PositionSubscription subscription : subscriptions.values()) {
+			if (now-subscription.renewed<=lease) continue;
+			if (subscriptions.remove(subscription.id, subscription)) {
+				logger.info("Subscription {} has not been renewed for {}ms and has been stopped", subscription.id, now-subscription.renewed);
+				subscription.close();
+			}
+		}
+	}
+
+	private final String                    id;
+	private final long                      updateInterval;
+	private final IPublisher<DeviceRequest> publisher;
+	private final List<IPositionListenable> scannables;
+	private final Map<String, Object>       changed;
+	private boolean                         scheduled;
+	private volatile long                   renewed;
+
+	private PositionSubscription(String id, long updateInterval, IPublisher<DeviceRequest> publisher) {
+		this.id         = id;
+		this.updateInterval = Math.max(0, updateInterval);
+		this.publisher  = publisher;
+		this.scannables = new ArrayList<>();
+		this.changed    = new LinkedHashMap<>();
+		this.renewed    = System.currentTimeMillis();
+	}
+
+	/**
+	 * Starts a subscription, replacing any with the same id.
+	 *
+	 * @param request with the unique id, names and update interval of the subscription
+	 * @param cservice
+	 * @param publisher of the responses
+	 * @throws ScanningException
+	 */
+	static void subscribe(DeviceRequest request, IScannableDeviceService cservice, IPublisher<DeviceRequest> publisher) throws ScanningException {
+
+		final PositionSubscription subscription = new PositionSubscription(request.getUniqueId(), request.getUpdateInterval(), publisher);
+		for (String name : request.getDeviceNames()) {
+			IScannable<?> scannable = cservice.getScannable(name);
+			if (scannable instanceof IPositionListenable) subscription.scannables.add((IPositionListenable)scannable);
+		}
+		for (IPositionListenable scannable : subscription.scannables) scannable.addPositionListener(subscription);
+
+		PositionSubscription old = subscriptions.put(subscription.id, subscription);
+		if (old!=null) old.close();
+		startSweep();
+	}
+
+	/**
+	 * @param id of the request which made the subscription.
+	 * @return false if there is no such subscription, it may have expired.
+	 */
+	static boolean renew(String id) {
+		PositionSubscription subscription = id!=null ? subscriptions.get(id) : null;
+		if (subscription==null) return false;
+		subscription.renewed = System.currentTimeMillis();
+		return true;
+	}
+
+	/**
+	 * @param id of the request which made the subscription.
+	 * @return false if there was no such subscription.
+	 */
+	static boolean unsubscribe(String id) {
+		PositionSubscription subscription = id!=null ? subscriptions.remove(id) : null;
+		if (subscription==null) return false;
+		subscription.close();
+		return true;
+	}
+
+	@Override
+	public void positionChanged(PositionEvent evt) throws ScanningException {
+		changed(evt);
+	}
+
+	@Override
+	public void positionPerformed(PositionEvent evt) throws ScanningException {
+		changed(evt);
+	}
+
+	private void changed(PositionEvent evt) {
+		final IPosition position = evt.getPosition();
+		if (position==null) return;
+		synchronized (this) {
+			for (String name : position.getNames()) changed.put(name, position.get(name));
+			if (scheduled) return;
+			scheduled = true;
+		}
+		getExecutor().schedule(this::send, updateInterval, TimeUnit.MILLISECONDS);
+	}
+
+	private void send() {
+		final Map<String, Object> values;
+		synchronized (this) {
+			values = new LinkedHashMap<>(changed);
+			changed.clear();
+			scheduled = false;
+		}
+		if (values.isEmpty()) return;
+
+		final DeviceRequest update = new DeviceRequest(DeviceType.SCANNABLE);
+		update.setUniqueId(id);
+		update.setDeviceAction(DeviceAction.SUBSCRIBE);
+		update.setDeviceNames(new ArrayList<>(values.keySet()));
+		update.setDeviceValues(values);
+		try {
+			publisher.broadcast(update);
+		} catch (EventException ne) {
+			// The responder has gone, so nobody can be told.
+			logger.warn("Cannot send the positions of subscription "+id+", it has been stopped", ne);
+			unsubscribe(id);
+		}
+	}
+
+	private void close() {
+		for (IPositionListenable scannable : scannables) scannable.removePositionListener(this);
+		scannables.clear();
+	}
+}
@@ -24,6 +24,11 @@ public interface EventConstants {
      * It is usually better to use your own topic rather than the default.
      */
 	public static final String SCAN_TOPIC      = "org.eclipse.scanning.scan.topic";
+
+    /**
+     * A topic which may be used for the small progress events, ScanProgressBean, sent while a scan runs.
+     */
+	public static final String SCAN_PROGRESS_TOPIC = "org.eclipse.scanning.scan.progress.topic";
     /**
      * The default topic used for status update events
      * It is usually better to use your own topic rather than the default.
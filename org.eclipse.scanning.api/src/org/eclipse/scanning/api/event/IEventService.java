@@ -15,9 +15,11 @@ import java.net.URI;
 import java.util.EventListener;
 
 import org.eclipse.scanning.api.INameable;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.IQueueView;
 import org.eclipse.scanning.api.event.core.IRequester;
 import org.eclipse.scanning.api.event.core.IResponder;
 import org.eclipse.scanning.api.event.core.ISubmitter;
@@ -87,6 +89,30 @@ public interface IEventService extends EventConstants {
      */
 	public <T> IQueueReader<T> createQueueReader(URI uri, String queueName);
 	
+	/**
+	 * Create a view of the submission queue and status set of a consumer
+	 * which is kept in memory and up to date with the status topic. Call
+	 * connect() on the view to read the queues and start listening.
+	 * 
+	 * @param uri
+	 * @param submissionQueueName
+	 * @param statusSetName
+	 * @param statusTopicName
+	 * @return
+	 */
+	public <U extends StatusBean> IQueueView<U> createQueueView(URI uri, String submissionQueueName, String statusSetName, String statusTopicName);
+	
+	/**
+	 * Create a tracker of the heartbeats published to a topic, which tells
+	 * whether consumers are alive without listening each time it is asked.
+	 * Call connect() on the tracker to start listening.
+	 * 
+	 * @param uri
+	 * @param heartbeatTopicName
+	 * @return
+	 */
+	public ILivenessTracker createLivenessTracker(URI uri, String heartbeatTopicName);
+	
 	/**
 	 * Creates an ISubscriber with the default scan event topic and default heartbeat topic.
 	 * Useful on the client for adding event listeners to be notified.
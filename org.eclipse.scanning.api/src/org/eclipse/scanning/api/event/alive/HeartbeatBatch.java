@@ -0,0 +1,74 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.alive;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The heartbeats of the consumers in one process which publish to the same
+ * topic, sent as one message. Subscribers give each beat to their listeners
+ * as if it had been sent on its own.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class HeartbeatBatch {
+
+	private List<HeartbeatBean> beats;
+
+	public HeartbeatBatch() {
+		this(new ArrayList<HeartbeatBean>(7));
+	}
+
+	public HeartbeatBatch(List<HeartbeatBean> beats) {
+		this.beats = beats;
+	}
+
+	public List<HeartbeatBean> getBeats() {
+		return beats;
+	}
+
+	public void setBeats(List<HeartbeatBean> beats) {
+		this.beats = beats;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((beats == null) ? 0 : beats.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		HeartbeatBatch other = (HeartbeatBatch) obj;
+		if (beats == null) {
+			if (other.beats != null)
+				return false;
+		} else if (!beats.equals(other.beats))
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "HeartbeatBatch [beats=" + beats + "]";
+	}
+}
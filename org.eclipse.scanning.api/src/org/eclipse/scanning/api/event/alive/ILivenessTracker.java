@@ -0,0 +1,76 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.alive;
+
+import java.util.Collection;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.IURIConnection;
+
+/**
+ * Keeps the last heartbeat of each consumer publishing to a heartbeat topic
+ * so that clients may ask whether a consumer is alive without listening to
+ * the topic each time. A consumer is alive if its last beat was received
+ * within the stale time and it did not say it had stopped.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public interface ILivenessTracker extends IURIConnection {
+
+	/**
+	 * Start listening to the heartbeat topic.
+	 * 
+	 * @throws EventException
+	 */
+	void connect() throws EventException;
+
+	/**
+	 * @param consumerName
+	 * @return true if a beat from the consumer has been received within the stale time.
+	 */
+	boolean isAlive(String consumerName);
+
+	/**
+	 * Waits for the consumer to be alive.
+	 * 
+	 * @param consumerName
+	 * @param timeout in ms
+	 * @return true if it is alive, false if it was not within the timeout.
+	 * @throws InterruptedException
+	 */
+	boolean awaitAlive(String consumerName, long timeout) throws InterruptedException;
+
+	/**
+	 * @param consumerName
+	 * @return the last beat received from the consumer, alive or not, or null.
+	 */
+	HeartbeatBean getLastBeat(String consumerName);
+
+	/**
+	 * @return the last beats of the consumers which are alive.
+	 */
+	Collection<HeartbeatBean> getAlive();
+
+	/**
+	 * The time in ms after its last beat that a consumer is no longer alive.
+	 * The default is two and a half times the heartbeat frequency, the time
+	 * for which a beat is kept by the broker.
+	 * 
+	 * @param staleTime
+	 */
+	void setStaleTime(long staleTime);
+
+	long getStaleTime();
+
+	String getHeartbeatTopicName();
+}
@@ -0,0 +1,70 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+/**
+ * 
+ * The state of the despatch of events by a subscriber at the time it was read.
+ * The latency of an event is the time from when its message was received to
+ * when the last listener for it returned.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public final class DespatchStatistics {
+
+	private final int    queueDepth;
+	private final long   despatched;
+	private final double meanLatency;
+	private final double maxLatency;
+	
+	public DespatchStatistics(int queueDepth, long despatched, double meanLatency, double maxLatency) {
+		this.queueDepth  = queueDepth;
+		this.despatched  = despatched;
+		this.meanLatency = meanLatency;
+		this.maxLatency  = maxLatency;
+	}
+
+	/**
+	 * @return the number of events received and waiting to be despatched.
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	/**
+	 * @return the number of events despatched to listeners.
+	 */
+	public long getDespatched() {
+		return despatched;
+	}
+
+	/**
+	 * @return the mean latency in ms
+	 */
+	public double getMeanLatency() {
+		return meanLatency;
+	}
+
+	/**
+	 * @return the largest latency in ms
+	 */
+	public double getMaxLatency() {
+		return maxLatency;
+	}
+
+	@Override
+	public String toString() {
+		return "DespatchStatistics [queueDepth=" + queueDepth + ", despatched=" + despatched + ", meanLatency="
+				+ meanLatency + ", maxLatency=" + maxLatency + "]";
+	}
+}
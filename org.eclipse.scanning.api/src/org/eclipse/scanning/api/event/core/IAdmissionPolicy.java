@@ -0,0 +1,37 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+import java.util.Collection;
+
+/**
+ * Tells a consumer which runs more than one bean at a time what each bean
+ * uses while it runs, for instance the detectors and scannables of a scan.
+ * A bean is started when none of its resources are used by the beans running
+ * or by those waiting which were submitted before it, so beans which share
+ * resources run in the order they were submitted.
+ * 
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+@FunctionalInterface
+public interface IAdmissionPolicy<T> {
+
+	/**
+	 * The names of the resources used by the bean while it runs.
+	 * 
+	 * @param bean
+	 * @return the names, empty if it uses none or null if it must run on its own.
+	 */
+	Collection<String> getResources(T bean);
+}
@@ -182,4 +182,42 @@ public interface IConsumer<T> extends IQueueConnection<T> {
 	 */
 	void setPauseOnStart(boolean pauseOnStart);
 
+	/**
+	 * The number of beans taken from the submission queue and the time
+	 * from their submission to when they were taken.
+	 * 
+	 * @return
+	 */
+	IntakeStatistics getIntakeStatistics();
+
+	/**
+	 * The most beans which may run at once, default 1. Beans are started
+	 * only when the admission policy allows, so set one when setting more
+	 * than one.
+	 * 
+	 * NOTE: setConcurrency(...) must be called before the consumer is started!
+	 * 
+	 * @param concurrency
+	 * @throws IllegalStateException if the consumer has started
+	 */
+	void setConcurrency(int concurrency);
+
+	/**
+	 * @return the most beans which may run at once.
+	 */
+	int getConcurrency();
+
+	/**
+	 * The policy telling which beans may run together when the concurrency
+	 * is more than 1. If none is set, each bean runs on its own.
+	 * 
+	 * @param policy
+	 */
+	void setAdmissionPolicy(IAdmissionPolicy<T> policy);
+
+	/**
+	 * @return the policy telling which beans may run together, may be null.
+	 */
+	IAdmissionPolicy<T> getAdmissionPolicy();
+
 }
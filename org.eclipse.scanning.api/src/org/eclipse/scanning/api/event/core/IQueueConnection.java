@@ -68,25 +68,41 @@ public interface IQueueConnection<T> extends IQueueReader<T> {
 	 * still there. If the bean has been moved to the status set, 
 	 * it will not be moved 
 	 * 
-	 * A pause will automatically be done while the bean
-	 * is removed.
+	 * If the queue is ordered by its consumer the bean is moved
+	 * in the order, otherwise a pause will automatically be done 
+	 * while the queue is written again.
 	 * 
 	 * @param bean
 	 * @param queueName
-	 * @param amount
+	 * @param amount positive to move the bean towards the head of the queue.
 	 * @return
 	 * @throws EventException
 	 */
 	boolean reorder(T bean, String queueName, int amount) throws EventException;
 
+	/**
+	 * Tries to move the bean to a position in the submission queue if
+	 * it is still there, 0 being the head of the queue which runs next.
+	 * 
+	 * If the queue is ordered by its consumer the bean is moved
+	 * in the order, otherwise a pause will automatically be done 
+	 * while the queue is written again.
+	 * 
+	 * @param bean
+	 * @param queueName
+	 * @param index
+	 * @return
+	 * @throws EventException
+	 */
+	boolean moveTo(T bean, String queueName, int index) throws EventException;
+
 	/**
 	 * Tries to remove the bean from the submission queue if it is
 	 * still there. If the bean has been moved to the status set, 
 	 * it will not be removed 
 	 * 
-	 * NOTE This method can end up reordering the items.
-	 * A pause will automatically be done while the bean
-	 * is removed.
+	 * If the queue is not ordered by its consumer, a pause will
+	 * automatically be done while the bean is removed.
 	 * 
 	 * @param bean
 	 * @param queueName
@@ -101,8 +117,9 @@ public interface IQueueConnection<T> extends IQueueReader<T> {
 	 * still there. If the bean has been moved to the status set, 
 	 * it will not be replaced. 
 	 * 
-	 * A pause will automatically be done while the bean
-	 * is replaced.
+	 * The bean keeps its place in the queue. If the queue is not ordered
+	 * by its consumer, a pause will automatically be done while the queue
+	 * is written again.
 	 * 
 	 * @param bean
 	 * @param queueName
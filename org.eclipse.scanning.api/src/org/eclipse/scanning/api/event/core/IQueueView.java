@@ -0,0 +1,86 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+import java.util.List;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.status.StatusBean;
+
+/**
+ * A view of the submission queue and status set of a consumer which is
+ * held in memory and kept up to date by the events on the status topic.
+ * The queues are read from the broker once, when the view is connected,
+ * and not again unless {@link #refresh()} is called, so clients showing
+ * large queues do not read the whole queue each time they show it.
+ * <p>
+ * Beans are added to or moved between the queues using their status.
+ * Those which are SUBMITTED are in the submission queue and others are in
+ * the status set. Beans removed from or moved in a queue are not sent on
+ * the status topic, the queue connection which made the change instead tells
+ * the views of this process and sends the name of the queue on the topic
+ * <code>&lt;queue name&gt;.changed</code>, on which views in other processes
+ * read the queues again.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+public interface IQueueView<T extends StatusBean> extends IURIConnection, IBeanClass<T> {
+
+	/**
+	 * Read the queues and start listening to the status topic.
+	 * The bean class should be set before connecting if it is known.
+	 *
+	 * @throws EventException
+	 */
+	void connect() throws EventException;
+
+	/**
+	 * Read the queues from the broker again, for instance if they might
+	 * have been changed by a client which does not send queue changes.
+	 *
+	 * @throws EventException
+	 */
+	void refresh() throws EventException;
+
+	/**
+	 * @param uniqueId
+	 * @return the bean in either queue with this unique id, or null.
+	 */
+	T get(String uniqueId);
+
+	/**
+	 * @return a copy of the submission queue with the head, the next bean to run, at 0.
+	 */
+	List<T> getSubmissionQueue();
+
+	/**
+	 * @return a copy of the status set in the order the beans were first seen, oldest at 0.
+	 */
+	List<T> getStatusSet();
+
+	/**
+	 * @return the number of beans in both queues.
+	 */
+	int size();
+
+	void addQueueViewListener(IQueueViewListener<T> listener);
+
+	void removeQueueViewListener(IQueueViewListener<T> listener);
+
+	String getSubmitQueueName();
+
+	String getStatusSetName();
+
+	String getStatusTopicName();
+}
@@ -0,0 +1,33 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+import java.util.EventListener;
+
+/**
+ * Notified when beans in an {@link IQueueView} change.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+@FunctionalInterface
+public interface IQueueViewListener<T> extends EventListener {
+
+	/**
+	 * Called in the thread which changed the view, which may be the
+	 * thread of a subscriber. Implementations should return quickly.
+	 *
+	 * @param evt
+	 */
+	void queueChanged(QueueViewEvent<T> evt);
+}
@@ -98,14 +98,26 @@ public interface ISubmitter<T> extends IQueueConnection<T> {
 	 */
 	boolean reorder(T bean, int amount) throws EventException;
 
+	/**
+	 * Tries to move the bean to a position in the submission queue if
+	 * it is still there, 0 being the head of the queue which runs next.
+	 * 
+	 * @param bean
+	 * @param index
+	 * @return
+	 * @throws EventException
+	 */
+	default boolean moveTo(T bean, int index) throws EventException {
+		return moveTo(bean, getSubmitQueueName(), index);
+	}
+
 	/**
 	 * Tries to remove the bean from the submission queue if it is
 	 * still there. If the bean has been moved to the status set, 
 	 * it will not be removed 
 	 * 
-	 * NOTE This method can end up reordering the items.
-	 * A pause will automatically be done while the bean
-	 * is removed.
+	 * If the queue is not ordered by its consumer, a pause will
+	 * automatically be done while the bean is removed.
 	 * 
 	 * @param bean
 	 * @return
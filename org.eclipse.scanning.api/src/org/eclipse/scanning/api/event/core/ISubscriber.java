@@ -126,4 +126,32 @@ public interface ISubscriber<T> extends ITopicConnection, IPropertyFilter {
 	 * @return true by default.
 	 */
 	public boolean isSynchronous();
+	
+	/**
+	 * Call to despatch events on a fixed number of threads. The events for a
+	 * given bean, those with the same unique id or name, are always despatched
+	 * by the same thread and so are in order, but those for different beans
+	 * are despatched at the same time. A slow listener then only holds up the
+	 * events for the beans which share its thread. The number of events waiting
+	 * on each thread is bounded, when it is reached the messaging thread waits
+	 * before receiving more.
+	 * 
+	 * Must be called before listeners are added. The default is 0 which
+	 * despatches events as set by {@link #setSynchronous(boolean)}.
+	 * 
+	 * @param threads
+	 */
+	public void setDespatchThreads(int threads);
+	
+	/**
+	 * 
+	 * @return 0 by default.
+	 */
+	public int getDespatchThreads();
+	
+	/**
+	 * 
+	 * @return the queue depth and latency of the events despatched by this subscriber.
+	 */
+	public DespatchStatistics getDespatchStatistics();
 }
@@ -0,0 +1,70 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+/**
+ * 
+ * The beans started by a consumer at the time it was read. The latency of a
+ * bean is the time from when its message was sent to the submission queue to
+ * when the consumer took it from the queue to run it.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public final class IntakeStatistics {
+
+	private final long   started;
+	private final double meanLatency;
+	private final double maxLatency;
+	private final double lastLatency;
+	
+	public IntakeStatistics(long started, double meanLatency, double maxLatency, double lastLatency) {
+		this.started     = started;
+		this.meanLatency = meanLatency;
+		this.maxLatency  = maxLatency;
+		this.lastLatency = lastLatency;
+	}
+
+	/**
+	 * @return the number of beans taken from the submission queue.
+	 */
+	public long getStarted() {
+		return started;
+	}
+
+	/**
+	 * @return the mean latency in ms
+	 */
+	public double getMeanLatency() {
+		return meanLatency;
+	}
+
+	/**
+	 * @return the largest latency in ms
+	 */
+	public double getMaxLatency() {
+		return maxLatency;
+	}
+
+	/**
+	 * @return the latency of the last bean taken in ms
+	 */
+	public double getLastLatency() {
+		return lastLatency;
+	}
+
+	@Override
+	public String toString() {
+		return "IntakeStatistics [started=" + started + ", meanLatency=" + meanLatency + ", maxLatency="
+				+ maxLatency + ", lastLatency=" + lastLatency + "]";
+	}
+}
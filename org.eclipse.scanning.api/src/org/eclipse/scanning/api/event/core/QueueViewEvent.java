@@ -0,0 +1,74 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.core;
+
+import java.util.EventObject;
+
+/**
+ * A change to a bean in an {@link IQueueView}. When the view is refreshed
+ * a single event with a null bean is sent.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <T>
+ */
+public class QueueViewEvent<T> extends EventObject {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = 3385625466129286743L;
+
+	public enum Type {
+		ADDED, UPDATED, REMOVED, REFRESHED;
+	}
+
+	private final Type    type;
+	private final String  queueName;
+	private final T       bean;
+
+	/**
+	 * @param source the view
+	 * @param type
+	 * @param queueName
+	 * @param bean
+	 */
+	public QueueViewEvent(IQueueView<?> source, Type type, String queueName, T bean) {
+		super(source);
+		this.type      = type;
+		this.queueName = queueName;
+		this.bean      = bean;
+	}
+
+	/**
+	 * @return the bean which changed or null if the whole view was refreshed.
+	 */
+	public T getBean() {
+		return bean;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the queue or set which the bean is in now, or which it was removed from.
+	 */
+	public String getQueueName() {
+		return queueName;
+	}
+
+	@Override
+	public String toString() {
+		return "QueueViewEvent [type=" + type + ", queueName=" + queueName + ", bean=" + bean + "]";
+	}
+}
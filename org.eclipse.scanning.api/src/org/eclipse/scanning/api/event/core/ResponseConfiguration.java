@@ -64,7 +64,6 @@ public class ResponseConfiguration {
 	private long         timeout;
 	private TimeUnit     timeUnit;
 	private CountDownLatch latch;
-	private boolean somethingFound;
 
 	public ResponseConfiguration() {
 		this(ResponseType.ONE, DEFAULT.getTimeout(), DEFAULT.getTimeUnit());
@@ -78,31 +77,41 @@ public class ResponseConfiguration {
 	}
 
 	public void latch(ResponseWaiter waiter) throws EventException, InterruptedException {
+		this.latch = new CountDownLatch(1);
+		latch(latch, waiter);
+	}
 
-		if (waiter==null) waiter = new ResponseWaiter.Dont();
-
-		if (getResponseType()==ResponseType.ONE) {
-			this.latch    = new CountDownLatch(1);
-			boolean ok = latch.await(timeout, timeUnit);
-			while (!ok && waiter.waitAgain()) {
-				ok = latch.await(timeout, timeUnit);
-			}
-			ok = latch.await(timeout, timeUnit); // This is because waitAgain() could be false leaving ok as false, we recheck it!
-			if (!ok) throw new EventException("The timeout of "+timeout+" "+timeUnit+" was reached and no response occurred!");
+	/**
+	 * Waits for a response, which is given by counting down the latch,
+	 * in the way that the response type requires.
+	 *
+	 * @param latch counted down when a response occurs
+	 * @param waiter may be null
+	 * @throws EventException if the timeout is reached and no response occurred
+	 * @throws InterruptedException
+	 */
+	public void latch(CountDownLatch latch, ResponseWaiter waiter) throws EventException, InterruptedException {
 
-		} else if (getResponseType()==ResponseType.ONE_OR_MORE) {
-			somethingFound = false;
+		if (waiter==null) waiter = new ResponseWaiter.Dont();
 
-			Thread.sleep(timeUnit.toMillis(timeout));
+		boolean ok;
+		if (getResponseType()==ResponseType.ONE_OR_MORE) {
+			Thread.sleep(timeUnit.toMillis(timeout)); // Others might respond too
 			while (waiter.waitAgain()) {
 				Thread.sleep(timeUnit.toMillis(timeout));
 			}
-			if (!somethingFound) throw new EventException("The timeout of "+timeout+" "+timeUnit+" was reached and no response occurred!");
+			ok = latch.getCount()<1;
+		} else {
+			ok = latch.await(timeout, timeUnit);
+			while (!ok && waiter.waitAgain()) {
+				ok = latch.await(timeout, timeUnit);
+			}
+			if (!ok) ok = latch.await(timeout, timeUnit); // This is because waitAgain() could be false leaving ok as false, we recheck it!
 		}
+		if (!ok) throw new EventException("The timeout of "+timeout+" "+timeUnit+" was reached and no response occurred!");
 	}
 
 	public void countDown() {
-		somethingFound = true;
 		if (latch!=null) latch.countDown();
 	}
 
@@ -52,7 +52,26 @@ public enum DeviceAction {
 	/**
 	 * Validate, with an expectation that the result will be returned
 	 */
-	VALIDATEWITHRETURN;
+	VALIDATEWITHRETURN,
+
+	/**
+	 * Send the positions of the named scannables when they change, no more
+	 * often than the update interval. The updates are responses with the unique
+	 * id of the request.
+	 */
+	SUBSCRIBE,
+
+	/**
+	 * Stop the updates of the subscription whose unique id is the device value.
+	 */
+	UNSUBSCRIBE,
+
+	/**
+	 * Renew the lease of the subscription whose unique id is the device value.
+	 * A subscription which is not renewed within {@link DeviceRequest#getSubscriptionLease()}
+	 * is stopped, so those of clients which have gone do not last for ever.
+	 */
+	RENEW;
 	
 	public static DeviceAction as(TerminationPreference pref) {
 		switch(pref) {
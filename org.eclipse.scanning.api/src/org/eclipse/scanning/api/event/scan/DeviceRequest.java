@@ -15,6 +15,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import org.eclipse.scanning.api.ModelValidationException;
@@ -42,6 +43,7 @@ import org.eclipse.scanning.api.points.IPosition;
  * 3. Set name and model, named device is retrieved and configured.
  * 4. Set the device model and the configure boolean, get a new device created.  IRunnableDeviceService.createRunnableDevice()
  * 5. Set the device action and the device name to call specific methods.
+ * 6. Set the device names to read, move (SET with device values) or subscribe to many scannables at once.
  *
  * </pre>
  *
@@ -72,6 +74,28 @@ public class DeviceRequest extends IdBean {
 	 */
 	private String deviceName;
 
+	/**
+	 * The names of the scannables to read, move or subscribe to in one request.
+	 */
+	private List<String> deviceNames;
+
+	/**
+	 * The positions of the scannables named, by name. Set by the client
+	 * to move them and by the server with their positions.
+	 */
+	private Map<String, Object> deviceValues;
+
+	/**
+	 * The errors of the scannables named which could not be read, by name.
+	 * Set by the server, the others are still read.
+	 */
+	private Map<String, String> deviceErrors;
+
+	/**
+	 * The least time in ms between the updates of a subscription.
+	 */
+	private long updateInterval;
+
 	/**
 	 * The device's model. Normally used to configure a device.
 	 * The Object must json through the marshaller.
@@ -136,6 +160,10 @@ public class DeviceRequest extends IdBean {
 		DeviceRequest dr = (DeviceRequest)with;
 		devices          = dr.devices;
 		deviceName       = dr.deviceName;
+		deviceNames      = dr.deviceNames;
+		deviceValues     = dr.deviceValues;
+		deviceErrors     = dr.deviceErrors;
+		updateInterval   = dr.updateInterval;
 		deviceModel      = dr.deviceModel;
 		deviceType       = dr.deviceType;
 		deviceAction     = dr.deviceAction;
@@ -240,6 +268,10 @@ public class DeviceRequest extends IdBean {
 		result = prime * result + ((deviceAction == null) ? 0 : deviceAction.hashCode());
 		result = prime * result + ((deviceModel == null) ? 0 : deviceModel.hashCode());
 		result = prime * result + ((deviceName == null) ? 0 : deviceName.hashCode());
+		result = prime * result + ((deviceNames == null) ? 0 : deviceNames.hashCode());
+		result = prime * result + ((deviceValues == null) ? 0 : deviceValues.hashCode());
+		result = prime * result + ((deviceErrors == null) ? 0 : deviceErrors.hashCode());
+		result = prime * result + (int) (updateInterval ^ (updateInterval >>> 32));
 		result = prime * result + ((deviceType == null) ? 0 : deviceType.hashCode());
 		result = prime * result + ((deviceValue == null) ? 0 : deviceValue.hashCode());
 		result = prime * result + ((devices == null) ? 0 : devices.hashCode());
@@ -281,6 +313,23 @@ public class DeviceRequest extends IdBean {
 				return false;
 		} else if (!deviceName.equals(other.deviceName))
 			return false;
+		if (deviceNames == null) {
+			if (other.deviceNames != null)
+				return false;
+		} else if (!deviceNames.equals(other.deviceNames))
+			return false;
+		if (deviceValues == null) {
+			if (other.deviceValues != null)
+				return false;
+		} else if (!deviceValues.equals(other.deviceValues))
+			return false;
+		if (deviceErrors == null) {
+			if (other.deviceErrors != null)
+				return false;
+		} else if (!deviceErrors.equals(other.deviceErrors))
+			return false;
+		if (updateInterval != other.updateInterval)
+			return false;
 		if (deviceType != other.deviceType)
 			return false;
 		if (deviceValue == null) {
@@ -352,6 +401,60 @@ public class DeviceRequest extends IdBean {
 		return devices==null ? 0 : devices.size();
 	}
 
+	public List<String> getDeviceNames() {
+		return deviceNames;
+	}
+
+	public void setDeviceNames(List<String> deviceNames) {
+		this.deviceNames = deviceNames;
+	}
+
+	public Map<String, Object> getDeviceValues() {
+		return deviceValues;
+	}
+
+	public void setDeviceValues(Map<String, Object> deviceValues) {
+		this.deviceValues = deviceValues;
+	}
+
+	public Map<String, String> getDeviceErrors() {
+		return deviceErrors;
+	}
+
+	public void setDeviceErrors(Map<String, String> deviceErrors) {
+		this.deviceErrors = deviceErrors;
+	}
+
+	/**
+	 * Time in ms for which a subscription to positions lasts unless it is renewed, default one minute.
+	 * Set org.eclipse.scanning.event.subscriptionLease to change, clients renew in a third of it.
+	 *
+	 * @return the lease or zero if subscriptions do not expire.
+	 */
+	public static long getSubscriptionLease() {
+		return Math.max(0, Long.getLong("org.eclipse.scanning.event.subscriptionLease", 60000));
+	}
+
+	public long getUpdateInterval() {
+		return updateInterval;
+	}
+
+	public void setUpdateInterval(long updateInterval) {
+		this.updateInterval = updateInterval;
+	}
+
+	/**
+	 * @param name
+	 * @return the information of the device with this name or null if it was not returned.
+	 */
+	public DeviceInformation<?> getDeviceInformation(String name) {
+		if (devices==null || name==null) return null;
+		for (DeviceInformation<?> info : devices) {
+			if (name.equals(info.getName())) return info;
+		}
+		return null;
+	}
+
 	public DeviceType getDeviceType() {
 		return deviceType;
 	}
@@ -438,7 +541,7 @@ public class DeviceRequest extends IdBean {
 
 	@Override
 	public String toString() {
-		return "DeviceRequest [deviceType=" + deviceType + ", deviceName=" + deviceName + ", deviceValue=" + deviceValue
+		return "DeviceRequest [deviceType=" + deviceType + ", deviceName=" + deviceName + ", deviceNames=" + deviceNames + ", deviceValue=" + deviceValue
 				+ ", deviceAction=" + deviceAction + ", attributeName=" + attributeName + ", getAllAttributes="
 				+ getAllAttributes + ", errorMessage=" + errorMessage + "]";
 	}
@@ -0,0 +1,53 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.eclipse.scanning.api.event.core.IAdmissionPolicy;
+import org.eclipse.scanning.api.points.models.AbstractPointsModel;
+
+/**
+ * The resources of a scan are its detectors, the scannables moved by
+ * its models, to its start position and to its end position and its
+ * monitors. A bean without a scan request or with a script to run before
+ * or after, which might do anything, runs on its own.
+ * 
+ * @author Matthew Gerring
+ *
+ */
+public class ScanAdmissionPolicy implements IAdmissionPolicy<ScanBean> {
+
+	@Override
+	public Collection<String> getResources(ScanBean bean) {
+
+		final ScanRequest<?> req = bean.getScanRequest();
+		if (req==null) return null;
+		if (req.getBefore()!=null || req.getAfter()!=null) return null; // Scripts may move anything
+
+		final Collection<String> resources = new LinkedHashSet<>(7);
+		if (req.getDetectors()!=null)    resources.addAll(req.getDetectors().keySet());
+		if (req.getMonitorNames()!=null) resources.addAll(req.getMonitorNames());
+		if (req.getStart()!=null)        resources.addAll(req.getStart().getNames());
+		if (req.getEnd()!=null)          resources.addAll(req.getEnd().getNames());
+		if (req.getCompoundModel()!=null && req.getCompoundModel().getModels()!=null) {
+			for (Object model : req.getCompoundModel().getModels()) {
+				List<String> names = AbstractPointsModel.getScannableNames(model);
+				if (names==null) return null; // We do not know what it moves
+				resources.addAll(names);
+			}
+		}
+		return resources;
+	}
+}
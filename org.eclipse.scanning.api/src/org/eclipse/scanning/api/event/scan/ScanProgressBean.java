@@ -0,0 +1,123 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.event.scan;
+
+import org.eclipse.scanning.api.event.IdBean;
+
+/**
+ * A small event saying how far a scan has got, sent more often than the
+ * {@link ScanBean} which carries the scan request and position and so is
+ * expensive to send and read. The unique id is that of the scan bean for
+ * the scan.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class ScanProgressBean extends IdBean {
+
+	/**
+	 *
+	 */
+	private static final long serialVersionUID = -2316425311394752376L;
+
+	private int    point;
+	private int    size;
+	private double percentComplete;
+	private long   time;
+
+	public ScanProgressBean() {
+		super();
+	}
+
+	public ScanProgressBean(String uniqueId, int point, int size, double percentComplete) {
+		super();
+		setUniqueId(uniqueId);
+		this.point           = point;
+		this.size            = size;
+		this.percentComplete = percentComplete;
+		this.time            = System.currentTimeMillis();
+	}
+
+	public int getPoint() {
+		return point;
+	}
+
+	public void setPoint(int point) {
+		this.point = point;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public void setSize(int size) {
+		this.size = size;
+	}
+
+	public double getPercentComplete() {
+		return percentComplete;
+	}
+
+	public void setPercentComplete(double percentComplete) {
+		this.percentComplete = percentComplete;
+	}
+
+	/**
+	 * @return the time in ms at which the point completed.
+	 */
+	public long getTime() {
+		return time;
+	}
+
+	public void setTime(long time) {
+		this.time = time;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		long temp;
+		temp = Double.doubleToLongBits(percentComplete);
+		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + point;
+		result = prime * result + size;
+		result = prime * result + (int) (time ^ (time >>> 32));
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (!super.equals(obj))
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ScanProgressBean other = (ScanProgressBean) obj;
+		if (Double.doubleToLongBits(percentComplete) != Double.doubleToLongBits(other.percentComplete))
+			return false;
+		if (point != other.point)
+			return false;
+		if (size != other.size)
+			return false;
+		if (time != other.time)
+			return false;
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "ScanProgressBean [uniqueId=" + getUniqueId() + ", point=" + point + ", size=" + size + ", percentComplete="
+				+ percentComplete + ", time=" + time + "]";
+	}
+}
@@ -11,17 +11,25 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.malcolm;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.RandomAccess;
 
 /**
  * Class representing a table in Malcolm Format (List of columns with data).
  * Instances of this class are NOT thread safe.
+ *
+ * Columns of double, int, long, boolean and String are held in arrays of that
+ * type, which {@link #getDoubleColumn(String)} and the like return without
+ * copying. {@link #getColumn(String)} is a list view of the same array, boxing
+ * each value as it is read. Read large tables with a {@link #cursor()} rather
+ * than by iterating the rows as maps.
  */
 public class MalcolmTable implements Iterable<Map<String, Object>> {
 
@@ -31,7 +39,9 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 	private int numRows;
 
 	public MalcolmTable() {
-
+		tableData = new LinkedHashMap<>();
+		tableDataTypes = new LinkedHashMap<>();
+		headings = new LinkedList<String>();
 	}
 
 	/**
@@ -48,9 +58,7 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			throw new IllegalArgumentException("The given arguments are not of the same size");
 		}
 
-		tableData = tableAsMap;
-
-		numRows = tableData.isEmpty() ? 0 : tableData.values().iterator().next().size();
+		numRows = tableAsMap.isEmpty() ? 0 : tableAsMap.values().iterator().next().size();
 		tableDataTypes = dataTypes;
 		headings = new LinkedList<String>(tableAsMap.keySet());
 
@@ -64,6 +72,11 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 						heading, tableAsMap.get(heading).size(), numRows));
 			}
 		}
+
+		tableData = new LinkedHashMap<>(headings.size());
+		for (String heading : headings) {
+			tableData.put(heading, createColumn(dataTypes.get(heading), tableAsMap.get(heading)));
+		}
 	}
 
 	/**
@@ -76,19 +89,113 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 
 		tableData = new LinkedHashMap<>(headings.size());
 		for (String heading : headings) {
-			tableData.put(heading, new ArrayList<>());
+			tableData.put(heading, createColumn(dataTypes.get(heading), 10));
 		}
 		numRows = 0;
 	}
 
+	/**
+	 * Adds a column holding the given array, which is not copied.
+	 * Every column must have the same number of rows.
+	 */
+	public void addColumn(String heading, double[] values) {
+		addColumn(heading, Double.class, new DoubleColumn(values, values.length));
+	}
+
+	public void addColumn(String heading, int[] values) {
+		addColumn(heading, Integer.class, new IntColumn(values, values.length));
+	}
+
+	public void addColumn(String heading, long[] values) {
+		addColumn(heading, Long.class, new LongColumn(values, values.length));
+	}
+
+	public void addColumn(String heading, boolean[] values) {
+		addColumn(heading, Boolean.class, new BooleanColumn(values, values.length));
+	}
+
+	public void addColumn(String heading, String[] values) {
+		addColumn(heading, String.class, new StringColumn(values, values.length));
+	}
+
+	/**
+	 * Adds a column of the given type, the values are copied into an array of that type if there is one.
+	 */
+	public void addColumn(String heading, Class<?> type, List<Object> values) {
+		addColumn(heading, type, createColumn(type, values));
+	}
+
+	private void addColumn(String heading, Class<?> type, Column column) {
+		if (tableData.containsKey(heading)) {
+			throw new IllegalArgumentException("The table already has a column " + heading);
+		}
+		if (tableData.isEmpty()) {
+			numRows = column.size();
+		} else if (column.size() != numRows) {
+			throw new IllegalArgumentException(String.format("The column %s has size %d, should be %d",
+					heading, column.size(), numRows));
+		}
+		tableData.put(heading, column);
+		tableDataTypes.put(heading, type);
+		headings.add(heading);
+	}
+
 	public List<Object> getColumn(String columnName) {
 		List<Object> column = tableData.get(columnName);
+		if (column instanceof Column && ((Column)column).boxed != null) {
+			// A value has been set which the array could not hold.
+			column = ((Column)column).boxed;
+			tableData.put(columnName, column);
+		}
 		if (column != null) {
-			return tableData.get(columnName);
+			return column;
 		}
 		throw new RuntimeException("Unknown column: " + columnName);
 	}
 
+	/**
+	 * @return the values of a double column, the array is that of the table and is not copied.
+	 */
+	public double[] getDoubleColumn(String columnName) {
+		return getColumn(columnName, DoubleColumn.class).array();
+	}
+
+	/**
+	 * @return the values of an int column, the array is that of the table and is not copied.
+	 */
+	public int[] getIntColumn(String columnName) {
+		return getColumn(columnName, IntColumn.class).array();
+	}
+
+	/**
+	 * @return the values of a long column, the array is that of the table and is not copied.
+	 */
+	public long[] getLongColumn(String columnName) {
+		return getColumn(columnName, LongColumn.class).array();
+	}
+
+	/**
+	 * @return the values of a boolean column, the array is that of the table and is not copied.
+	 */
+	public boolean[] getBooleanColumn(String columnName) {
+		return getColumn(columnName, BooleanColumn.class).array();
+	}
+
+	/**
+	 * @return the values of a String column, the array is that of the table and is not copied.
+	 */
+	public String[] getStringColumn(String columnName) {
+		return getColumn(columnName, StringColumn.class).array();
+	}
+
+	private <C extends Column> C getColumn(String columnName, Class<C> columnClass) {
+		List<Object> column = getColumn(columnName);
+		if (!columnClass.isInstance(column)) {
+			throw new IllegalArgumentException("The column " + columnName + " is of " + getColumnClass(columnName).getSimpleName());
+		}
+		return columnClass.cast(column);
+	}
+
 	public Class<?> getColumnClass(String columnName) {
 		List<Object> column = tableData.get(columnName);
 		if (column != null) {
@@ -126,8 +233,7 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			if (!newRow.containsKey(heading)) {
 				throw new IllegalArgumentException("This row map does not have an entry for the column with the heading " + heading);
 			}
-			List<Object> columnValues = tableData.get(heading);
-			columnValues.add(newRow.get(heading));
+			getColumn(heading).add(newRow.get(heading)); // The column is held as objects if the value does not fit its array.
 		}
 		numRows++;
 	}
@@ -156,17 +262,96 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 
 	}
 
+	/**
+	 * @return a cursor before the first row of the table.
+	 */
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * One object moved over the rows of the table, which reads the cells
+	 * of the row it is on without making a map for the row or boxing them.
+	 *
+	 * <pre>
+	 * for (MalcolmTable.Cursor row = table.cursor(); row.next();) {
+	 *     double x = row.getDouble("x");
+	 * }
+	 * </pre>
+	 */
+	public final class Cursor {
+
+		private int rowIndex = -1;
+
+		private Cursor() {
+			// Use MalcolmTable.cursor()
+		}
+
+		/**
+		 * Moves to the next row.
+		 * @return false if there are no more rows.
+		 */
+		public boolean next() {
+			if (rowIndex+1 >= numRows) return false;
+			rowIndex++;
+			return true;
+		}
+
+		public void moveTo(int rowIndex) {
+			if (rowIndex < 0 || rowIndex >= numRows) {
+				throw new IndexOutOfBoundsException("No such row " + rowIndex + ", number of rows = " + numRows);
+			}
+			this.rowIndex = rowIndex;
+		}
+
+		public int getRowIndex() {
+			return rowIndex;
+		}
+
+		public double getDouble(String columnName) {
+			return column(columnName).getDouble(rowIndex);
+		}
+
+		public int getInt(String columnName) {
+			return column(columnName).getInt(rowIndex);
+		}
+
+		public long getLong(String columnName) {
+			return column(columnName).getLong(rowIndex);
+		}
+
+		public boolean getBoolean(String columnName) {
+			return column(columnName).getBoolean(rowIndex);
+		}
+
+		public String getString(String columnName) {
+			return column(columnName).getString(rowIndex);
+		}
+
+		public Object get(String columnName) {
+			return column(columnName).get(rowIndex);
+		}
+
+		private Column column(String columnName) {
+			if (rowIndex < 0) throw new IllegalStateException("The cursor is not on a row, call next()");
+			return (Column)getColumn(columnName);
+		}
+	}
+
 	public Map<String, List<Object>> getTableData() {
 		return tableData;
 	}
 
 	public void setTableData(Map<String, List<Object>> tableData) {
-		this.tableData = tableData;
 		// also sets the number of rows.
-		int numRows = tableData.values().iterator().next().size();
+		int numRows = tableData.isEmpty() ? 0 : tableData.values().iterator().next().size();
 		if (tableData.values().stream().anyMatch(column -> column.size() != numRows)) {
 			throw new IllegalArgumentException("All columns must have the same size");
 		}
+		this.tableData = new LinkedHashMap<>(tableData.size());
+		for (String heading : tableData.keySet()) {
+			this.tableData.put(heading, createColumn(getType(heading), tableData.get(heading)));
+		}
 		this.numRows = numRows;
 	}
 
@@ -176,6 +361,12 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 
 	public void setTableDataTypes(Map<String, Class<?>> tableDataTypes) {
 		this.tableDataTypes = tableDataTypes;
+		// The data may have been set first, it is held as the types now given.
+		if (tableData != null) setTableData(tableData);
+	}
+
+	private Class<?> getType(String heading) {
+		return tableDataTypes != null ? tableDataTypes.get(heading) : null;
 	}
 
 	public int getNumRows() {
@@ -229,4 +420,327 @@ public class MalcolmTable implements Iterable<Map<String, Object>> {
 			return false;
 		return true;
 	}
+
+	private static Column createColumn(Class<?> type, int capacity) {
+		if (type == Double.class || type == double.class)   return new DoubleColumn(new double[capacity], 0);
+		if (type == Integer.class || type == int.class)     return new IntColumn(new int[capacity], 0);
+		if (type == Long.class || type == long.class)       return new LongColumn(new long[capacity], 0);
+		if (type == Boolean.class || type == boolean.class) return new BooleanColumn(new boolean[capacity], 0);
+		if (type == String.class)                           return new StringColumn(new String[capacity], 0);
+		return new ObjectColumn(new Object[capacity], 0);
+	}
+
+	/**
+	 * Copies the values into a column of the type, or of objects if a value does not fit it.
+	 */
+	private static Column createColumn(Class<?> type, List<Object> values) {
+		Column column = createColumn(type, values.size());
+		if (values instanceof Column && values.getClass() == column.getClass()) {
+			return (Column)values;
+		}
+		for (Object value : values) {
+			if (!column.accepts(value)) {
+				column = new ObjectColumn(values.toArray(), values.size());
+				break;
+			}
+			column.add(value);
+		}
+		return column;
+	}
+
+	/**
+	 * A column held as an array, which is a list of the boxed values for
+	 * those who read it as one. If a value is added or set which the array
+	 * cannot hold the values are copied to a column of objects, which this
+	 * column passes its reads and writes to and the table uses from then on.
+	 */
+	private static abstract class Column extends AbstractList<Object> implements RandomAccess {
+
+		protected int size;
+		private ObjectColumn boxed;
+
+		protected Column(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public int size() {
+			return boxed != null ? boxed.size() : size;
+		}
+
+		@Override
+		public Object get(int index) {
+			return boxed != null ? boxed.get(index) : getValue(index);
+		}
+
+		@Override
+		public boolean add(Object value) {
+			modCount++;
+			if (box(value)) return boxed.add(value);
+			ensureCapacity(size+1);
+			setValue(size++, value);
+			return true;
+		}
+
+		@Override
+		public Object set(int index, Object value) {
+			if (box(value)) return boxed.set(index, value);
+			Object old = get(index);
+			setValue(index, value);
+			return old;
+		}
+
+		/**
+		 * @return true if the column is held as objects, because this value or an earlier one does not fit the array.
+		 */
+		private boolean box(Object value) {
+			if (boxed == null && !accepts(value)) boxed = new ObjectColumn(this);
+			return boxed != null;
+		}
+
+		protected void checkIndex(int index) {
+			if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size);
+		}
+
+		protected static int newCapacity(int length, int needed) {
+			return Math.max(needed, length + (length >> 1) + 1);
+		}
+
+		/**
+		 * @return true if the value may be held by this column.
+		 */
+		abstract boolean accepts(Object value);
+
+		abstract Object getValue(int index);
+
+		abstract void setValue(int index, Object value);
+
+		abstract void ensureCapacity(int capacity);
+
+		double getDouble(int index) {
+			return ((Number)get(index)).doubleValue();
+		}
+
+		int getInt(int index) {
+			return ((Number)get(index)).intValue();
+		}
+
+		long getLong(int index) {
+			return ((Number)get(index)).longValue();
+		}
+
+		boolean getBoolean(int index) {
+			return (Boolean)get(index);
+		}
+
+		String getString(int index) {
+			Object value = get(index);
+			return value != null ? value.toString() : null;
+		}
+	}
+
+	private static final class DoubleColumn extends Column {
+		private double[] data;
+		DoubleColumn(double[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		double[] array() {
+			if (data.length != size) data = Arrays.copyOf(data, size);
+			return data;
+		}
+		@Override
+		Object getValue(int index) {
+			return getDouble(index);
+		}
+		@Override
+		double getDouble(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Number;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = ((Number)value).doubleValue();
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
+
+	private static final class IntColumn extends Column {
+		private int[] data;
+		IntColumn(int[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		int[] array() {
+			if (data.length != size) data = Arrays.copyOf(data, size);
+			return data;
+		}
+		@Override
+		Object getValue(int index) {
+			return getInt(index);
+		}
+		@Override
+		int getInt(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		double getDouble(int index) {
+			return getInt(index);
+		}
+		@Override
+		long getLong(int index) {
+			return getInt(index);
+		}
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Integer || value instanceof Short || value instanceof Byte;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = ((Number)value).intValue();
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
+
+	private static final class LongColumn extends Column {
+		private long[] data;
+		LongColumn(long[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		long[] array() {
+			if (data.length != size) data = Arrays.copyOf(data, size);
+			return data;
+		}
+		@Override
+		Object getValue(int index) {
+			return getLong(index);
+		}
+		@Override
+		long getLong(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		double getDouble(int index) {
+			return getLong(index);
+		}
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = ((Number)value).longValue();
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
+
+	private static final class BooleanColumn extends Column {
+		private boolean[] data;
+		BooleanColumn(boolean[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		boolean[] array() {
+			if (data.length != size) data = Arrays.copyOf(data, size);
+			return data;
+		}
+		@Override
+		Object getValue(int index) {
+			return getBoolean(index);
+		}
+		@Override
+		boolean getBoolean(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		boolean accepts(Object value) {
+			return value instanceof Boolean;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = (Boolean)value;
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
+
+	private static final class StringColumn extends Column {
+		private String[] data;
+		StringColumn(String[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		String[] array() {
+			if (data.length != size) data = Arrays.copyOf(data, size);
+			return data;
+		}
+		@Override
+		Object getValue(int index) {
+			return getString(index);
+		}
+		@Override
+		String getString(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		boolean accepts(Object value) {
+			return value == null || value instanceof String;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = (String)value;
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
+
+	private static final class ObjectColumn extends Column {
+		private Object[] data;
+		ObjectColumn(Object[] data, int size) {
+			super(size);
+			this.data = data;
+		}
+		ObjectColumn(Column column) {
+			this(column.toArray(), column.size());
+		}
+		@Override
+		Object getValue(int index) {
+			checkIndex(index);
+			return data[index];
+		}
+		@Override
+		boolean accepts(Object value) {
+			return true;
+		}
+		@Override
+		void setValue(int index, Object value) {
+			data[index] = value;
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length) data = Arrays.copyOf(data, newCapacity(data.length, capacity));
+		}
+	}
 }
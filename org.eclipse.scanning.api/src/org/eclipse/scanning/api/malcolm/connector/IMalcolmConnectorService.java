@@ -100,4 +100,16 @@ public interface IMalcolmConnectorService<T> {
 	public void subscribeToConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener)
 			throws MalcolmDeviceException;
 
+	/**
+	 * Stops notifying a listener added by subscribeToConnectionStateChange(...)
+	 * and releases anything held to listen for it. Disconnecting the service
+	 * does this for every listener still subscribed.
+	 * 
+	 * @param device the device listened to
+	 * @param listener the listener to remove
+	 * @throws MalcolmDeviceException
+	 */
+	public void unsubscribeFromConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener)
+			throws MalcolmDeviceException;
+
 }
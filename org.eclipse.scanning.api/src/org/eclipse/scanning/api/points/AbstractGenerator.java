@@ -16,6 +16,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
 
 import org.eclipse.scanning.api.ModelValidationException;
 import org.eclipse.scanning.api.ValidationException;
@@ -45,6 +46,10 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	private boolean enabled=true;
 	private int[] shape = null;
 
+	private SeekableScanPointIterator pointIterator; // Reused by getPoints() while the model is unchanged
+	private boolean                   pointIteratorCreated;
+	private int                       pointIteratorHash;
+
 	protected AbstractGenerator() {
 		super();
 		this.id = getClass().getName();
@@ -63,6 +68,7 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	public void setModel(T model) {
 		this.model = model;
 		this.shape = null; // clear cached shape
+		this.pointIteratorCreated = false;
 	}
 
 	@Override
@@ -126,7 +132,17 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 	@Override
 	public final int size() throws GeneratorException {
 		validateModel();
-		return sizeOfValidModel();
+
+		final ScanShapeCache cache = ScanShapeCache.getInstance();
+		final Object key = cache.createKey(this);
+		if (key == null) return sizeOfValidModel();
+
+		Integer size = cache.getSize(key);
+		if (size == null) {
+			size = sizeOfValidModel();
+			cache.putSize(key, size);
+		}
+		return size;
 	}
 
 	@Override
@@ -134,15 +150,41 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 		return getShape().length;
 	}
 
+	/**
+	 * The shape is cached for generators with an equal model and regions,
+	 * so calculateShape() is only called once for each model.
+	 */
 	@Override
 	public int[] getShape() throws GeneratorException {
+		final ScanShapeCache cache = ScanShapeCache.getInstance();
+		final Object key = cache.createKey(this);
+		if (key == null) {
+			if (shape == null) {
+				shape = calculateShape();
+			}
+			return shape;
+		}
+
+		int[] shape = cache.getShape(key);
 		if (shape == null) {
 			shape = calculateShape();
+			cache.putShape(key, shape);
 		}
-
 		return shape;
 	}
 
+	/**
+	 * The size and shape of a generator's scan are cached by the model and regions
+	 * of the generator. Generators whose points depend on something else, for
+	 * instance a script which may be edited, should override this to return false.
+	 *
+	 * @return true if generators of this type with equal models and regions
+	 *         always have the same size and shape.
+	 */
+	protected boolean isShapeCacheable() {
+		return true;
+	}
+
 	/**
 	 * Calculates the shape of the scan. This method is called when
 	 * {@link #iteratorFromValidModel()} does not return a {@link ScanPointIterator}.
@@ -174,42 +216,27 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 		}
 
 		// we fall back on iterating through all the points in the
-		// scan to get the dimensions of the last one
+		// scan to find the largest index of each dimension. The largest
+		// index is not always that of the last point, for instance for
+		// the inner dimensions of snake scans.
+		final int[] shape = new int[scanRank];
+		IPosition pos = first;
 		int pointNum = 1;
-		IPosition last = first;
-		int lastInnerIndex = last.getIndex(scanRank - 1);
-		int maxInnerIndex = -1;
 		long lastTime = System.currentTimeMillis();
-		while (iterator.hasNext()) {
-			last = iterator.next(); // Could be large...
-			pointNum++;
-			if (maxInnerIndex == -1) {
-				// check for the max index of the inner most dimension - we assume that when it
-				// first decreases the previous value was the max. This special treatment
-				int innerIndex = last.getIndex(scanRank - 1);
-				if (innerIndex <= lastInnerIndex) {
-					maxInnerIndex = lastInnerIndex;
-				}
+		while (true) {
+			for (int i = 0; i < shape.length; i++) {
+				shape[i] = Math.max(shape[i], pos.getIndex(i) + 1);
 			}
+			if (!iterator.hasNext()) break;
+			pos = iterator.next(); // Could be large...
+			pointNum++;
 
 			if (pointNum % 10000 == 0) {
 				long newTime = System.currentTimeMillis();
-				logger.debug("Point number {}, took {} ms", pointNum++, (newTime - lastTime));
+				logger.debug("Point number {}, took {} ms", pointNum, (newTime - lastTime));
 			}
 		}
 
-		// special case for scans of rank 0 - i.e. acquire scans
-		if (scanRank == 0) return new int[0];
-
-		// the shape is created from the indices for each dimension for the final scan point
-		int[] shape = new int[scanRank];
-		for (int i = 0; i < shape.length - 1; i++) {
-			shape[i] = last.getIndex(i) + 1;
-		}
-		// except for the last index, which is the maximum last index found
-		// this is due to the special case of snake scans
-		shape[shape.length - 1 ] = maxInnerIndex;
-
 		return shape;
 	}
 
@@ -236,6 +263,47 @@ public abstract class AbstractGenerator<T> implements IPointGenerator<T>, Iterab
 		return index+1;
 	}
 
+	/**
+	 * If the iterator is a {@link SeekableScanPointIterator} it is kept for as long
+	 * as the model and regions are unchanged, so that only the points asked for
+	 * are created.
+	 */
+	@Override
+	public List<IPosition> getPoints(int start, int count) throws GeneratorException {
+		if (start < 0) throw new IndexOutOfBoundsException("The start "+start+" must not be negative");
+
+		final SeekableScanPointIterator it = getPointIterator();
+		if (it == null) return IPointGenerator.super.getPoints(start, count);
+
+		final List<IPosition> points = new ArrayList<>(Math.max(0, Math.min(count, 1024)));
+		synchronized (it) {
+			if (start >= it.size()) return points;
+			it.seek(start);
+			while (points.size() < count && it.hasNext()) points.add(it.next());
+		}
+		return points;
+	}
+
+	private synchronized SeekableScanPointIterator getPointIterator() {
+		validateModel();
+		final int hash = Objects.hash(model, regions);
+		if (!pointIteratorCreated || hash != pointIteratorHash) {
+			pointIterator = null;
+			final Iterator<IPosition> it = iteratorFromValidModel();
+			if (it instanceof SeekableScanPointIterator) {
+				try {
+					((SeekableScanPointIterator)it).seek(0);
+					pointIterator = (SeekableScanPointIterator)it;
+				} catch (UnsupportedOperationException notSeekable) {
+					logger.trace("The points of {} cannot be seeked", this);
+				}
+			}
+			pointIteratorHash    = hash;
+			pointIteratorCreated = true;
+		}
+		return pointIterator;
+	}
+
 	@Override
 	public List<IPosition> createPoints() throws GeneratorException {
 		final List<IPosition> points = new ArrayList<>(89);
@@ -35,6 +35,8 @@ public abstract class AbstractPosition implements IPosition, Serializable {
 	@Override
 	public final IPosition compound(IPosition parent) {
 		if (parent==null) return this; // this+null = this
+		final IPosition view = compoundView(parent);
+		if (view!=null) return view;
 		final MapPosition ret = new MapPosition();
 		ret.putAll(parent);
 		ret.putAll(this);
@@ -51,6 +53,17 @@ public abstract class AbstractPosition implements IPosition, Serializable {
 		return ret;
 	}
 
+	/**
+	 * Positions in this package which can compound without copying
+	 * their values override this.
+	 *
+	 * @param parent, not null
+	 * @return the compound position or null to copy into a MapPosition.
+	 */
+	IPosition compoundView(IPosition parent) {
+		return null;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -0,0 +1,307 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A position of double values backed by arrays and a shared
+ * {@link PositionSchema} of the axis names. It is intended for the
+ * positions generated in the scan loop where MapPosition is expensive
+ * to create, compound and compare.
+ * <p>
+ * Compounding two ArrayPositions does not copy the values, the position
+ * returned is a view of this position and the parent. Because of this the
+ * positions must not be changed once created.
+ * <p>
+ * Values may be read by name or in O(1) by the index of the name in the
+ * schema using {@link #getValueAt(int)} and {@link #getIndexAt(int)}.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ArrayPosition extends AbstractPosition {
+
+	private static final long serialVersionUID = 2302463720624474389L;
+
+	private   final PositionSchema schema;
+	private   final double[]       values;  // Null if this is a compound view.
+	private   final int[]          indices; // Null if this is a compound view.
+	private   final ArrayPosition  parent;  // Non-null if this is a compound view.
+	private   final ArrayPosition  child;   // Non-null if this is a compound view.
+
+	/**
+	 * A position of one value, like Scalar the step index is the index.
+	 *
+	 * @param name
+	 * @param index
+	 * @param value
+	 */
+	public ArrayPosition(String name, int index, double value) {
+		this(PositionSchema.of(name), new double[]{value}, new int[]{index});
+		setStepIndex(index);
+	}
+
+	/**
+	 * The arrays are not copied and must not be changed after the position is created.
+	 *
+	 * @param schema
+	 * @param values one for each name in the schema
+	 * @param indices one for each name in the schema
+	 */
+	public ArrayPosition(PositionSchema schema, double[] values, int[] indices) {
+		if (schema.isCompound()) throw new IllegalArgumentException("The schema of a compound position may not be used to create a new one!");
+		if (values.length!=schema.size() || indices.length!=schema.size()) {
+			throw new IllegalArgumentException("There must be a value and an index for each of "+schema.getNames());
+		}
+		this.schema  = schema;
+		this.values  = values;
+		this.indices = indices;
+		this.parent  = null;
+		this.child   = null;
+		this.dimensionNames = schema.getDimensionNames();
+	}
+
+	/**
+	 * A compound view of the child over the parent.
+	 */
+	private ArrayPosition(ArrayPosition child, ArrayPosition parent) {
+		this.schema  = child.schema.compound(parent.schema);
+		this.values  = null;
+		this.indices = null;
+		this.parent  = parent;
+		this.child   = child;
+		this.dimensionNames = schema.getDimensionNames();
+		setStepIndex(child.getStepIndex());
+		setExposureTime(child.getExposureTime());
+	}
+
+	/**
+	 * Copies any position which has numeric values into an ArrayPosition.
+	 *
+	 * @param pos
+	 * @return the position, if it is already an ArrayPosition it is returned.
+	 * @throws IllegalArgumentException if one of the values is not a number.
+	 */
+	public static ArrayPosition valueOf(IPosition pos) {
+		if (pos instanceof ArrayPosition) return (ArrayPosition)pos;
+
+		final List<String> names = pos.getNames();
+		final double[]     vals  = new double[names.size()];
+		final int[]        inds  = new int[names.size()];
+		for (int i = 0; i < vals.length; i++) {
+			final Object value = pos.get(names.get(i));
+			if (!(value instanceof Number)) throw new IllegalArgumentException("The value of '"+names.get(i)+"' is not a number, it is "+value);
+			vals[i] = ((Number)value).doubleValue();
+			inds[i] = pos.getIndex(names.get(i));
+		}
+		final List<Collection<String>> dims = pos instanceof AbstractPosition
+				                            ? ((AbstractPosition)pos).getDimensionNames()
+				                            : Arrays.asList(names);
+		return copy(pos, PositionSchema.of(names, dims), vals, inds);
+	}
+
+	private static ArrayPosition copy(IPosition pos, PositionSchema schema, double[] vals, int[] inds) {
+		final ArrayPosition ret = new ArrayPosition(schema, vals, inds);
+		ret.setStepIndex(pos.getStepIndex());
+		ret.setExposureTime(pos.getExposureTime());
+		return ret;
+	}
+
+	/**
+	 * Compounds without copying when the parent is also an ArrayPosition.
+	 * Other numeric positions are copied to an ArrayPosition once, positions
+	 * with other values are compounded to a MapPosition.
+	 * <p>
+	 * Any part of the parent whose names are all in this position is dropped
+	 * from the view, so that compounding each point of an inner scan with the
+	 * last compound position does not build up a chain of previous points.
+	 */
+	@Override
+	IPosition compoundView(IPosition parent) {
+		if (parent.size()==0) return shallowCopy();
+
+		final ArrayPosition aparent;
+		try {
+			aparent = ArrayPosition.valueOf(parent);
+		} catch (IllegalArgumentException notNumeric) {
+			return null;
+		}
+		final ArrayPosition pruned = aparent.prune(schema);
+		if (pruned==null) return shallowCopy(); // All the names of the parent are in this position.
+		return new ArrayPosition(this, pruned);
+	}
+
+	/**
+	 * A new position sharing the values of this one, so that the
+	 * step index and dimension names may be set on it separately.
+	 */
+	private ArrayPosition shallowCopy() {
+		final ArrayPosition ret = isView() ? new ArrayPosition(child, parent) : copy(this, schema, values, indices);
+		ret.setStepIndex(getStepIndex());
+		ret.setExposureTime(getExposureTime());
+		return ret;
+	}
+
+	private boolean isView() {
+		return child!=null;
+	}
+
+	/**
+	 * Removes the parts of this position whose names are all in the schema.
+	 * @param over
+	 * @return this if nothing is removed, a new view or null if everything is removed.
+	 */
+	private ArrayPosition prune(PositionSchema over) {
+		if (!isView()) {
+			for (int i = 0; i < schema.size(); i++) {
+				if (over.indexOf(schema.getNames().get(i))<0) return this;
+			}
+			return null;
+		}
+		final ArrayPosition p = parent.prune(over);
+		final ArrayPosition c = child.prune(over);
+		if (c==null) return p;
+		if (p==null) return c;
+		if (p==parent && c==child) return this;
+		return new ArrayPosition(c, p);
+	}
+
+	/**
+	 * @return the shared schema of this position.
+	 */
+	public PositionSchema getSchema() {
+		return schema;
+	}
+
+	@Override
+	public int size() {
+		return schema.size();
+	}
+
+	/**
+	 * The names are shared with other positions and may not be modified.
+	 */
+	@Override
+	public List<String> getNames() {
+		return schema.getNames();
+	}
+
+	@Override
+	public Object get(String name) {
+		final int i = schema.indexOf(name);
+		return i<0 ? null : getValueAt(i);
+	}
+
+	@Override
+	public double getValue(String name) {
+		final int i = schema.indexOf(name);
+		if (i<0) throw new IllegalArgumentException("There is no value called '"+name+"' in "+this);
+		return getValueAt(i);
+	}
+
+	@Override
+	public int getIndex(String name) {
+		final int i = schema.indexOf(name);
+		return i<0 ? -1 : getIndexAt(i);
+	}
+
+	/**
+	 * The value of the name at the given index in the schema.
+	 * @param nameIndex
+	 * @return
+	 */
+	public double getValueAt(int nameIndex) {
+		return getSlotValue(schema.slot(nameIndex));
+	}
+
+	/**
+	 * The scan index of the name at the given index in the schema.
+	 * @param nameIndex
+	 * @return
+	 */
+	public int getIndexAt(int nameIndex) {
+		return getSlotIndex(schema.slot(nameIndex));
+	}
+
+	private double getSlotValue(int slot) {
+		if (!isView()) return values[slot];
+		final int parentWidth = schema.getParentWidth();
+		return slot<parentWidth ? parent.getSlotValue(slot) : child.getSlotValue(slot-parentWidth);
+	}
+
+	private int getSlotIndex(int slot) {
+		if (!isView()) return indices[slot];
+		final int parentWidth = schema.getParentWidth();
+		return slot<parentWidth ? parent.getSlotIndex(slot) : child.getSlotIndex(slot-parentWidth);
+	}
+
+	/**
+	 * Creates a new map each time, which is required for serialization
+	 * but should not be used in the scan loop.
+	 */
+	@Override
+	public Map<String, Object> getValues() {
+		final Map<String,Object> ret = new LinkedHashMap<>(size());
+		for (int i = 0; i < size(); i++) ret.put(schema.getNames().get(i), getValueAt(i));
+		return ret;
+	}
+
+	/**
+	 * Creates a new map each time, which is required for serialization
+	 * but should not be used in the scan loop.
+	 */
+	@Override
+	public Map<String, Integer> getIndices() {
+		final Map<String,Integer> ret = new LinkedHashMap<>(size());
+		for (int i = 0; i < size(); i++) ret.put(schema.getNames().get(i), getIndexAt(i));
+		return ret;
+	}
+
+	/**
+	 * The same as AbstractPosition.hashCode() without sorting the names.
+	 */
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		for (int i = 0; i < size(); i++) {
+			long temp = Double.doubleToLongBits(getValueAt(schema.sorted(i)));
+			result = prime * result + (int) (temp ^ (temp >>> 32));
+		}
+		return result+getStepIndex();
+	}
+
+	/**
+	 * Positions with the same schema are compared directly,
+	 * otherwise the names are compared as in AbstractPosition.
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!(obj instanceof ArrayPosition) || ((ArrayPosition)obj).schema!=schema) return super.equals(obj);
+
+		final ArrayPosition other = (ArrayPosition)obj;
+		if (getStepIndex() != other.getStepIndex()) return false;
+		if (getExposureTime() != other.getExposureTime()) return false;
+		for (int i = 0; i < size(); i++) {
+			if (Double.doubleToLongBits(getValueAt(i)) != Double.doubleToLongBits(other.getValueAt(i))) return false;
+			if (getIndexAt(i) != other.getIndexAt(i)) return false;
+		}
+		final List<?> ours = getDimensionNames(), theirs = other.getDimensionNames();
+		return ours==theirs || ours.equals(theirs);
+	}
+}
@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.api.points;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -90,6 +91,54 @@ public interface IPointGenerator<T> extends Iterable<IPosition>, IValidator<T>,
 	@Override
 	Iterator<IPosition> iterator();
 
+	/**
+	 * An iterator over the points starting with the point with the given index.
+	 * If the iterator of this generator is a {@link SeekableScanPointIterator}
+	 * the points before the start are not created.
+	 *
+	 * @param start index of the first point
+	 * @return
+	 * @throws GeneratorException
+	 */
+	default Iterator<IPosition> iterator(int start) throws GeneratorException {
+		if (start < 0) throw new IndexOutOfBoundsException("The start "+start+" must not be negative");
+		final Iterator<IPosition> it = iterator();
+		SeekableScanPointIterator.advance(it, start);
+		return it;
+	}
+
+	/**
+	 * The point with the given index, the same as the point which iterating
+	 * would reach after that many points. For most generators this does not
+	 * create any other points.
+	 *
+	 * @param index
+	 * @return
+	 * @throws GeneratorException
+	 * @throws IndexOutOfBoundsException if there is no such point
+	 */
+	default IPosition getPoint(int index) throws GeneratorException {
+		final List<IPosition> points = getPoints(index, 1);
+		if (points.isEmpty()) throw new IndexOutOfBoundsException("There is no point "+index+" in the scan");
+		return points.get(0);
+	}
+
+	/**
+	 * The points from start up to but not including start+count, or to
+	 * the end of the scan if there are fewer points.
+	 *
+	 * @param start index of the first point
+	 * @param count maximum number of points
+	 * @return
+	 * @throws GeneratorException
+	 */
+	default List<IPosition> getPoints(int start, int count) throws GeneratorException {
+		final Iterator<IPosition> it = iterator(start);
+		final List<IPosition> points = new ArrayList<>(Math.max(0, Math.min(count, 1024)));
+		while (points.size() < count && it.hasNext()) points.add(it.next());
+		return points;
+	}
+
 	/**
 	 * Relatively slow because all the points have to exist in memory.
 	 * Points are lightweight and it is normally ok to have them all in memory.
@@ -0,0 +1,222 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The axis names of an {@link ArrayPosition}. A schema is shared by all the
+ * positions which move the same axes so the names, the name to index lookup
+ * and the dimension names are not held by every position.
+ *
+ * Schemas are interned, use {@link #of(String...)} or {@link #of(List, List)}
+ * to get one. The schema of a compound position is created once for each
+ * pair of schemas and then reused. Only the most recently used schemas are
+ * kept, positions with equal names but different schemas are still equal.
+ *
+ * The values of a position are held in slots. A plain schema has a slot per
+ * name. A compound schema has the slots of the parent followed by the slots of
+ * the child, names which are in both map to the child's slot because the
+ * child's values take precedence.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class PositionSchema implements Serializable {
+
+	private static final long serialVersionUID = -2046315218405476376L;
+
+	private static final int MAXIMUM_SCHEMAS = 256;
+
+	private static final Map<List<?>, PositionSchema> schemas = new LinkedHashMap<List<?>, PositionSchema>(31, 0.75f, true) {
+		private static final long serialVersionUID = 1L;
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<List<?>, PositionSchema> eldest) {
+			return size() > MAXIMUM_SCHEMAS;
+		}
+	};
+
+	private final List<String>               names;
+	private final List<Collection<String>>   dimensionNames;
+	private final Map<String, Integer>       lookup;        // Name->name index
+	private final int[]                      slots;         // Name index->slot
+	private final int[]                      sortedOrder;   // Name indices in name order, used for hashCode
+	private final int                        parentWidth;   // Number of slots belonging to the parent
+	private final int                        width;         // Total number of slots
+
+	private transient Map<PositionSchema, PositionSchema> compounds;
+
+	private PositionSchema(List<String> names, List<Collection<String>> dimensionNames, int[] slots, int parentWidth, int width) {
+		this.names          = Collections.unmodifiableList(new ArrayList<>(names));
+		this.dimensionNames = Collections.unmodifiableList(new ArrayList<>(dimensionNames));
+		this.slots          = slots;
+		this.parentWidth    = parentWidth;
+		this.width          = width;
+		this.lookup         = new HashMap<>(names.size()*2);
+		for (int i = 0; i < names.size(); i++) lookup.put(names.get(i), i);
+
+		final Integer[] order = new Integer[names.size()];
+		for (int i = 0; i < order.length; i++) order[i] = i;
+		Arrays.sort(order, (a,b) -> names.get(a).compareTo(names.get(b)));
+		this.sortedOrder = new int[order.length];
+		for (int i = 0; i < order.length; i++) sortedOrder[i] = order[i];
+	}
+
+	/**
+	 * A schema for the names where each name is its own dimension.
+	 * @param names
+	 * @return
+	 */
+	public static PositionSchema of(String... names) {
+		List<Collection<String>> dims = new ArrayList<>(names.length);
+		for (String name : names) dims.add(Arrays.asList(name));
+		return of(Arrays.asList(names), dims);
+	}
+
+	/**
+	 * The schema for the names and scan dimensions.
+	 *
+	 * @param names of the axes, in the order that the values are held.
+	 * @param dimensionNames the names in each dimension of the scan
+	 * @return the shared schema for these names
+	 */
+	public static PositionSchema of(List<String> names, List<Collection<String>> dimensionNames) {
+		final List<List<String>> dims = new ArrayList<>(dimensionNames.size());
+		for (Collection<String> dim : dimensionNames) dims.add(new ArrayList<>(dim));
+		final List<?> key = Arrays.asList(new ArrayList<>(names), dims);
+
+		synchronized (schemas) {
+			PositionSchema schema = schemas.get(key);
+			if (schema!=null) return schema;
+		}
+
+		final int[] slots = new int[names.size()];
+		for (int i = 0; i < slots.length; i++) slots[i] = i;
+		if (slots.length!=new HashSet<>(names).size()) {
+			throw new IllegalArgumentException("The names of a position must be unique! Names were "+names);
+		}
+		final PositionSchema schema = new PositionSchema(names, new ArrayList<>(dims), slots, 0, slots.length);
+		synchronized (schemas) {
+			PositionSchema existing = schemas.putIfAbsent(key, schema);
+			return existing!=null ? existing : schema;
+		}
+	}
+
+	/**
+	 * The schema of a position with this schema compounded with a
+	 * parent position. The parent names come first then the names
+	 * of this schema which are not in the parent.
+	 *
+	 * @param parent
+	 * @return
+	 */
+	PositionSchema compound(PositionSchema parent) {
+
+		Map<PositionSchema, PositionSchema> cache = compounds;
+		if (cache==null) {
+			synchronized (this) {
+				if (compounds==null) compounds = new ConcurrentHashMap<>(7);
+				cache = compounds;
+			}
+		}
+		PositionSchema schema = cache.get(parent);
+		if (schema!=null) return schema;
+
+		final List<String> cnames = new ArrayList<>(parent.names.size()+names.size());
+		final int[]        cslots = new int[parent.names.size()+names.size()];
+		int count = 0;
+		for (int i = 0; i < parent.names.size(); i++) {
+			String  name  = parent.names.get(i);
+			Integer index = lookup.get(name);
+			cslots[count++] = index!=null ? parent.width+slots[index] : parent.slots[i];
+			cnames.add(name);
+		}
+		for (int i = 0; i < names.size(); i++) {
+			String name = names.get(i);
+			if (parent.lookup.containsKey(name)) continue;
+			cslots[count++] = parent.width+slots[i];
+			cnames.add(name);
+		}
+
+		final List<Collection<String>> dims = new ArrayList<>(parent.dimensionNames.size()+dimensionNames.size());
+		dims.addAll(parent.dimensionNames);
+		dims.addAll(dimensionNames);
+
+		schema = new PositionSchema(cnames, dims, Arrays.copyOf(cslots, count), parent.width, parent.width+width);
+		PositionSchema existing = cache.putIfAbsent(parent, schema);
+		return existing!=null ? existing : schema;
+	}
+
+	/**
+	 *
+	 * @return the names, this list may not be modified.
+	 */
+	public List<String> getNames() {
+		return names;
+	}
+
+	public List<Collection<String>> getDimensionNames() {
+		return dimensionNames;
+	}
+
+	public int size() {
+		return names.size();
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return the index of the name or -1 if it is not in the schema.
+	 */
+	public int indexOf(String name) {
+		final Integer index = lookup.get(name);
+		return index!=null ? index : -1;
+	}
+
+	int slot(int nameIndex) {
+		return slots[nameIndex];
+	}
+
+	int sorted(int i) {
+		return sortedOrder[i];
+	}
+
+	int getParentWidth() {
+		return parentWidth;
+	}
+
+	int getWidth() {
+		return width;
+	}
+
+	/**
+	 * @return true if this schema is a compound of two others.
+	 */
+	public boolean isCompound() {
+		return width!=names.size() || parentWidth>0;
+	}
+
+	@Override
+	public String toString() {
+		return "PositionSchema "+names+" dimensions "+dimensionNames;
+	}
+}
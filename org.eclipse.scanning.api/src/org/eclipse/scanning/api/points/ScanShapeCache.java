@@ -0,0 +1,163 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the size and shape of the scans made by generators, keyed on
+ * the type of the generator, its model and its regions. A scan request
+ * is validated, estimated and run by different generators for equal
+ * models and this means that the size and shape are only worked out once.
+ *
+ * The hash of a key is taken once, when it is made. A model may be changed
+ * after its shape has been put in the cache, a key found for it is still
+ * compared to the model asked for so such an entry is never returned for
+ * another model, it is left in the wrong place until it is the eldest
+ * and removed. The shape is not put in if the model changed while it was
+ * being worked out.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class ScanShapeCache {
+
+	private static final int MAXIMUM_SIZE = Integer.getInteger("org.eclipse.scanning.points.shapeCacheSize", 64);
+
+	private static final ScanShapeCache INSTANCE = new ScanShapeCache();
+
+	static ScanShapeCache getInstance() {
+		return INSTANCE;
+	}
+
+	private static final class Key {
+
+		private final Class<?>           type;
+		private final Object             model;
+		private final Collection<Object> regions;
+		private final int                hash;
+
+		Key(Class<?> type, Object model, Collection<Object> regions) {
+			this.type    = type;
+			this.model   = model;
+			this.regions = regions == null || regions.isEmpty() ? null : new ArrayList<>(regions);
+			this.hash    = calculateHash(); // Once, outside the cache's lock
+		}
+
+		private int calculateHash() {
+			final int prime = 31;
+			int result = type.hashCode();
+			result = prime * result + model.hashCode();
+			result = prime * result + ((regions == null) ? 0 : regions.hashCode());
+			return result;
+		}
+
+		/**
+		 * @return true if the model or regions have not been changed since the key was made.
+		 */
+		boolean isUnchanged() {
+			return hash == calculateHash();
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			if (hash != other.hash || type != other.type)
+				return false;
+			if (!model.equals(other.model))
+				return false;
+			if (regions == null) {
+				return other.regions == null;
+			}
+			return regions.equals(other.regions);
+		}
+	}
+
+	private static final class Shape {
+		private Integer size;
+		private int[]   shape;
+	}
+
+	private final Map<Key, Shape> entries;
+
+	private ScanShapeCache() {
+		this.entries = new LinkedHashMap<Key, Shape>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Shape> eldest) {
+				return size() > MAXIMUM_SIZE;
+			}
+		};
+	}
+
+	/**
+	 * Creates a key for the generator or returns null if the size and
+	 * shape of the generator's scan should not be cached.
+	 *
+	 * @param gen
+	 * @return
+	 */
+	Object createKey(AbstractGenerator<?> gen) {
+		if (MAXIMUM_SIZE < 1 || !gen.isShapeCacheable() || gen.getModel() == null) return null;
+		return new Key(gen.getClass(), gen.getModel(), gen.getRegions());
+	}
+
+	synchronized Integer getSize(Object key) {
+		final Shape entry = getEntry(key, false);
+		return entry == null ? null : entry.size;
+	}
+
+	void putSize(Object key, int size) {
+		if (!((Key) key).isUnchanged()) return; // Changed while the size was worked out
+		synchronized (this) {
+			getEntry(key, true).size = size;
+		}
+	}
+
+	/**
+	 * @param key
+	 * @return a copy of the shape or null if it is not known
+	 */
+	synchronized int[] getShape(Object key) {
+		final Shape entry = getEntry(key, false);
+		return entry == null || entry.shape == null ? null : entry.shape.clone();
+	}
+
+	void putShape(Object key, int[] shape) {
+		if (!((Key) key).isUnchanged()) return; // Changed while the shape was worked out
+		synchronized (this) {
+			getEntry(key, true).shape = shape.clone();
+		}
+	}
+
+	private Shape getEntry(Object okey, boolean create) {
+		final Key key = (Key) okey;
+		Shape entry = entries.get(key);
+		if (entry == null && create) {
+			entry = new Shape();
+			entries.put(key, entry);
+		}
+		return entry;
+	}
+}
@@ -0,0 +1,72 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.api.points;
+
+import java.util.Iterator;
+
+/**
+ * A {@link ScanPointIterator} which can be moved to any point of the scan
+ * without generating the points in between, for instance to catch up with
+ * the point that hardware has reached or to resume a scan part way through.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface SeekableScanPointIterator extends ScanPointIterator {
+
+	/**
+	 * Moves the iterator so that the next call to next() returns the point
+	 * with the given index. Seeking to the size of the scan moves the iterator
+	 * to the end.
+	 *
+	 * @param index
+	 * @throws IndexOutOfBoundsException if the index is less than zero or greater than the size
+	 * @throws UnsupportedOperationException if the points of this iterator cannot be seeked,
+	 *         for instance because they come from a Jython iterator.
+	 */
+	void seek(int index);
+
+	/**
+	 * @return the index of the point which the next call to next() will return.
+	 */
+	int nextIndex();
+
+	/**
+	 * Moves an iterator on by a number of points, seeking if possible rather
+	 * than creating all the points in between. If there are fewer points left
+	 * the iterator is moved to the end.
+	 *
+	 * @param iterator
+	 * @param count the number of points to move on by
+	 * @return the last point moved over, or null if there were none
+	 */
+	static IPosition advance(Iterator<IPosition> iterator, int count) {
+		if (count < 1) return null;
+		if (iterator instanceof SeekableScanPointIterator) {
+			final SeekableScanPointIterator it = (SeekableScanPointIterator) iterator;
+			try {
+				final int last = Math.min(it.nextIndex() + count, it.size()) - 1;
+				if (last < it.nextIndex()) return null;
+				it.seek(last);
+				return it.next();
+			} catch (UnsupportedOperationException ignored) {
+				// We move through the points one by one instead.
+			}
+		}
+		IPosition pos = null;
+		for (int i = 0; i < count; i++) {
+			if (!iterator.hasNext()) break;
+			pos = iterator.next();
+		}
+		return pos;
+	}
+}
@@ -60,6 +60,7 @@ public class RandomOffsetGridModel extends GridModel {
 		long temp;
 		temp = Double.doubleToLongBits(offset);
 		result = prime * result + (int) (temp ^ (temp >>> 32));
+		result = prime * result + seed;
 		return result;
 	}
 	@Override
@@ -73,6 +74,8 @@ public class RandomOffsetGridModel extends GridModel {
 		RandomOffsetGridModel other = (RandomOffsetGridModel) obj;
 		if (Double.doubleToLongBits(offset) != Double.doubleToLongBits(other.offset))
 			return false;
+		if (seed != other.seed)
+			return false;
 		return true;
 	}
 }
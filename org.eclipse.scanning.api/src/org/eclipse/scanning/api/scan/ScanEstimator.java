@@ -12,6 +12,7 @@
 package org.eclipse.scanning.api.scan;
 
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,6 +25,7 @@ import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
 
 /**
  * 
@@ -141,7 +143,12 @@ public class ScanEstimator {
 		} else if (gen instanceof IPointGenerator) {
 			size = ((IPointGenerator<?>)gen).size();
 		} else  {
-			for (@SuppressWarnings("unused") IPosition unused : gen) size++; // Fast even for large stuff providing they do not check hardware on the next() call.
+			final Iterator<IPosition> it = gen.iterator();
+			if (it instanceof ScanPointIterator) return ((ScanPointIterator)it).size();
+			while(it.hasNext()) {
+				it.next(); // Fast even for large stuff providing they do not check hardware on the next() call.
+				size++;
+			}
 		}
 		
 		return size;
@@ -104,6 +104,14 @@ public class PositionDelegate {
 		for (IPositionListener l : ls)  l.levelPerformed(evnt);
 	}
 
+	/**
+	 * @return true if the events fired are sent to a publisher or a listener,
+	 * so that the position of an event need not be made when nothing reads it.
+	 */
+	public boolean isListened() {
+		return publisher!=null || (listeners!=null && !listeners.isEmpty());
+	}
+
 	public void addPositionListener(IPositionListener listener) {
 		if (listeners==null) listeners = new HashSet<IPositionListener>(3);
 		listeners.add(listener);
@@ -0,0 +1,212 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+import javax.jms.QueueSession;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.apache.activemq.broker.BrokerService;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.connector.activemq.ConnectionPool;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the connections made by the connector service are
+ * leased from a bounded pool of broker connections.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ConnectionPoolTest {
+
+	private BrokerService broker;
+	private URI           uri;
+
+	@Before
+	public void startBroker() throws Exception {
+		int port = 8819+Math.round((float)Math.random()*100);
+		while(!ActivemqConnectorService.isPortFree(port)) port++;
+		uri = new URI("tcp://localhost:"+port);
+
+		broker = new BrokerService();
+		broker.addConnector(uri);
+		broker.setPersistent(false);
+		broker.start();
+		broker.waitUntilStarted();
+	}
+
+	@After
+	public void stopBroker() throws Exception {
+		ActivemqConnectorService.closeConnectionPool(uri);
+		broker.stop();
+		broker.waitUntilStopped();
+	}
+
+	@Test
+	public void testFactoryIsPool() throws Exception {
+		ActivemqConnectorService service = new ActivemqConnectorService();
+		Object factory = service.createConnectionFactory(uri);
+		assertSame(ActivemqConnectorService.getConnectionPool(uri), factory);
+		assertSame(factory, new ActivemqConnectorService().createConnectionFactory(uri));
+	}
+
+	@Test
+	public void testClosedPoolIsReplaced() throws Exception {
+		ConnectionPool pool = ActivemqConnectorService.getConnectionPool(uri);
+		pool.close();
+		assertTrue(pool.isClosed());
+
+		ConnectionPool replacement = ActivemqConnectorService.getConnectionPool(uri);
+		assertNotSame(pool, replacement);
+		replacement.createQueueConnection().close();
+	}
+
+	@Test
+	public void testClosedSessionCanBeClosedWithLease() throws Exception {
+
+		QueueConnection connection = ActivemqConnectorService.getConnectionPool(uri).createQueueConnection();
+		try {
+			for (int i = 0; i < 10; i++) {
+				QueueSession session = connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+				session.createQueue("org.eclipse.scanning.connector.activemq.test.pool");
+				session.close();
+				session.close(); // Closing twice is allowed
+			}
+		} finally {
+			connection.close();
+		}
+	}
+
+	@Test
+	public void testConnectionsAreBounded() throws Exception {
+
+		ConnectionPool pool = ActivemqConnectorService.getConnectionPool(uri);
+		List<QueueConnection> connections = new ArrayList<>();
+		for (int i = 0; i < pool.getMaximumSize()*3; i++) {
+			QueueConnection connection = pool.createQueueConnection();
+			connection.start();
+			assertNotNull(connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE));
+			connections.add(connection);
+		}
+		assertEquals(pool.getMaximumSize(), pool.getSize());
+		assertEquals(connections.size(), pool.getLeaseCount());
+
+		for (QueueConnection connection : connections) connection.close();
+		assertEquals(0, pool.getLeaseCount());
+		assertEquals(pool.getMaximumSize(), pool.getCreatedCount());
+
+		// Closed connections are given out again rather than making new ones.
+		pool.createQueueConnection().close();
+		assertEquals(pool.getMaximumSize(), pool.getCreatedCount());
+	}
+
+	@Test
+	public void testSendBetweenLeases() throws Exception {
+
+		QueueConnectionFactory factory = (QueueConnectionFactory)new ActivemqConnectorService().createConnectionFactory(uri);
+		QueueConnection sender   = factory.createQueueConnection();
+		QueueConnection receiver = factory.createQueueConnection();
+		try {
+			sender.start();
+			receiver.start();
+
+			QueueSession rsession = receiver.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+			Queue           queue = rsession.createQueue("org.eclipse.scanning.connector.activemq.test.pool");
+			MessageConsumer consumer = rsession.createConsumer(queue);
+
+			QueueSession ssession = sender.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+			MessageProducer producer = ssession.createProducer(queue);
+			producer.send(ssession.createTextMessage("Hello"));
+
+			TextMessage message = (TextMessage)consumer.receive(5000);
+			assertNotNull(message);
+			assertEquals("Hello", message.getText());
+
+		} finally {
+			sender.close();
+			receiver.close();
+		}
+	}
+
+	@Test(expected=javax.jms.IllegalStateException.class)
+	public void testClosedConnectionCannotBeUsed() throws Exception {
+
+		QueueConnectionFactory factory = ActivemqConnectorService.getConnectionPool(uri);
+		QueueConnection connection = factory.createQueueConnection();
+		connection.close();
+		connection.close(); // Closing twice is allowed
+		connection.createQueueSession(false, Session.AUTO_ACKNOWLEDGE);
+	}
+
+	@Test
+	public void testFailedConnectionsAreNotLeased() throws Exception {
+
+		ConnectionPool pool = ActivemqConnectorService.getConnectionPool(uri);
+		QueueConnection watcher = pool.createQueueConnection();
+		assertTrue(pool.getSize()>0);
+
+		final CountDownLatch failed = new CountDownLatch(1);
+		watcher.setExceptionListener(new ExceptionListener() {
+			@Override
+			public void onException(JMSException exception) {
+				failed.countDown();
+			}
+		});
+
+		broker.stop();
+		broker.waitUntilStopped();
+		assertTrue("The failure of the broker connection was not reported", failed.await(10, TimeUnit.SECONDS));
+
+		try {
+			pool.createQueueConnection();
+		} catch (Exception expected) {
+			// There is no broker to connect to now.
+		}
+		assertEquals(0, pool.getSize());
+		assertTrue(pool.getEvictedCount()>0);
+		watcher.close();
+	}
+
+	@Test(expected=javax.jms.IllegalStateException.class)
+	public void testLeaseCannotBeStopped() throws Exception {
+
+		QueueConnection connection = ActivemqConnectorService.getConnectionPool(uri).createQueueConnection();
+		try {
+			connection.start();
+			connection.stop();
+		} finally {
+			connection.close();
+		}
+	}
+}
@@ -16,7 +16,8 @@ import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
-	ActivemqConnectorServiceJsonMarshallingTest.class
+	ActivemqConnectorServiceJsonMarshallingTest.class,
+	ConnectionPoolTest.class
 })
 public class Suite {
 
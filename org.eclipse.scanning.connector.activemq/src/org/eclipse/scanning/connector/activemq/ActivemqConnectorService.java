@@ -15,6 +15,8 @@ import java.io.IOException;
 import java.net.DatagramSocket;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -25,6 +27,7 @@ import org.eclipse.dawnsci.analysis.api.persistence.IMarshallerService;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IMessagingService;
+import org.eclipse.scanning.connector.activemq.memory.MemoryBroker;
 
 /**
  * This class is temporarily in this plugin and needs to be moved out of it once:
@@ -57,9 +60,49 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 	public ActivemqConnectorService() {
 	}
 
+	private static final Map<URI, ConnectionPool> pools = new HashMap<>(3);
+
+	/**
+	 * The factory returned is the connection pool for the uri, which is shared
+	 * by everything connecting to the broker, unless pooling is switched off.
+	 * Uris such as memory://test connect to a broker in this process.
+	 * @see ConnectionPool
+	 * @see MemoryBroker
+	 */
 	@Override
 	public Object createConnectionFactory(URI uri) {
-		return new ActiveMQConnectionFactory(uri);
+		if (MemoryBroker.isMemory(uri)) return MemoryBroker.getBroker(uri).getConnectionFactory();
+		if (ConnectionPool.getDefaultSize()<1) return new ActiveMQConnectionFactory(uri);
+		return getConnectionPool(uri);
+	}
+
+	/**
+	 * Get the pool of connections to a broker, for instance to read its statistics.
+	 * A pool which has been closed is replaced with a new one.
+	 * @param uri
+	 * @return
+	 */
+	public static ConnectionPool getConnectionPool(URI uri) {
+		synchronized (pools) {
+			ConnectionPool pool = pools.get(uri);
+			if (pool==null || pool.isClosed()) {
+				pool = new ConnectionPool(uri);
+				pools.put(uri, pool);
+			}
+			return pool;
+		}
+	}
+
+	/**
+	 * Closes the pool of connections to a broker and removes it, so that
+	 * the next connection to the broker is made with a new pool.
+	 * @param uri
+	 */
+	public static void closeConnectionPool(URI uri) {
+		synchronized (pools) {
+			ConnectionPool pool = pools.remove(uri);
+			if (pool!=null) pool.close();
+		}
 	}
 
 	@Override
@@ -85,15 +128,24 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 	}
 
 	private BrokerService service;
+	private URI           serviceUri;
 	
 	/**
 	 * @param The activemq connector uri, for instance: "failover:(tcp://localhost:61616)?startupMaxReconnectAttempts=3"
 	 *        The failover:() is stipped out so that a tcp:// uri is created for the server.
+	 *        A memory:// uri starts a broker in this process instead, which is faster for tests.
 	 */
 	@Override
 	public URI start(String suggestedURI) throws EventException {
 		
 		try {
+			if (suggestedURI.startsWith(MemoryBroker.SCHEME+":")) {
+				URI uri = new URI(suggestedURI);
+				MemoryBroker.getBroker(uri);
+				serviceUri = uri;
+				return uri;
+			}
+
 			Pattern pattern = Pattern.compile(".*(tcp://[a-zA-Z\\.]+:\\d+).*");
 			Matcher matcher = pattern.matcher(suggestedURI);
 			if (matcher.matches()) suggestedURI = matcher.group(1);
@@ -108,6 +160,7 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 	        systemUsage.getTempUsage().setLimit(1024 * 1024 * 8);
 	        service.start();
 			service.waitUntilStarted();
+			serviceUri = uri;
 			return uri;
 			
 		} catch (Exception ne) {
@@ -117,11 +170,17 @@ public class ActivemqConnectorService implements IEventConnectorService, IMessag
 
 	@Override
 	public void stop() throws EventException {
+		if (MemoryBroker.isMemory(serviceUri)) {
+			MemoryBroker.stop(serviceUri);
+			serviceUri = null;
+			return;
+		}
 		if (service==null) return;
 		try {
 			service.stop();
 			service.waitUntilStopped();
 			service = null;
+			closeConnectionPool(serviceUri); // Its connections are to a broker which has gone.
 		} catch (Exception ne) {
 			throw new EventException(ne);
 		}
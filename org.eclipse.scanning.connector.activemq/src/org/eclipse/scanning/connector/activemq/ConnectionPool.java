@@ -0,0 +1,450 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.jms.Connection;
+import javax.jms.ExceptionListener;
+import javax.jms.JMSException;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+
+import org.apache.activemq.ActiveMQConnection;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded pool of connections to one broker. The connections handed out
+ * by the pool are leases on a few shared broker connections, closing a lease
+ * closes the sessions made with it and gives the broker connection back to
+ * the pool. This means that the many short lived connections made by
+ * publishers, subscribers, submitters and queue readers do not each open
+ * and shake hands over a new socket.
+ * <p>
+ * A broker connection which has failed or been closed is not leased again
+ * and is closed, so that its users connect again. Broker connections with no
+ * leases are closed after they have been idle for the idle timeout.
+ * <p>
+ * The size of the pool is set with the system property
+ * <code>org.eclipse.scanning.connector.activemq.poolSize</code> (default 8,
+ * 0 switches pooling off) and the idle timeout in ms with
+ * <code>org.eclipse.scanning.connector.activemq.poolIdleTimeout</code>
+ * (default one minute).
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class ConnectionPool implements QueueConnectionFactory {
+
+	private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+	private static final ScheduledExecutorService evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread thread = new Thread(r, "ActiveMQ connection pool eviction");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			return thread;
+		}
+	});
+
+	/**
+	 * @return the largest number of broker connections a pool will open, 0 if connections should not be pooled.
+	 */
+	static int getDefaultSize() {
+		return Integer.getInteger("org.eclipse.scanning.connector.activemq.poolSize", 8);
+	}
+
+	private static long getDefaultIdleTimeout() {
+		return Long.getLong("org.eclipse.scanning.connector.activemq.poolIdleTimeout", 60000);
+	}
+
+	private final URI                       uri;
+	private final ActiveMQConnectionFactory factory;
+	private final int                       maximumSize;
+	private final long                      idleTimeout;
+	private final List<PooledConnection>    connections;
+	private final ScheduledFuture<?>        eviction;
+
+	// Statistics
+	private final AtomicInteger created = new AtomicInteger();
+	private final AtomicInteger evicted = new AtomicInteger();
+	private final AtomicInteger failed  = new AtomicInteger();
+	private final AtomicInteger leases  = new AtomicInteger();
+
+	private volatile boolean closed;
+
+	ConnectionPool(URI uri) {
+		this(uri, getDefaultSize(), getDefaultIdleTimeout());
+	}
+
+	ConnectionPool(URI uri, int maximumSize, long idleTimeout) {
+		this.uri         = uri;
+		this.factory     = new ActiveMQConnectionFactory(uri);
+		this.maximumSize = Math.max(maximumSize, 1);
+		this.idleTimeout = idleTimeout;
+		this.connections = new ArrayList<>(this.maximumSize);
+		this.eviction    = evictor.scheduleWithFixedDelay(new Runnable() {
+			@Override
+			public void run() {
+				evict();
+			}
+		}, idleTimeout, idleTimeout, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public QueueConnection createQueueConnection() throws JMSException {
+		if (closed) throw new javax.jms.IllegalStateException("The connection pool for "+uri+" is closed");
+		ConnectionLease lease = new ConnectionLease(lease());
+		return (QueueConnection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{QueueConnection.class}, lease);
+	}
+
+	@Override
+	public Connection createConnection() throws JMSException {
+		return createQueueConnection();
+	}
+
+	/**
+	 * Connections for a user are not pooled.
+	 */
+	@Override
+	public QueueConnection createQueueConnection(String userName, String password) throws JMSException {
+		return factory.createQueueConnection(userName, password);
+	}
+
+	/**
+	 * Connections for a user are not pooled.
+	 */
+	@Override
+	public Connection createConnection(String userName, String password) throws JMSException {
+		return factory.createConnection(userName, password);
+	}
+
+	/**
+	 * Finds the healthy broker connection with fewest leases, opening
+	 * another if that one is in use and the pool is not full.
+	 *
+	 * @return
+	 * @throws JMSException
+	 */
+	private synchronized PooledConnection lease() throws JMSException {
+
+		evict();
+
+		PooledConnection least   = null;
+		int              healthy = 0;
+		for (PooledConnection connection : connections) {
+			if (!connection.isHealthy()) continue;
+			healthy++;
+			if (least==null || connection.leases < least.leases) least = connection;
+		}
+		if (least==null || (least.leases>0 && healthy<maximumSize)) {
+			least = new PooledConnection((ActiveMQConnection)factory.createQueueConnection());
+			connections.add(least);
+			created.incrementAndGet();
+		}
+		least.leases++;
+		leases.incrementAndGet();
+		return least;
+	}
+
+	private synchronized void release(PooledConnection connection) {
+		connection.leases--;
+		connection.lastUsed = System.currentTimeMillis();
+		leases.decrementAndGet();
+		if (connection.leases<1 && (closed || !connection.isHealthy())) {
+			connections.remove(connection);
+			connection.close();
+		}
+	}
+
+	/**
+	 * Closes broker connections which have failed and those with no
+	 * leases which have been idle for longer than the idle timeout.
+	 * The users of a failed connection will find that it is closed
+	 * and connect again.
+	 */
+	synchronized void evict() {
+		final long now = System.currentTimeMillis();
+		for (Iterator<PooledConnection> it = connections.iterator(); it.hasNext();) {
+			PooledConnection connection = it.next();
+			if (connection.isHealthy() && (connection.leases>0 || now-connection.lastUsed < idleTimeout)) continue;
+			it.remove();
+			connection.close();
+			evicted.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Closes the broker connections which have no leases, the others
+	 * are closed when their last lease is closed.
+	 */
+	public synchronized void close() {
+		closed = true;
+		eviction.cancel(false);
+		for (Iterator<PooledConnection> it = connections.iterator(); it.hasNext();) {
+			PooledConnection connection = it.next();
+			if (connection.leases>0) continue;
+			it.remove();
+			connection.close();
+		}
+	}
+
+	/**
+	 * @return true if the pool has been closed and will not lease connections.
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	public URI getUri() {
+		return uri;
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+	/**
+	 * @return the number of broker connections open now.
+	 */
+	public synchronized int getSize() {
+		return connections.size();
+	}
+
+	/**
+	 * @return the number of connections handed out and not yet closed.
+	 */
+	public int getLeaseCount() {
+		return leases.get();
+	}
+
+	/**
+	 * @return the number of broker connections opened by the pool.
+	 */
+	public int getCreatedCount() {
+		return created.get();
+	}
+
+	/**
+	 * @return the number of broker connections closed because they were idle or had failed.
+	 */
+	public int getEvictedCount() {
+		return evicted.get();
+	}
+
+	/**
+	 * @return the number of times that a broker connection has reported a failure.
+	 */
+	public int getFailedCount() {
+		return failed.get();
+	}
+
+	@Override
+	public String toString() {
+		return "ConnectionPool [uri=" + uri + ", size=" + getSize() + ", leases=" + getLeaseCount() + ", created=" + getCreatedCount()
+				+ ", evicted=" + getEvictedCount() + ", failed=" + getFailedCount() + "]";
+	}
+
+	/**
+	 * A broker connection and the leases on it.
+	 */
+	final class PooledConnection implements ExceptionListener {
+
+		final ActiveMQConnection            connection;
+		final List<ConnectionLease>         users;
+		int                                 leases;
+		long                                lastUsed;
+		private volatile boolean            exception;
+
+		PooledConnection(ActiveMQConnection connection) throws JMSException {
+			this.connection = connection;
+			this.users      = new CopyOnWriteArrayList<>();
+			this.lastUsed   = System.currentTimeMillis();
+			connection.setExceptionListener(this);
+			connection.start();
+		}
+
+		boolean isHealthy() {
+			return !exception && !connection.isClosed() && !connection.isTransportFailed();
+		}
+
+		@Override
+		public void onException(JMSException ne) {
+			exception = true;
+			failed.incrementAndGet();
+			logger.warn("Connection to "+uri+" failed and will not be used again", ne);
+			for (ConnectionLease lease : users) lease.onException(ne);
+		}
+
+		void close() {
+			try {
+				connection.close();
+			} catch (JMSException ne) {
+				logger.debug("Cannot close connection to "+uri, ne);
+			}
+		}
+	}
+
+	/**
+	 * The connection handed out by the pool. It uses the broker connection
+	 * for everything apart from closing, which closes the sessions made with
+	 * the lease and gives the broker connection back, and stopping or setting
+	 * the client id which cannot be done to a connection that others share.
+	 * The broker connection is always started so starting does nothing.
+	 * The sessions are handed out wrapped so that a session closed by its
+	 * user is no longer held by the lease.
+	 */
+	private final class ConnectionLease implements InvocationHandler, ExceptionListener {
+
+		private final PooledConnection   pooled;
+		private final Set<AutoCloseable>  sessions;
+		private volatile ExceptionListener listener;
+		private volatile boolean          released;
+
+		ConnectionLease(PooledConnection pooled) {
+			this.pooled   = pooled;
+			this.sessions = Collections.newSetFromMap(new ConcurrentHashMap<AutoCloseable, Boolean>());
+			pooled.users.add(this);
+		}
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			final String name = method.getName();
+			switch (name) {
+			case "close":
+				release();
+				return null;
+			case "start":
+				checkReleased();
+				return null; // The broker connection is always started.
+			case "stop":
+				throw new javax.jms.IllegalStateException("A pooled connection cannot be stopped, close it or stop its consumers instead");
+			case "setClientID":
+				throw new javax.jms.IllegalStateException("The client id of a pooled connection cannot be set");
+			case "setExceptionListener":
+				listener = (ExceptionListener)args[0];
+				return null;
+			case "getExceptionListener":
+				return listener;
+			case "equals":
+				return proxy==args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			case "toString":
+				return "Pooled "+pooled.connection;
+			default:
+				break;
+			}
+
+			checkReleased();
+			try {
+				Object ret = method.invoke(pooled.connection, args);
+				if (name.startsWith("create") && name.endsWith("Session")) {
+					AutoCloseable session = (AutoCloseable)ret;
+					sessions.add(session);
+					return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{method.getReturnType()}, new LeasedSession(session));
+				}
+				return ret;
+			} catch (InvocationTargetException ne) {
+				throw ne.getCause();
+			}
+		}
+
+		@Override
+		public void onException(JMSException ne) {
+			ExceptionListener l = listener;
+			if (l!=null) l.onException(ne);
+		}
+
+		private void checkReleased() throws JMSException {
+			if (released) throw new javax.jms.IllegalStateException("The connection is closed");
+		}
+
+		private void release() throws JMSException {
+			synchronized (this) {
+				if (released) return;
+				released = true;
+			}
+			try {
+				for (AutoCloseable session : sessions) {
+					try {
+						session.close();
+					} catch (Exception ne) {
+						logger.debug("Cannot close session to "+uri, ne);
+					}
+				}
+			} finally {
+				sessions.clear();
+				pooled.users.remove(this);
+				ConnectionPool.this.release(pooled);
+			}
+		}
+
+		/**
+		 * A session made with the lease, closing it removes it from the lease.
+		 */
+		private final class LeasedSession implements InvocationHandler {
+
+			private final AutoCloseable session;
+
+			LeasedSession(AutoCloseable session) {
+				this.session = session;
+			}
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+				final String name = method.getName();
+				switch (name) {
+				case "close":
+					sessions.remove(session);
+					break;
+				case "equals":
+					return proxy==args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				case "toString":
+					return "Leased "+session;
+				default:
+					break;
+				}
+
+				try {
+					return method.invoke(session, args);
+				} catch (InvocationTargetException ne) {
+					throw ne.getCause();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,199 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.QueueConnectionFactory;
+
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryQueueDestination;
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryTopicDestination;
+
+/**
+ * A broker which runs in this process and keeps its messages in memory,
+ * for tests and benchmarks which should not pay for starting a broker or
+ * measure its I/O. It is used for uris such as <code>memory://test</code>,
+ * each authority being a separate broker.
+ * <p>
+ * It provides topics, queues, browsing, transacted sessions and the
+ * selectors which the event service uses, on headers and properties.
+ * Messages are not persisted, are delivered in the order they are sent
+ * rather than by priority and only messages made by its sessions may be
+ * sent. Methods of the JMS API which the event service does not use throw
+ * UnsupportedOperationException.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class MemoryBroker {
+
+	public static final String SCHEME = "memory";
+
+	private static final Map<String, MemoryBroker> brokers = new HashMap<>(3);
+
+	/**
+	 * @param uri
+	 * @return true if the uri is of an in memory broker.
+	 */
+	public static boolean isMemory(URI uri) {
+		return uri!=null && SCHEME.equalsIgnoreCase(uri.getScheme());
+	}
+
+	/**
+	 * Get the broker for a uri, starting it if it is not running.
+	 *
+	 * @param uri
+	 * @return
+	 */
+	public static MemoryBroker getBroker(URI uri) {
+		if (!isMemory(uri)) throw new IllegalArgumentException(uri+" is not the uri of an in memory broker");
+		synchronized (brokers) {
+			MemoryBroker broker = brokers.get(getKey(uri));
+			if (broker==null) {
+				broker = new MemoryBroker(uri);
+				brokers.put(getKey(uri), broker);
+			}
+			return broker;
+		}
+	}
+
+	/**
+	 * Stops the broker for a uri, its messages are lost and those
+	 * waiting to receive from it are given nothing.
+	 *
+	 * @param uri
+	 */
+	public static void stop(URI uri) {
+		final MemoryBroker broker;
+		synchronized (brokers) {
+			broker = brokers.remove(getKey(uri));
+		}
+		if (broker!=null) broker.close();
+	}
+
+	private static String getKey(URI uri) {
+		return uri.getAuthority()!=null ? uri.getAuthority() : uri.getSchemeSpecificPart();
+	}
+
+	private final URI                                  uri;
+	private final ConcurrentHashMap<String, MemoryQueue> queues;
+	private final ConcurrentHashMap<String, MemoryTopic> topics;
+	private final AtomicLong                           ids;
+	private final AtomicLong                           sent;
+	private volatile boolean                           closed;
+
+	private MemoryBroker(URI uri) {
+		this.uri    = uri;
+		this.queues = new ConcurrentHashMap<>(89);
+		this.topics = new ConcurrentHashMap<>(89);
+		this.ids    = new AtomicLong();
+		this.sent   = new AtomicLong();
+	}
+
+	/**
+	 * @return a factory for connections to this broker.
+	 */
+	public QueueConnectionFactory getConnectionFactory() {
+		return new MemoryConnectionFactory(this);
+	}
+
+	/**
+	 * @param queueName
+	 * @return the number of messages in a queue, including those received in a transaction which has not ended.
+	 */
+	public int getQueueSize(String queueName) {
+		MemoryQueue queue = queues.get(queueName);
+		return queue!=null ? queue.size() : 0;
+	}
+
+	/**
+	 * @param topicName
+	 * @return the number of consumers subscribed to a topic.
+	 */
+	public int getSubscriberCount(String topicName) {
+		MemoryTopic topic = topics.get(topicName);
+		return topic!=null ? topic.getSubscriberCount() : 0;
+	}
+
+	/**
+	 * @return the number of messages sent to the broker since it started.
+	 */
+	public long getSentCount() {
+		return sent.get();
+	}
+
+	public URI getUri() {
+		return uri;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	MemoryQueue getQueue(String name) {
+		MemoryQueue queue = queues.get(name);
+		if (queue==null) {
+			queue = new MemoryQueue(name);
+			MemoryQueue existing = queues.putIfAbsent(name, queue);
+			if (existing!=null) queue = existing;
+		}
+		return queue;
+	}
+
+	MemoryTopic getTopic(String name) {
+		MemoryTopic topic = topics.get(name);
+		if (topic==null) {
+			topic = new MemoryTopic(name);
+			MemoryTopic existing = topics.putIfAbsent(name, topic);
+			if (existing!=null) topic = existing;
+		}
+		return topic;
+	}
+
+	String nextMessageId() {
+		return "ID:"+getKey(uri)+"-"+ids.incrementAndGet();
+	}
+
+	/**
+	 * Delivers a message which has been sent, and committed if the session is transacted.
+	 */
+	void deliver(Destination destination, MemoryMessage message) throws JMSException {
+		if (closed) throw new javax.jms.IllegalStateException("The broker "+uri+" has stopped");
+		sent.incrementAndGet();
+		if (destination instanceof MemoryQueueDestination) {
+			getQueue(((MemoryQueueDestination)destination).getName()).add(message);
+		} else if (destination instanceof MemoryTopicDestination) {
+			getTopic(((MemoryTopicDestination)destination).getName()).publish(message);
+		} else {
+			throw new javax.jms.InvalidDestinationException("The destination "+destination+" was not made by the in memory broker");
+		}
+	}
+
+	private void close() {
+		closed = true;
+		for (MemoryQueue queue : queues.values()) queue.close();
+		for (MemoryTopic topic : topics.values()) topic.close();
+		queues.clear();
+		topics.clear();
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryBroker [uri=" + uri + ", queues=" + queues.size() + ", topics=" + topics.size() + ", sent=" + sent + "]";
+	}
+}
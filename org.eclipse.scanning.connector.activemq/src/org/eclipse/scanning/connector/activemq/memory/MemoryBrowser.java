@@ -0,0 +1,88 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.jms.Message;
+import javax.jms.QueueBrowser;
+
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryQueueDestination;
+
+/**
+ * Browses copies of the messages which are in a queue when the enumeration is made.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryBrowser implements InvocationHandler, AutoCloseable {
+
+	private final MemorySession          session;
+	private final MemoryQueueDestination destination;
+	private final Selector               selector;
+	private volatile boolean             closed;
+
+	MemoryBrowser(MemorySession session, MemoryQueueDestination destination, Selector selector) {
+		this.session     = session;
+		this.destination = destination;
+		this.selector    = selector;
+	}
+
+	QueueBrowser proxy() {
+		return (QueueBrowser)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{QueueBrowser.class}, this);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "MemoryBrowser [destination="+destination+", selector="+selector+"]";
+		case "close":
+			close();
+			return null;
+		default:
+			break;
+		}
+
+		if (closed || session.isClosed()) throw new javax.jms.IllegalStateException("The browser is closed");
+		switch (name) {
+		case "getEnumeration":
+			final List<MemoryMessage> messages = session.getBroker().getQueue(destination.getName()).browse(selector);
+			final List<Message>       copies   = new ArrayList<>(messages.size());
+			for (MemoryMessage message : messages) copies.add(message.copy().proxy());
+			return Collections.enumeration(copies);
+		case "getQueue":
+			return destination;
+		case "getMessageSelector":
+			return selector!=null ? selector.toString() : null;
+		default:
+			throw new UnsupportedOperationException("The in memory broker does not support "+method);
+		}
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		session.remove(this);
+	}
+}
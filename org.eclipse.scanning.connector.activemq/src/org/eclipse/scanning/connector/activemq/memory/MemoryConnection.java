@@ -0,0 +1,134 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.ExceptionListener;
+import javax.jms.QueueConnection;
+import javax.jms.Session;
+
+/**
+ * A connection to the in memory broker. Messages are only given to
+ * listeners while it is started, receiving works whether or not it is.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryConnection implements InvocationHandler {
+
+	private final MemoryBroker         broker;
+	private final List<MemorySession>  sessions;
+	private volatile String            clientId;
+	private volatile ExceptionListener listener;
+	private boolean                    started;
+	private boolean                    closed;
+
+	MemoryConnection(MemoryBroker broker) {
+		this.broker   = broker;
+		this.sessions = new CopyOnWriteArrayList<>();
+	}
+
+	QueueConnection proxy() {
+		return (QueueConnection)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{QueueConnection.class}, this);
+	}
+
+	MemoryBroker getBroker() {
+		return broker;
+	}
+
+	/**
+	 * Waits until the connection is started so that a listener may be given messages.
+	 *
+	 * @return false if the connection was closed instead.
+	 * @throws InterruptedException
+	 */
+	synchronized boolean awaitStarted() throws InterruptedException {
+		while(!started && !closed && !broker.isClosed()) wait(1000);
+		return started && !closed;
+	}
+
+	synchronized boolean isClosed() {
+		return closed;
+	}
+
+	void removeSession(MemorySession session) {
+		sessions.remove(session);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "createSession":
+		case "createQueueSession":
+			checkClosed();
+			boolean transacted = (Boolean)args[0];
+			MemorySession session = new MemorySession(this, transacted, transacted ? Session.SESSION_TRANSACTED : (Integer)args[1]);
+			sessions.add(session);
+			return session.proxy();
+		case "start":
+			setStarted(true);
+			return null;
+		case "stop":
+			setStarted(false);
+			return null;
+		case "close":
+			close();
+			return null;
+		case "getClientID":
+			return clientId;
+		case "setClientID":
+			checkClosed();
+			clientId = (String)args[0];
+			return null;
+		case "getExceptionListener":
+			return listener;
+		case "setExceptionListener":
+			listener = (ExceptionListener)args[0];
+			return null;
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "MemoryConnection [uri="+broker.getUri()+", sessions="+sessions.size()+"]";
+		default:
+			throw new UnsupportedOperationException("The in memory broker does not support "+method);
+		}
+	}
+
+	private synchronized void setStarted(boolean started) throws javax.jms.IllegalStateException {
+		checkClosed();
+		this.started = started;
+		notifyAll();
+	}
+
+	private synchronized void checkClosed() throws javax.jms.IllegalStateException {
+		if (closed) throw new javax.jms.IllegalStateException("The connection is closed");
+	}
+
+	private void close() throws Exception {
+		synchronized (this) {
+			if (closed) return;
+			closed = true;
+			notifyAll();
+		}
+		for (MemorySession session : sessions) session.close();
+		sessions.clear();
+	}
+}
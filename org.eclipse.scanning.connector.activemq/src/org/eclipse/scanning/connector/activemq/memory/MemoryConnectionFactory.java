@@ -0,0 +1,58 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.QueueConnection;
+import javax.jms.QueueConnectionFactory;
+
+/**
+ * Makes connections to an in memory broker, the user name and password are not checked.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryConnectionFactory implements QueueConnectionFactory {
+
+	private final MemoryBroker broker;
+
+	MemoryConnectionFactory(MemoryBroker broker) {
+		this.broker = broker;
+	}
+
+	@Override
+	public Connection createConnection() throws JMSException {
+		return createQueueConnection();
+	}
+
+	@Override
+	public Connection createConnection(String userName, String password) throws JMSException {
+		return createQueueConnection();
+	}
+
+	@Override
+	public QueueConnection createQueueConnection() throws JMSException {
+		if (broker.isClosed()) throw new javax.jms.IllegalStateException("The broker "+broker.getUri()+" has stopped");
+		return new MemoryConnection(broker).proxy();
+	}
+
+	@Override
+	public QueueConnection createQueueConnection(String userName, String password) throws JMSException {
+		return createQueueConnection();
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryConnectionFactory [uri=" + broker.getUri() + "]";
+	}
+}
@@ -0,0 +1,184 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.QueueReceiver;
+
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryQueueDestination;
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryTopicDestination;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Receives from a queue or, with its own subscription, from a topic. A
+ * listener is given messages by a thread of the consumer while the
+ * connection is started.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryConsumer implements InvocationHandler, MemoryQueue.Receiver, AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(MemoryConsumer.class);
+
+	private final MemorySession      session;
+	private final MemoryDestination  destination;
+	private final Selector           selector;
+	private final String             messageSelector;
+	private final MemoryQueue        queue;
+	private final MemoryTopic        topic;
+	private volatile MessageListener listener;
+	private volatile Thread          dispatcher;
+	private volatile boolean         closed;
+
+	MemoryConsumer(MemorySession session, MemoryDestination destination, Selector selector) {
+		this.session     = session;
+		this.destination = destination;
+		this.messageSelector = selector!=null ? selector.toString() : null;
+		if (destination instanceof MemoryTopicDestination) {
+			// The subscription only has the messages which match.
+			this.topic    = session.getBroker().getTopic(destination.getName());
+			this.queue    = topic.subscribe(selector);
+			this.selector = null;
+		} else {
+			this.topic    = null;
+			this.queue    = session.getBroker().getQueue(destination.getName());
+			this.selector = selector;
+		}
+	}
+
+	MessageConsumer proxy() {
+		final Class<?> type = destination instanceof MemoryQueueDestination ? QueueReceiver.class : MessageConsumer.class;
+		return (MessageConsumer)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{type}, this);
+	}
+
+	@Override
+	public boolean isClosed() {
+		return closed || session.isClosed();
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "MemoryConsumer [destination="+destination+", selector="+messageSelector+"]";
+		case "close":
+			close();
+			return null;
+		default:
+			break;
+		}
+
+		if (isClosed()) throw new javax.jms.IllegalStateException("The consumer is closed");
+		switch (name) {
+		case "receive":
+			if (listener!=null) throw new javax.jms.IllegalStateException("The consumer has a listener");
+			return receive(args!=null && args.length>0 ? (Long)args[0] : 0);
+		case "receiveNoWait":
+			if (listener!=null) throw new javax.jms.IllegalStateException("The consumer has a listener");
+			return receive(-1);
+		case "setMessageListener":
+			setMessageListener((MessageListener)args[0]);
+			return null;
+		case "getMessageListener":
+			return listener;
+		case "getMessageSelector":
+			return messageSelector;
+		case "getQueue":
+			return destination;
+		case "getTopic":
+			return destination;
+		case "getNoLocal":
+			return false;
+		default:
+			throw new UnsupportedOperationException("The in memory broker does not support "+method);
+		}
+	}
+
+	/**
+	 * @param timeout in ms, 0 to wait for ever and less than 0 not to wait.
+	 * @return a copy of the message taken or null.
+	 */
+	private Message receive(long timeout) {
+		try {
+			MemoryMessage message = queue.take(selector, timeout, session.getHolder(), this);
+			if (message==null) return null;
+			session.received(queue);
+			return message.copy().proxy();
+		} catch (InterruptedException ne) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	private synchronized void setMessageListener(MessageListener listener) {
+		this.listener = listener;
+		if (listener==null || dispatcher!=null) return;
+
+		dispatcher = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				dispatch();
+			}
+		}, "Memory consumer of "+destination);
+		dispatcher.setDaemon(true);
+		dispatcher.start();
+	}
+
+	private void dispatch() {
+		try {
+			while(!isClosed() && session.getConnection().awaitStarted()) {
+				final MessageListener l = listener;
+				if (l==null) break;
+				// We wait a little at a time to notice if the connection is stopped.
+				final Message message = receive(1000);
+				if (message==null) continue;
+				try {
+					l.onMessage(message);
+				} catch (RuntimeException ne) {
+					logger.error("The listener of "+destination+" could not process a message", ne);
+				}
+			}
+		} catch (InterruptedException ne) {
+			logger.debug("The listener of "+destination+" was interrupted", ne);
+		} finally {
+			synchronized (this) {
+				dispatcher = null;
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		if (closed) return;
+		closed = true;
+		if (topic!=null) {
+			topic.unsubscribe(queue);
+		} else {
+			queue.wake();
+		}
+		session.remove(this);
+	}
+}
@@ -0,0 +1,78 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import javax.jms.Destination;
+import javax.jms.Queue;
+import javax.jms.Topic;
+
+/**
+ * The queues and topics of the in memory broker are known by their names.
+ *
+ * @author Matthew Gerring
+ *
+ */
+abstract class MemoryDestination implements Destination {
+
+	private final String name;
+
+	MemoryDestination(String name) {
+		if (name==null) throw new IllegalArgumentException("A destination must have a name");
+		this.name = name;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	@Override
+	public int hashCode() {
+		return getClass().hashCode()*31 + name.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null || getClass() != obj.getClass())
+			return false;
+		return name.equals(((MemoryDestination)obj).name);
+	}
+
+	static final class MemoryQueueDestination extends MemoryDestination implements Queue {
+		MemoryQueueDestination(String name) {
+			super(name);
+		}
+		@Override
+		public String getQueueName() {
+			return getName();
+		}
+		@Override
+		public String toString() {
+			return "queue://"+getName();
+		}
+	}
+
+	static final class MemoryTopicDestination extends MemoryDestination implements Topic {
+		MemoryTopicDestination(String name) {
+			super(name);
+		}
+		@Override
+		public String getTopicName() {
+			return getName();
+		}
+		@Override
+		public String toString() {
+			return "topic://"+getName();
+		}
+	}
+}
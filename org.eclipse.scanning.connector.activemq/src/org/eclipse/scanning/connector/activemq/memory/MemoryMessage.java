@@ -0,0 +1,355 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.jms.BytesMessage;
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.TextMessage;
+
+/**
+ * The state of a message sent through the in memory broker. Clients are
+ * given a proxy of the message interface backed by a copy of the state,
+ * so that a message changed after it is sent, or by one of the clients
+ * receiving it, is not changed for the others.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryMessage implements InvocationHandler {
+
+	enum Kind {
+		MESSAGE(Message.class), TEXT(TextMessage.class), BYTES(BytesMessage.class);
+
+		private final Class<?> type;
+		Kind(Class<?> type) {
+			this.type = type;
+		}
+	}
+
+	private final Kind                kind;
+	private final Map<String, Object> properties;
+
+	private String      messageId;
+	private long        timestamp;
+	private long        expiration;
+	private int         priority     = Message.DEFAULT_PRIORITY;
+	private int         deliveryMode = DeliveryMode.PERSISTENT;
+	private String      correlationId;
+	private String      type;
+	private Destination destination;
+	private Destination replyTo;
+	private boolean     redelivered;
+
+	private String                text;
+	private ByteArrayOutputStream written;
+	private byte[]                bytes;
+	private int                   read;
+
+	MemoryMessage(Kind kind) {
+		this.kind       = kind;
+		this.properties = new LinkedHashMap<>(7);
+		if (kind==Kind.BYTES) written = new ByteArrayOutputStream();
+	}
+
+	/**
+	 * @return a message which clients may use.
+	 */
+	Message proxy() {
+		return (Message)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{kind.type}, this);
+	}
+
+	/**
+	 * @param message
+	 * @return the state of a message made by the in memory broker.
+	 * @throws JMSException if the message was made by another provider.
+	 */
+	static MemoryMessage getState(Message message) throws JMSException {
+		if (message!=null && Proxy.isProxyClass(message.getClass())) {
+			InvocationHandler handler = Proxy.getInvocationHandler(message);
+			if (handler instanceof MemoryMessage) return (MemoryMessage)handler;
+		}
+		throw new JMSException("Only messages made by sessions of the in memory broker may be sent with it, not "+message);
+	}
+
+	/**
+	 * A copy to be sent or received, the body of bytes messages is readable from the start.
+	 */
+	synchronized MemoryMessage copy() {
+		final MemoryMessage copy = new MemoryMessage(kind);
+		copy.properties.putAll(properties);
+		copy.messageId     = messageId;
+		copy.timestamp     = timestamp;
+		copy.expiration    = expiration;
+		copy.priority      = priority;
+		copy.deliveryMode  = deliveryMode;
+		copy.correlationId = correlationId;
+		copy.type          = type;
+		copy.destination   = destination;
+		copy.replyTo       = replyTo;
+		copy.redelivered   = redelivered;
+		copy.text          = text;
+		copy.bytes         = getBytes();
+		copy.written       = null;
+		return copy;
+	}
+
+	private byte[] getBytes() {
+		if (written!=null) return written.toByteArray();
+		return bytes;
+	}
+
+	/**
+	 * Sets the headers which the producer sets when the message is sent.
+	 */
+	synchronized void sent(String messageId, Destination destination, int deliveryMode, int priority, long timeToLive) {
+		this.messageId    = messageId;
+		this.destination  = destination;
+		this.deliveryMode = deliveryMode;
+		this.priority     = priority;
+		this.timestamp    = System.currentTimeMillis();
+		this.expiration   = timeToLive>0 ? timestamp+timeToLive : 0;
+	}
+
+	synchronized void setText(String text) {
+		this.text = text;
+	}
+
+	synchronized void setRedelivered(boolean redelivered) {
+		this.redelivered = redelivered;
+	}
+
+	boolean isExpired(long now) {
+		return expiration>0 && expiration<=now;
+	}
+
+	/**
+	 * The value of a header or property named in a selector.
+	 */
+	synchronized Object getValue(String name) {
+		switch (name) {
+		case "JMSMessageID":
+			return messageId;
+		case "JMSCorrelationID":
+			return correlationId;
+		case "JMSPriority":
+			return priority;
+		case "JMSTimestamp":
+			return timestamp;
+		case "JMSType":
+			return type;
+		case "JMSDeliveryMode":
+			return deliveryMode==DeliveryMode.PERSISTENT ? "PERSISTENT" : "NON_PERSISTENT";
+		default:
+			return properties.get(name);
+		}
+	}
+
+	@Override
+	public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "getJMSMessageID":
+			return messageId;
+		case "setJMSMessageID":
+			messageId = (String)args[0];
+			return null;
+		case "getJMSTimestamp":
+			return timestamp;
+		case "setJMSTimestamp":
+			timestamp = (Long)args[0];
+			return null;
+		case "getJMSCorrelationID":
+			return correlationId;
+		case "setJMSCorrelationID":
+			correlationId = (String)args[0];
+			return null;
+		case "getJMSCorrelationIDAsBytes":
+			return correlationId!=null ? correlationId.getBytes("UTF-8") : null;
+		case "setJMSCorrelationIDAsBytes":
+			correlationId = args[0]!=null ? new String((byte[])args[0], "UTF-8") : null;
+			return null;
+		case "getJMSReplyTo":
+			return replyTo;
+		case "setJMSReplyTo":
+			replyTo = (Destination)args[0];
+			return null;
+		case "getJMSDestination":
+			return destination;
+		case "setJMSDestination":
+			destination = (Destination)args[0];
+			return null;
+		case "getJMSDeliveryMode":
+			return deliveryMode;
+		case "setJMSDeliveryMode":
+			deliveryMode = (Integer)args[0];
+			return null;
+		case "getJMSRedelivered":
+			return redelivered;
+		case "setJMSRedelivered":
+			redelivered = (Boolean)args[0];
+			return null;
+		case "getJMSType":
+			return type;
+		case "setJMSType":
+			type = (String)args[0];
+			return null;
+		case "getJMSExpiration":
+			return expiration;
+		case "setJMSExpiration":
+			expiration = (Long)args[0];
+			return null;
+		case "getJMSPriority":
+			return priority;
+		case "setJMSPriority":
+			priority = (Integer)args[0];
+			return null;
+		case "clearProperties":
+			properties.clear();
+			return null;
+		case "propertyExists":
+			return properties.containsKey(args[0]);
+		case "getPropertyNames":
+			return Collections.enumeration(properties.keySet());
+		case "acknowledge":
+			return null;
+		case "clearBody":
+			text    = null;
+			bytes   = null;
+			read    = 0;
+			if (kind==Kind.BYTES) written = new ByteArrayOutputStream();
+			return null;
+		case "getText":
+			return text;
+		case "setText":
+			text = (String)args[0];
+			return null;
+		case "getBodyLength":
+			return (long)readable().length;
+		case "readBytes":
+			return readBytes((byte[])args[0], args.length>1 ? (Integer)args[1] : ((byte[])args[0]).length);
+		case "writeBytes":
+			if (written==null) throw new javax.jms.IllegalStateException("The message is read only");
+			if (args.length>1) {
+				written.write((byte[])args[0], (Integer)args[1], (Integer)args[2]);
+			} else {
+				written.write((byte[])args[0]);
+			}
+			return null;
+		case "reset":
+			if (written!=null) {
+				bytes   = written.toByteArray();
+				written = null;
+			}
+			read = 0;
+			return null;
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return toString();
+		default:
+			break;
+		}
+
+		if (name.endsWith("Property") && name.length()>11) {
+			final String type = name.substring(3, name.length()-8);
+			if (name.startsWith("get")) return convert(properties.get(args[0]), type);
+			if (name.startsWith("set")) {
+				properties.put((String)args[0], args[1]);
+				return null;
+			}
+		}
+		throw new UnsupportedOperationException("The in memory broker does not support "+method);
+	}
+
+	private byte[] readable() throws JMSException {
+		if (written!=null) throw new javax.jms.IllegalStateException("The message is write only");
+		return bytes!=null ? bytes : new byte[0];
+	}
+
+	private int readBytes(byte[] into, int length) throws JMSException {
+		final byte[] body = readable();
+		if (read>=body.length) return -1;
+		final int count = Math.min(Math.min(length, into.length), body.length-read);
+		System.arraycopy(body, read, into, 0, count);
+		read+=count;
+		return count;
+	}
+
+	/**
+	 * Converts a property in the way that JMS allows.
+	 */
+	private static Object convert(Object value, String type) throws JMSException {
+
+		switch (type) {
+		case "Object":
+			return value;
+		case "String":
+			return value!=null ? value.toString() : null;
+		case "Boolean":
+			if (value instanceof Boolean) return value;
+			return value==null || value instanceof String ? Boolean.valueOf((String)value) : fail(value, type);
+		default:
+			break;
+		}
+
+		if (value==null) throw new NumberFormatException("There is no property to read as "+type);
+		final Number number;
+		if (value instanceof Number) {
+			number = (Number)value;
+		} else if (value instanceof String) {
+			number = Double.valueOf((String)value);
+		} else {
+			return fail(value, type);
+		}
+		switch (type) {
+		case "Byte":
+			return number.byteValue();
+		case "Short":
+			return number.shortValue();
+		case "Int":
+			return number.intValue();
+		case "Long":
+			return number.longValue();
+		case "Float":
+			return number.floatValue();
+		case "Double":
+			return number.doubleValue();
+		default:
+			return fail(value, type);
+		}
+	}
+
+	private static Object fail(Object value, String type) throws JMSException {
+		throw new javax.jms.MessageFormatException("Cannot read "+value+" as "+type);
+	}
+
+	@Override
+	public synchronized String toString() {
+		return "MemoryMessage [kind=" + kind + ", messageId=" + messageId + ", destination=" + destination + ", properties=" + properties
+				+ (text!=null ? ", text=" + text : "") + (bytes!=null ? ", bytes=" + Arrays.toString(Arrays.copyOf(bytes, Math.min(bytes.length, 16))) : "") + "]";
+	}
+}
@@ -0,0 +1,141 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import javax.jms.DeliveryMode;
+import javax.jms.Destination;
+import javax.jms.Message;
+import javax.jms.QueueSender;
+
+/**
+ * Sends copies of messages, so that the sender may change and send a
+ * message again without changing the one sent.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryProducer implements InvocationHandler, AutoCloseable {
+
+	private final MemorySession     session;
+	private final MemoryDestination destination;
+
+	private int     deliveryMode = DeliveryMode.PERSISTENT;
+	private int     priority     = Message.DEFAULT_PRIORITY;
+	private long    timeToLive   = Message.DEFAULT_TIME_TO_LIVE;
+	private boolean disableMessageID;
+	private boolean disableMessageTimestamp;
+	private volatile boolean closed;
+
+	MemoryProducer(MemorySession session, MemoryDestination destination) {
+		this.session     = session;
+		this.destination = destination;
+	}
+
+	QueueSender proxy() {
+		return (QueueSender)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{QueueSender.class}, this);
+	}
+
+	@Override
+	public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "MemoryProducer [destination="+destination+"]";
+		case "close":
+			close();
+			return null;
+		default:
+			break;
+		}
+
+		if (closed || session.isClosed()) throw new javax.jms.IllegalStateException("The producer is closed");
+		switch (name) {
+		case "send":
+			send(args);
+			return null;
+		case "setDeliveryMode":
+			deliveryMode = (Integer)args[0];
+			return null;
+		case "getDeliveryMode":
+			return deliveryMode;
+		case "setPriority":
+			priority = (Integer)args[0];
+			return null;
+		case "getPriority":
+			return priority;
+		case "setTimeToLive":
+			timeToLive = (Long)args[0];
+			return null;
+		case "getTimeToLive":
+			return timeToLive;
+		case "setDisableMessageID":
+			disableMessageID = (Boolean)args[0];
+			return null;
+		case "getDisableMessageID":
+			return disableMessageID;
+		case "setDisableMessageTimestamp":
+			disableMessageTimestamp = (Boolean)args[0];
+			return null;
+		case "getDisableMessageTimestamp":
+			return disableMessageTimestamp;
+		case "getDestination":
+		case "getQueue":
+			return destination;
+		default:
+			throw new UnsupportedOperationException("The in memory broker does not support "+method);
+		}
+	}
+
+	/**
+	 * The arguments are ([destination,] message [, deliveryMode, priority, timeToLive]).
+	 */
+	private void send(Object[] args) throws Exception {
+
+		int index = 0;
+		Destination to = destination;
+		if (args[0] instanceof Destination) {
+			if (destination!=null) throw new UnsupportedOperationException("The producer was made for "+destination);
+			to = (Destination)args[index++];
+		}
+		if (to==null) throw new javax.jms.InvalidDestinationException("The producer has no destination");
+
+		final Message message = (Message)args[index++];
+		int  mode = deliveryMode;
+		int  prio = priority;
+		long ttl  = timeToLive;
+		if (args.length>index) {
+			mode = (Integer)args[index];
+			prio = (Integer)args[index+1];
+			ttl  = (Long)args[index+2];
+		}
+
+		// The message sent has its headers set and we deliver a copy.
+		final MemoryMessage state = MemoryMessage.getState(message);
+		state.sent(session.getBroker().nextMessageId(), to, mode, prio, ttl);
+		session.send(to, state.copy());
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		session.remove(this);
+	}
+}
@@ -0,0 +1,161 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+/**
+ * The messages of a queue, or of one subscription to a topic, in the
+ * order they were sent. A message received in a transaction is held
+ * by the session until it commits, when it is removed, or rolls back,
+ * when it may be received again. Held messages are still browsed.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryQueue {
+
+	/**
+	 * Something waiting to receive, which may be closed while it waits.
+	 */
+	interface Receiver {
+		boolean isClosed();
+	}
+
+	private static final class Entry {
+		private final MemoryMessage message;
+		private Object              holder;
+		Entry(MemoryMessage message) {
+			this.message = message;
+		}
+	}
+
+	private final String            name;
+	private final LinkedList<Entry> entries;
+	private boolean                 closed;
+
+	MemoryQueue(String name) {
+		this.name    = name;
+		this.entries = new LinkedList<>();
+	}
+
+	synchronized void add(MemoryMessage message) {
+		if (closed) return;
+		entries.add(new Entry(message));
+		notifyAll();
+	}
+
+	/**
+	 * Takes the first message which is not held and matches the selector.
+	 *
+	 * @param selector may be null
+	 * @param timeout in ms, 0 to wait until a message is sent and less than 0 not to wait.
+	 * @param holder the transacted session which holds the message until it commits, or null to remove it.
+	 * @param receiver
+	 * @return the message or null if there was none in time or the receiver was closed.
+	 * @throws InterruptedException
+	 */
+	synchronized MemoryMessage take(Selector selector, long timeout, Object holder, Receiver receiver) throws InterruptedException {
+
+		final long end = timeout>0 ? System.currentTimeMillis()+timeout : Long.MAX_VALUE;
+		while(!closed && !receiver.isClosed()) {
+
+			final long now = System.currentTimeMillis();
+			for (Iterator<Entry> it = entries.iterator(); it.hasNext();) {
+				final Entry entry = it.next();
+				if (entry.holder!=null) continue;
+				if (entry.message.isExpired(now)) {
+					it.remove();
+					continue;
+				}
+				if (!Selector.matches(selector, entry.message)) continue;
+				if (holder!=null) {
+					entry.holder = holder;
+				} else {
+					it.remove();
+				}
+				return entry.message;
+			}
+
+			if (timeout<0 || now>=end) return null;
+			wait(timeout>0 ? end-now : 0);
+		}
+		return null;
+	}
+
+	/**
+	 * @param selector may be null
+	 * @return the messages which have not expired and match the selector, including those held.
+	 */
+	synchronized List<MemoryMessage> browse(Selector selector) {
+		final long now = System.currentTimeMillis();
+		final List<MemoryMessage> ret = new ArrayList<>(entries.size());
+		for (Iterator<Entry> it = entries.iterator(); it.hasNext();) {
+			final Entry entry = it.next();
+			if (entry.holder==null && entry.message.isExpired(now)) {
+				it.remove();
+				continue;
+			}
+			if (Selector.matches(selector, entry.message)) ret.add(entry.message);
+		}
+		return ret;
+	}
+
+	/**
+	 * Ends the transaction of a session.
+	 *
+	 * @param holder
+	 * @param commit true to remove the messages held, false to give them back.
+	 */
+	synchronized void release(Object holder, boolean commit) {
+		for (Iterator<Entry> it = entries.iterator(); it.hasNext();) {
+			final Entry entry = it.next();
+			if (entry.holder!=holder) continue;
+			if (commit) {
+				it.remove();
+			} else {
+				entry.holder = null;
+				entry.message.setRedelivered(true);
+			}
+		}
+		if (!commit) notifyAll();
+	}
+
+	/**
+	 * Wakes those waiting to receive, so that they see that they are closed.
+	 */
+	synchronized void wake() {
+		notifyAll();
+	}
+
+	synchronized int size() {
+		return entries.size();
+	}
+
+	synchronized void close() {
+		closed = true;
+		entries.clear();
+		notifyAll();
+	}
+
+	String getName() {
+		return name;
+	}
+
+	@Override
+	public String toString() {
+		return "MemoryQueue [name=" + name + ", size=" + size() + "]";
+	}
+}
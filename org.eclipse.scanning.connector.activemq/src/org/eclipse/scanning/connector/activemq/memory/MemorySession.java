@@ -0,0 +1,220 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.Destination;
+import javax.jms.JMSException;
+import javax.jms.Queue;
+import javax.jms.QueueSession;
+
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryQueueDestination;
+import org.eclipse.scanning.connector.activemq.memory.MemoryDestination.MemoryTopicDestination;
+import org.eclipse.scanning.connector.activemq.memory.MemoryMessage.Kind;
+
+/**
+ * A session of the in memory broker. If it is transacted the messages
+ * sent are delivered when it commits and those received are held by it
+ * until it commits, or given back when it rolls back or closes.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemorySession implements InvocationHandler {
+
+	private static final class Pending {
+		private final Destination   destination;
+		private final MemoryMessage message;
+		Pending(Destination destination, MemoryMessage message) {
+			this.destination = destination;
+			this.message     = message;
+		}
+	}
+
+	private final MemoryConnection    connection;
+	private final boolean             transacted;
+	private final int                 acknowledgeMode;
+	private final List<AutoCloseable> closeables;
+	private final List<Pending>       pending;
+	private final Set<MemoryQueue>    received;
+	private volatile boolean          closed;
+
+	MemorySession(MemoryConnection connection, boolean transacted, int acknowledgeMode) {
+		this.connection      = connection;
+		this.transacted      = transacted;
+		this.acknowledgeMode = acknowledgeMode;
+		this.closeables      = new CopyOnWriteArrayList<>();
+		this.pending         = new ArrayList<>(7);
+		this.received        = new LinkedHashSet<>(7);
+	}
+
+	QueueSession proxy() {
+		return (QueueSession)Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{QueueSession.class}, this);
+	}
+
+	MemoryConnection getConnection() {
+		return connection;
+	}
+
+	MemoryBroker getBroker() {
+		return connection.getBroker();
+	}
+
+	boolean isClosed() {
+		return closed || connection.isClosed();
+	}
+
+	void checkClosed() throws javax.jms.IllegalStateException {
+		if (isClosed()) throw new javax.jms.IllegalStateException("The session is closed");
+	}
+
+	/**
+	 * @return the session which holds messages received until it commits, or null if they are removed.
+	 */
+	Object getHolder() {
+		return transacted ? this : null;
+	}
+
+	/**
+	 * Called by consumers when they take a message, so that the session can end its transaction.
+	 */
+	synchronized void received(MemoryQueue queue) {
+		if (transacted) received.add(queue);
+	}
+
+	/**
+	 * Delivers the message now or, if the session is transacted, when it commits.
+	 */
+	void send(Destination destination, MemoryMessage message) throws JMSException {
+		if (transacted) {
+			synchronized (this) {
+				pending.add(new Pending(destination, message));
+			}
+		} else {
+			getBroker().deliver(destination, message);
+		}
+	}
+
+	void remove(AutoCloseable closeable) {
+		closeables.remove(closeable);
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		final String name = method.getName();
+		switch (name) {
+		case "equals":
+			return proxy==args[0];
+		case "hashCode":
+			return System.identityHashCode(proxy);
+		case "toString":
+			return "MemorySession [uri="+getBroker().getUri()+", transacted="+transacted+"]";
+		case "close":
+			close();
+			return null;
+		case "getTransacted":
+			return transacted;
+		case "getAcknowledgeMode":
+			return acknowledgeMode;
+		default:
+			break;
+		}
+
+		checkClosed();
+		switch (name) {
+		case "createQueue":
+			return new MemoryQueueDestination((String)args[0]);
+		case "createTopic":
+			return new MemoryTopicDestination((String)args[0]);
+		case "createMessage":
+			return new MemoryMessage(Kind.MESSAGE).proxy();
+		case "createTextMessage":
+			MemoryMessage text = new MemoryMessage(Kind.TEXT);
+			if (args!=null && args.length>0) text.setText((String)args[0]);
+			return text.proxy();
+		case "createBytesMessage":
+			return new MemoryMessage(Kind.BYTES).proxy();
+		case "createConsumer":
+		case "createReceiver":
+			Destination destination = (Destination)args[0];
+			String selector = args.length>1 ? (String)args[1] : null;
+			MemoryConsumer consumer = new MemoryConsumer(this, getDestination(destination), Selector.get(selector));
+			closeables.add(consumer);
+			return consumer.proxy();
+		case "createProducer":
+		case "createSender":
+			MemoryProducer producer = new MemoryProducer(this, args[0]!=null ? getDestination((Destination)args[0]) : null);
+			closeables.add(producer);
+			return producer.proxy();
+		case "createBrowser":
+			MemoryBrowser browser = new MemoryBrowser(this, (MemoryQueueDestination)getDestination((Queue)args[0]), Selector.get(args.length>1 ? (String)args[1] : null));
+			closeables.add(browser);
+			return browser.proxy();
+		case "commit":
+			checkTransacted();
+			end(true);
+			return null;
+		case "rollback":
+			checkTransacted();
+			end(false);
+			return null;
+		case "recover":
+			if (transacted) throw new javax.jms.IllegalStateException("A transacted session cannot recover");
+			return null; // Messages are acknowledged when they are received.
+		default:
+			throw new UnsupportedOperationException("The in memory broker does not support "+method);
+		}
+	}
+
+	private static MemoryDestination getDestination(Destination destination) throws JMSException {
+		if (destination instanceof MemoryDestination) return (MemoryDestination)destination;
+		throw new javax.jms.InvalidDestinationException("The destination "+destination+" was not made by the in memory broker");
+	}
+
+	private void checkTransacted() throws javax.jms.IllegalStateException {
+		if (!transacted) throw new javax.jms.IllegalStateException("The session is not transacted");
+	}
+
+	/**
+	 * Commits or rolls back the messages sent and received since the last time.
+	 */
+	private void end(boolean commit) throws JMSException {
+		final List<Pending>     send;
+		final List<MemoryQueue> queues;
+		synchronized (this) {
+			send   = new ArrayList<>(pending);
+			queues = new ArrayList<>(received);
+			pending.clear();
+			received.clear();
+		}
+		for (MemoryQueue queue : queues) queue.release(this, commit);
+		if (commit) for (Pending p : send) getBroker().deliver(p.destination, p.message);
+	}
+
+	void close() throws Exception {
+		if (closed) return;
+		closed = true;
+		for (AutoCloseable closeable : closeables) closeable.close();
+		closeables.clear();
+		if (transacted) end(false);
+		connection.removeSession(this);
+	}
+}
@@ -0,0 +1,77 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.util.Collection;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * A topic gives a copy of each message sent to it to each subscription
+ * which selects it. Subscriptions only see messages sent after they are made.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MemoryTopic {
+
+	private static final class Subscription {
+		private final MemoryQueue queue;
+		private final Selector    selector;
+		Subscription(MemoryQueue queue, Selector selector) {
+			this.queue    = queue;
+			this.selector = selector;
+		}
+	}
+
+	private final String                   name;
+	private final Collection<Subscription> subscriptions;
+
+	MemoryTopic(String name) {
+		this.name          = name;
+		this.subscriptions = new CopyOnWriteArrayList<>();
+	}
+
+	/**
+	 * @param selector may be null
+	 * @return the queue of the messages sent to the subscription.
+	 */
+	MemoryQueue subscribe(Selector selector) {
+		final MemoryQueue queue = new MemoryQueue(name);
+		subscriptions.add(new Subscription(queue, selector));
+		return queue;
+	}
+
+	void unsubscribe(MemoryQueue queue) {
+		for (Subscription subscription : subscriptions) {
+			if (subscription.queue==queue) subscriptions.remove(subscription);
+		}
+		queue.close();
+	}
+
+	void publish(MemoryMessage message) {
+		for (Subscription subscription : subscriptions) {
+			if (Selector.matches(subscription.selector, message)) subscription.queue.add(message.copy());
+		}
+	}
+
+	int getSubscriberCount() {
+		return subscriptions.size();
+	}
+
+	void close() {
+		for (Subscription subscription : subscriptions) unsubscribe(subscription.queue);
+	}
+
+	String getName() {
+		return name;
+	}
+}
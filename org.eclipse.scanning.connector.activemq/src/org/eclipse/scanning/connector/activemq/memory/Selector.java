@@ -0,0 +1,325 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.activemq.memory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.jms.JMSException;
+
+/**
+ * The part of the JMS message selector syntax which the in memory broker
+ * understands: headers and properties compared with =, &lt;&gt;, &lt;, &gt;,
+ * &lt;= and &gt;= to strings, numbers and booleans, IS [NOT] NULL, NOT, AND,
+ * OR and brackets. For instance <code>scanningUniqueId IS NULL</code> or
+ * <code>JMSMessageID = 'ID:1'</code>. Comparisons with a missing value
+ * are false.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class Selector {
+
+	private static final Map<String, Selector> cache = new ConcurrentHashMap<>(89);
+
+	private interface Expression {
+		Object evaluate(MemoryMessage message);
+	}
+
+	private final String     text;
+	private final Expression expression;
+
+	private Selector(String text, Expression expression) {
+		this.text       = text;
+		this.expression = expression;
+	}
+
+	/**
+	 * @param text
+	 * @return the selector or null if the text is null or empty, which selects everything.
+	 * @throws JMSException if the selector cannot be read.
+	 */
+	static Selector get(String text) throws JMSException {
+		if (text==null || text.trim().isEmpty()) return null;
+		Selector selector = cache.get(text);
+		if (selector==null) {
+			Parser parser = new Parser(text);
+			selector = new Selector(text, parser.parse());
+			if (cache.size()<1024) cache.put(text, selector); // Selectors on unique ids are not reused much
+		}
+		return selector;
+	}
+
+	static boolean matches(Selector selector, MemoryMessage message) {
+		return selector==null || Boolean.TRUE.equals(selector.expression.evaluate(message));
+	}
+
+	@Override
+	public String toString() {
+		return text;
+	}
+
+	private static final class Parser {
+
+		private final String       text;
+		private final List<Object> tokens;
+		private int                pos;
+
+		Parser(String text) throws JMSException {
+			this.text   = text;
+			this.tokens = tokenize(text);
+		}
+
+		Expression parse() throws JMSException {
+			Expression ret = or();
+			if (pos<tokens.size()) throw error("Unexpected '"+tokens.get(pos)+"'");
+			return ret;
+		}
+
+		private Expression or() throws JMSException {
+			Expression left = and();
+			while(accept("OR")) {
+				final Expression l = left, r = and();
+				left = new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return Boolean.TRUE.equals(l.evaluate(message)) || Boolean.TRUE.equals(r.evaluate(message));
+					}
+				};
+			}
+			return left;
+		}
+
+		private Expression and() throws JMSException {
+			Expression left = not();
+			while(accept("AND")) {
+				final Expression l = left, r = not();
+				left = new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return Boolean.TRUE.equals(l.evaluate(message)) && Boolean.TRUE.equals(r.evaluate(message));
+					}
+				};
+			}
+			return left;
+		}
+
+		private Expression not() throws JMSException {
+			if (accept("NOT")) {
+				final Expression e = not();
+				return new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return !Boolean.TRUE.equals(e.evaluate(message));
+					}
+				};
+			}
+			return comparison();
+		}
+
+		private Expression comparison() throws JMSException {
+
+			final Expression left = primary();
+			if (accept("IS")) {
+				final boolean not = accept("NOT");
+				if (!accept("NULL")) throw error("Expected NULL");
+				return new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return (left.evaluate(message)==null) != not;
+					}
+				};
+			}
+			if (pos<tokens.size() && tokens.get(pos) instanceof Operator) {
+				final Operator   op    = (Operator)tokens.get(pos++);
+				final Expression right = primary();
+				return new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return op.compare(left.evaluate(message), right.evaluate(message));
+					}
+				};
+			}
+			return left;
+		}
+
+		private Expression primary() throws JMSException {
+
+			if (pos>=tokens.size()) throw error("Unexpected end");
+			final Object token = tokens.get(pos++);
+			if ("(".equals(token)) {
+				Expression e = or();
+				if (!accept(")")) throw error("Expected )");
+				return e;
+			}
+			if (token instanceof Literal) {
+				final Object value = ((Literal)token).value;
+				return new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return value;
+					}
+				};
+			}
+			if (token instanceof String && isIdentifier((String)token)) {
+				final String name = (String)token;
+				return new Expression() {
+					@Override
+					public Object evaluate(MemoryMessage message) {
+						return message.getValue(name);
+					}
+				};
+			}
+			throw error("Unexpected '"+token+"'");
+		}
+
+		private boolean accept(String keyword) {
+			if (pos<tokens.size() && tokens.get(pos) instanceof String && keyword.equalsIgnoreCase((String)tokens.get(pos))) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		private static boolean isIdentifier(String token) {
+			if (!Character.isJavaIdentifierStart(token.charAt(0))) return false;
+			switch (token.toUpperCase()) {
+			case "AND": case "OR": case "NOT": case "IS": case "NULL":
+				return false;
+			default:
+				return true;
+			}
+		}
+
+		private JMSException error(String message) {
+			return new JMSException(message+" in selector \""+text+"\"");
+		}
+
+		/**
+		 * Literals, operators, brackets and words.
+		 */
+		private List<Object> tokenize(String text) throws JMSException {
+
+			final List<Object> ret = new ArrayList<>(7);
+			int i = 0;
+			while(i<text.length()) {
+				final char c = text.charAt(i);
+				if (Character.isWhitespace(c)) {
+					i++;
+				} else if (c=='\'') {
+					final StringBuilder buf = new StringBuilder();
+					i++;
+					while(true) {
+						if (i>=text.length()) throw error("Unterminated string");
+						final char s = text.charAt(i++);
+						if (s=='\'') {
+							if (i<text.length() && text.charAt(i)=='\'') {
+								buf.append('\'');
+								i++;
+							} else {
+								break;
+							}
+						} else {
+							buf.append(s);
+						}
+					}
+					ret.add(new Literal(buf.toString()));
+				} else if (c=='(' || c==')') {
+					ret.add(String.valueOf(c));
+					i++;
+				} else if ("=<>".indexOf(c)>-1) {
+					final int start = i++;
+					if (i<text.length() && "=>".indexOf(text.charAt(i))>-1 && c!='=') i++;
+					ret.add(Operator.get(text.substring(start, i)));
+				} else if (Character.isDigit(c) || c=='-' || c=='.') {
+					final int start = i++;
+					while(i<text.length() && (Character.isDigit(text.charAt(i)) || ".eE".indexOf(text.charAt(i))>-1)) i++;
+					try {
+						ret.add(new Literal(Double.valueOf(text.substring(start, i))));
+					} catch (NumberFormatException ne) {
+						throw error("Cannot read number "+text.substring(start, i));
+					}
+				} else if (Character.isJavaIdentifierStart(c)) {
+					final int start = i++;
+					while(i<text.length() && Character.isJavaIdentifierPart(text.charAt(i))) i++;
+					final String word = text.substring(start, i);
+					if ("TRUE".equalsIgnoreCase(word))  {
+						ret.add(new Literal(Boolean.TRUE));
+					} else if ("FALSE".equalsIgnoreCase(word)) {
+						ret.add(new Literal(Boolean.FALSE));
+					} else {
+						ret.add(word);
+					}
+				} else {
+					throw error("Unexpected '"+c+"'");
+				}
+			}
+			return ret;
+		}
+	}
+
+	private static final class Literal {
+		private final Object value;
+		Literal(Object value) {
+			this.value = value;
+		}
+		@Override
+		public String toString() {
+			return String.valueOf(value);
+		}
+	}
+
+	private enum Operator {
+		EQ("="), NE("<>"), LT("<"), GT(">"), LE("<="), GE(">=");
+
+		private final String symbol;
+		Operator(String symbol) {
+			this.symbol = symbol;
+		}
+
+		static Operator get(String symbol) {
+			for (Operator op : values()) if (op.symbol.equals(symbol)) return op;
+			throw new IllegalArgumentException("No operator "+symbol);
+		}
+
+		Boolean compare(Object left, Object right) {
+			if (left==null || right==null) return false;
+			final int cmp;
+			if (left instanceof Number && right instanceof Number) {
+				cmp = Double.compare(((Number)left).doubleValue(), ((Number)right).doubleValue());
+			} else if (left instanceof String && right instanceof String) {
+				cmp = ((String)left).compareTo((String)right);
+			} else if (left instanceof Boolean && right instanceof Boolean) {
+				if (this!=EQ && this!=NE) return false;
+				cmp = left.equals(right) ? 0 : 1;
+			} else {
+				return false;
+			}
+			switch (this) {
+			case EQ: return cmp==0;
+			case NE: return cmp!=0;
+			case LT: return cmp<0;
+			case GT: return cmp>0;
+			case LE: return cmp<=0;
+			case GE: return cmp>=0;
+			default: return false;
+			}
+		}
+
+		@Override
+		public String toString() {
+			return symbol;
+		}
+	}
+}
@@ -0,0 +1,384 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scanning.api.malcolm.event.IMalcolmListener;
+import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
+import org.epics.pvaClient.PvaClient;
+import org.epics.pvaClient.PvaClientChannel;
+import org.epics.pvaClient.PvaClientChannelStateChangeRequester;
+import org.epics.pvdata.pv.Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The channels to the Epics V4 devices, shared by the requests made to a device
+ * rather than created, connected and destroyed for each one. A channel is
+ * connected when it is first acquired and is reference counted, once nothing
+ * holds it, it stays open for the idle time and is then destroyed.
+ *
+ * pvAccess reconnects a channel when its device comes back, a channel which is
+ * found disconnected is waited for and if it does not come back and nothing
+ * else holds it, it is created again.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class EpicsV4ChannelCache implements AutoCloseable {
+
+	private static final Logger logger = LoggerFactory.getLogger(EpicsV4ChannelCache.class);
+
+	/**
+	 * One thread expires the channels of every cache.
+	 */
+	private static final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "Epics V4 Channel Expiry");
+		thread.setDaemon(true);
+		thread.setPriority(Thread.MIN_PRIORITY);
+		return thread;
+	});
+
+	/**
+	 * Time in ms a channel which nothing holds stays open, default 60000.
+	 * Set org.eclipse.scanning.connector.epics.channelIdleTime to change,
+	 * 0 gives each request a channel of its own which is destroyed when it is released.
+	 */
+	public static long getIdleTime() {
+		return Long.getLong("org.eclipse.scanning.connector.epics.channelIdleTime", 60000);
+	}
+
+	private final PvaClient           client;
+	private final String              provider;
+	private final long                idleTime;
+	private final Map<String, Entry>  channels;
+	private final ScheduledFuture<?>  sweep;
+	private volatile boolean          closed;
+
+	private final AtomicLong hits        = new AtomicLong();
+	private final AtomicLong connects    = new AtomicLong();
+	private final AtomicLong connectTime = new AtomicLong();
+	private final AtomicLong reconnects  = new AtomicLong();
+	private final AtomicLong expired     = new AtomicLong();
+
+	public EpicsV4ChannelCache(PvaClient client, String provider) {
+		this(client, provider, getIdleTime());
+	}
+
+	public EpicsV4ChannelCache(PvaClient client, String provider, long idleTime) {
+		this.client   = client;
+		this.provider = provider;
+		this.idleTime = idleTime;
+		this.channels = new HashMap<>(7);
+		if (idleTime>0) {
+			long period = Math.max(10, idleTime/4);
+			this.sweep = sweeper.scheduleWithFixedDelay(this::expire, period, period, TimeUnit.MILLISECONDS);
+		} else {
+			this.sweep = null;
+		}
+	}
+
+	/**
+	 * Acquires the channel to a device, connecting it if it is not connected.
+	 * The lease must be closed when the request is done.
+	 *
+	 * @param name of the device
+	 * @param timeout in seconds to wait for the connection, 0 waits forever.
+	 * @return the lease of the connected channel
+	 * @throws Exception if the channel cannot be connected.
+	 */
+	public Lease acquire(String name, double timeout) throws Exception {
+		Entry entry;
+		synchronized (channels) {
+			entry = idleTime>0 ? channels.get(name) : null;
+			if (entry==null) {
+				entry = new Entry(name);
+				if (idleTime>0) channels.put(name, entry);
+			}
+			entry.refCount++;
+		}
+		try {
+			entry.connect(timeout);
+			return new Lease(entry);
+		} catch (Exception ne) {
+			release(entry);
+			throw ne;
+		}
+	}
+
+	private void release(Entry entry) {
+		synchronized (channels) {
+			entry.refCount--;
+			entry.lastUsed = System.currentTimeMillis();
+			if (entry.refCount>0) return;
+			if (idleTime>0 && !entry.invalid) return;
+			if (channels.get(entry.name)==entry) channels.remove(entry.name);
+		}
+		entry.destroy();
+	}
+
+	/**
+	 * Destroys the channels which nothing has held for the idle time.
+	 */
+	private void expire() {
+		final List<Entry> old = new ArrayList<>(4);
+		synchronized (channels) {
+			final long now = System.currentTimeMillis();
+			for (Iterator<Entry> it = channels.values().iterator(); it.hasNext();) {
+				Entry entry = it.next();
+				if (entry.refCount==0 && now-entry.lastUsed>=idleTime) {
+					it.remove();
+					old.add(entry);
+				}
+			}
+		}
+		for (Entry entry : old) {
+			logger.debug("Channel to '"+entry.name+"' expired");
+			entry.destroy();
+			expired.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Destroys every channel, held or not. The cache may still be used
+	 * and will connect new channels.
+	 */
+	public void clear() {
+		final List<Entry> all;
+		synchronized (channels) {
+			all = new ArrayList<>(channels.values());
+			channels.clear();
+		}
+		for (Entry entry : all) entry.destroy();
+	}
+
+	/**
+	 * Destroys every channel and stops looking for idle ones,
+	 * a closed cache should not be used again.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		if (sweep!=null) sweep.cancel(false);
+		clear();
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * @return the number of channels open.
+	 */
+	public int size() {
+		synchronized (channels) {
+			return channels.size();
+		}
+	}
+
+	/**
+	 * @return the number of acquires which found the channel connected.
+	 */
+	public long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * @return the number of channels created and connected, including reconnects.
+	 */
+	public long getConnects() {
+		return connects.get();
+	}
+
+	/**
+	 * @return the total time in ms spent connecting channels.
+	 */
+	public long getConnectTime() {
+		return TimeUnit.NANOSECONDS.toMillis(connectTime.get());
+	}
+
+	/**
+	 * @return the number of channels created again after their device went away.
+	 */
+	public long getReconnects() {
+		return reconnects.get();
+	}
+
+	/**
+	 * @return the number of channels destroyed after the idle time.
+	 */
+	public long getExpired() {
+		return expired.get();
+	}
+
+	@Override
+	public String toString() {
+		return "EpicsV4ChannelCache [size=" + size() + ", hits=" + hits + ", connects=" + connects + ", connectTime="
+				+ getConnectTime() + "ms, reconnects=" + reconnects + ", expired=" + expired + "]";
+	}
+
+	/**
+	 * A channel held for a request, close it when the request is done.
+	 */
+	public final class Lease implements AutoCloseable {
+
+		private final Entry         entry;
+		private final AtomicBoolean closed = new AtomicBoolean(false);
+
+		private Lease(Entry entry) {
+			this.entry = entry;
+		}
+
+		public PvaClientChannel getChannel() {
+			return entry.channel;
+		}
+
+		/**
+		 * @return true if pvAccess has the channel connected now.
+		 */
+		public boolean isConnected() {
+			PvaClientChannel channel = entry.channel;
+			return channel!=null && channel.getChannel()!=null && channel.getChannel().isConnected();
+		}
+
+		/**
+		 * Tells the listener when the channel connects and disconnects,
+		 * for as long as the channel is open.
+		 */
+		public void addConnectionListener(IMalcolmListener<Boolean> listener) {
+			entry.listeners.add(listener);
+		}
+
+		public void removeConnectionListener(IMalcolmListener<Boolean> listener) {
+			entry.listeners.remove(listener);
+		}
+
+		/**
+		 * The channel will be destroyed when it is released rather than kept,
+		 * call when a request found it disconnected.
+		 */
+		public void invalidate() {
+			entry.invalid = true;
+		}
+
+		@Override
+		public void close() {
+			if (closed.getAndSet(true)) return;
+			release(entry);
+		}
+	}
+
+	private class Entry implements PvaClientChannelStateChangeRequester {
+
+		private final String                                  name;
+		private final List<IMalcolmListener<Boolean>>         listeners = new CopyOnWriteArrayList<>();
+
+		// Guarded by channels
+		private int              refCount;
+		private long             lastUsed;
+
+		// Written under this
+		private volatile PvaClientChannel channel;
+		private boolean                   connected;
+
+		private volatile boolean invalid;
+
+		Entry(String name) {
+			this.name = name;
+		}
+
+		synchronized void connect(double timeout) throws Exception {
+
+			if (channel==null) {
+				create(timeout);
+				return;
+			}
+			if (connected) {
+				hits.incrementAndGet();
+				return;
+			}
+
+			// pvAccess reconnects the channel when the device comes back, we give it the timeout.
+			final long millis = (long)(timeout*1000);
+			final long end    = System.currentTimeMillis()+millis;
+			while(!connected && (millis<=0 || System.currentTimeMillis()<end)) {
+				wait(millis<=0 ? 0 : Math.max(1, end-System.currentTimeMillis()));
+			}
+			if (connected) {
+				hits.incrementAndGet();
+				return;
+			}
+
+			int held;
+			synchronized (channels) {
+				held = refCount;
+			}
+			if (held>1) throw new Exception("Failed to connect to device '" + name + "' (channel disconnected)");
+
+			channel.destroy();
+			channel = null;
+			reconnects.incrementAndGet();
+			create(timeout);
+		}
+
+		private void create(double timeout) throws Exception {
+			final long start = System.nanoTime();
+			PvaClientChannel pvaChannel = client.createChannel(name, provider);
+			pvaChannel.issueConnect();
+			Status status = pvaChannel.waitConnect(timeout);
+			if (!status.isOK()) {
+				pvaChannel.destroy();
+				throw new Exception("Failed to connect to device '" + name + "' (" + status.getType() + ": " + status.getMessage() + ")");
+			}
+			connectTime.addAndGet(System.nanoTime()-start);
+			connects.incrementAndGet();
+			channel   = pvaChannel;
+			connected = true;
+			pvaChannel.setStateChangeRequester(this);
+		}
+
+		@Override
+		public void channelStateChange(PvaClientChannel changed, boolean isConnected) {
+			synchronized (this) {
+				if (changed!=channel) return;
+				connected = isConnected;
+				notifyAll();
+			}
+			for (IMalcolmListener<Boolean> listener : listeners) {
+				listener.eventPerformed(new MalcolmEvent<Boolean>(isConnected));
+			}
+		}
+
+		synchronized void destroy() {
+			if (channel==null) return;
+			try {
+				channel.destroy();
+			} catch (Exception ne) {
+				logger.warn("Cannot destroy channel to '"+name+"'", ne);
+			}
+			channel   = null;
+			connected = false;
+		}
+	}
+}
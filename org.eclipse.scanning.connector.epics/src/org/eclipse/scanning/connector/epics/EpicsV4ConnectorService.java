@@ -16,6 +16,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Hashtable;
+import java.util.List;
 import java.util.Map;
 import java.util.Vector;
 
@@ -28,8 +29,6 @@ import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
 import org.eclipse.scanning.api.malcolm.message.Type;
 import org.epics.pvaClient.PvaClient;
-import org.epics.pvaClient.PvaClientChannel;
-import org.epics.pvaClient.PvaClientChannelStateChangeRequester;
 import org.epics.pvaClient.PvaClientGet;
 import org.epics.pvaClient.PvaClientGetData;
 import org.epics.pvaClient.PvaClientMonitor;
@@ -67,24 +66,53 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 
 	private PvaClient pvaClient;
 
+	private volatile EpicsV4ChannelCache channels;
+
     private Map<Long, Collection<EpicsV4MonitorListener>> listeners;
 
+    // The channel held for each connection state listener, released when it unsubscribes.
+    private Map<IMalcolmListener<Boolean>, EpicsV4ChannelCache.Lease> stateLeases;
+
     public EpicsV4ConnectorService() {
 		mapper = new EpicsV4MessageMapper();
 		this.listeners = new Hashtable<Long, Collection<EpicsV4MonitorListener>>(7);
+		this.stateLeases = new Hashtable<IMalcolmListener<Boolean>, EpicsV4ChannelCache.Lease>(7);
 		pvaClient = PvaClient.get("pva"); // Should this be "pva" or the no-argument one?
+		channels = new EpicsV4ChannelCache(pvaClient, "pva");
 	}
 
 	@Override
 	public void connect(URI malcolmUri) throws MalcolmDeviceException {
 		// don't need uri as no centralised connection is needed for Malcolm Devices
+		synchronized (this) {
+			if (channels.isClosed()) channels = new EpicsV4ChannelCache(pvaClient, "pva");
+		}
 	}
 
 	@Override
 	public void disconnect() throws MalcolmDeviceException {
         //pvaClient.destroy();
+		final List<Map.Entry<IMalcolmListener<Boolean>, EpicsV4ChannelCache.Lease>> held;
+		synchronized (stateLeases) {
+			held = new ArrayList<>(stateLeases.entrySet());
+			stateLeases.clear();
+		}
+		for (Map.Entry<IMalcolmListener<Boolean>, EpicsV4ChannelCache.Lease> entry : held) {
+			entry.getValue().removeConnectionListener(entry.getKey());
+			entry.getValue().close();
+		}
+		channels.close();
  	}
 
+	/**
+	 * The channels shared by the requests to each device, which may be
+	 * asked how often they were reused.
+	 * @return the channel cache
+	 */
+	public EpicsV4ChannelCache getChannelCache() {
+		return channels;
+	}
+
 	public PVStructure pvMarshal(Object anyObject) throws Exception {
 		return mapper.pvMarshal(anyObject);
 	}
@@ -131,16 +159,15 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 
 		try {
 			EpicsV4ClientMonitorRequester monitorRequester = new EpicsV4ClientMonitorRequester(listener, msg);
-			PvaClientChannel pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-	        pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-	        	String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-	        	logger.error(errMEssage);
-	        	throw new Exception(errMEssage);
-	        }
-
-	        PvaClientMonitor monitor = pvaChannel.monitor(msg.getEndpoint(),monitorRequester,monitorRequester);
+			// The channel is held until the monitor is stopped
+			EpicsV4ChannelCache.Lease lease = channels.acquire(device.getName(), REQUEST_TIMEOUT);
+			PvaClientMonitor monitor;
+			try {
+				monitor = lease.getChannel().monitor(msg.getEndpoint(),monitorRequester,monitorRequester);
+			} catch (Exception ne) {
+				lease.close();
+				throw ne;
+			}
 
 	        Collection<EpicsV4MonitorListener> ls = listeners.get(msg.getId());
 			if (ls == null) {
@@ -148,7 +175,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 				listeners.put(msg.getId(), ls);
 			}
 
-			EpicsV4MonitorListener monitorListener = new EpicsV4MonitorListener(listener, monitor);
+			EpicsV4MonitorListener monitorListener = new EpicsV4MonitorListener(listener, monitor, lease);
 			ls.add(monitorListener);
 		} catch (Exception ex) {
 			ex.printStackTrace();
@@ -162,15 +189,14 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			throws MalcolmDeviceException  {
 
 		try {
-			PvaClientChannel pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-	        pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(0); // Wait forever for this connection.
-	        if(!status.isOK()) {
-	        	String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-	        	logger.error(errMEssage);
-	        	throw new Exception(errMEssage);
-	        }
-	        pvaChannel.setStateChangeRequester(new StateChangeRequester(listener));
+			// Wait forever for this connection, the channel is then held until the service is disconnected.
+			EpicsV4ChannelCache.Lease lease = channels.acquire(device.getName(), 0);
+			lease.addConnectionListener(listener);
+			EpicsV4ChannelCache.Lease previous = stateLeases.put(listener, lease);
+			if (previous!=null) { // The listener was subscribed again, it only needs one channel.
+				previous.removeConnectionListener(listener);
+				previous.close();
+			}
 
 		} catch (Exception ex) {
 			ex.printStackTrace();
@@ -179,6 +205,16 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 		}
 	}
 
+	@Override
+	public void unsubscribeFromConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener)
+			throws MalcolmDeviceException {
+
+		EpicsV4ChannelCache.Lease lease = stateLeases.remove(listener);
+		if (lease==null) return;
+		lease.removeConnectionListener(listener);
+		lease.close();
+	}
+
 	@Override
 	public MalcolmMessage unsubscribe(IMalcolmDevice<?> device, MalcolmMessage msg, IMalcolmListener<MalcolmMessage>... removeListeners)
 			throws MalcolmDeviceException {
@@ -192,7 +228,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 
 				for (EpicsV4MonitorListener monitorListener : listeners.get(msg.getId()))
 				{
-					monitorListener.getMonitor().stop();
+					monitorListener.stop();
 				}
 				listeners.remove(msg.getId());
 			} else {
@@ -206,7 +242,7 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 						if (Arrays.asList(removeListeners).contains(monitorListener.getMalcolmListener()))
 						{
 							toRemove.add(monitorListener);
-							monitorListener.getMonitor().stop();
+							monitorListener.stop();
 						}
 					}
 
@@ -227,22 +263,17 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	protected MalcolmMessage sendGetMessage(IMalcolmDevice<?> device, MalcolmMessage message) throws Exception {
 
 		MalcolmMessage returnMessage = new MalcolmMessage();
-		PvaClientChannel pvaChannel = null;
+		EpicsV4ChannelCache.Lease lease = null;
+		PvaClientGet pvaGet = null;
 		try {
 			PVStructure pvResult = null;
-			pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-	        pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-	        	String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-	        	throw new Exception(errMEssage);
-	        }
+			lease = channels.acquire(device.getName(), REQUEST_TIMEOUT);
 
 			String requestString = message.getEndpoint();
 			logger.debug("Get '" + requestString + "'");
-	        PvaClientGet pvaGet = pvaChannel.createGet(requestString);
+	        pvaGet = lease.getChannel().createGet(requestString);
 	        pvaGet.issueConnect();
-	        status = pvaGet.waitConnect();
+	        Status status = pvaGet.waitConnect();
 	        if(!status.isOK()) {
 	        	String errMEssage = "CreateGet failed for '" + requestString + "' (" + status.getType() + ": " + status.getMessage() + ")";
 	        	throw new Exception(errMEssage);
@@ -255,10 +286,8 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			logger.error(ex.getMessage());
 			returnMessage.setType(Type.ERROR);
 			returnMessage.setMessage(ex.getMessage());
-		}
-
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
+		} finally {
+			release(lease, pvaGet, returnMessage);
 		}
 
         return returnMessage;
@@ -275,21 +304,16 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			returnMessage.setMessage("Unable to set field value to null: " + message.getEndpoint());
         }
 
-		PvaClientChannel pvaChannel = null;
+		EpicsV4ChannelCache.Lease lease = null;
+		PvaClientPut pvaPut = null;
 
 		try {
 			String requestString = message.getEndpoint();
 
-			pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-			pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-	        	String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-	        	throw new Exception(errMEssage);
-	        }
-	        PvaClientPut pvaPut = pvaChannel.createPut(requestString);
+			lease = channels.acquire(device.getName(), REQUEST_TIMEOUT);
+	        pvaPut = lease.getChannel().createPut(requestString);
 	        pvaPut.issueConnect();
-	        status = pvaPut.waitConnect();
+	        Status status = pvaPut.waitConnect();
 	        if(!status.isOK()) {
 	        	String errMEssage = "CreatePut failed for '" + requestString + "' (" + status.getType() + ": " + status.getMessage() + ")";
 	        	throw new Exception(errMEssage);
@@ -306,10 +330,8 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			ex.printStackTrace();
 			returnMessage.setType(Type.ERROR);
 			returnMessage.setMessage("Error putting value into field " + message.getEndpoint() + ": " + ex.getMessage());
-		}
-
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
+		} finally {
+			release(lease, pvaPut, returnMessage);
 		}
 
         return returnMessage;
@@ -318,7 +340,8 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 	private MalcolmMessage sendCallMessage(IMalcolmDevice<?> device, MalcolmMessage message) {
 
 		MalcolmMessage returnMessage = new MalcolmMessage();
-		PvaClientChannel pvaChannel = null;
+		EpicsV4ChannelCache.Lease lease = null;
+		PvaClientRPC rpc = null;
 
 		try {
 			PVStructure pvResult = null;
@@ -328,18 +351,12 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			PVStructure methodStructure = pvRequest.getStructureField("method");
 			PVStructure parametersStructure = pvRequest.getStructureField("parameters");
 
-			pvaChannel = pvaClient.createChannel(device.getName(),"pva");
-			pvaChannel.issueConnect();
-	        Status status = pvaChannel.waitConnect(REQUEST_TIMEOUT);
-	        if(!status.isOK()) {
-	        	String errMEssage = "Failed to connect to device '" + device.getName() + "' (" + status.getType() + ": " + status.getMessage() + ")";
-	        	throw new Exception(errMEssage);
-	        }
+			lease = channels.acquire(device.getName(), REQUEST_TIMEOUT);
 
 			logger.debug("Call method = \n" + methodStructure + "\nEND");
-	        PvaClientRPC rpc = pvaChannel.createRPC(methodStructure);
+	        rpc = lease.getChannel().createRPC(methodStructure);
 	        rpc.issueConnect();
-	        status = rpc.waitConnect();
+	        Status status = rpc.waitConnect();
 	        if(!status.isOK()) {
 	        	String errMEssage = "CreateRPC failed for '" + message.getMethod() + "' (" + status.getType() + ": " + status.getMessage() + ")";
 	        	throw new Exception(errMEssage);
@@ -353,15 +370,31 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			ex.printStackTrace();
 			returnMessage.setType(Type.ERROR);
 			returnMessage.setMessage(ex.getMessage());
-		}
-
-		if (pvaChannel != null) {
-			pvaChannel.destroy();
+		} finally {
+			release(lease, rpc, returnMessage);
 		}
 
         return returnMessage;
 	}
 
+	/**
+	 * Destroys the request made on the channel and gives the channel back to the cache,
+	 * a channel which a request found disconnected is not reused.
+	 */
+	private static void release(EpicsV4ChannelCache.Lease lease, Object request, MalcolmMessage returnMessage) {
+		try {
+			if (request instanceof PvaClientGet) ((PvaClientGet)request).destroy();
+			if (request instanceof PvaClientPut) ((PvaClientPut)request).destroy();
+			if (request instanceof PvaClientRPC) ((PvaClientRPC)request).destroy();
+		} catch (Exception ne) {
+			logger.warn("Cannot destroy request", ne);
+		}
+		if (lease != null) {
+			if (returnMessage.getType()==Type.ERROR && !lease.isConnected()) lease.invalidate();
+			lease.close();
+		}
+	}
+
 	@Override
 	public MessageGenerator<MalcolmMessage> createDeviceConnection(IMalcolmDevice<?> device) throws MalcolmDeviceException {
 		return (MessageGenerator<MalcolmMessage>) new EpicsV4MalcolmMessageGenerator(device, this);
@@ -404,18 +437,4 @@ public class EpicsV4ConnectorService implements IMalcolmConnectorService<Malcolm
 			// TODO What to do when unlisten is called?
 		}
 	}
-
-	class StateChangeRequester implements PvaClientChannelStateChangeRequester
-    {
-		private IMalcolmListener<Boolean> listener;
-
-		public StateChangeRequester(IMalcolmListener<Boolean> listener) {
-			this.listener = listener;
-		}
-
-		@Override
-		public void channelStateChange(PvaClientChannel channel, boolean isConnected) {
-			listener.eventPerformed(new MalcolmEvent<Boolean>(isConnected));
-		}
-    }
 }
@@ -19,10 +19,27 @@ public class EpicsV4MonitorListener {
 
 	private IMalcolmListener<MalcolmMessage> malcolmListener;
 	private PvaClientMonitor monitor;
+	private EpicsV4ChannelCache.Lease lease;
 
 	public EpicsV4MonitorListener(IMalcolmListener<MalcolmMessage> malcolmListener, PvaClientMonitor monitor) {
+		this(malcolmListener, monitor, null);
+	}
+
+	public EpicsV4MonitorListener(IMalcolmListener<MalcolmMessage> malcolmListener, PvaClientMonitor monitor, EpicsV4ChannelCache.Lease lease) {
 		this.malcolmListener = malcolmListener;
 		this.monitor = monitor;
+		this.lease = lease;
+	}
+
+	/**
+	 * Stops the monitor and gives back the channel it was made on.
+	 */
+	public void stop() {
+		try {
+			monitor.stop();
+		} finally {
+			if (lease!=null) lease.close();
+		}
 	}
 	
 	public IMalcolmListener<MalcolmMessage> getMalcolmListener() {
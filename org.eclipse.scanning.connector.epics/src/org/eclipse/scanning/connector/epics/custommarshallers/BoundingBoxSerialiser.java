@@ -13,7 +13,6 @@ package org.eclipse.scanning.connector.epics.custommarshallers;
 
 import org.eclipse.scanning.api.points.models.BoundingBox;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.ScalarType;
@@ -29,18 +28,18 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class BoundingBoxSerialiser implements IPVStructureSerialiser<BoundingBox> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, BoundingBox model) throws Exception {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-				
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every BoundingBox, so built once
+	static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("fastAxisStart", ScalarType.pvDouble).
 			add("slowAxisStart", ScalarType.pvDouble).
 			add("fastAxisLength", ScalarType.pvDouble).
 			add("slowAxisLength", ScalarType.pvDouble).
 			setId("BoundingBox").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, BoundingBox model) throws Exception {
+		return STRUCTURE;
 	}
 
 	@Override
@@ -15,10 +15,10 @@ import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.FreeDrawROI;
 import org.epics.pvdata.factory.FieldFactory;
 import org.epics.pvdata.factory.PVDataFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDataCreate;
 import org.epics.pvdata.pv.PVDoubleArray;
 import org.epics.pvdata.pv.PVStructure;
@@ -26,7 +26,6 @@ import org.epics.pvdata.pv.PVUnion;
 import org.epics.pvdata.pv.PVUnionArray;
 import org.epics.pvdata.pv.ScalarType;
 import org.epics.pvdata.pv.Structure;
-import org.epics.pvdata.pv.Union;
 import org.epics.pvmarshaller.marshaller.api.IPVStructureSerialiser;
 import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
 
@@ -38,18 +37,16 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class FreeDrawROISerialiser implements IPVStructureSerialiser<FreeDrawROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, FreeDrawROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-
-		Union union = fieldCreate.createVariantUnion();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every roi, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			addArray("point", ScalarType.pvDouble).
-			addArray("points", union).
+			addArray("points", FieldFactory.getFieldCreate().createVariantUnion()).
 			setId("FreeDrawROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, FreeDrawROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
@@ -64,7 +61,13 @@ public class FreeDrawROISerialiser implements IPVStructureSerialiser<FreeDrawROI
 		PVUnion[] pvUnionArray = new PVUnion[pointsList.size()];
 		for (int i = 0; i < pointsList.size(); i++) {
 			PVUnion pvUnion = pvDataCreate.createPVVariantUnion();
-			pvUnion.set(serialiser.toPVStructure(pointsList.get(i)));
+			IROI iroi = pointsList.get(i);
+			// There may be many thousands of points, which need not go through the marshaller
+			if (iroi.getClass() == PointROI.class) {
+				pvUnion.set(PointROISerialiser.createPVStructure((PointROI)iroi));
+			} else {
+				pvUnion.set(serialiser.toPVStructure(iroi));
+			}
 			pvUnionArray[i] = pvUnion;
 		}
 		
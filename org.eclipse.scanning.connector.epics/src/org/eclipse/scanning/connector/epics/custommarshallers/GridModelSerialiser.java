@@ -13,7 +13,6 @@ package org.eclipse.scanning.connector.epics.custommarshallers;
 
 import org.eclipse.scanning.api.points.models.GridModel;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVBoolean;
 import org.epics.pvdata.pv.PVInt;
 import org.epics.pvdata.pv.PVString;
@@ -31,11 +30,8 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class GridModelSerialiser implements IPVStructureSerialiser<GridModel> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, GridModel model) throws Exception {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-				
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every GridModel, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("name", ScalarType.pvString).
 			add("fastAxisName", ScalarType.pvString).
 			add("slowAxisName", ScalarType.pvString).
@@ -44,7 +40,10 @@ public class GridModelSerialiser implements IPVStructureSerialiser<GridModel> {
 			add("snake", ScalarType.pvBoolean).
 			setId("GridModel").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, GridModel model) throws Exception {
+		return STRUCTURE;
 	}
 
 	@Override
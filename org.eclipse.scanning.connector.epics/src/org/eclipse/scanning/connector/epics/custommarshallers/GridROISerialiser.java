@@ -15,7 +15,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.GridROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
 import org.epics.pvdata.pv.PVStructure;
@@ -32,18 +31,18 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class GridROISerialiser implements IPVStructureSerialiser<GridROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, GridROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every GridROI, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("xSpacing", ScalarType.pvDouble).
 			add("ySpacing", ScalarType.pvDouble).
 			addArray("spacing", ScalarType.pvDouble).
 			addArray("point", ScalarType.pvDouble).
 			setId("RingROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, GridROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
@@ -15,7 +15,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.HyperbolicROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
 import org.epics.pvdata.pv.PVStructure;
@@ -32,11 +31,8 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class HyperbolicROISerialiser implements IPVStructureSerialiser<HyperbolicROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, HyperbolicROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every HyperbolicROI, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("semilatusRectum", ScalarType.pvDouble).
 			add("eccentricity", ScalarType.pvDouble).
 			add("asymptoteAngle", ScalarType.pvDouble).
@@ -44,7 +40,10 @@ public class HyperbolicROISerialiser implements IPVStructureSerialiser<Hyperboli
 			addArray("point", ScalarType.pvDouble).
 			setId("HyperbolicROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, HyperbolicROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
@@ -27,11 +27,15 @@ import org.python.core.PyDictionary;
  */
 public class IPointGeneratorSerialiser implements IPVStructureSerialiser<IPointGenerator> {
 
+	// The dictionary of a generator of many points is large and slow to make.
+	private final LastConversion<IPointGenerator, PyDictionary> lastConversion = new LastConversion<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, IPointGenerator generator) throws Exception {
 		if (generator instanceof PySerializable) {
 			PySerializable pySerializableGenerator = (PySerializable)generator;
 			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
+			lastConversion.put(generator, generatorAsMap);
 			return serialiser.buildStructure(generatorAsMap);
 		} else {
 			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
@@ -41,8 +45,8 @@ public class IPointGeneratorSerialiser implements IPVStructureSerialiser<IPointG
 	@Override
 	public void populatePVStructure(Serialiser serialiser, IPointGenerator generator, PVStructure pvStructure) throws Exception {
 		if (generator instanceof PySerializable) {
-			PySerializable pySerializableGenerator = (PySerializable)generator;
-			PyDictionary generatorAsMap = pySerializableGenerator.toDict();
+			PyDictionary generatorAsMap = lastConversion.take(generator);
+			if (generatorAsMap == null) generatorAsMap = ((PySerializable)generator).toDict();
 			serialiser.setValues(generatorAsMap, pvStructure);
 		} else {
 			throw new Exception("IPointGenerator wasn't PySerializable. Unable to serialise");
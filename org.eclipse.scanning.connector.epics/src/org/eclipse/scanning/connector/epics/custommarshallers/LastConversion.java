@@ -0,0 +1,50 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.connector.epics.custommarshallers;
+
+/**
+ * The conversion of the last object a serialiser built a structure for.
+ * PVMarshaller builds the structure of an object and then populates it,
+ * keeping the conversion means that a large object, a generator of many
+ * points for instance, is converted once rather than for each.
+ *
+ * The object is compared by identity and the conversion is dropped once
+ * it is taken, so an object changed between messages is converted again.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class LastConversion<K, V> {
+
+	private K key;
+	private V value;
+
+	/**
+	 * Call when the structure of the object is built.
+	 */
+	synchronized void put(K key, V value) {
+		this.key   = key;
+		this.value = value;
+	}
+
+	/**
+	 * Call when the structure is populated.
+	 * @return the conversion of the object or null if the last structure built was not for it.
+	 */
+	synchronized V take(K key) {
+		if (this.key!=key) return null;
+		V ret = value;
+		this.key   = null;
+		this.value = null;
+		return ret;
+	}
+}
@@ -15,7 +15,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.LinearROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
 import org.epics.pvdata.pv.PVStructure;
@@ -32,17 +31,17 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class LinearROISerialiser implements IPVStructureSerialiser<LinearROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, LinearROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every LinearROI, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("length", ScalarType.pvDouble).
 			add("angle", ScalarType.pvDouble).
 			addArray("point", ScalarType.pvDouble).
 			setId("LinearROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, LinearROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
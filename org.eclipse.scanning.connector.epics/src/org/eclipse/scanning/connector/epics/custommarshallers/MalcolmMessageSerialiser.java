@@ -15,9 +15,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
-import org.epics.pvdata.factory.ConvertFactory;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.Convert;
 import org.epics.pvdata.pv.Field;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVString;
@@ -35,9 +33,26 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmMessage> {
 
-	private Convert convert = ConvertFactory.getConvert();
-	private FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-	
+	private static final FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+
+	// Only the parameters of a call differ between messages of a type, so the rest is built once
+	private static final Structure METHOD_STRUCTURE = fieldCreate.createFieldBuilder().
+			add("method", ScalarType.pvString).
+			createStructure();
+
+	private static final Structure EMPTY_STRUCTURE = fieldCreate.createFieldBuilder().
+			createStructure();
+
+	private static final Structure GET_STRUCTURE = fieldCreate.createFieldBuilder().
+			add("type", ScalarType.pvString).
+			add("id", ScalarType.pvLong).
+			addArray("endpoint", ScalarType.pvString).
+			createStructure();
+
+	private static final Structure PUT_STRUCTURE = fieldCreate.createFieldBuilder().
+			add("value", fieldCreate.createVariantUnion()).
+			createStructure();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, MalcolmMessage msg) throws Exception {
 		Structure structure = null;
@@ -45,10 +60,6 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 		switch (msg.getType()) {
 		case CALL:
 
-			Structure methodStructure = fieldCreate.createFieldBuilder().
-				add("method", ScalarType.pvString).
-				createStructure();
-
 			Field field = null;
 			
 			if (msg.getArguments() != null) {
@@ -62,25 +73,18 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 				}
 				
 			} else {
-				field = fieldCreate.createFieldBuilder().
-						createStructure();
+				field = EMPTY_STRUCTURE;
 			}
 			structure = fieldCreate.createFieldBuilder().
-				add("method", methodStructure).
+				add("method", METHOD_STRUCTURE).
 				add("parameters", field).
 				createStructure();
 			break;
 		case GET:
-			structure = fieldCreate.createFieldBuilder().
-				add("type", ScalarType.pvString).
-				add("id", ScalarType.pvLong).
-				addArray("endpoint", ScalarType.pvString).
-				createStructure();
+			structure = GET_STRUCTURE;
 			break;
 		case PUT:
-			structure = fieldCreate.createFieldBuilder().
-				add("value", fieldCreate.createVariantUnion()).
-				createStructure();
+			structure = PUT_STRUCTURE;
 			break;
 		default:
 			throw new Exception("Unexpected MalcolmMessage type");
@@ -102,10 +106,8 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 			
 			if (msg.getArguments() != null) {
 				if (msg.getArguments() instanceof Map) {
-					ParamMap paramMap = new ParamMap();
-					paramMap.setParametersFromObject((Map)msg.getArguments());
-					PVStructure params = serialiser.toPVStructure(paramMap);
-					convert.copyStructure(params.getStructureField("parameters"), parameters);
+					// Set straight into the message, the parameters may be large
+					serialiser.getMapSerialiser().setMapValues(parameters, (Map)msg.getArguments());
 				} else {
 					serialiser.setValues(msg.getArguments(), parameters);
 				}
@@ -129,14 +131,5 @@ public class MalcolmMessageSerialiser implements IPVStructureSerialiser<MalcolmM
 				this.parameters.put(key, mapObj.get(key));
 			}
 		}
-		
-		public void setParametersFromObject(Object parametersObject) throws Exception {
-			if (parametersObject instanceof Map) {
-				Map<String, Object> mapObj = (Map)parametersObject;
-				setParameters(mapObj);
-			} else {
-				throw new Exception("Non Map Parameters not supported"); // TODO make this work
-			}
-		}
 	}
 }
@@ -11,17 +11,27 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
-import java.util.LinkedHashMap;
-import java.util.List;
-import java.util.Map;
-
 import org.eclipse.scanning.api.malcolm.MalcolmTable;
 import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
-import org.epics.pvdata.pv.Field;
+import org.epics.pvdata.pv.BooleanArrayData;
+import org.epics.pvdata.pv.ByteArrayData;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.FloatArrayData;
+import org.epics.pvdata.pv.IntArrayData;
+import org.epics.pvdata.pv.LongArrayData;
+import org.epics.pvdata.pv.PVBooleanArray;
+import org.epics.pvdata.pv.PVByteArray;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVField;
+import org.epics.pvdata.pv.PVFloatArray;
+import org.epics.pvdata.pv.PVIntArray;
+import org.epics.pvdata.pv.PVLongArray;
+import org.epics.pvdata.pv.PVScalarArray;
+import org.epics.pvdata.pv.PVShortArray;
 import org.epics.pvdata.pv.PVStringArray;
 import org.epics.pvdata.pv.PVStructure;
-import org.epics.pvdata.pv.ScalarArray;
 import org.epics.pvdata.pv.ScalarType;
+import org.epics.pvdata.pv.ShortArrayData;
 import org.epics.pvdata.pv.StringArrayData;
 import org.epics.pvmarshaller.marshaller.api.IPVStructureDeserialiser;
 import org.epics.pvmarshaller.marshaller.deserialisers.Deserialiser;
@@ -69,50 +79,69 @@ public class NTTableDeserialiser implements IPVStructureDeserialiser {
 		
 		PVStructure valuePVStructure = pvStructure.getStructureField(valueField);
 		
-		@SuppressWarnings("unchecked")
-		Map<String, List<Object>> valueMap = deserialiser.getMapDeserialiser().createMapFromPVStructure(valuePVStructure, LinkedHashMap.class, Object.class);
-		
-		Map<String, Class<?>> dataTypeMap = new LinkedHashMap<>();
-		
-		// Use the PVStructure to work out the column classes
-		for (String heading : valueMap.keySet()) {
-			Field field = valuePVStructure.getSubField(heading).getField();
-			if (field instanceof ScalarArray) {
-				ScalarArray scalarArray = (ScalarArray)field;
-				ScalarType scalarType = scalarArray.getElementType();
-				switch (scalarType) {
-					case pvInt:
-						dataTypeMap.put(heading, Integer.class);
-						break;
-					case pvShort:
-						dataTypeMap.put(heading, Short.class);
-						break;
-					case pvLong:
-						dataTypeMap.put(heading, Long.class);
-						break;
-					case pvByte:
-						dataTypeMap.put(heading, Byte.class);
-						break;
-					case pvBoolean:
-						dataTypeMap.put(heading, Boolean.class);
-						break;
-					case pvFloat:
-						dataTypeMap.put(heading, Float.class);
-						break;
-					case pvDouble:
-						dataTypeMap.put(heading, Double.class);
-						break;
-					case pvString:
-						dataTypeMap.put(heading, String.class);
-						break;
-					default:
-						throw new Exception("Unsupported data type: " + scalarType);
-							
-				}
+		// The columns are copied straight from the arrays, a monitor reuses its structure.
+		// Short and byte columns are widened to int columns and float ones to double.
+		MalcolmTable malcolmTable = new MalcolmTable();
+		for (PVField column : valuePVStructure.getPVFields()) {
+			String heading = column.getFieldName();
+			if (!(column instanceof PVScalarArray)) {
+				throw new Exception("Unsupported column: " + heading);
+			}
+			PVScalarArray array = (PVScalarArray)column;
+			ScalarType scalarType = array.getScalarArray().getElementType();
+			int length = array.getLength();
+			switch (scalarType) {
+				case pvInt:
+					IntArrayData intData = new IntArrayData();
+					((PVIntArray)array).get(0, length, intData);
+					malcolmTable.addColumn(heading, copy(intData.data, intData.offset, length));
+					break;
+				case pvShort:
+					ShortArrayData shortData = new ShortArrayData();
+					((PVShortArray)array).get(0, length, shortData);
+					int[] shorts = new int[length];
+					for (int i = 0; i < length; i++) shorts[i] = shortData.data[shortData.offset+i];
+					malcolmTable.addColumn(heading, shorts);
+					break;
+				case pvLong:
+					LongArrayData longData = new LongArrayData();
+					((PVLongArray)array).get(0, length, longData);
+					malcolmTable.addColumn(heading, copy(longData.data, longData.offset, length));
+					break;
+				case pvByte:
+					ByteArrayData byteData = new ByteArrayData();
+					((PVByteArray)array).get(0, length, byteData);
+					int[] bytes = new int[length];
+					for (int i = 0; i < length; i++) bytes[i] = byteData.data[byteData.offset+i];
+					malcolmTable.addColumn(heading, bytes);
+					break;
+				case pvBoolean:
+					BooleanArrayData booleanData = new BooleanArrayData();
+					((PVBooleanArray)array).get(0, length, booleanData);
+					malcolmTable.addColumn(heading, copy(booleanData.data, booleanData.offset, length));
+					break;
+				case pvFloat:
+					FloatArrayData floatData = new FloatArrayData();
+					((PVFloatArray)array).get(0, length, floatData);
+					double[] floats = new double[length];
+					for (int i = 0; i < length; i++) floats[i] = floatData.data[floatData.offset+i];
+					malcolmTable.addColumn(heading, floats);
+					break;
+				case pvDouble:
+					DoubleArrayData doubleData = new DoubleArrayData();
+					((PVDoubleArray)array).get(0, length, doubleData);
+					malcolmTable.addColumn(heading, copy(doubleData.data, doubleData.offset, length));
+					break;
+				case pvString:
+					StringArrayData stringData = new StringArrayData();
+					((PVStringArray)array).get(0, length, stringData);
+					malcolmTable.addColumn(heading, copy(stringData.data, stringData.offset, length));
+					break;
+				default:
+					throw new Exception("Unsupported data type: " + scalarType);
+					
 			}
 		}
-		
-		MalcolmTable malcolmTable = new MalcolmTable(valueMap, dataTypeMap);
 				
 		attribute.setValue(malcolmTable);
 		
@@ -120,5 +149,34 @@ public class NTTableDeserialiser implements IPVStructureDeserialiser {
 		
 	}
 	
+	private static double[] copy(double[] data, int offset, int length) {
+		double[] ret = new double[length];
+		System.arraycopy(data, offset, ret, 0, length);
+		return ret;
+	}
+	
+	private static int[] copy(int[] data, int offset, int length) {
+		int[] ret = new int[length];
+		System.arraycopy(data, offset, ret, 0, length);
+		return ret;
+	}
+	
+	private static long[] copy(long[] data, int offset, int length) {
+		long[] ret = new long[length];
+		System.arraycopy(data, offset, ret, 0, length);
+		return ret;
+	}
+	
+	private static boolean[] copy(boolean[] data, int offset, int length) {
+		boolean[] ret = new boolean[length];
+		System.arraycopy(data, offset, ret, 0, length);
+		return ret;
+	}
+	
+	private static String[] copy(String[] data, int offset, int length) {
+		String[] ret = new String[length];
+		System.arraycopy(data, offset, ret, 0, length);
+		return ret;
+	}
 	
 }
@@ -33,6 +33,21 @@ public class PointROIDeserialiser implements IPVStructureDeserialiser {
 			throws InstantiationException, IllegalAccessException, IllegalArgumentException,
 			InvocationTargetException, NoSuchFieldException, SecurityException {
 		
+		return createPointROI(pvStructure);
+	}
+	
+	/**
+	 * @param pvStructure
+	 * @return true if the structure is of a point, which {@link #createPointROI(PVStructure)} reads.
+	 */
+	static boolean isPointROI(PVStructure pvStructure) {
+		return "PointROI".equals(pvStructure.getStructure().getID());
+	}
+	
+	/**
+	 * Reads a point without going through the marshaller, for the many points of a polygon.
+	 */
+	static PointROI createPointROI(PVStructure pvStructure) {
 		PVDoubleArray doubleArray = pvStructure.getSubField(PVDoubleArray.class, "point");
 		DoubleArrayData doubleArrayData = new DoubleArrayData();
 		doubleArray.get(0, doubleArray.getLength(), doubleArrayData);
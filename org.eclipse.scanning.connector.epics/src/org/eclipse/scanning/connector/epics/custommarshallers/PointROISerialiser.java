@@ -15,7 +15,7 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
+import org.epics.pvdata.factory.PVDataFactory;
 import org.epics.pvdata.pv.PVDoubleArray;
 import org.epics.pvdata.pv.PVStructure;
 import org.epics.pvdata.pv.ScalarType;
@@ -31,21 +31,35 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class PointROISerialiser implements IPVStructureSerialiser<PointROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, PointROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every point, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			addArray("point", ScalarType.pvDouble).
 			setId("PointROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, PointROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
 	public void populatePVStructure(Serialiser serialiser, PointROI roi, PVStructure pvStructure) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
 		PVDoubleArray point = pvStructure.getSubField(PVDoubleArray.class, "point");
-		point.put(0, roi.getPoint().length, roi.getPoint(), 0);
+		double[] values = roi.getPoint();
+		point.put(0, values.length, values, 0);
+	}
+	
+	/**
+	 * Creates the structure of a point without going through the marshaller,
+	 * for the many points of a polygon.
+	 * @param roi
+	 * @return the same structure as the marshaller makes for the point
+	 */
+	static PVStructure createPVStructure(PointROI roi) {
+		PVStructure pvStructure = PVDataFactory.getPVDataCreate().createPVStructure(STRUCTURE);
+		double[] values = roi.getPoint();
+		pvStructure.getSubField(PVDoubleArray.class, "point").put(0, values.length, values, 0);
+		return pvStructure;
 	}
 	
 }
@@ -11,7 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
@@ -46,14 +46,19 @@ public class PolylineROIDeserialiser implements IPVStructureDeserialiser {
 		UnionArrayData unionArrayData = new UnionArrayData();
 		unionArray.get(0, unionArray.getLength(), unionArrayData);
 		
-		List<IROI> iroiList = new LinkedList<>();
+		List<IROI> iroiList = new ArrayList<>(unionArrayData.data.length);
 		
 		for (int i = 0; i < unionArrayData.data.length; i++) {
 			PVUnion union = unionArrayData.data[i];
 			PVField pvField = union.get();
 			if (pvField instanceof PVStructure) {
 				PVStructure iroiPVStructure = (PVStructure)union.get();
-				IROI deserialisedIROI = deserialiser.fromPVStructure(iroiPVStructure, IROI.class);
+				IROI deserialisedIROI;
+				if (PointROIDeserialiser.isPointROI(iroiPVStructure)) {
+					deserialisedIROI = PointROIDeserialiser.createPointROI(iroiPVStructure);
+				} else {
+					deserialisedIROI = deserialiser.fromPVStructure(iroiPVStructure, IROI.class);
+				}
 				iroiList.add(deserialisedIROI);
 			}
 			else
@@ -11,8 +11,9 @@
  *******************************************************************************/
 package org.eclipse.scanning.connector.epics.custommarshallers;
 
+import java.util.ArrayList;
 import java.util.LinkedHashMap;
-import java.util.LinkedList;
+import java.util.List;
 import java.util.Map;
 
 import org.epics.pvdata.pv.PVStructure;
@@ -36,17 +37,21 @@ import org.python.core.PyUnicode;
  */
 public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictionary> {
 
+	private final LastConversion<PyDictionary, Map<String,?>> lastConversion = new LastConversion<>();
+
 	@Override
 	public Structure buildStructure(Serialiser serialiser, PyDictionary dictionary) throws Exception {
 		// Convert to map first
 		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		lastConversion.put(dictionary, dictionaryAsMap);
 		Structure structure = serialiser.getMapSerialiser().buildStructureFromMap(dictionaryAsMap);
 		return structure;
 	}
 
 	@Override
 	public void populatePVStructure(Serialiser serialiser, PyDictionary dictionary, PVStructure pvStructure) throws Exception {
-		Map<String,?> dictionaryAsMap = convertMap(dictionary);
+		Map<String,?> dictionaryAsMap = lastConversion.take(dictionary);
+		if (dictionaryAsMap == null) dictionaryAsMap = convertMap(dictionary);
 		serialiser.getMapSerialiser().setMapValues(pvStructure, dictionaryAsMap);
 	}
 	
@@ -78,7 +83,15 @@ public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictiona
 				}
 			} 
 			Object[] array = pyList.toArray();
-			LinkedList<Object> newList = new LinkedList<>();
+			
+			// Numbers are copied to an array which is put into the structure in one go
+			Object numbers = convertNumbers(array);
+			if (numbers != null) {
+				return numbers;
+			}
+			
+			// The marshaller reads lists by index
+			List<Object> newList = new ArrayList<>(array.length);
 			for (Object listElement : array) {
 				newList.add(convertPyObject(listElement));
 			}
@@ -119,4 +132,45 @@ public class PyDictionarySerialiser implements IPVStructureSerialiser<PyDictiona
 		return pyObj;
 	}
 	
+	/**
+	 * Converts a list of floats to a double[] and a list of integers to an int[],
+	 * the structure is the same as for the list.
+	 * @param values the elements of the list
+	 * @return the array or null if the values are not all floats or all integers
+	 */
+	private static Object convertNumbers(Object[] values) {
+		if (values.length == 0) {
+			return null;
+		}
+		if (values[0] instanceof PyFloat || values[0] instanceof Double) {
+			double[] doubles = new double[values.length];
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				if (value instanceof PyFloat) {
+					doubles[i] = ((PyFloat)value).getValue();
+				} else if (value instanceof Double) {
+					doubles[i] = (Double)value;
+				} else {
+					return null;
+				}
+			}
+			return doubles;
+		}
+		if (values[0] instanceof PyInteger || values[0] instanceof Integer) {
+			int[] ints = new int[values.length];
+			for (int i = 0; i < values.length; i++) {
+				Object value = values[i];
+				if (value instanceof PyInteger) {
+					ints[i] = ((PyInteger)value).getValue();
+				} else if (value instanceof Integer) {
+					ints[i] = (Integer)value;
+				} else {
+					return null;
+				}
+			}
+			return ints;
+		}
+		return null;
+	}
+	
 }
@@ -15,7 +15,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.RingROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVBoolean;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
@@ -33,18 +32,18 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class RingROISerialiser implements IPVStructureSerialiser<RingROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, RingROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every RingROI, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("averageArea", ScalarType.pvBoolean).
 			add("dpp", ScalarType.pvDouble).
 			addArray("radii", ScalarType.pvDouble).
 			addArray("point", ScalarType.pvDouble).
 			setId("RingROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, RingROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
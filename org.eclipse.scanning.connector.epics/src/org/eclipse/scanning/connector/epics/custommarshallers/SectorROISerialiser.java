@@ -15,7 +15,6 @@ import java.lang.reflect.InvocationTargetException;
 
 import org.eclipse.dawnsci.analysis.dataset.roi.SectorROI;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVBoolean;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
@@ -34,11 +33,8 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class SectorROISerialiser implements IPVStructureSerialiser<SectorROI> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, SectorROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every SectorROI, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("averageArea", ScalarType.pvBoolean).
 			add("dpp", ScalarType.pvDouble).
 			add("symmetry", ScalarType.pvInt).
@@ -48,7 +44,10 @@ public class SectorROISerialiser implements IPVStructureSerialiser<SectorROI> {
 			addArray("point", ScalarType.pvDouble).
 			setId("SectorROI").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, SectorROI roi) throws IllegalArgumentException, IllegalAccessException, InvocationTargetException {
+		return STRUCTURE;
 	}
 
 	@Override
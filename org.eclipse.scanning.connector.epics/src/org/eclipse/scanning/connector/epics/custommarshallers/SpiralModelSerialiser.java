@@ -13,7 +13,6 @@ package org.eclipse.scanning.connector.epics.custommarshallers;
 
 import org.eclipse.scanning.api.points.models.SpiralModel;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVString;
 import org.epics.pvdata.pv.PVStructure;
@@ -30,21 +29,19 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class SpiralModelSerialiser implements IPVStructureSerialiser<SpiralModel> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, SpiralModel model) throws Exception {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-		
-		Structure boundingBoxStructure = serialiser.buildStructure(model.getBoundingBox());
-		
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every SpiralModel, the bounding box has a fixed structure too
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("name", ScalarType.pvString).
-			add("boundingBox", boundingBoxStructure).
+			add("boundingBox", BoundingBoxSerialiser.STRUCTURE).
 			add("fastAxisName", ScalarType.pvString).
 			add("slowAxisName", ScalarType.pvString).
 			add("scale", ScalarType.pvDouble).
 			setId("SpiralModel").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, SpiralModel model) throws Exception {
+		return STRUCTURE;
 	}
 
 	@Override
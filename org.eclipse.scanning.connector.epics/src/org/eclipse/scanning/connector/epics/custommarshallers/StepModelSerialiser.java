@@ -13,7 +13,6 @@ package org.eclipse.scanning.connector.epics.custommarshallers;
 
 import org.eclipse.scanning.api.points.models.StepModel;
 import org.epics.pvdata.factory.FieldFactory;
-import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVString;
 import org.epics.pvdata.pv.PVStructure;
@@ -30,18 +29,18 @@ import org.epics.pvmarshaller.marshaller.serialisers.Serialiser;
  */
 public class StepModelSerialiser implements IPVStructureSerialiser<StepModel> {
 
-	@Override
-	public Structure buildStructure(Serialiser serialiser, StepModel model) throws Exception {
-		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
-				
-		Structure structure = fieldCreate.createFieldBuilder().
+	// The same for every StepModel, so built once
+	private static final Structure STRUCTURE = FieldFactory.getFieldCreate().createFieldBuilder().
 			add("name", ScalarType.pvString).
 			add("start", ScalarType.pvDouble).
 			add("stop", ScalarType.pvDouble).
 			add("step", ScalarType.pvDouble).
 			setId("StepModel").
 			createStructure();
-		return structure;
+
+	@Override
+	public Structure buildStructure(Serialiser serialiser, StepModel model) throws Exception {
+		return STRUCTURE;
 	}
 
 	@Override
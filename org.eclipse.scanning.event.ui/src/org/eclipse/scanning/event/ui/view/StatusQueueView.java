@@ -58,6 +58,8 @@ import org.eclipse.scanning.api.event.bean.BeanEvent;
 import org.eclipse.scanning.api.event.bean.IBeanListener;
 import org.eclipse.scanning.api.event.core.ConsumerConfiguration;
 import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IQueueView;
+import org.eclipse.scanning.api.event.core.QueueViewEvent;
 import org.eclipse.scanning.api.event.core.ISubmitter;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.queues.QueueViews;
@@ -141,6 +143,8 @@ public class StatusQueueView extends EventConnectionView {
 	private ISubscriber<IBeanListener<PauseBean>>            pauseMonitor;
 	private ISubscriber<IBeanListener<AdministratorMessage>> adminMonitor;
 	private ISubmitter<StatusBean>                           queueConnection;
+	private IQueueView<StatusBean>                           queueView;
+	private volatile boolean                                 rereadQueue;
 
 	private Action rerun, edit, remove, up, down, pause, pauseConsumer;
 	private IEventService service;
@@ -277,6 +281,7 @@ public class StatusQueueView extends EventConnectionView {
 			if (topicMonitor!=null) topicMonitor.disconnect();
 			if (adminMonitor!=null) adminMonitor.disconnect();
 			if (pauseSubscriber!=null) pauseSubscriber.disconnect();
+			if (queueView!=null) queueView.disconnect();
 		} catch (Exception ne) {
 			logger.warn("Problem stopping topic listening for "+getTopicName(), ne);
 		}
@@ -793,6 +798,7 @@ public class StatusQueueView extends EventConnectionView {
 	}
 
 	public void refresh() {
+		rereadQueue = true; // Others may have changed the queue
 		reconnect();
 		updateSelected();
 	}
@@ -866,11 +872,25 @@ public class StatusQueueView extends EventConnectionView {
 					monitor.worked(1);
 
 					queueConnection.setBeanClass(getBeanClass());
-					List<StatusBean> runningList = queueConnection.getQueue(getQueueName(), null);
+
+					// The view reads the queues once then keeps up to date with the topic.
+					if (queueView==null) {
+						queueView = service.createQueueView(uri, getSubmissionQueueName(), getQueueName(), getTopicName());
+						queueView.setBeanClass(getBeanClass());
+						queueView.connect();
+						// Removals and changes of order are not broadcast on the status topic.
+						queueView.addQueueViewListener(evt -> {
+							if (evt.getType()==QueueViewEvent.Type.REMOVED || evt.getType()==QueueViewEvent.Type.REFRESHED) reconnect();
+						});
+					} else if (rereadQueue) {
+						queueView.refresh();
+					}
+					rereadQueue = false;
+					List<StatusBean> runningList = queueView.getStatusSet();
 					Collections.reverse(runningList); // The list comes out with the head @ 0 but we have the last submitted at 0 in our table.
 					monitor.worked(1);
 
-					List<StatusBean> submittedList = queueConnection.getQueue(getSubmissionQueueName(), null);
+					List<StatusBean> submittedList = queueView.getSubmissionQueue();
 					Collections.reverse(submittedList); // The list comes out with the head @ 0 but we have the last submitted at 0 in our table.
 					monitor.worked(1);
 
@@ -258,7 +258,7 @@ class AbstractConnection {
 		return id1.equals(id2);
 	}
 
-	private Object getUniqueId(Object bean) {
+	protected Object getUniqueId(Object bean) {
 		
 		if (bean instanceof StatusBean) {
 			return ((StatusBean)bean).getUniqueId();
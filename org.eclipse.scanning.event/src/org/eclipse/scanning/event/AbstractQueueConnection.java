@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.event;
 
+import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,12 +76,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 	@Override
 	public List<U> getQueue() throws EventException {
 					
-		QueueReader<U> reader = new QueueReader<U>(getConnectorService(), null);
-		try {
-			return reader.getBeans(uri, getSubmitQueueName(), beanClass);
-		} catch (Exception e) {
-			throw new EventException("Cannot get the beans for queue " + getSubmitQueueName(), e);
-		}
+		return getQueue(getSubmitQueueName(), null);
 	}
 
 	@Override
@@ -92,7 +88,9 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 			
 		QueueReader<U> reader = new QueueReader<U>(service, c);
 		try {
-			return reader.getBeans(uri, qName, beanClass);
+			List<U> beans = reader.getBeans(uri, qName, beanClass);
+			if (c==null) SubmissionOrder.sort(beans, new SubmissionOrder(uri, qName, service).getOrder());
+			return beans;
 		} catch (Exception e) {
 			throw new EventException("Cannot get the beans for queue " + qName, e);
 		}
@@ -118,12 +116,25 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 			
 		} else {
 			
-			return new Comparator<U>() {		
+			final String getterName = getGetterName(fieldName);
+			return new Comparator<U>() {
+				// The getter is looked up once for each class rather than for each compare.
+				private final Map<Class<?>, Method> getters = new HashMap<>(3);
+				
+				private Object getValue(U o) throws Exception {
+					Method getter = getters.get(o.getClass());
+					if (getter==null) {
+						getter = o.getClass().getMethod(getterName);
+						getters.put(o.getClass(), getter);
+					}
+					return getter.invoke(o);
+				}
+				
 				@Override
 				public int compare(U o1, U o2) {	
 					try {
-						Object val1 = o1.getClass().getMethod(getGetterName(fieldName)).invoke(o1);
-						Object val2 = o2.getClass().getMethod(getGetterName(fieldName)).invoke(o2);
+						Object val1 = getValue(o1);
+						Object val2 = getValue(o2);
 						
 						if (val1 instanceof Number && val2 instanceof Number) {
 							Number n1 = (Number)val1;
@@ -259,7 +270,11 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 							MessageProducer producer = qSes.createProducer(queue);
 							final StatusBean    bean = failIds.get(jMSMessageID);
 							bean.setStatus(Status.FAILED);
-							producer.send(qSes.createTextMessage(service.marshal(bean)));
+							TextMessage failed = qSes.createTextMessage(service.marshal(bean));
+							if (m.propertyExists(SubmissionOrder.ID_PROPERTY)) { // Keeps its place in the order
+								failed.setStringProperty(SubmissionOrder.ID_PROPERTY, m.getStringProperty(SubmissionOrder.ID_PROPERTY));
+							}
+							producer.send(failed);
 	
 							logger.warn("Failed job "+bean.getName()+" messageid("+jMSMessageID+")");
 	
@@ -267,7 +282,9 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 					}
 				}
 			} finally {
+				StatusSetIndex.clear(uri, queueName); // Messages have been removed or sent again
 				if (qCon!=null) qCon.close();
+				QueueViewImpl.changed(uri, queueName, service);
 			}
 		} catch (Exception ne) {
 			throw new EventException("Problem connecting to "+queueName+" in order to clean it!", ne);
@@ -297,11 +314,16 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 				if (rem!=null) System.out.println("Removed "+rem);
 				consumer.close();
 			}
+			new SubmissionOrder(uri, qName, service).edit((s, q, ids) -> {
+				ids.clear();
+				return true;
+			}, false);
 
 		} catch (Exception ne) {
 			throw new EventException(ne);
 
 		} finally {
+			StatusSetIndex.clear(uri, qName);
 			if (qCon!=null) {
 				try {
 					qCon.close();
@@ -309,6 +331,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 					logger.error("Cannot close queue!", e);
 				}
 			}
+			QueueViewImpl.changed(uri, qName, service);
 		}
 	}
 	
@@ -317,6 +340,50 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 		
 		if (amount==0) return false; // Nothing to reorder, no exception required, order unchanged.
 		
+		// The bean is moved in the order, the head of the queue is at 0.
+		final List<String> order = new SubmissionOrder(uri, queueName, service).edit((session, queue, ids) -> {
+			final int index = ids.indexOf(bean.getUniqueId());
+			if (index<0) return null;
+			if (index<1 && amount>0)             throw new EventException("'"+bean.getName()+"' is already at the head of the submission queue.");
+			if (index>=ids.size()-1 && amount<0) throw new EventException("'"+bean.getName()+"' is already at the tail of the submission queue.");
+			ids.add(Math.max(0, Math.min(ids.size()-1, index-amount)), ids.remove(index));
+			return new ArrayList<>(ids);
+		}, false);
+		if (order!=null) {
+			QueueViewImpl.reordered(uri, queueName, order, service);
+			return true;
+		}
+		return reorderUnordered(bean, queueName, amount);
+	}
+
+	@Override
+	public boolean moveTo(U bean, String queueName, int index) throws EventException {
+
+		final List<String> order = new SubmissionOrder(uri, queueName, service).edit((session, queue, ids) -> {
+			final int from = ids.indexOf(bean.getUniqueId());
+			if (from<0) return null;
+			if (index<0 || index>=ids.size()) throw new EventException("Cannot move '"+bean.getName()+"' to "+index+", there are "+ids.size()+" in the submission queue.");
+			ids.add(index, ids.remove(from));
+			return new ArrayList<>(ids);
+		}, false);
+		if (order!=null) {
+			QueueViewImpl.reordered(uri, queueName, order, service);
+			return true;
+		}
+
+		final List<U> submitted = getQueue(queueName, null);
+		for (int from = 0; from < submitted.size(); from++) {
+			if (isSame(submitted.get(from), bean)) return from==index || reorder(bean, queueName, from-index);
+		}
+		throw new EventException("Cannot find bean '"+bean.getName()+"' in submission queue!\nIt might be running now.");
+	}
+
+	/**
+	 * Reorders a queue which has no order or a bean which is not in it
+	 * by writing the queue again.
+	 */
+	private boolean reorderUnordered(U bean, String queueName, int amount) throws EventException {
+		
 		PauseBean pbean = new PauseBean(queueName);
 		pbean.setMessage("Pause to reorder '"+bean.getName()+"' "+amount);
 		
@@ -363,6 +430,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 					                : (ISubmitter<U>)eservice.createSubmitter(getUri(), queueName);
 			
 		    for (U u : submitted) submitter.submit(u);
+		    QueueViewImpl.changed(uri, queueName, service);
 			
 		    return true; // It was reordered
 		    
@@ -383,6 +451,20 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 
 	@Override
 	public boolean remove(U bean, String queueName) throws EventException {
+
+		// The bean is taken by its id if it is in the order.
+		final Boolean removed = new SubmissionOrder(uri, queueName, service).edit((session, queue, ids) -> {
+			if (!ids.remove(bean.getUniqueId())) return null;
+			return SubmissionOrder.receive(session, queue, bean.getUniqueId())!=null;
+		}, false);
+		if (removed!=null) {
+			if (removed) QueueViewImpl.removed(uri, queueName, bean.getUniqueId(), service);
+			return removed;
+		}
+		return removeUnordered(bean, queueName);
+	}
+
+	private boolean removeUnordered(U bean, String queueName) throws EventException {
 			
 		QueueConnection send     = null;
 		QueueSession    session  = null;
@@ -428,6 +510,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 				MessageConsumer consumer = session.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
 				Message m = consumer.receive(1000);
 				consumer.close();
+				if (m!=null) QueueViewImpl.removed(uri, queueName, bean.getUniqueId(), service);
 				return m!=null; // It might have been removed ok
 			}
 	
@@ -437,6 +520,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 			throw new EventException("Cannot remove item "+bean, ne);
 			
 		}  finally {
+			StatusSetIndex.clear(uri, queueName);
 			if (!isAlreadyPaused) {
 				pbean.setPause(false);
 				publisher.broadcast(pbean);
@@ -453,7 +537,28 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 
 	@Override
 	public boolean replace(U bean, String queueName) throws EventException {
-			
+
+		// The message of the bean is sent again with the same id, so its place in the order is kept.
+		final Boolean replaced = new SubmissionOrder(uri, queueName, service).edit((session, queue, ids) -> {
+			if (!ids.contains(bean.getUniqueId())) return null;
+			final Message old = SubmissionOrder.receive(session, queue, bean.getUniqueId());
+			if (old==null) throw new EventException("Cannot find bean '"+bean.getName()+"' in submission queue!\nIt might be running now.");
+
+			final String json = service.marshal(bean);
+			SubmissionOrder.send(session, queue, old, json, bean.getUniqueId());
+
+			if (getStatusTopicName()!=null) { // As submit does, so that views of the queue see the change.
+				MessageProducer producer = session.createProducer(session.createTopic(getStatusTopicName()));
+				producer.send(session.createTextMessage(json));
+				producer.close();
+			}
+			return true;
+		}, false);
+		if (replaced!=null) return replaced;
+		return replaceUnordered(bean, queueName);
+	}
+
+	private boolean replaceUnordered(U bean, String queueName) throws EventException {
 		
 		PauseBean pbean = new PauseBean(queueName);
 		pbean.setMessage("Pause to replace '"+bean.getName()+"' ");
@@ -486,6 +591,7 @@ public abstract class AbstractQueueConnection<U extends StatusBean> extends Abst
 					                : (ISubmitter<U>)eservice.createSubmitter(getUri(), queueName);
 			
 		    for (U u : submitted) submitter.submit(u);
+		    QueueViewImpl.changed(uri, queueName, service);
 			
 		    return true; // It was reordered
 		    
@@ -0,0 +1,150 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.scanning.api.event.core.IAdmissionPolicy;
+import org.eclipse.scanning.api.event.status.StatusBean;
+
+/**
+ * Decides when the beans taken by a consumer which runs more than one
+ * at a time may start. A bean starts when its resources are not used by
+ * a bean which is running or by one which was taken before it and is
+ * still waiting. So beans which share resources run in the order they
+ * were taken and a bean is never held up by one taken after it.
+ * 
+ * Beans for which the policy gives no resources run on their own.
+ * 
+ * @author Matthew Gerring
+ *
+ * @param <U>
+ */
+final class AdmissionControl<U extends StatusBean> {
+
+	private final int                               max;
+	private final IAdmissionPolicy<U>               policy;
+	private final Map<String, Collection<String>>   running;
+	private final List<Waiting<U>>                  waiting;
+	private boolean                                 closed;
+
+	private static final class Waiting<U> {
+		private final U                  bean;
+		private final Collection<String> resources;
+		Waiting(U bean, Collection<String> resources) {
+			this.bean      = bean;
+			this.resources = resources;
+		}
+	}
+
+	AdmissionControl(int max, IAdmissionPolicy<U> policy) {
+		this.max     = max;
+		this.policy  = policy;
+		this.running = new LinkedHashMap<>(max);
+		this.waiting = new LinkedList<>();
+	}
+
+	/**
+	 * Blocks until fewer than the maximum number of beans are
+	 * running or waiting, so that another may be taken.
+	 * 
+	 * @return false if closed while waiting.
+	 * @throws InterruptedException
+	 */
+	synchronized boolean awaitSpace() throws InterruptedException {
+		while(!closed && running.size()+waiting.size()>=max) wait();
+		return !closed;
+	}
+
+	/**
+	 * Adds a bean which has been taken.
+	 * 
+	 * @param bean
+	 * @return the beans which may now start, in the order they were taken.
+	 */
+	synchronized List<U> offer(U bean) {
+		waiting.add(new Waiting<U>(bean, getResources(bean)));
+		return admit();
+	}
+
+	/**
+	 * Called when a bean has finished, it does nothing if the bean is not running.
+	 * 
+	 * @param uniqueId
+	 * @return the beans which may now start, in the order they were taken.
+	 */
+	synchronized List<U> release(String uniqueId) {
+		if (!running.containsKey(uniqueId)) return Collections.emptyList();
+		running.remove(uniqueId);
+		notifyAll();
+		return admit();
+	}
+
+	synchronized boolean isWaiting(String uniqueId) {
+		for (Waiting<U> w : waiting) if (w.bean.getUniqueId().equals(uniqueId)) return true;
+		return false;
+	}
+
+	synchronized boolean isRunning(String uniqueId) {
+		return running.containsKey(uniqueId);
+	}
+
+	/**
+	 * Forgets the beans waiting and stops anything waiting for space.
+	 */
+	synchronized void close() {
+		closed = true;
+		waiting.clear();
+		notifyAll();
+	}
+
+	private List<U> admit() {
+
+		List<U> admitted = null;
+		final List<Collection<String>> before = new ArrayList<>(waiting.size());
+		for (Iterator<Waiting<U>> it = waiting.iterator(); it.hasNext();) {
+			final Waiting<U> w = it.next();
+			if (!conflicts(w.resources, running.values()) && !conflicts(w.resources, before)) {
+				it.remove();
+				running.put(w.bean.getUniqueId(), w.resources);
+				if (admitted==null) admitted = new ArrayList<>(max);
+				admitted.add(w.bean);
+			} else {
+				before.add(w.resources);
+			}
+		}
+		return admitted!=null ? admitted : Collections.<U>emptyList();
+	}
+
+	private Collection<String> getResources(U bean) {
+		if (policy==null) return null;
+		return policy.getResources(bean);
+	}
+
+	/**
+	 * Null resources conflict with everything.
+	 */
+	private static boolean conflicts(Collection<String> resources, Collection<Collection<String>> others) {
+		for (Collection<String> other : others) {
+			if (resources==null || other==null) return true;
+			if (!Collections.disjoint(resources, other)) return true;
+		}
+		return false;
+	}
+}
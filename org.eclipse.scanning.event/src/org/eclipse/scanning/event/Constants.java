@@ -25,6 +25,18 @@ public class Constants {
 		NOTIFICATION_FREQUENCY = freq;
 		System.setProperty("org.eclipse.scanning.event.heartbeat.freq", String.valueOf(freq));
 	}
+
+	/**
+	 * Whether the heartbeats of consumers in one process which publish to the same topic
+	 * are sent in one message, default false. Set org.eclipse.scanning.event.heartbeat.aggregate
+	 * to true once every subscriber on the topic can read batches of heartbeats, older
+	 * subscribers do not see the beats in a batch.
+	 * 
+	 * @return
+	 */
+	public static boolean isHeartbeatAggregated() {
+		return Boolean.parseBoolean(System.getProperty("org.eclipse.scanning.event.heartbeat.aggregate", "false"));
+	}
 		
 	/**
 	 * Receive from consumer.receive(...). A higher rate might be better for some applications.
@@ -36,6 +48,30 @@ public class Constants {
     public static void setReceiveFrequency(int freq) {
     	System.setProperty("org.eclipse.scanning.event.heartbeat.freq", String.valueOf(freq));
     }
+
+	/**
+	 * The time in ms to wait for a message which is expected to be in a queue because
+	 * an index says so, default 50. The index may be out of date so this is short, if
+	 * the message does not arrive in time the queue is browsed for it instead.
+	 * Set org.eclipse.scanning.event.indexedReceiveFreq to change.
+	 * 
+	 * @return
+	 */
+	public final static long getIndexedReceiveFrequency() {
+		return Long.getLong("org.eclipse.scanning.event.indexedReceiveFreq", 50);
+	}
+
+	/**
+	 * The longest time in ms that an idle consumer waits for a bean, default 10000.
+	 * Beans normally wake the consumer as they are submitted, this is only the
+	 * longest time before one submitted by a client which does not will be seen.
+	 * Set org.eclipse.scanning.event.consumer.idleFreq to change.
+	 * 
+	 * @return
+	 */
+	public final static long getIdleReceiveFrequency() {
+		return Long.getLong("org.eclipse.scanning.event.consumer.idleFreq", 10000);
+	}
     /**
       * The timeout in ms, default 1 day. Set org.eclipse.scanning.event.heartbeat.timeout to change (in ms)
 	 */
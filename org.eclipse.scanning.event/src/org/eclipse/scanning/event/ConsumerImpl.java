@@ -20,6 +20,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -45,6 +47,7 @@ import org.eclipse.scanning.api.event.alive.KillBean;
 import org.eclipse.scanning.api.event.alive.PauseBean;
 import org.eclipse.scanning.api.event.bean.BeanEvent;
 import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IAdmissionPolicy;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IConsumerProcess;
 import org.eclipse.scanning.api.event.core.IProcessCreator;
@@ -52,6 +55,7 @@ import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IQueueReader;
 import org.eclipse.scanning.api.event.core.ISubmitter;
 import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.IntakeStatistics;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.event.status.StatusBean;
 import org.slf4j.Logger;
@@ -75,11 +79,26 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 
 	private IProcessCreator<U>            runner;
 	private boolean                       durable;
-	private MessageConsumer               mconsumer;
+	private volatile MessageConsumer      mconsumer;
+	private Session                       msession;
 
 	private volatile boolean              active;
+	private volatile boolean              woken;
+	private volatile boolean              orderChanged = true; // Look in the order when started
+	private volatile PauseBean            pauseBean;
+	private volatile boolean              pauseRead;
+
+	// Submission to start latency
+	private long                          started;
+	private double                        totalLatency;
+	private double                        maxLatency;
+	private double                        lastLatency;
 	private volatile Map<String, WeakReference<IConsumerProcess<U>>>  processes;
 	private Map<String, U>                overrideMap;
+	private int                           concurrency = 1;
+	private IAdmissionPolicy<U>           admissionPolicy;
+	private volatile AdmissionControl<U>  admission;
+	private ExecutorService               runners;
 
 	/*
 	 * Concurrency design recommended by Keith Ralphs after investigating
@@ -146,6 +165,9 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 			if (connection!=null) connection.close();
 		} catch (JMSException e) {
 			throw new EventException("Cannot close consumer connection!", e);
+		} finally {
+			mconsumer = null;
+			msession  = null;
 		}
 	}
 
@@ -158,6 +180,9 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		@Override
 		public void beanChangePerformed(BeanEvent<ConsumerCommandBean> evt) {
 			ConsumerCommandBean bean = evt.getBean();
+			if (bean instanceof PauseBean && getSubmitQueueName().equals(bean.getQueueName())) {
+				pauseBean = (PauseBean)bean; // The latest command for the queue
+			}
 			if (isCommandForMe(bean)) {
 				if (bean instanceof KillBean)   terminate((KillBean)bean);
 				if (bean instanceof PauseBean)  processPause((PauseBean)bean);
@@ -233,6 +258,25 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 	}
 
 	protected void updateQueue(U bean) throws EventException {
+
+		// If the bean is in the order, its message is changed without pausing.
+		final Boolean updated = new SubmissionOrder(uri, getSubmitQueueName(), service).edit((s, queue, ids) -> {
+			if (!ids.contains(bean.getUniqueId())) return null;
+			final Message rem = SubmissionOrder.receive(s, queue, bean.getUniqueId());
+			if (!(rem instanceof TextMessage)) return false;
+			final StatusBean b = service.unmarshal(((TextMessage)rem).getText(), getBeanClass());
+			b.setStatus(bean.getStatus());
+			SubmissionOrder.send(s, queue, rem, service.marshal(b), bean.getUniqueId());
+			return true;
+		}, false);
+		if (updated!=null) {
+			if (!updated) { // Being taken now
+				createOverrideMap();
+				overrideMap.put(bean.getUniqueId(), bean);
+			}
+			return;
+		}
+
 		boolean resumeAfter = !awaitPaused;
 		Session session = null;
 		try {
@@ -273,6 +317,9 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 					t.setJMSTimestamp(rem.getJMSTimestamp());
 					t.setJMSPriority(rem.getJMSPriority());
 					t.setJMSCorrelationID(rem.getJMSCorrelationID());
+					if (rem.propertyExists(SubmissionOrder.ID_PROPERTY)) { // Keeps its place in the order
+						t.setStringProperty(SubmissionOrder.ID_PROPERTY, rem.getStringProperty(SubmissionOrder.ID_PROPERTY));
+					}
 				}
 				producer.send(t);
 				producer.close();
@@ -351,8 +398,34 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		if (latchStart!=null) latchStart.await();
 	}
 
+	@Override
+	public boolean isQueuePaused(String submissionQueueName) {
+		PauseBean bean = getPauseBean(submissionQueueName);
+		return bean!=null ? bean.isPause() : false;
+	}
+
+	/**
+	 * The pause state of our own queue is read from the command set once and
+	 * then kept from the commands we are sent, that of other queues is read.
+	 */
 	private PauseBean getPauseBean(String submissionQueueName) {
 
+		final boolean mine = getSubmitQueueName().equals(submissionQueueName) && command!=null;
+		if (mine && pauseRead) return pauseBean;
+
+		final PauseBean read = readPauseBean(submissionQueueName);
+		if (!mine) return read;
+		synchronized (this) {
+			if (!pauseRead) {
+				if (pauseBean==null) pauseBean = read; // Unless one was sent while we read
+				pauseRead = true;
+			}
+			return pauseBean;
+		}
+	}
+
+	private PauseBean readPauseBean(String submissionQueueName) {
+
 		IQueueReader<PauseBean>   qr=null;
 		try {
 			qr = eservice.createQueueReader(getUri(), EventConstants.CMD_SET);
@@ -389,11 +462,17 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		@Override
 		public void beanChangePerformed(BeanEvent<U> evt) {
 			U bean = evt.getBean();
+			final AdmissionControl<U> admission = ConsumerImpl.this.admission;
+			if (admission!=null && bean.getStatus().isFinal()) launch(admission.release(bean.getUniqueId()));
 			if (!bean.getStatus().isRequest()) return;
 
 			WeakReference<IConsumerProcess<U>> ref = processes.get(bean.getUniqueId());
 			try {
-				if (ref==null) { // Might be in submit queue still
+				if (ref==null && admission!=null && admission.isWaiting(bean.getUniqueId())) {
+					createOverrideMap(); // Read when it is started
+					overrideMap.put(bean.getUniqueId(), bean);
+
+				} else if (ref==null) { // Might be in submit queue still
 					updateQueue(bean);
 
 				} else {
@@ -427,6 +506,9 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		try {
 	        alive.setAlive(false); // Broadcasts that we are being killed
 	        setActive(false);      // Stops event loop
+	        wake();                // Which may be waiting for a bean
+	        if (admission!=null) admission.close(); // Or for a bean to finish
+	        if (runners!=null)   runners.shutdown();
 
 	        @SuppressWarnings("unchecked")
 			final WeakReference<IConsumerProcess<U>>[] wra = processes.values().toArray(new WeakReference[processes.size()]);
@@ -490,12 +572,24 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		// pause before they start.
         checkStartPaused();
 
+		if (concurrency>1) {
+			admission = new AdmissionControl<>(concurrency, admissionPolicy);
+			runners   = Executors.newFixedThreadPool(concurrency, r -> {
+				final Thread thread = new Thread(r, "Run "+getName());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+
 		// It is possible to call start() and then awaitStart().
 		if (latchStart!=null) latchStart.countDown();
 	}
 
 	private boolean consume() throws Exception {
 
+		final AdmissionControl<U> admission = this.admission;
+		if (admission!=null && !admission.awaitSpace()) return false; // blocks until fewer than the concurrency are taken.
+
 		checkPaused(); // blocks until not paused.
 		if (!isActive()) return false; // Might have pasued for a long time.
 
@@ -503,9 +597,7 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
     	Message m = getMessage(uri, getSubmitQueueName());
         if (m!=null) {
         	waitTime = 0; // We got a message
-
-        	// TODO FIXME Check if we have the max number of processes
-        	// exceeded and wait until we don't...
+        	record(m);
 
         	TextMessage t = (TextMessage)m;
 
@@ -702,10 +794,53 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 
 		if (bean.getStatus().isFinal()) return; // This is not the bean you are looking for.
 
+		final AdmissionControl<U> admission = this.admission;
+		if (admission==null) {
+			run(bean);
+		} else {
+			launch(admission.offer(bean)); // Might wait for the beans using its resources
+		}
+	}
+
+	private IConsumerProcess<U> run(U bean) throws EventException, InterruptedException {
+
 		IConsumerProcess<U> process = runner.createProcess(bean, status);
 		processes.put(bean.getUniqueId(), new WeakReference<IConsumerProcess<U>>(process));
 
 		process.start(); // Depending on the process may run in a separate thread (default is not to)
+		return process;
+	}
+
+	/**
+	 * Runs beans which have been admitted in the threads of the consumer.
+	 * The next beans are admitted when a bean finishes, which is when
+	 * a blocking process returns or when the final status of the bean
+	 * is published.
+	 */
+	private void launch(List<U> admitted) {
+
+		final ExecutorService runners = this.runners;
+		for (U bean : admitted) {
+			if (runners==null || runners.isShutdown()) return;
+			runners.execute(() -> {
+				boolean done = true;
+				try {
+					final U o = overrideMap!=null ? overrideMap.remove(bean.getUniqueId()) : null;
+					if (o!=null && o.getStatus()==Status.REQUEST_TERMINATE) {
+						bean.setStatus(Status.TERMINATED);
+						bean.setMessage("Run aborted before started");
+						status.broadcast(bean);
+						return;
+					}
+					done = run(bean).isBlocking();
+				} catch (Exception ne) {
+					logger.error("Cannot run "+bean.getName()+" in "+getName(), ne);
+				} finally {
+					final AdmissionControl<U> admission = this.admission;
+					if (done && admission!=null) launch(admission.release(bean.getUniqueId()));
+				}
+			});
+		}
 	}
 
 	protected void checkTime(long waitTime) {
@@ -717,41 +852,149 @@ final class ConsumerImpl<U extends StatusBean> extends AbstractQueueConnection<U
 		}
 	}
 
-	private Message getMessage(URI uri, String submitQName) throws InterruptedException, JMSException {
+	/**
+	 * Takes the next bean, waiting until one is sent if there are none.
+	 * Beans which are not in the order of the queue are received as
+	 * they arrive. Those which are cannot be received without taking
+	 * the order, so the consumer is woken when they are added to it and
+	 * only takes the order when it has been added to since it was empty.
+	 */
+	private Message getMessage(URI uri, String submitQName) throws Exception {
 
 		try {
-			if (this.mconsumer == null) {
-				this.mconsumer = createConsumer(uri, submitQName);
+			if (this.msession == null) {
+				this.msession = createSession(uri, submitQName);
+			}
+			woken = false;
+
+			// Beans in the order of the queue run first, then those sent without it.
+			if (orderChanged) {
+				orderChanged = false; // Set again if a bean is submitted while we take
+				final Message ordered = takeOrdered(submitQName);
+				if (ordered!=null) {
+					orderChanged = true; // There may be more
+					return ordered;
+				}
 			}
-			return mconsumer.receive(Constants.getReceiveFrequency());
+
+			MessageConsumer consumer = mconsumer;
+			if (consumer==null) {
+				consumer = msession.createConsumer(msession.createQueue(submitQName), SubmissionOrder.UNORDERED);
+				mconsumer = consumer;
+			}
+			if (woken) return null;
+			return consumer.receive(Constants.getIdleReceiveFrequency());
+
+		} catch (javax.jms.IllegalStateException closed) {
+			if (woken || awaitPaused || !isActive()) return null; // Closed to wake us.
+			reset(closed);
+			throw closed;
 
 		} catch (Exception ne) {
 			if (Thread.interrupted()) return null;
-			mconsumer = null;
-			try {
-				connection.close();
-			} catch (Exception expected) {
-				logger.info("Cannot close old connection", ne);
-			}
+			reset(ne);
 			throw ne;
 		}
 	}
 
-	private MessageConsumer createConsumer(URI uri, String submitQName) throws JMSException {
+	private void reset(Exception ne) {
+		mconsumer = null;
+		msession  = null;
+		orderChanged = true; // We may have failed to take it
+		try {
+			connection.close();
+		} catch (Exception expected) {
+			logger.info("Cannot close old connection", ne);
+		}
+		connection = null;
+	}
+
+	/**
+	 * Stops the consumer waiting for a bean so that it looks again.
+	 */
+	private void wake() {
+		woken = true;
+		final MessageConsumer consumer = mconsumer;
+		mconsumer = null;
+		try {
+			if (consumer!=null) consumer.close(); // Returns from receive(...)
+		} catch (JMSException ne) {
+			logger.debug("Cannot close consumer to wake it", ne);
+		}
+	}
+
+	private Message takeOrdered(String submitQName) throws Exception {
+
+		final Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+		try {
+			final Message message = new SubmissionOrder(uri, submitQName, service).take(session);
+			session.commit();
+			return message;
+		} finally {
+			session.close(); // Rolls back if not committed
+		}
+	}
+
+	private Session createSession(URI uri, String submitQName) throws JMSException, EventException {
 
 		QueueConnectionFactory connectionFactory = (QueueConnectionFactory)service.createConnectionFactory(uri);
 		this.connection = connectionFactory.createQueueConnection();
 		Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-		Queue queue = session.createQueue(submitQName);
 
-		final MessageConsumer consumer = session.createConsumer(queue);
+		// Submitters tell us when they add to the order. A session with a listener
+		// may not also be received from synchronously, so it has its own.
+		Session notifications = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		MessageConsumer submitted = notifications.createConsumer(notifications.createTopic(SubmissionOrder.getTopicName(submitQName)));
+		submitted.setMessageListener(message -> {
+			orderChanged = true;
+			wake();
+		});
 		connection.start();
 
+		// Submitters add to the order once we have made it.
+		new SubmissionOrder(uri, submitQName, service).create();
+
 		logger.info(getName()+" Submission ActiveMQ connection to "+uri+" made.");
 
-		return consumer;
+		return session;
 	}
 
+	private synchronized void record(Message m) throws JMSException {
+		final long sent = m.getJMSTimestamp();
+		if (sent<1) return;
+		lastLatency   = Math.max(0, System.currentTimeMillis()-sent);
+		totalLatency += lastLatency;
+		maxLatency    = Math.max(maxLatency, lastLatency);
+		started++;
+	}
+
+	@Override
+	public synchronized IntakeStatistics getIntakeStatistics() {
+		return new IntakeStatistics(started, started>0 ? totalLatency/started : 0, maxLatency, lastLatency);
+	}
+
+	@Override
+	public void setConcurrency(int concurrency) {
+		if (concurrency<1) throw new IllegalArgumentException("The concurrency must be at least 1 not "+concurrency);
+		if (latchStart!=null) throw new IllegalStateException("The concurrency of "+getName()+" cannot be changed once it has started!");
+		this.concurrency = concurrency;
+	}
+
+	@Override
+	public int getConcurrency() {
+		return concurrency;
+	}
+
+	@Override
+	public void setAdmissionPolicy(IAdmissionPolicy<U> policy) {
+		if (latchStart!=null) throw new IllegalStateException("The admission policy of "+getName()+" cannot be changed once it has started!");
+		this.admissionPolicy = policy;
+	}
+
+	@Override
+	public IAdmissionPolicy<U> getAdmissionPolicy() {
+		return admissionPolicy;
+	}
 
 	@Override
 	public IProcessCreator<U> getRunner() {
@@ -23,10 +23,12 @@ import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IDisconnectable;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.IQueueView;
 import org.eclipse.scanning.api.event.core.IRequester;
 import org.eclipse.scanning.api.event.core.IResponder;
 import org.eclipse.scanning.api.event.core.ISubmitter;
@@ -131,6 +133,16 @@ public class EventServiceImpl implements IEventService {
 	public <T> IQueueReader<T> createQueueReader(URI uri, String queueName) {
 	    return new QueueReaderImpl<T>(uri, queueName, this);
 	}
+
+	@Override
+	public <U extends StatusBean> IQueueView<U> createQueueView(URI uri, String submissionQueueName, String statusSetName, String statusTopicName) {
+		return new QueueViewImpl<U>(uri, submissionQueueName, statusSetName, statusTopicName, this);
+	}
+
+	@Override
+	public ILivenessTracker createLivenessTracker(URI uri, String heartbeatTopicName) {
+		return new LivenessTrackerImpl(uri, heartbeatTopicName, this);
+	}
 	
 	private Map<String, SoftReference<?>> cachedServices;
 
@@ -15,10 +15,7 @@ import java.net.URI;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
-import org.eclipse.scanning.api.event.alive.HeartbeatBean;
-import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
-import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
-import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
 
 /**
  * Checks for the heartbeat of a named consumer.
@@ -31,7 +28,6 @@ class HeartbeatChecker {
 	private URI    uri;
 	private String consumerName;
 	private long   listenTime;
-	private volatile boolean ok = false;
 	private IEventService eventService;
 	
 	public HeartbeatChecker(IEventService eventService, URI uri, String consumerName, long listenTime) {
@@ -41,30 +37,18 @@ class HeartbeatChecker {
 		this.listenTime   = listenTime;
 	}
 	
+	/**
+	 * Returns as soon as a beat is received, or throws if none is within the listen time.
+	 */
 	public void checkPulse() throws EventException, InterruptedException {
 		
-		ISubscriber<IHeartbeatListener>	subscriber = eventService.createSubscriber(uri, IEventService.HEARTBEAT_TOPIC);
-        ok = false;
-        
+		ILivenessTracker tracker = eventService.createLivenessTracker(uri, IEventService.HEARTBEAT_TOPIC);
         try {
-        	subscriber.addListener(new IHeartbeatListener() {
-        		@Override
-        		public void heartbeatPerformed(HeartbeatEvent evt) {
-        			HeartbeatBean bean = evt.getBean();
-        			if (!consumerName.equals(bean.getConsumerName())) {
-        				return;
-        			}
-        			ok = true;
-        		}
-        	});
-
-            Thread.sleep(listenTime);
-            
-            if (!ok) throw new EventException(consumerName+" Consumer heartbeat absent.\nIt is either stopped or unresponsive.\nPlease contact your support representative.");
-        	
+        	tracker.connect();
+            if (!tracker.awaitAlive(consumerName, listenTime)) throw new EventException(consumerName+" Consumer heartbeat absent.\nIt is either stopped or unresponsive.\nPlease contact your support representative.");
 
         } finally {
-        	subscriber.disconnect();
+        	tracker.disconnect();
         }
 	}
 
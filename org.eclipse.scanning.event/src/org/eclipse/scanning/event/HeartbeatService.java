@@ -0,0 +1,233 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.alive.HeartbeatBatch;
+import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sends the heartbeats of every publisher in this process which is alive
+ * from one thread. The host name is looked up once. If
+ * org.eclipse.scanning.event.heartbeat.aggregate is set to true the beats of
+ * publishers to the same topic are sent as one {@link HeartbeatBatch}, so a
+ * server with many consumers sends one message per topic for each beat.
+ *
+ * Batches are marked with {@link #BATCH_PROPERTY} so that subscribers can
+ * give each beat to their listeners. Subscribers which do not know about
+ * batches will not see them, so by default each beat is sent on its own.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class HeartbeatService {
+
+	private static final Logger logger = LoggerFactory.getLogger(HeartbeatService.class);
+
+	/**
+	 * The message property which marks a message holding a batch of heartbeats.
+	 */
+	static final String BATCH_PROPERTY = "scanningHeartbeatBatch";
+
+	private static final HeartbeatService instance = new HeartbeatService();
+
+	static HeartbeatService getInstance() {
+		return instance;
+	}
+
+	/**
+	 * The publishers which are alive, grouped by uri and topic.
+	 */
+	private final Map<String, Group>      groups;
+	private final List<PublisherImpl<?>>   sending; // Those in the beat being sent.
+	private final ScheduledExecutorService executor;
+	private ScheduledFuture<?>             next;
+	private Thread                         beatThread;
+	private volatile String                hostName;
+
+	private HeartbeatService() {
+		this.groups   = new LinkedHashMap<>(7);
+		this.sending  = new ArrayList<>(7);
+		this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+			final Thread thread = new Thread(r, "Alive Notification");
+			thread.setDaemon(true);
+			thread.setPriority(Thread.MIN_PRIORITY);
+			synchronized (this) {
+				beatThread = thread;
+			}
+			return thread;
+		});
+	}
+
+	private static final class Group {
+		private final List<PublisherImpl<?>> publishers = new ArrayList<>(7);
+		private long failedSince;
+	}
+
+	/**
+	 * Starts sending the heartbeats of a publisher.
+	 *
+	 * @param publisher
+	 */
+	synchronized void register(PublisherImpl<?> publisher) {
+		final Group group = groups.computeIfAbsent(getKey(publisher), k -> new Group());
+		if (!group.publishers.contains(publisher)) group.publishers.add(publisher);
+		if (next==null) schedule();
+	}
+
+	/**
+	 * Stops sending the heartbeats of a publisher. A beat of the publisher
+	 * which is being sent is sent before this returns, so one sent after it
+	 * will be the last. Other publishers do not wait for beats to be sent.
+	 *
+	 * @param publisher
+	 */
+	synchronized void unregister(PublisherImpl<?> publisher) {
+		final String key   = getKey(publisher);
+		final Group  group = groups.get(key);
+		if (group!=null) {
+			group.publishers.remove(publisher);
+			if (group.publishers.isEmpty()) groups.remove(key);
+			if (groups.isEmpty() && next!=null) {
+				next.cancel(false);
+				next = null;
+			}
+		}
+		if (Thread.currentThread()==beatThread) return; // Stopped while sending
+		while (sending.contains(publisher)) {
+			try {
+				wait(); // Releases the monitor while the beat is sent
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * @return the name of this host, looked up once.
+	 */
+	String getHostName() {
+		if (hostName==null) {
+			try {
+				hostName = InetAddress.getLocalHost().getHostName();
+			} catch (UnknownHostException ne) {
+				logger.warn("Cannot find the name of this host", ne);
+				return null; // We will look again on the next beat
+			}
+		}
+		return hostName;
+	}
+
+	/**
+	 * The frequency is read for each beat so that changing it takes effect.
+	 */
+	private void schedule() {
+		next = executor.schedule(this::beat, Constants.getNotificationFrequency(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * The groups are copied under the lock and sent outside it so that
+	 * publishers may start and stop while a slow beat is sent.
+	 */
+	private void beat() {
+
+		final ScheduledFuture<?>           current;
+		final List<String>                 keys;
+		final List<Group>                  beating;
+		final List<List<PublisherImpl<?>>> publishers;
+		synchronized (this) {
+			if (next==null) return; // Nothing is alive
+			current    = next;
+			keys       = new ArrayList<>(groups.keySet());
+			beating    = new ArrayList<>(groups.values());
+			publishers = new ArrayList<>(beating.size());
+			for (Group group : beating) {
+				publishers.add(new ArrayList<>(group.publishers));
+				sending.addAll(group.publishers);
+			}
+		}
+
+		final List<Integer> dead = new ArrayList<>(1);
+		try {
+			for (int i = 0; i < beating.size(); i++) {
+				if (!send(beating.get(i), publishers.get(i))) dead.add(i);
+			}
+		} finally {
+			synchronized (this) {
+				sending.clear();
+				for (int i : dead) groups.remove(keys.get(i), beating.get(i));
+				if (groups.isEmpty()) {
+					next = null;
+				} else if (next==current) { // Not stopped or started again while sending
+					schedule();
+				}
+				notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * @return false if the group can no longer send beats.
+	 */
+	private boolean send(Group group, List<PublisherImpl<?>> publishers) {
+
+		if (publishers.isEmpty()) return true;
+		final List<HeartbeatBean> beats = new ArrayList<>(publishers.size());
+		for (PublisherImpl<?> publisher : publishers) beats.add(publisher.createBeat(getHostName()));
+
+		final PublisherImpl<?> sender = publishers.get(0);
+		try {
+			if (beats.size()>1 && Constants.isHeartbeatAggregated()) {
+				sender.sendBeat(new HeartbeatBatch(beats));
+			} else {
+				for (int i = 0; i < beats.size(); i++) publishers.get(i).sendBeat(beats.get(i));
+			}
+			for (int i = 0; i < beats.size(); i++) publishers.get(i).beatSent(beats.get(i));
+			group.failedSince = 0; // We sent something
+			return true;
+
+		} catch (Exception ne) {
+
+			for (PublisherImpl<?> publisher : publishers) publisher.resetBeat();
+
+			final long now = System.currentTimeMillis();
+			if (group.failedSince==0) {
+				group.failedSince = now;
+				logger.warn("Event publisher heartbeat connection to "+sender.getUri()+" lost.");
+				logger.warn("We will check every "+Constants.getNotificationFrequency()+"ms for "+Constants.getTimeout()+"ms, until it comes back.");
+			}
+			if (now-group.failedSince>Constants.getTimeout()) {
+				logger.error("Connection to URI "+sender.getUri()+" is non-viable, no hearbeats will be sent.");
+				for (PublisherImpl<?> publisher : publishers) publisher.heartbeatStopped();
+				return false;
+			}
+			return true;
+		}
+	}
+
+	private static String getKey(PublisherImpl<?> publisher) {
+		return publisher.getUri()+"/"+publisher.getTopicName();
+	}
+}
@@ -0,0 +1,137 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.alive.ConsumerStatus;
+import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
+import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+
+/**
+ * Listens to a heartbeat topic and keeps the last beat of each consumer
+ * with the time it was received here, so that the clocks of the server
+ * and client need not agree.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class LivenessTrackerImpl extends AbstractConnection implements ILivenessTracker {
+
+	private final IEventService                  eservice;
+	private final Map<String, Beat>              beats;
+	private ISubscriber<IHeartbeatListener>      subscriber;
+	private volatile long                        staleTime;
+
+	private static final class Beat {
+		private final HeartbeatBean bean;
+		private final long          received;
+		Beat(HeartbeatBean bean) {
+			this.bean     = bean;
+			this.received = System.currentTimeMillis();
+		}
+	}
+
+	LivenessTrackerImpl(URI uri, String heartbeatTopicName, IEventService eservice) {
+		super(uri, heartbeatTopicName, eservice.getEventConnectorService());
+		this.eservice  = eservice;
+		this.beats     = new ConcurrentHashMap<>(7);
+		this.staleTime = Math.round(Constants.getNotificationFrequency()*2.5);
+	}
+
+	@Override
+	public synchronized void connect() throws EventException {
+		if (subscriber!=null) return;
+		subscriber = eservice.createSubscriber(uri, getTopicName());
+		subscriber.addListener(new IHeartbeatListener() {
+			@Override
+			public void heartbeatPerformed(HeartbeatEvent evt) {
+				beat(evt.getBean());
+			}
+		});
+	}
+
+	private void beat(HeartbeatBean bean) {
+		if (bean.getConsumerName()==null) return;
+		beats.put(bean.getConsumerName(), new Beat(bean));
+		synchronized (this) {
+			notifyAll();
+		}
+	}
+
+	@Override
+	public boolean isAlive(String consumerName) {
+		return isAlive(beats.get(consumerName), System.currentTimeMillis());
+	}
+
+	private boolean isAlive(Beat beat, long now) {
+		if (beat==null) return false;
+		if (beat.bean.getConsumerStatus()==ConsumerStatus.STOPPED) return false;
+		return now-beat.received<=staleTime;
+	}
+
+	@Override
+	public synchronized boolean awaitAlive(String consumerName, long timeout) throws InterruptedException {
+		final long end = System.currentTimeMillis()+timeout;
+		for (long now = System.currentTimeMillis(); now<end; now = System.currentTimeMillis()) {
+			if (isAlive(consumerName)) return true;
+			wait(end-now);
+		}
+		return isAlive(consumerName);
+	}
+
+	@Override
+	public HeartbeatBean getLastBeat(String consumerName) {
+		final Beat beat = beats.get(consumerName);
+		return beat!=null ? beat.bean : null;
+	}
+
+	@Override
+	public Collection<HeartbeatBean> getAlive() {
+		final long now = System.currentTimeMillis();
+		final Collection<HeartbeatBean> alive = new ArrayList<>(beats.size());
+		for (Beat beat : beats.values()) if (isAlive(beat, now)) alive.add(beat.bean);
+		return alive;
+	}
+
+	@Override
+	public void setStaleTime(long staleTime) {
+		this.staleTime = staleTime;
+	}
+
+	@Override
+	public long getStaleTime() {
+		return staleTime;
+	}
+
+	@Override
+	public String getHeartbeatTopicName() {
+		return getTopicName();
+	}
+
+	@Override
+	public synchronized void disconnect() throws EventException {
+		if (subscriber!=null) subscriber.disconnect();
+		subscriber = null;
+		beats.clear();
+		super.disconnect();
+	}
+}
@@ -12,7 +12,6 @@
 package org.eclipse.scanning.event;
 
 import java.io.PrintStream;
-import java.net.InetAddress;
 import java.net.URI;
 import java.util.Enumeration;
 
@@ -30,16 +29,20 @@ import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.alive.ConsumerCommandBean;
 import org.eclipse.scanning.api.event.alive.ConsumerStatus;
+import org.eclipse.scanning.api.event.alive.HeartbeatBatch;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.PauseBean;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.event.util.WireFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 	private static final Logger logger = LoggerFactory.getLogger(PublisherImpl.class);
+	private static final String BEAMLINE = System.getenv("BEAMLINE");
 
 	// JMS things, these are null when not running and
 	// are cleaned up at the end of a run.
@@ -51,29 +54,35 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 	private PrintStream     out;
 
+	// The status set is updated with the queue session and the topic is sent to
+	// with the topic session, so each has its own lock. The set lock is taken first.
+	private final Object    setLock = new Object();
+
 	public PublisherImpl(URI uri, String topic, IEventConnectorService service) {
 		super(uri, topic, service);
 	}
 
 	@Override
-	public synchronized void broadcast(T bean) throws EventException {
+	public void broadcast(T bean) throws EventException {
 
 		try {
-		    if (getTopicName()!=null) {
-		    	if (scanProducer==null) {
-		    		scanProducer = createProducer(getTopicName());
-		    	}
-		    }
 		    try {
 			    if (queueName!=null) {
-			    	updateSet(bean);
+			    	synchronized (setLock) {
+			    		updateSet(bean);
+			    	}
 			    }
 		    } catch (Throwable notFatal) {
 		    	// Updating the set is not a fatal error
 		    	logger.error("Did not update the set", notFatal);
 		    }
 			if (getTopicName()!=null) {
-				send(scanProducer, bean, Constants.getPublishLiveTime());
+				synchronized (this) {
+			    	if (scanProducer==null) {
+			    		scanProducer = createProducer(getTopicName());
+			    	}
+					send(scanProducer, bean, Constants.getPublishLiveTime());
+				}
 			}
 
 		} catch (JMSException ne) {
@@ -88,24 +97,23 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 		int priority = message instanceof ConsumerCommandBean ? 8 : 4;
 
-		String json = service.marshal(message);
-		TextMessage msg = createTextMessage(json);
+		Message msg = createMessage(WireFormat.getWireFormat(getTopicName()), message);
 		producer.send(msg, DeliveryMode.NON_PERSISTENT, priority, messageLifetime);
-		if (out!=null) out.println(json);
+		if (out!=null) out.println(msg instanceof TextMessage ? ((TextMessage)msg).getText() : service.marshal(message));
 	}
 
-	private TextMessage createTextMessage(String json) throws JMSException {
+	private Message createMessage(WireFormat format, Object bean) throws Exception {
 
 		if (connection==null) createConnection();
 		if (session == null)  createSession();
 
-		TextMessage message = null;
+		Message message = null;
 		try {
-			message = session.createTextMessage(json);
+			message = format.createMessage(session, bean, service);
 		} catch (javax.jms.IllegalStateException ne) {
 			createConnection();
 			createSession();
-			message = session.createTextMessage(json);
+			message = format.createMessage(session, bean, service);
 		}
         return message;
 	}
@@ -116,6 +124,7 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	}
 
 	private volatile HeartbeatBean lastBeat;
+	private long                   conceptionTime;
 
 	private boolean statusSetAddRequired = false;
 
@@ -132,68 +141,13 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 				throw new EventException("Unable to start the heartbeat producer using uri "+uri+" and topic "+getTopicName());
 			}
 
-			Thread aliveThread = new Thread(new Runnable() {
-				@Override
-				public void run() {
-
-					long waitTime = 0;
-
-					HeartbeatBean beat = new HeartbeatBean();
-					beat.setConceptionTime(System.currentTimeMillis());
-
-					// Here we are sending the message out to the topic
-					while(isAlive()) {
-						try {
-
-							// Sleep for a bit
-							Thread.sleep(Constants.getNotificationFrequency());
-
-			                // The producer might need to be reconnected.
-							if (heartbeatProducer==null) heartbeatProducer = createProducer(getTopicName());
-							beat.setPublishTime(System.currentTimeMillis());
-							if (consumer!=null) {
-								beat.setConsumerId(consumer.getConsumerId());
-								beat.setConsumerName(consumer.getName());
-								beat.setConsumerStatus(consumer.getConsumerStatus());
-							}
-							beat.setBeamline(System.getenv("BEAMLINE"));
-							beat.setHostName(InetAddress.getLocalHost().getHostName());
-
-							send(heartbeatProducer, beat, Math.round(Constants.getNotificationFrequency()*2.5));
-							lastBeat = beat;
-
-							waitTime = 0; // We sent something
-
-						} catch (Exception ne) {
-
-							heartbeatProducer = null;
-							connection = null;
-							session    = null;
-
-							waitTime+=Constants.getNotificationFrequency();
-							if (waitTime>Constants.getTimeout()) {
-								logger.error("Connection to URI "+uri+" is non-viable, no hearbeats will be sent.");
-							    PublisherImpl.this.alive = false;
-								return;
-							}
-
-			        		logger.warn("Event publisher heartbeat connection to "+uri+" lost.");
-			        		logger.warn("We will check every 2 seconds for 24 hours, until it comes back.");
-
-							continue;
-						}
-					}
-				}
-			});
-			aliveThread.setName("Alive Notification "+getTopicName()+" ");
-			aliveThread.setDaemon(true);
-			aliveThread.setPriority(Thread.MIN_PRIORITY);
-			aliveThread.start();
+			conceptionTime = System.currentTimeMillis();
+			HeartbeatService.getInstance().register(this); // Beats are sent from one thread for the whole process.
 
 		} else {
+			HeartbeatService.getInstance().unregister(this);
 			if (wasAlive) { // Might never have been a heartbeat publisher.
 				try {
-					Thread.sleep(Constants.getNotificationFrequency()+100); // Make sure dead
 					if (lastBeat!=null) {
 						lastBeat.setConsumerStatus(ConsumerStatus.STOPPED);
 					    send(heartbeatProducer, lastBeat, Math.round(Constants.getNotificationFrequency()*2.5));
@@ -207,6 +161,69 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 
 	}
 
+	/**
+	 * Called by the heartbeat service for each beat.
+	 *
+	 * @param hostName
+	 * @return the beat of this publisher now.
+	 */
+	HeartbeatBean createBeat(String hostName) {
+		final HeartbeatBean beat = new HeartbeatBean();
+		beat.setConceptionTime(conceptionTime);
+		beat.setPublishTime(System.currentTimeMillis());
+		final IConsumer<?> consumer = this.consumer;
+		if (consumer!=null) {
+			beat.setConsumerId(consumer.getConsumerId());
+			beat.setConsumerName(consumer.getName());
+			beat.setConsumerStatus(consumer.getConsumerStatus());
+		}
+		beat.setBeamline(BEAMLINE);
+		beat.setHostName(hostName);
+		return beat;
+	}
+
+	/**
+	 * Sends a beat, or a batch of beats, to the heartbeat topic.
+	 *
+	 * @param beat
+	 * @throws Exception
+	 */
+	void sendBeat(Object beat) throws Exception {
+
+        // The producer might need to be reconnected.
+		if (heartbeatProducer==null) heartbeatProducer = createProducer(getTopicName());
+
+		Message msg = createMessage(WireFormat.getWireFormat(getTopicName()), beat);
+		if (beat instanceof HeartbeatBatch) msg.setStringProperty(HeartbeatService.BATCH_PROPERTY, "true");
+		heartbeatProducer.send(msg, DeliveryMode.NON_PERSISTENT, 4, Math.round(Constants.getNotificationFrequency()*2.5));
+		if (out!=null) out.println(msg instanceof TextMessage ? ((TextMessage)msg).getText() : service.marshal(beat));
+	}
+
+	/**
+	 * Called when the beat of this publisher has been sent, alone or in a batch.
+	 *
+	 * @param beat
+	 */
+	void beatSent(HeartbeatBean beat) {
+		lastBeat = beat;
+	}
+
+	/**
+	 * Called when a beat could not be sent, so that the connection is made again.
+	 */
+	void resetBeat() {
+		heartbeatProducer = null;
+		connection = null;
+		session    = null;
+	}
+
+	/**
+	 * Called when the connection has been lost for longer than the timeout.
+	 */
+	void heartbeatStopped() {
+		this.alive = false;
+	}
+
 	private MessageProducer createProducer(String topicName) throws JMSException {
 		final Topic topic = createTopic(topicName);
 		return session.createProducer(topic);
@@ -216,6 +233,7 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	public void disconnect() throws EventException {
 		try {
 			alive = false;
+			HeartbeatService.getInstance().unregister(this);
 			if (scanProducer!=null)      scanProducer.close();
 			if (heartbeatProducer!=null) heartbeatProducer.close();
 			consumer = null;
@@ -246,14 +264,90 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 	}
 
 	/**
+	 * Replaces the message for the bean in the status set. The message is
+	 * found from the index of the set and the set is only browsed if the
+	 * bean is not in the index or the message has been removed since.
 	 *
 	 * @param bean
 	 * @throws Exception
 	 */
 	private boolean updateSet(T bean) throws Exception {
 
+		final Queue queue;
+		synchronized (this) { // The connection is shared with the topic.
+			queue = createQueue(getStatusSetName());
+		}
+		StatusSetIndex index = StatusSetIndex.getIndex(uri, getStatusSetName());
+		Object      uniqueId = getIndexId(bean);
+
+		// The index may be out of date so we do not wait long for the message it gives.
+		Message m = receive(queue, index.get(uniqueId), Constants.getIndexedReceiveFrequency());
+		if (m==null) {
+			index.remove(uniqueId); // It might have been there but is out of date.
+			m = receive(queue, findMessageId(queue, bean, index), Constants.getReceiveFrequency());
+		}
+
+		if (m!=null && m instanceof TextMessage) {
+			MessageProducer producer = qSession.createProducer(queue);
+			try {
+				TextMessage t = qSession.createTextMessage(service.marshal(bean));
+				t.setJMSMessageID(m.getJMSMessageID());
+				t.setJMSExpiration(m.getJMSExpiration());
+				t.setJMSTimestamp(m.getJMSTimestamp());
+				t.setJMSPriority(m.getJMSPriority());
+				t.setJMSCorrelationID(m.getJMSCorrelationID());
+
+				producer.send(t);
+				if (isFinal(bean)) {
+					index.remove(uniqueId); // It will not be updated again.
+				} else {
+					index.put(uniqueId, t.getJMSMessageID()); // The broker gives the message sent a new id.
+				}
+			} finally {
+			    producer.close();
+			}
+
+			return true;
+		}
+
+		if (statusSetAddRequired) { // It wasn't found so we will add it.
+			MessageProducer producer = qSession.createProducer(queue);
+			try {
+				producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+				String json = null;
+				try {
+					json = service.marshal(bean);
+				} catch (Exception neother) {
+					throw new EventException("Unable to marshall bean "+bean, neother);
+				}
+
+				TextMessage message = qSession.createTextMessage(json);
+				producer.send(message);
+				if (!isFinal(bean)) index.put(uniqueId, message.getJMSMessageID());
+
+			} finally {
+				producer.close();
+			}
+
+            return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Browses the status set for the message holding the bean. The beans
+	 * browsed before it are added to the index so that they are not
+	 * browsed for when they are next updated.
+	 *
+	 * @param queue
+	 * @param bean
+	 * @param index
+	 * @return the JMS message id or null if the bean is not in the set
+	 * @throws Exception
+	 */
+	private String findMessageId(Queue queue, T bean, StatusSetIndex index) throws Exception {
 
-		Queue     queue = createQueue(getStatusSetName());
 		QueueBrowser qb = qSession.createBrowser(queue);
 
 		@SuppressWarnings("rawtypes")
@@ -277,6 +371,7 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 					// not going to be the bean which we are looking for.
 					continue;
 				}
+				if (!isFinal(qbean)) index.put(getIndexId(qbean), t.getJMSMessageID());
 				if (isSame(qbean, bean)) {
 					jMSMessageID = t.getJMSMessageID();
 					break;
@@ -285,52 +380,50 @@ class PublisherImpl<T> extends AbstractConnection implements IPublisher<T> {
 		}
 
 		qb.close();
+		return jMSMessageID;
+	}
 
-		if (jMSMessageID!=null) {
-			MessageConsumer consumer = qSession.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
-			Message m = consumer.receive(Constants.getReceiveFrequency());
+	/**
+	 * Takes the message with the given id from the queue.
+	 *
+	 * @param queue
+	 * @param jMSMessageID
+	 * @param timeout in ms
+	 * @return the message or null if the id is null or there is no such message.
+	 * @throws JMSException
+	 */
+	private Message receive(Queue queue, String jMSMessageID, long timeout) throws JMSException {
+		if (jMSMessageID==null) return null;
+		MessageConsumer consumer = qSession.createConsumer(queue, "JMSMessageID = '"+jMSMessageID+"'");
+		try {
+			return consumer.receive(timeout);
+		} finally {
 			consumer.close();
-			if (m!=null && m instanceof TextMessage) {
-				MessageProducer producer = qSession.createProducer(queue);
-				try {
-					TextMessage t = qSession.createTextMessage(service.marshal(bean));
-					t.setJMSMessageID(m.getJMSMessageID());
-					t.setJMSExpiration(m.getJMSExpiration());
-					t.setJMSTimestamp(m.getJMSTimestamp());
-					t.setJMSPriority(m.getJMSPriority());
-					t.setJMSCorrelationID(m.getJMSCorrelationID());
-
-					producer.send(t);
-				} finally {
-				    producer.close();
-				}
-
-				return true;
-			}
 		}
+	}
 
-		if (statusSetAddRequired) { // It wasn't found so we will add it.
-			MessageProducer producer = session.createProducer(queue);
-			try {
-				producer.setDeliveryMode(DeliveryMode.PERSISTENT);
-				String json = null;
-				try {
-					json = service.marshal(bean);
-				} catch (Exception neother) {
-					throw new EventException("Unable to marshall bean "+bean, neother);
-				}
-
-				TextMessage message = session.createTextMessage(json);
-				producer.send(message);
-
-			} finally {
-				producer.close();
-			}
-
-            return true;
-		}
+	/**
+	 * The id of the bean in the index of the status set. Beans which
+	 * are matched on something other than their unique id are not indexed.
+	 *
+	 * @param bean
+	 * @return the id or null if the bean should not be indexed
+	 */
+	private Object getIndexId(Object bean) {
+		if (bean instanceof PauseBean) return null;
+		return getUniqueId(bean);
+	}
 
-		return false;
+	/**
+	 * Beans with a final status are not indexed as they are not expected
+	 * to be updated again, if they are the set is browsed for them.
+	 *
+	 * @param bean
+	 * @return true if the bean is a status bean which has finished
+	 */
+	private boolean isFinal(Object bean) {
+		if (!(bean instanceof StatusBean)) return false;
+		return ((StatusBean)bean).getStatus()!=null && ((StatusBean)bean).getStatus().isFinal();
 	}
 
 	@Override
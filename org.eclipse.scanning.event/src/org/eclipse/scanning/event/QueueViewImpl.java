@@ -0,0 +1,439 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanClassListener;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IQueueView;
+import org.eclipse.scanning.api.event.core.IQueueViewListener;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.QueueViewEvent;
+import org.eclipse.scanning.api.event.core.QueueViewEvent.Type;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+
+/**
+ * Holds the submission queue and status set in memory, each in a sorted
+ * map from the position of the bean in the queue to the bean, with an
+ * index from the unique id of the bean to its position. The queues are
+ * browsed once when the view connects and then kept up to date by the
+ * beans broadcast on the status topic, which are sent when a bean is
+ * submitted and each time its status changes.
+ *
+ * Queue connections in this process tell the views of a queue when they
+ * remove beans from it, change its order or clear and write it again, as
+ * those changes are not sent on the status topic. They also send the name
+ * of the queue on its change topic, on which views in other processes read
+ * the queues again.
+ *
+ * @author Matthew Gerring
+ *
+ * @param <U>
+ */
+class QueueViewImpl<U extends StatusBean> extends AbstractConnection implements IQueueView<U> {
+
+	private static final Map<String, Collection<QueueViewImpl<?>>> views = new ConcurrentHashMap<>(7);
+
+	/**
+	 * The message property holding the process which changed the queue,
+	 * a view does not read the queues again for its own changes.
+	 */
+	private static final String ORIGIN_PROPERTY = "scanningQueueOrigin";
+	private static final String ORIGIN          = UUID.randomUUID().toString();
+
+	/**
+	 * The topic told when a queue is changed in a way which is not sent on the status topic.
+	 */
+	static String getChangeTopicName(String queueName) {
+		return queueName+".changed";
+	}
+
+	/**
+	 * Called when a bean has been removed from a queue by this process.
+	 */
+	static void removed(URI uri, String queueName, String uniqueId, IEventConnectorService service) {
+		for (QueueViewImpl<?> view : getViews(uri, queueName)) view.remove(queueName, uniqueId);
+		broadcast(uri, queueName, service);
+	}
+
+	/**
+	 * Called when a queue has been cleared or written again by this process.
+	 */
+	static void changed(URI uri, String queueName, IEventConnectorService service) {
+		for (QueueViewImpl<?> view : getViews(uri, queueName)) {
+			try {
+				view.refresh();
+			} catch (EventException ne) {
+				logger.error("Cannot refresh the view of "+queueName, ne);
+			}
+		}
+		broadcast(uri, queueName, service);
+	}
+
+	/**
+	 * Called when the order of a submission queue has been changed by this process.
+	 * @param ids head first
+	 */
+	static void reordered(URI uri, String queueName, List<String> ids, IEventConnectorService service) {
+		for (QueueViewImpl<?> view : getViews(uri, queueName)) view.reorder(queueName, ids);
+		broadcast(uri, queueName, service);
+	}
+
+	/**
+	 * Tells the views in other processes that the queue has changed.
+	 */
+	private static void broadcast(URI uri, String queueName, IEventConnectorService service) {
+		Connection connection = null;
+		try {
+			ConnectionFactory connectionFactory = (ConnectionFactory)service.createConnectionFactory(uri);
+			connection = connectionFactory.createConnection();
+			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+
+			MessageProducer producer = session.createProducer(session.createTopic(getChangeTopicName(queueName)));
+			producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+			TextMessage message = session.createTextMessage(queueName);
+			message.setStringProperty(ORIGIN_PROPERTY, ORIGIN);
+			producer.send(message);
+
+		} catch (Exception ne) {
+			logger.error("Cannot tell the views of "+queueName+" that it has changed", ne);
+		} finally {
+			try {
+				if (connection!=null) connection.close();
+			} catch (JMSException e) {
+				logger.error("Cannot close connection to "+queueName, e);
+			}
+		}
+	}
+
+	private static Collection<QueueViewImpl<?>> getViews(URI uri, String queueName) {
+		Collection<QueueViewImpl<?>> ret = views.get(uri+"/"+queueName);
+		return ret!=null ? ret : Collections.<QueueViewImpl<?>>emptyList();
+	}
+
+	private static void addView(URI uri, String queueName, QueueViewImpl<?> view) {
+		views.compute(uri+"/"+queueName, (k, vs) -> {
+			if (vs==null) vs = new CopyOnWriteArrayList<>();
+			vs.add(view);
+			return vs;
+		});
+	}
+
+	/**
+	 * Removes the entry of the queue with its last view.
+	 */
+	private static void removeView(URI uri, String queueName, QueueViewImpl<?> view) {
+		views.computeIfPresent(uri+"/"+queueName, (k, vs) -> {
+			vs.remove(view);
+			return vs.isEmpty() ? null : vs;
+		});
+	}
+
+	/**
+	 * Where a bean is in the view. Replaced rather than changed.
+	 */
+	private static final class Entry<U> {
+		final boolean submitted;
+		final long    position;
+		final U       bean;
+		Entry(boolean submitted, long position, U bean) {
+			this.submitted = submitted;
+			this.position  = position;
+			this.bean      = bean;
+		}
+	}
+
+	private final IEventService                        eservice;
+	private final Map<String, Entry<U>>                index;
+	private final ConcurrentSkipListMap<Long, U>       submitted;
+	private final ConcurrentSkipListMap<Long, U>       statusSet;
+	private final Collection<IQueueViewListener<U>>    listeners;
+
+	private Class<U>                      beanClass;
+	private ISubscriber<IBeanListener<U>> subscriber;
+	private MessageConsumer[]             changeConsumers;
+	private long                          nextPosition;
+	private Set<String>                   changing; // Ids of beans broadcast while the queues are read.
+
+	QueueViewImpl(URI uri, String submitQName, String statusQName, String statusTName, IEventService eservice) {
+		super(uri, submitQName, statusQName, statusTName, null, eservice.getEventConnectorService());
+		this.eservice  = eservice;
+		this.index     = new ConcurrentHashMap<>(89);
+		this.submitted = new ConcurrentSkipListMap<>();
+		this.statusSet = new ConcurrentSkipListMap<>();
+		this.listeners = new CopyOnWriteArrayList<>();
+	}
+
+	@Override
+	public void connect() throws EventException {
+
+		if (subscriber!=null) return;
+		// We listen before reading so that no change is missed.
+		subscriber = eservice.createSubscriber(uri, getStatusTopicName());
+		subscriber.addListener(new StatusListener());
+		listenToChanges();
+		refresh();
+
+		addView(uri, getSubmitQueueName(), this);
+		addView(uri, getStatusSetName(), this);
+	}
+
+	/**
+	 * Reads the queues again when another process changes them.
+	 */
+	private void listenToChanges() throws EventException {
+		final String   selector = ORIGIN_PROPERTY+" IS NULL OR "+ORIGIN_PROPERTY+" <> '"+ORIGIN+"'";
+		final String[] names    = new String[]{getSubmitQueueName(), getStatusSetName()};
+		changeConsumers = new MessageConsumer[names.length];
+		try {
+			for (int i = 0; i < names.length; i++) {
+				final Topic topic = createTopic(getChangeTopicName(names[i])); // Creates the session
+				changeConsumers[i] = session.createConsumer(topic, selector);
+				changeConsumers[i].setMessageListener(message -> {
+					try {
+						refresh();
+					} catch (EventException ne) {
+						logger.error("Cannot refresh the view of "+getSubmitQueueName(), ne);
+					}
+				});
+			}
+		} catch (JMSException ne) {
+			throw new EventException("Cannot listen to the changes of "+getSubmitQueueName(), ne);
+		}
+	}
+
+	private class StatusListener implements IBeanListener<U>, IBeanClassListener<U> {
+		@Override
+		public void beanChangePerformed(BeanEvent<U> evt) {
+			update(evt.getBean());
+		}
+		@Override
+		public Class<U> getBeanClass() {
+			return beanClass;
+		}
+	}
+
+	@Override
+	public void refresh() throws EventException {
+
+		synchronized (this) {
+			changing = new HashSet<>(7);
+		}
+		final List<U> squeue;
+		final List<U> sset;
+		try {
+			QueueReader<U> reader = new QueueReader<U>(service);
+			squeue = reader.getBeans(uri, getSubmitQueueName(), beanClass);
+			SubmissionOrder.sort(squeue, new SubmissionOrder(uri, getSubmitQueueName(), service).getOrder());
+			sset   = reader.getBeans(uri, getStatusSetName(), beanClass);
+		} catch (Exception ne) {
+			synchronized (this) {
+				changing = null;
+			}
+			throw new EventException("Cannot read the queues "+getSubmitQueueName()+" and "+getStatusSetName(), ne);
+		}
+
+		synchronized (this) {
+			final Map<String, Entry<U>> broadcast = new HashMap<>(changing.size());
+			for (String id : changing) {
+				Entry<U> entry = index.get(id);
+				if (entry!=null) broadcast.put(id, entry);
+			}
+			changing = null;
+
+			index.clear();
+			submitted.clear();
+			statusSet.clear();
+			nextPosition = 0;
+			for (U bean : sset)   put(new Entry<U>(false, nextPosition++, bean));
+			for (U bean : squeue) put(new Entry<U>(true,  nextPosition++, bean));
+
+			// The beans broadcast while reading are newer than those read.
+			for (Entry<U> entry : broadcast.values()) {
+				Entry<U> read = index.get(entry.bean.getUniqueId());
+				if (read!=null) take(read);
+				put(new Entry<U>(isSubmitted(entry.bean), read!=null ? read.position : nextPosition++, entry.bean));
+			}
+		}
+		fire(new QueueViewEvent<U>(this, Type.REFRESHED, null, null));
+	}
+
+	private static boolean isSubmitted(StatusBean bean) {
+		return bean.getStatus()==null || bean.getStatus()==Status.SUBMITTED;
+	}
+
+	/**
+	 * Called with each bean broadcast on the status topic.
+	 * @param bean
+	 */
+	private void update(U bean) {
+
+		if (bean==null || bean.getUniqueId()==null) return;
+		final boolean sub = isSubmitted(bean);
+		final QueueViewEvent<U> removed;
+		final QueueViewEvent<U> added;
+		synchronized (this) {
+			if (changing!=null) changing.add(bean.getUniqueId());
+			Entry<U> existing = index.get(bean.getUniqueId());
+			if (existing!=null) take(existing);
+
+			if (existing==null || existing.submitted!=sub) {
+				// New or moved from the submission queue to the status set, it goes at the end.
+				put(new Entry<U>(sub, nextPosition++, bean));
+				removed = existing!=null ? new QueueViewEvent<U>(this, Type.REMOVED, getQueueName(existing.submitted), existing.bean) : null;
+				added   = new QueueViewEvent<U>(this, Type.ADDED, getQueueName(sub), bean);
+			} else {
+				put(new Entry<U>(sub, existing.position, bean));
+				removed = null;
+				added   = new QueueViewEvent<U>(this, Type.UPDATED, getQueueName(sub), bean);
+			}
+		}
+		if (removed!=null) fire(removed);
+		fire(added);
+	}
+
+	private void remove(String queueName, String uniqueId) {
+		if (uniqueId==null) return;
+		final Entry<U> existing;
+		synchronized (this) {
+			existing = index.get(uniqueId);
+			if (existing==null || !getQueueName(existing.submitted).equals(queueName)) return;
+			take(existing);
+		}
+		fire(new QueueViewEvent<U>(this, Type.REMOVED, queueName, existing.bean));
+	}
+
+	/**
+	 * Gives the beans of the submission queue the positions they
+	 * already have in the new order, so beans added after keep going
+	 * at the tail.
+	 */
+	private void reorder(String queueName, List<String> ids) {
+		if (!getSubmitQueueName().equals(queueName)) return;
+		synchronized (this) {
+			final List<Long> positions = new ArrayList<>(submitted.keySet());
+			final List<U>    beans     = new ArrayList<>(submitted.values());
+			SubmissionOrder.sort(beans, ids);
+			submitted.clear();
+			for (int i = 0; i < beans.size(); i++) put(new Entry<U>(true, positions.get(i), beans.get(i)));
+		}
+		fire(new QueueViewEvent<U>(this, Type.REFRESHED, queueName, null));
+	}
+
+	private void put(Entry<U> entry) {
+		index.put(entry.bean.getUniqueId(), entry);
+		(entry.submitted ? submitted : statusSet).put(entry.position, entry.bean);
+	}
+
+	private void take(Entry<U> entry) {
+		index.remove(entry.bean.getUniqueId());
+		(entry.submitted ? submitted : statusSet).remove(entry.position);
+	}
+
+	private String getQueueName(boolean submitted) {
+		return submitted ? getSubmitQueueName() : getStatusSetName();
+	}
+
+	private void fire(QueueViewEvent<U> evt) {
+		for (IQueueViewListener<U> l : listeners) {
+			try {
+				l.queueChanged(evt);
+			} catch (RuntimeException ne) {
+				logger.error("Listener to queue view failed with "+evt, ne);
+			}
+		}
+	}
+
+	@Override
+	public U get(String uniqueId) {
+		if (uniqueId==null) return null;
+		Entry<U> entry = index.get(uniqueId);
+		return entry!=null ? entry.bean : null;
+	}
+
+	@Override
+	public List<U> getSubmissionQueue() {
+		return new ArrayList<>(submitted.values());
+	}
+
+	@Override
+	public List<U> getStatusSet() {
+		return new ArrayList<>(statusSet.values());
+	}
+
+	@Override
+	public int size() {
+		return index.size();
+	}
+
+	@Override
+	public void addQueueViewListener(IQueueViewListener<U> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public void removeQueueViewListener(IQueueViewListener<U> listener) {
+		listeners.remove(listener);
+	}
+
+	@Override
+	public Class<U> getBeanClass() {
+		return beanClass;
+	}
+
+	@Override
+	public void setBeanClass(Class<U> beanClass) {
+		this.beanClass = beanClass;
+	}
+
+	@Override
+	public void disconnect() throws EventException {
+		removeView(uri, getSubmitQueueName(), this);
+		removeView(uri, getStatusSetName(), this);
+		listeners.clear();
+		try {
+			if (subscriber!=null) subscriber.disconnect();
+		} finally {
+			subscriber = null;
+			changeConsumers = null; // Closed with the connection
+			super.disconnect();
+		}
+	}
+}
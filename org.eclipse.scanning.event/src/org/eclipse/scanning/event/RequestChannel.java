@@ -0,0 +1,257 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.ResponseConfiguration;
+import org.eclipse.scanning.api.event.core.ResponseConfiguration.ResponseWaiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A publisher of requests and a subscriber to their responses which are
+ * shared by all the requesters of an event service with the same uri and
+ * topics. Requests which are waiting for a response are kept by their
+ * unique id so that many requests can be waiting at the same time, each
+ * only costs a message each way rather than connecting a new publisher
+ * and subscriber.
+ *
+ * The number of requests which may be waiting at once on a channel is
+ * set with the system property
+ * <code>org.eclipse.scanning.event.requester.maxInFlight</code> (default 100).
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class RequestChannel {
+
+	private static final Logger logger = LoggerFactory.getLogger(RequestChannel.class);
+
+	private static final Map<Key, RequestChannel> channels = new HashMap<>(7);
+
+	/**
+	 * Get the channel for the uri and topics, connecting it if there is not one.
+	 * Each call must be matched by a call to release().
+	 *
+	 * @param eservice
+	 * @param uri
+	 * @param requestTopic
+	 * @param responseTopic
+	 * @return
+	 * @throws EventException
+	 */
+	static RequestChannel open(IEventService eservice, URI uri, String requestTopic, String responseTopic) throws EventException {
+		final Key key = new Key(eservice, uri, requestTopic, responseTopic);
+		synchronized (channels) {
+			RequestChannel channel = channels.get(key);
+			if (channel==null || channel.isClosed()) {
+				channel = new RequestChannel(key);
+				channels.put(key, channel);
+			}
+			channel.users++;
+			return channel;
+		}
+	}
+
+	private final Key                                   key;
+	private final ISubscriber<IBeanListener<IdBean>>    subscriber;
+	private final IPublisher<IdBean>                    publisher;
+	private final Map<String, Response>                 waiting;
+	private final Semaphore                             inFlight;
+	private final int                                   maxInFlight;
+
+	private int              users;
+	private volatile boolean closed;
+
+	private RequestChannel(Key key) throws EventException {
+		this.key         = key;
+		this.waiting     = new ConcurrentHashMap<>(31);
+		this.maxInFlight = Integer.getInteger("org.eclipse.scanning.event.requester.maxInFlight", 100);
+		this.inFlight    = new Semaphore(maxInFlight, true);
+		this.publisher   = key.eservice.createPublisher(key.uri, key.requestTopic);
+		this.subscriber  = key.eservice.createSubscriber(key.uri, key.responseTopic);
+		try {
+			subscriber.addListener(new IBeanListener<IdBean>() {
+				@Override
+				public void beanChangePerformed(BeanEvent<IdBean> evt) {
+					IdBean   bean     = evt.getBean();
+					Response response = bean!=null ? waiting.get(bean.getUniqueId()) : null;
+					if (response!=null) response.respond(bean);
+				}
+			});
+		} catch (EventException ne) {
+			disconnect();
+			throw ne;
+		}
+	}
+
+	/**
+	 * Sends the request and waits for its response, which is merged into it.
+	 *
+	 * @param request
+	 * @param configuration
+	 * @param waiter may be null
+	 * @return the request
+	 * @throws EventException if the request could not be sent or there was no response in time.
+	 * @throws InterruptedException
+	 */
+	<T extends IdBean> T post(T request, ResponseConfiguration configuration, ResponseWaiter waiter) throws EventException, InterruptedException {
+
+		final String id = request.getUniqueId();
+		if (!inFlight.tryAcquire(configuration.getTimeout(), configuration.getTimeUnit())) {
+			throw new EventException("There are already "+maxInFlight+" requests waiting for a response on "+key.responseTopic+", request "+id+" was not sent!");
+		}
+		final Response response = new Response(request);
+		try {
+			if (waiting.putIfAbsent(id, response)!=null) throw new EventException("Request "+id+" has already been posted and is waiting for a response!");
+			try {
+				publisher.broadcast(request);
+			} catch (EventException ne) {
+				close(); // The next request will connect again.
+				throw ne;
+			}
+			response.await(configuration, waiter);
+			return request;
+
+		} finally {
+			waiting.remove(id, response);
+			inFlight.release();
+		}
+	}
+
+	/**
+	 * Called by a requester which no longer needs the channel,
+	 * the channel is disconnected when no requesters are using it.
+	 */
+	void release() {
+		synchronized (channels) {
+			users--;
+			if (users<1) close();
+		}
+	}
+
+	boolean isClosed() {
+		return closed;
+	}
+
+	private void close() {
+		synchronized (channels) {
+			if (closed) return;
+			closed = true;
+			if (channels.get(key)==this) channels.remove(key);
+		}
+		disconnect();
+	}
+
+	private void disconnect() {
+		try {
+			subscriber.disconnect();
+		} catch (EventException ne) {
+			logger.error("Cannot disconnect from "+key.responseTopic, ne);
+		}
+		try {
+			publisher.disconnect();
+		} catch (EventException ne) {
+			logger.error("Cannot disconnect from "+key.requestTopic, ne);
+		}
+	}
+
+	/**
+	 * A request waiting for its responses.
+	 */
+	private static final class Response {
+
+		private final IdBean         request;
+		private final CountDownLatch latch;
+
+		Response(IdBean request) {
+			this.request = request;
+			this.latch   = new CountDownLatch(1);
+		}
+
+		void respond(IdBean response) {
+			synchronized (request) {
+				request.merge(response); // The bean must implement merge, for instance DeviceRequest.
+			}
+			latch.countDown();
+		}
+
+		void await(ResponseConfiguration configuration, ResponseWaiter waiter) throws EventException, InterruptedException {
+			configuration.latch(latch, waiter);
+		}
+	}
+
+	private static final class Key {
+
+		private final IEventService eservice;
+		private final URI           uri;
+		private final String        requestTopic;
+		private final String        responseTopic;
+
+		Key(IEventService eservice, URI uri, String requestTopic, String responseTopic) {
+			this.eservice      = eservice;
+			this.uri           = uri;
+			this.requestTopic  = requestTopic;
+			this.responseTopic = responseTopic;
+		}
+
+		@Override
+		public int hashCode() {
+			final int prime = 31;
+			int result = System.identityHashCode(eservice);
+			result = prime * result + ((requestTopic == null) ? 0 : requestTopic.hashCode());
+			result = prime * result + ((responseTopic == null) ? 0 : responseTopic.hashCode());
+			result = prime * result + ((uri == null) ? 0 : uri.hashCode());
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj)
+				return true;
+			if (obj == null || getClass() != obj.getClass())
+				return false;
+			Key other = (Key) obj;
+			if (eservice != other.eservice)
+				return false;
+			if (requestTopic == null) {
+				if (other.requestTopic != null)
+					return false;
+			} else if (!requestTopic.equals(other.requestTopic))
+				return false;
+			if (responseTopic == null) {
+				if (other.responseTopic != null)
+					return false;
+			} else if (!responseTopic.equals(other.responseTopic))
+				return false;
+			if (uri == null) {
+				if (other.uri != null)
+					return false;
+			} else if (!uri.equals(other.uri))
+				return false;
+			return true;
+		}
+	}
+}
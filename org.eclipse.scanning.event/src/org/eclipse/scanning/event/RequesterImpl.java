@@ -17,17 +17,14 @@ import java.util.concurrent.TimeUnit;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.IdBean;
-import org.eclipse.scanning.api.event.bean.BeanEvent;
-import org.eclipse.scanning.api.event.bean.IBeanListener;
-import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IRequester;
-import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.core.ResponseConfiguration;
 import org.eclipse.scanning.api.event.core.ResponseConfiguration.ResponseType;
 
 class RequesterImpl<T extends IdBean> extends AbstractRequestResponseConnection implements IRequester<T> {
 
 	private ResponseConfiguration responseConfiguration;
+	private RequestChannel        channel;
 
 
 	RequesterImpl(URI uri, String reqTopic, String resTopic, IEventService eservice) {
@@ -47,38 +44,51 @@ class RequesterImpl<T extends IdBean> extends AbstractRequestResponseConnection
         return post(request, null);
 	}
 
+	/**
+	 * Sends the request on the channel for the uri and topics, which is
+	 * kept connected so that a request does not connect a publisher and
+	 * subscriber of its own.
+	 */
 	@Override
 	public T post(final T request, ResponseConfiguration.ResponseWaiter waiter) throws EventException, InterruptedException {
+		return getChannel().post(request, responseConfiguration, waiter);
+	}
 
-		// Something to listen
-        final ISubscriber<IBeanListener<T>>  receive = eservice.createSubscriber(getUri(), getResponseTopic());
-
-        // Something to send
-        final IPublisher<T>  send    = eservice.createPublisher(getUri(), getRequestTopic());
-
-        try {
-        	// Just listen to our id changing.
-	        receive.addListener(request.getUniqueId(), new IBeanListener<T>() {
-				@Override
-				public void beanChangePerformed(BeanEvent<T> evt) {
-					T response = evt.getBean();
-					request.merge(response);  // The bean must implement merge, for instance DeviceRequest.
-					responseConfiguration.countDown();
-				}
-			});
+	private synchronized RequestChannel getChannel() throws EventException {
+		if (channel==null || channel.isClosed()) {
+			releaseChannel();
+			channel = RequestChannel.open(eservice, getUri(), getRequestTopic(), getResponseTopic());
+		}
+		return channel;
+	}
 
-	        // Send the request
-	        send.broadcast(request);
+	private synchronized void releaseChannel() {
+		if (channel!=null) channel.release();
+		channel = null;
+	}
 
-	        responseConfiguration.latch(waiter); // Wait or die trying
+	@Override
+	public void setUri(URI uri) {
+		super.setUri(uri);
+		releaseChannel();
+	}
 
-	        return request;
+	@Override
+	public void setRequestTopic(String requestTopic) {
+		super.setRequestTopic(requestTopic);
+		releaseChannel();
+	}
 
-        } finally {
+	@Override
+	public void setResponseTopic(String responseTopic) {
+		super.setResponseTopic(responseTopic);
+		releaseChannel();
+	}
 
-	        receive.disconnect();
-	        send.disconnect();
-        }
+	@Override
+	public void disconnect() throws EventException {
+		releaseChannel();
+		super.disconnect();
 	}
 
 	@Override
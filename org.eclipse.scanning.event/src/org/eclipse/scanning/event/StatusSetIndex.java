@@ -0,0 +1,97 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the beans in a status set, from the unique id of a
+ * bean to the JMS message id of the message holding it on the broker.
+ * The broker stays the record of the status set, the index is written
+ * through as publishers update the set so that they can find the message
+ * for a bean without browsing and unmarshalling the whole queue.
+ *
+ * The index may be out of date if the set is changed by another process.
+ * Users of the index must check that the message they are given still
+ * exists and remove the id from the index if it does not.
+ *
+ * Beans which have finished are removed from the index by the publishers
+ * and the index of a set is dropped when the set is cleared. So that an
+ * index cannot grow without limit, ids are not added once it holds
+ * {@link #MAX_SIZE} of them, those beans are found by browsing as before.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class StatusSetIndex {
+
+	private static final Map<String, StatusSetIndex> indices = new ConcurrentHashMap<>(7);
+
+	static final int MAX_SIZE = 10000;
+
+	/**
+	 * Get the index for a status set, creating an empty one if required.
+	 *
+	 * @param uri
+	 * @param setName
+	 * @return
+	 */
+	static StatusSetIndex getIndex(URI uri, String setName) {
+		return indices.computeIfAbsent(getKey(uri, setName), k -> new StatusSetIndex());
+	}
+
+	/**
+	 * Removes everything from the index of a status set, to be called
+	 * when messages in the set are removed or sent again.
+	 *
+	 * @param uri
+	 * @param setName
+	 */
+	static void clear(URI uri, String setName) {
+		StatusSetIndex index = indices.remove(getKey(uri, setName));
+		if (index!=null) index.clear(); // A publisher may still hold it.
+	}
+
+	private static String getKey(URI uri, String setName) {
+		return uri+"/"+setName;
+	}
+
+	private final Map<Object, String> messageIds;
+
+	private StatusSetIndex() {
+		this.messageIds = new ConcurrentHashMap<>(89);
+	}
+
+	/**
+	 * @param uniqueId
+	 * @return the JMS message id last known for the bean or null.
+	 */
+	String get(Object uniqueId) {
+		return uniqueId!=null ? messageIds.get(uniqueId) : null;
+	}
+
+	void put(Object uniqueId, String jMSMessageID) {
+		if (uniqueId==null || jMSMessageID==null) return;
+		if (messageIds.size()>=MAX_SIZE && !messageIds.containsKey(uniqueId)) return;
+		messageIds.put(uniqueId, jMSMessageID);
+	}
+
+	void remove(Object uniqueId) {
+		if (uniqueId!=null) messageIds.remove(uniqueId);
+	}
+
+	void clear() {
+		messageIds.clear();
+	}
+}
@@ -0,0 +1,373 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The order in which the beans of a submission queue will be run, held as a
+ * single message of unique ids, head first, on a queue next to the submission
+ * queue. Each bean message carries its unique id as a property so that it may
+ * be taken from the submission queue with a selector without browsing.
+ *
+ * Moving, removing and replacing a bean changes the order message and at most
+ * one bean message, in one transaction, rather than writing the queue again.
+ * The order message is received to edit it, so while one client edits it the
+ * others wait and if that client fails the transaction is rolled back. A
+ * client which cannot get the order in time fails rather than making another.
+ *
+ * A queue is ordered once its consumer has created the order. Beans sent
+ * before then, or by clients which do not know about the order, do not
+ * have the property and are run in the order of the broker after the
+ * ordered beans.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class SubmissionOrder {
+
+	private static final Logger logger = LoggerFactory.getLogger(SubmissionOrder.class);
+
+	/**
+	 * The message property holding the unique id of the bean.
+	 */
+	static final String ID_PROPERTY = "scanningUniqueId";
+
+	/**
+	 * Selects the messages which are not in the order.
+	 */
+	static final String UNORDERED = ID_PROPERTY+" IS NULL";
+
+	/**
+	 * The edit made to the order while it is held, the ids are head first.
+	 */
+	@FunctionalInterface
+	interface Edit<R> {
+		R edit(Session session, Queue queue, List<String> ids) throws Exception;
+	}
+
+	private final URI                    uri;
+	private final String                 queueName;
+	private final IEventConnectorService service;
+
+	SubmissionOrder(URI uri, String queueName, IEventConnectorService service) {
+		this.uri       = uri;
+		this.queueName = queueName;
+		this.service   = service;
+	}
+
+	static String getOrderQueueName(String queueName) {
+		return queueName+".order";
+	}
+
+	/**
+	 * The topic told when a bean is added to the order, so that the
+	 * consumer need not poll for it.
+	 */
+	static String getTopicName(String queueName) {
+		return queueName+".submitted";
+	}
+
+	/**
+	 * Time in ms to wait for another client to finish editing the order, default 5000.
+	 * Set org.eclipse.scanning.event.order.lockTimeout to change.
+	 */
+	private static long getLockTimeout() {
+		return Long.getLong("org.eclipse.scanning.event.order.lockTimeout", 5000);
+	}
+
+	/**
+	 * Makes the queue ordered if it is not, with the beans in it which have ids.
+	 *
+	 * @throws EventException
+	 */
+	void create() throws EventException {
+		edit((s, queue, ids) -> null, true);
+	}
+
+	/**
+	 * Edits the order in its own transaction.
+	 *
+	 * @param edit
+	 * @param create true to create the order if the queue is not yet ordered.
+	 * @return the value of the edit or null if the queue is not ordered.
+	 * @throws EventException if the order exists and another client holds it for longer than the lock timeout.
+	 */
+	<R> R edit(Edit<R> edit, boolean create) throws EventException {
+
+		Connection connection = null;
+		Session    session    = null;
+		try {
+			ConnectionFactory connectionFactory = (ConnectionFactory)service.createConnectionFactory(uri);
+			connection = connectionFactory.createConnection();
+			session    = connection.createSession(true, Session.SESSION_TRANSACTED);
+			connection.start();
+
+			R ret = edit(session, edit, create);
+			session.commit();
+			return ret;
+
+		} catch (Exception ne) {
+			rollback(session);
+			if (ne instanceof EventException) throw (EventException)ne;
+			throw new EventException("Cannot change the order of "+queueName, ne);
+		} finally {
+			try {
+				if (connection!=null) connection.close();
+			} catch (JMSException e) {
+				logger.error("Cannot close connection to "+queueName, e);
+			}
+		}
+	}
+
+	/**
+	 * Edits the order in the transaction of the session, which the caller commits.
+	 *
+	 * @param session which must be transacted and started.
+	 * @param edit
+	 * @param create
+	 * @return the value of the edit or null if the queue is not ordered.
+	 * @throws EventException if the order exists and another client holds it for longer than the lock timeout.
+	 * @throws Exception
+	 */
+	<R> R edit(Session session, Edit<R> edit, boolean create) throws Exception {
+
+		final Queue queue  = session.createQueue(queueName);
+		final Queue oqueue = session.createQueue(getOrderQueueName(queueName));
+
+		List<String> ids = null;
+		if (browse(session, oqueue)!=null) {
+			MessageConsumer consumer = session.createConsumer(oqueue);
+			try {
+				Message m = consumer.receive(getLockTimeout());
+				// Making the order again here would give two orders.
+				if (m==null) throw new EventException("The order of "+queueName+" was not free after "+getLockTimeout()+"ms");
+				ids = read(m);
+				// Two clients may have created the order at once, we keep one.
+				for (Message dup = consumer.receiveNoWait(); dup!=null; dup = consumer.receiveNoWait()) {
+					for (String id : read(dup)) if (!ids.contains(id)) ids.add(id);
+				}
+			} finally {
+				consumer.close();
+			}
+		}
+
+		if (ids==null) {
+			if (!create) return null;
+			ids = getOrderedIds(session, queue);
+		}
+
+		R ret = edit.edit(session, queue, ids);
+
+		MessageProducer producer = session.createProducer(oqueue);
+		try {
+			producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+			producer.send(session.createTextMessage(write(ids)));
+		} finally {
+			producer.close();
+		}
+		return ret;
+	}
+
+	/**
+	 * Takes the bean at the head of the order from the submission queue.
+	 * Ids of beans which are no longer in the queue are left out of the
+	 * order, they are found by browsing so that none is waited for.
+	 *
+	 * @param session which must be transacted and started, the caller commits.
+	 * @return the message of the bean or null if the queue is not ordered or none is ordered.
+	 * @throws Exception
+	 */
+	TextMessage take(Session session) throws Exception {
+		return edit(session, (s, queue, ids) -> {
+			for (Iterator<String> it = ids.iterator(); it.hasNext();) {
+				final String id = it.next();
+				it.remove();
+				if (!contains(s, queue, id)) continue;
+				Message m = receive(s, queue, id);
+				if (m instanceof TextMessage) return (TextMessage)m;
+			}
+			return null;
+		}, false);
+	}
+
+	/**
+	 * Reads the order without changing it.
+	 *
+	 * @return the ids head first or null if the queue is not ordered.
+	 * @throws EventException
+	 */
+	List<String> getOrder() throws EventException {
+		Connection connection = null;
+		try {
+			ConnectionFactory connectionFactory = (ConnectionFactory)service.createConnectionFactory(uri);
+			connection = connectionFactory.createConnection();
+			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			connection.start();
+
+			Message m = browse(session, session.createQueue(getOrderQueueName(queueName)));
+			return m!=null ? read(m) : null;
+
+		} catch (Exception ne) {
+			throw new EventException("Cannot read the order of "+queueName, ne);
+		} finally {
+			try {
+				if (connection!=null) connection.close();
+			} catch (JMSException e) {
+				logger.error("Cannot close connection to "+queueName, e);
+			}
+		}
+	}
+
+	/**
+	 * Sorts the beans read from the queue into the order. Beans not in the
+	 * order stay in the order they were read after those which are.
+	 *
+	 * @param beans
+	 * @param ids may be null
+	 */
+	static <U extends StatusBean> void sort(List<U> beans, List<String> ids) {
+		if (ids==null || beans==null || beans.size()<2) return;
+		final Map<String, Integer> positions = new HashMap<>(ids.size());
+		for (int i = 0; i < ids.size(); i++) positions.put(ids.get(i), i);
+		Collections.sort(beans, (b1, b2) -> Integer.compare(getPosition(positions, b1), getPosition(positions, b2)));
+	}
+
+	private static int getPosition(Map<String, Integer> positions, StatusBean bean) {
+		Integer pos = positions.get(bean.getUniqueId());
+		return pos!=null ? pos : Integer.MAX_VALUE;
+	}
+
+	/**
+	 * Takes the message of a bean from the queue.
+	 *
+	 * @return the message or null if it is not in the queue.
+	 */
+	static Message receive(Session session, Queue queue, String uniqueId) throws JMSException {
+		MessageConsumer consumer = session.createConsumer(queue, ID_PROPERTY+" = '"+uniqueId.replace("'", "''")+"'");
+		try {
+			return consumer.receive(Constants.getReceiveFrequency());
+		} finally {
+			consumer.close();
+		}
+	}
+
+	/**
+	 * Sends the bean in place of the message taken from the queue, keeping its id.
+	 */
+	static void send(Session session, Queue queue, Message old, String json, String uniqueId) throws JMSException {
+		final TextMessage message = session.createTextMessage(json);
+		message.setStringProperty(ID_PROPERTY, uniqueId);
+		final long expiration = old.getJMSExpiration();
+		final long timeToLive = expiration>0 ? Math.max(1, expiration-System.currentTimeMillis()) : 0;
+		MessageProducer producer = session.createProducer(queue);
+		try {
+			producer.send(message, DeliveryMode.PERSISTENT, old.getJMSPriority(), timeToLive);
+		} finally {
+			producer.close();
+		}
+	}
+
+	private static boolean contains(Session session, Queue queue, String uniqueId) throws JMSException {
+		QueueBrowser qb = session.createBrowser(queue, ID_PROPERTY+" = '"+uniqueId.replace("'", "''")+"'");
+		try {
+			return qb.getEnumeration().hasMoreElements();
+		} finally {
+			qb.close();
+		}
+	}
+
+	private static Message browse(Session session, Queue queue) throws JMSException {
+		QueueBrowser qb = session.createBrowser(queue);
+		try {
+			@SuppressWarnings("rawtypes")
+			Enumeration e = qb.getEnumeration();
+			return e.hasMoreElements() ? (Message)e.nextElement() : null;
+		} finally {
+			qb.close();
+		}
+	}
+
+	/**
+	 * The ids of beans in the queue which have them, in the order of the broker.
+	 */
+	private List<String> getOrderedIds(Session session, Queue queue) throws JMSException {
+
+		final List<String> ids = new ArrayList<>(89);
+		QueueBrowser qb = session.createBrowser(queue, ID_PROPERTY+" IS NOT NULL");
+		try {
+			@SuppressWarnings("rawtypes")
+			Enumeration e = qb.getEnumeration();
+			while(e.hasMoreElements()) {
+				Message m = (Message)e.nextElement();
+				if (m!=null) ids.add(m.getStringProperty(ID_PROPERTY));
+			}
+		} finally {
+			qb.close();
+		}
+		if (!ids.isEmpty()) logger.info("The order of "+queueName+" has been made from the "+ids.size()+" beans in it");
+		return ids;
+	}
+
+	private static List<String> read(Message m) throws JMSException {
+		final List<String> ids = new ArrayList<>(89);
+		if (!(m instanceof TextMessage)) return ids;
+		final String text = ((TextMessage)m).getText();
+		if (text==null) return ids;
+		int start = 0;
+		for (int end = text.indexOf('\n'); end>-1; end = text.indexOf('\n', start)) {
+			if (end>start) ids.add(text.substring(start, end));
+			start = end+1;
+		}
+		if (start<text.length()) ids.add(text.substring(start));
+		return ids;
+	}
+
+	private static String write(List<String> ids) {
+		final StringBuilder buf = new StringBuilder(ids.size()*40);
+		for (String id : ids) buf.append(id).append('\n');
+		return buf.toString();
+	}
+
+	private void rollback(Session session) {
+		try {
+			if (session!=null) session.rollback();
+		} catch (JMSException e) {
+			logger.error("Cannot roll back the change to the order of "+queueName, e);
+		}
+	}
+}
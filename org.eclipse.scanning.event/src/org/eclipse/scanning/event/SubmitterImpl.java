@@ -64,8 +64,9 @@ class SubmitterImpl<T extends StatusBean> extends AbstractQueueConnection<T> imp
 			QueueConnectionFactory connectionFactory = (QueueConnectionFactory)service.createConnectionFactory(uri);
 			send              = connectionFactory.createConnection();
 
-			session = send.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			session = send.createSession(true, Session.SESSION_TRANSACTED);
 			Queue queue = session.createQueue(getSubmitQueueName());
+			send.start();
 
 			producer = session.createProducer(queue);
 			producer.setDeliveryMode(DeliveryMode.PERSISTENT);
@@ -97,6 +98,20 @@ class SubmitterImpl<T extends StatusBean> extends AbstractQueueConnection<T> imp
 			message.setJMSTimestamp(getTimestamp());
 			message.setJMSPriority(getPriority());
 
+			// If the queue is ordered the bean goes at the tail of the order as it is sent.
+			// If not, the consumer takes it in the order of the broker.
+			final String id = bean.getUniqueId();
+			Boolean ordered = id!=null
+					        ? new SubmissionOrder(uri, getSubmitQueueName(), service).edit(session, (s, q, ids) -> ids.add(id), false)
+					        : null;
+			if (ordered!=null) {
+				message.setStringProperty(SubmissionOrder.ID_PROPERTY, id);
+				// Tells the consumer when the transaction is committed.
+				MessageProducer notifier = session.createProducer(session.createTopic(SubmissionOrder.getTopicName(getSubmitQueueName())));
+				notifier.send(session.createTextMessage(id));
+				notifier.close();
+			}
+
 			producer.send(message);
 
 			try {
@@ -112,6 +127,7 @@ class SubmitterImpl<T extends StatusBean> extends AbstractQueueConnection<T> imp
 			} catch (Exception ne) {
 				logger.error("Problem publishing to "+getStatusTopicName());
 			}
+			session.commit();
 
 
 		} catch (Exception e) {
@@ -18,19 +18,20 @@ import java.util.Collections;
 import java.util.EventListener;
 import java.util.EventObject;
 import java.util.HashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.jms.JMSException;
 import javax.jms.Message;
 import javax.jms.MessageConsumer;
 import javax.jms.MessageListener;
-import javax.jms.TextMessage;
 import javax.jms.Topic;
 
 import org.apache.commons.lang.ClassUtils;
@@ -38,12 +39,14 @@ import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatBatch;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
 import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
 import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
 import org.eclipse.scanning.api.event.bean.BeanEvent;
 import org.eclipse.scanning.api.event.bean.IBeanClassListener;
 import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.DespatchStatistics;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.IScanListener;
@@ -53,7 +56,7 @@ import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.scan.event.ILocationListener;
 import org.eclipse.scanning.api.scan.event.Location;
 import org.eclipse.scanning.api.scan.event.LocationEvent;
-import org.eclipse.scanning.event.util.JsonUtil;
+import org.eclipse.scanning.event.util.WireFormat;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -64,17 +67,30 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 
 	private static String DEFAULT_KEY = UUID.randomUUID().toString(); // Does not really matter what key is used for the default collection.
 
-	private Map<String, Collection<T>>    slisteners; // Scan listeners
+	/**
+	 * The number of events which may wait on each despatch thread
+	 * before the messaging thread waits.
+	 */
+	private static final int DESPATCH_CAPACITY = Integer.getInteger("org.eclipse.scanning.event.subscriber.despatchCapacity", 1000);
+	private static final long DESPATCH_DRAIN_TIME = Long.getLong("org.eclipse.scanning.event.subscriber.drainTime", 5000); // ms
+
+	private ConcurrentHashMap<String, Collection<T>> slisteners; // Scan listeners
 	private Map<Class, DiseminateHandler> dMap;
 	private BlockingQueue<DiseminateEvent>  queue;
+	private volatile List<DespatchLane>    lanes;
 
 	private MessageConsumer scanConsumer, hearbeatConsumer;
 
 	private boolean synchronous = true;
+	private int     despatchThreads;
+
+	private final AtomicLong despatched   = new AtomicLong();
+	private final AtomicLong totalLatency = new AtomicLong(); // ns
+	private final AtomicLong maxLatency   = new AtomicLong(); // ns
 
 	public SubscriberImpl(URI uri, String topic, IEventConnectorService service) {
 		super(uri, topic, service);
-		slisteners = new ConcurrentHashMap<String, Collection<T>>(31); // Concurrent overkill?
+		slisteners = new ConcurrentHashMap<String, Collection<T>>(31);
 		dMap       = createDiseminateHandlers();
 	}
 
@@ -86,7 +102,11 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	@Override
 	public void addListener(String scanID, T listener) throws EventException{
 		setConnected(true);
-		if (isSynchronous()) createDiseminateThread();
+		if (despatchThreads>0) {
+			createDespatchLanes();
+		} else if (isSynchronous()) {
+			createDiseminateThread();
+		}
 		registerListener(scanID, listener, slisteners);
 		if (scanConsumer == null) {
 			try {
@@ -109,21 +129,18 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
     		@Override
 			public void onMessage(Message message) {
 
-    			TextMessage txt   = (TextMessage)message;
     			try {
-	    			String      json  = txt.getText();
-	    			json = JsonUtil.removeProperties(json, properties);
-	    			try {
-
-		    			Object bean = service.unmarshal(json, beanClass);
-		    			schedule(new DiseminateEvent(bean));
-
-	    			} catch (Exception ne) {
-	    				logger.error("Error processing message {} on topic {} with beanClass {}", message, topicName, beanClass, ne);
-	    				ne.printStackTrace(); // Unit tests without log4j config show this one.
-	     			}
-    			} catch (JMSException ne) {
-    				logger.error("Cannot get text from message "+txt, ne);
+    				if (message.propertyExists(HeartbeatService.BATCH_PROPERTY)) { // The beats of several consumers
+    					HeartbeatBatch batch = WireFormat.unmarshal(message, HeartbeatBatch.class, properties, service);
+    					for (HeartbeatBean beat : batch.getBeats()) schedule(new DiseminateEvent(beat));
+    					return;
+    				}
+	    			Object bean = WireFormat.unmarshal(message, beanClass, properties, service);
+	    			schedule(new DiseminateEvent(bean));
+
+    			} catch (Exception ne) {
+    				logger.error("Error processing message {} on topic {} with beanClass {}", message, topicName, beanClass, ne);
+    				ne.printStackTrace(); // Unit tests without log4j config show this one.
     			}
     		}
     	};
@@ -132,7 +149,21 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	}
 
 	private void schedule(DiseminateEvent event) {
-		if (isSynchronous()) {
+		final List<DespatchLane> ls = lanes;
+		if (ls!=null) {
+			if (event==DiseminateEvent.STOP) {
+				lanes = null;
+				for (DespatchLane lane : ls) lane.stop();
+				for (DespatchLane lane : ls) lane.await(DESPATCH_DRAIN_TIME);
+				return;
+			}
+			try {
+				ls.get(getLane(event.bean, ls.size())).add(event);
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+				logger.warn("Interrupted despatching event on topic {}", getTopicName(), ne);
+			}
+		} else if (isSynchronous()) {
 		    if (queue!=null) queue.add(event);
 		} else {
 			if (event==DiseminateEvent.STOP) return;
@@ -141,6 +172,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 				@Override
 				public void run() {
 					diseminate(event); // Use this JMS thread directly to do work.
+					record(event);
 				}
 			};
 			thread.setDaemon(true);
@@ -164,6 +196,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 						DiseminateEvent event = queue.take();
 						if (event==DiseminateEvent.STOP) return;
 						diseminate(event);
+						record(event);
 
 					} catch (RuntimeException e) {
 						e.printStackTrace();
@@ -185,14 +218,128 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	}
 
 
+	private synchronized void createDespatchLanes() {
+		if (lanes!=null) return;
+		final List<DespatchLane> ls = new ArrayList<>(despatchThreads);
+		for (int i = 0; i < despatchThreads; i++) ls.add(new DespatchLane(i));
+		lanes = ls;
+	}
+
+	/**
+	 * The events of a given bean always use the same lane so that they are in order.
+	 * Beans without an id or name all use the first lane.
+	 */
+	private static int getLane(Object bean, int size) {
+		Object key = null;
+		if (bean instanceof IdBean) {
+			key = ((IdBean)bean).getUniqueId();
+		} else if (bean instanceof INameable) {
+			key = ((INameable)bean).getName();
+		}
+		if (key==null) return 0;
+		return (key.hashCode() & Integer.MAX_VALUE) % size;
+	}
+
+	/**
+	 * A thread with a bounded queue which despatches the events of the beans given to it in order.
+	 */
+	private final class DespatchLane implements Runnable {
+
+		private final BlockingQueue<DiseminateEvent> events;
+		private final Thread                         thread;
+		private volatile boolean                     stopping;
+
+		DespatchLane(int index) {
+			this.events = new ArrayBlockingQueue<>(DESPATCH_CAPACITY);
+			this.thread = new Thread(this, "Subscriber despatch thread "+index+" "+getTopicName());
+			thread.setDaemon(true);
+			thread.setPriority(Thread.NORM_PRIORITY+1);
+			thread.start();
+		}
+
+		void add(DiseminateEvent event) throws InterruptedException {
+			events.put(event); // Blocks the messaging thread if this lane is full.
+		}
+
+		/**
+		 * Stops the lane once the events already in it have been despatched.
+		 * If the lane is full the marker cannot be queued without blocking,
+		 * the lane then stops when it finds itself empty.
+		 */
+		void stop() {
+			stopping = true;
+			events.offer(DiseminateEvent.STOP);
+		}
+
+		/**
+		 * Waits for the lane to despatch its events after a stop.
+		 * A listener which disconnects from its own lane does not wait.
+		 */
+		void await(long time) {
+			if (Thread.currentThread()==thread) return;
+			try {
+				thread.join(time);
+			} catch (InterruptedException ne) {
+				Thread.currentThread().interrupt();
+			}
+			if (thread.isAlive()) logger.warn("{} still has {} events to despatch after {}ms", thread.getName(), events.size(), time);
+		}
+
+		int size() {
+			return events.size();
+		}
+
+		@Override
+		public void run() {
+			while(true) {
+				try {
+					DiseminateEvent event = stopping ? events.poll() : events.take();
+					if (event==null || event==DiseminateEvent.STOP) return;
+					diseminate(event);
+					record(event);
+
+				} catch (RuntimeException e) {
+					logger.error("RuntimeException occured despatching event", e);
+
+				} catch (InterruptedException e) {
+					logger.debug("{} interrupted", thread.getName());
+					return;
+				}
+			}
+		}
+	}
+
+	private void record(DiseminateEvent event) {
+		final long latency = System.nanoTime()-event.received;
+		despatched.incrementAndGet();
+		totalLatency.addAndGet(latency);
+		maxLatency.accumulateAndGet(latency, Math::max);
+	}
+
+	@Override
+	public DespatchStatistics getDespatchStatistics() {
+		int depth = 0;
+		final List<DespatchLane> ls = lanes;
+		if (ls!=null) {
+			for (DespatchLane lane : ls) depth+=lane.size();
+		} else if (queue!=null) {
+			depth = queue.size();
+		}
+		final long   count = despatched.get();
+		final double mean  = count>0 ? totalLatency.get()/1e6/count : 0d;
+		return new DespatchStatistics(depth, count, mean, maxLatency.get()/1e6);
+	}
+
 	private final static class DiseminateEvent {
 
 		public static final DiseminateEvent STOP = new DiseminateEvent("STOP");
 
 		protected final Object bean;
+		protected final long   received; // ns
 
 		public DiseminateEvent(Object bean) {
 			this.bean      = bean;
+			this.received  = System.nanoTime();
 		}
 
 		@Override
@@ -238,45 +385,46 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 
 		if (listeners==null)     return false;
 		if (listeners.isEmpty()) return false;
-		final EventListener[] ls = listeners.toArray(new EventListener[listeners.size()]);
 
 		boolean ret = true;
-		for (EventListener listener : ls) {
+		for (EventListener listener : listeners) { // Copy on write, so no copy is needed
 
-			@SuppressWarnings("unchecked")
-			List<Class<?>> types = getAllInterfaces(listener.getClass());
-			boolean diseminated = false;
-			for (Class<?> type : types) {
-				DiseminateHandler handler = dMap.get(type);
-				if (handler==null) continue;
-				handler.diseminate(bean, listener);
-				diseminated = true;
-			}
-			ret =  ret && diseminated;
+			DiseminateHandler[] handlers = getHandlers(listener.getClass());
+			for (DiseminateHandler handler : handlers) handler.diseminate(bean, listener);
+			ret =  ret && handlers.length>0;
 		}
 		return ret;
 	}
 
-	private Map<Class<? extends EventListener>,List<Class<?>>> interfaces;
+	private final Map<Class<? extends EventListener>,DiseminateHandler[]> handlers = new ConcurrentHashMap<>(7);
 
 	/**
 	 * Important to cache the interfaces. Getting them caused a bug where scannable
-	 * values were slow to transmit to the client during a scan.
+	 * values were slow to transmit to the client during a scan. The handlers for
+	 * the interfaces are worked out once for each class of listener.
 	 *
 	 * @param class1
 	 * @return
 	 */
-	private List<Class<?>> getAllInterfaces(Class<? extends EventListener> class1) {
-		if (interfaces==null) interfaces = new HashMap<>();
-		if (!interfaces.containsKey(class1)) {
-			interfaces.put(class1, ClassUtils.getAllInterfaces(class1));
+	private DiseminateHandler[] getHandlers(Class<? extends EventListener> class1) {
+		DiseminateHandler[] ret = handlers.get(class1);
+		if (ret==null) {
+			@SuppressWarnings("unchecked")
+			List<Class<?>> types = ClassUtils.getAllInterfaces(class1);
+			List<DiseminateHandler> hs = new ArrayList<>(types.size());
+			for (Class<?> type : types) {
+				DiseminateHandler handler = dMap.get(type);
+				if (handler!=null) hs.add(handler);
+			}
+			ret = hs.toArray(new DiseminateHandler[hs.size()]);
+			handlers.put(class1, ret);
 		}
-		return interfaces.get(class1);
+		return ret;
 	}
 
 	private Map<Class, DiseminateHandler> createDiseminateHandlers() {
 
-		Map<Class, DiseminateHandler> ret = Collections.synchronizedMap(new HashMap<Class, DiseminateHandler>(3));
+		Map<Class, DiseminateHandler> ret = new HashMap<Class, DiseminateHandler>(7);
 
 		ret.put(IScanListener.class, new DiseminateHandler() {
 			@Override
@@ -336,7 +484,7 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 
 
 
-		return ret;
+		return Collections.unmodifiableMap(ret);
 	}
 
 
@@ -345,13 +493,8 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	}
 
 
-	private void registerListener(String key, T listener, Map<String, Collection<T>> listeners) {
-		Collection<T> ls = listeners.get(key);
-		if (ls == null) {
-			ls = new LinkedHashSet<T>(3);
-			listeners.put(key.toString(), ls);
-		}
-		ls.add(listener);
+	private void registerListener(String key, T listener, ConcurrentHashMap<String, Collection<T>> listeners) {
+		listeners.computeIfAbsent(key, k -> new CopyOnWriteArraySet<T>()).add(listener);
 	}
 
 	@Override
@@ -379,7 +522,6 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 	@Override
 	public void disconnect() throws EventException {
 		try {
-			clear();
 			if (scanConsumer!=null)     scanConsumer.close();
 			if (hearbeatConsumer!=null) hearbeatConsumer.close();
 
@@ -392,9 +534,10 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 			scanConsumer = null;
 			hearbeatConsumer = null;
 			setConnected(false);
+			schedule(DiseminateEvent.STOP); // Events already received are despatched before the listeners go.
+			clear();
 		}
 		super.disconnect();
-		schedule(DiseminateEvent.STOP);
 	}
 
 	protected boolean isListenersEmpty() {
@@ -464,6 +607,18 @@ class SubscriberImpl<T extends EventListener> extends AbstractConnection impleme
 		this.synchronous = synchronous;
 	}
 
+	@Override
+	public int getDespatchThreads() {
+		return despatchThreads;
+	}
+
+	@Override
+	public void setDespatchThreads(int threads) {
+		if (threads<0)     throw new IllegalArgumentException("The number of despatch threads cannot be negative!");
+		if (lanes!=null || queue!=null) throw new IllegalStateException("The despatch threads must be set before listeners are added!");
+		this.despatchThreads = threads;
+	}
+
 	private List<String> properties;
 
 
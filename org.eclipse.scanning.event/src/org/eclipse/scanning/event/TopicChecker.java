@@ -12,6 +12,8 @@
 package org.eclipse.scanning.event;
 
 import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.event.EventException;
@@ -31,7 +33,6 @@ class TopicChecker<T extends INameable> {
 	private URI    uri;
 	private String consumerName;
 	private long   listenTime;
-	private volatile boolean ok = false;
 	private String topicName;
 	private Class<T> beanClass;
 	private IEventService eventService;
@@ -48,7 +49,7 @@ class TopicChecker<T extends INameable> {
 	public void checkPulse() throws EventException, InterruptedException {
 
     	ISubscriber<IBeanListener<T>>	subscriber = eventService.createSubscriber(uri, topicName);
-        ok = false;
+    	final CountDownLatch            published  = new CountDownLatch(1);
 
         try {
              subscriber.addListener(new IBeanListener<T>() {
@@ -58,7 +59,7 @@ class TopicChecker<T extends INameable> {
         			if (!consumerName.equals(bean.getName())) {
         				return;
         			}
-        			ok = true;
+        			published.countDown();
         		}
         		@Override
 				public Class<T> getBeanClass() {
@@ -67,9 +68,8 @@ class TopicChecker<T extends INameable> {
         	});
 
 
-            Thread.sleep(listenTime);
-
-            if (!ok) throw new EventException(consumerName+" Consumer heartbeat absent.\nIt is either stopped or unresponsive.\nPlease contact your support representative.");
+            // Returns as soon as the bean is published
+            if (!published.await(listenTime, TimeUnit.MILLISECONDS)) throw new EventException(consumerName+" Consumer heartbeat absent.\nIt is either stopped or unresponsive.\nPlease contact your support representative.");
 
 
         } finally {
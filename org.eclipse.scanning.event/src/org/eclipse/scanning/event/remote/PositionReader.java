@@ -0,0 +1,249 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.remote;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.scanning.api.annotation.ui.DeviceType;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.core.IRequester;
+import org.eclipse.scanning.api.event.scan.DeviceInformation;
+import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the positions of the remote scannables of a service. Up to
+ * {@link #getMaximumInFlight()} requests are sent at once, a read asked for
+ * while they are all in flight waits and is then sent together with any
+ * others which have been asked for, in one request.
+ * <p>
+ * A client which reads several scannables in turn from one thread does not
+ * overlap its reads, so each request also reads the other scannables read
+ * in the last second. Their positions are kept for
+ * {@link #getReadAheadTime()}, so reading them next does not make a round
+ * trip. A position read ahead is used once and is forgotten when the
+ * scannable is moved or sends its location. A scannable read on its own
+ * is sent at once as it always was.
+ * <p>
+ * A scannable which cannot be read gives its error to whoever asked for it
+ * and does not stop the others in the request being read. It is not read
+ * ahead again until a read of it succeeds.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class PositionReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(PositionReader.class);
+
+	/**
+	 * Scannables read within this time in ms are read ahead with the others.
+	 */
+	private static final long RECENT_TIME = 1000;
+
+	/**
+	 * Requests which may be in flight at once before reads wait to go together, default 4.
+	 * Set org.eclipse.scanning.event.remote.readsInFlight to change.
+	 */
+	private static int getMaximumInFlight() {
+		return Math.max(1, Integer.getInteger("org.eclipse.scanning.event.remote.readsInFlight", 4));
+	}
+
+	/**
+	 * Time in ms for which a position read ahead may be used, default 50.
+	 * Set org.eclipse.scanning.event.remote.readAheadTime to 0 to read only the scannables asked for.
+	 */
+	private static long getReadAheadTime() {
+		return Long.getLong("org.eclipse.scanning.event.remote.readAheadTime", 50);
+	}
+
+	/**
+	 * The reads sent in one request.
+	 */
+	private static final class Batch {
+		private final Set<String> names = new LinkedHashSet<>(7);
+		private final Set<String> ahead = new LinkedHashSet<>(7); // Forgotten ones are taken out while in flight
+		private List<String>      request;
+		private DeviceRequest     response;
+		private Exception         error;
+		private long              sent;
+		private boolean           done;
+
+		boolean isAlone() {
+			return request.size()==1;
+		}
+	}
+
+	/**
+	 * A position read ahead.
+	 */
+	private static final class Read {
+		private final DeviceRequest response;
+		private final long          time;
+		Read(DeviceRequest response, long time) {
+			this.response = response;
+			this.time     = time;
+		}
+	}
+
+	private final IRequester<DeviceRequest> requester;
+	private final Map<String, Long>         recent; // The time each scannable was last asked for
+	private final Map<String, Read>         ahead;
+	private final Set<String>               failed; // Not read ahead
+	private final List<Batch>               inFlight;
+	private Batch                           pending;
+
+	PositionReader(IRequester<DeviceRequest> requester) {
+		this.requester = requester;
+		this.recent    = new HashMap<>(7);
+		this.ahead     = new HashMap<>(7);
+		this.failed    = new HashSet<>(3);
+		this.inFlight  = new ArrayList<>(4);
+	}
+
+	/**
+	 * Forgets the position read ahead of a scannable, because it has moved.
+	 *
+	 * @param name
+	 */
+	synchronized void forget(String name) {
+		ahead.remove(name);
+		for (Batch batch : inFlight) batch.ahead.remove(name);
+	}
+
+	/**
+	 * Reads a scannable.
+	 *
+	 * @param name
+	 * @return the response as if the scannable had been read on its own.
+	 * @throws EventException
+	 * @throws InterruptedException
+	 */
+	DeviceRequest read(String name) throws EventException, InterruptedException {
+
+		final Batch   batch;
+		final boolean lead;
+		synchronized (this) {
+			final long now = System.currentTimeMillis();
+			recent.put(name, now);
+			final Read read = ahead.remove(name);
+			if (read!=null && now-read.time<=getReadAheadTime()) return read.response;
+
+			if (pending==null) pending = new Batch();
+			batch = pending;
+			batch.names.add(name);
+			while(!batch.done && (pending!=batch || inFlight.size()>=getMaximumInFlight())) wait();
+			lead = !batch.done;
+			if (lead) {
+				inFlight.add(batch);
+				pending = null;
+				if (getReadAheadTime()>0) {
+					for (Iterator<Map.Entry<String, Long>> it = recent.entrySet().iterator(); it.hasNext();) {
+						final Map.Entry<String, Long> entry = it.next();
+						if (now-entry.getValue()>RECENT_TIME) {
+							it.remove();
+						} else if (!batch.names.contains(entry.getKey()) && !failed.contains(entry.getKey())) {
+							batch.ahead.add(entry.getKey());
+						}
+					}
+				}
+				batch.request = new ArrayList<>(batch.names);
+				batch.request.addAll(batch.ahead);
+				batch.sent = now;
+			}
+		}
+
+		if (lead) {
+			try {
+				send(batch);
+			} finally {
+				synchronized (this) {
+					if (batch.response!=null) {
+						final Map<String, String> errors = batch.response.getDeviceErrors();
+						for (String read : batch.request) {
+							if ((errors!=null && errors.containsKey(read)) || batch.response.getErrorMessage()!=null) {
+								failed.add(read);
+							} else {
+								failed.remove(read);
+							}
+						}
+						for (String ahead : batch.ahead) {
+							if (!failed.contains(ahead)) this.ahead.put(ahead, new Read(get(batch.response, ahead), batch.sent));
+						}
+					}
+					batch.done = true;
+					inFlight.remove(batch);
+					notifyAll();
+				}
+			}
+		}
+		return get(batch, name);
+	}
+
+	private void send(Batch batch) {
+		if (batch.isAlone()) {
+			try {
+				batch.response = requester.post(new DeviceRequest(batch.request.get(0), DeviceType.SCANNABLE));
+			} catch (Exception ne) {
+				batch.error = ne;
+			}
+			return;
+		}
+		try {
+			DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+			req.setDeviceNames(batch.request);
+			req = requester.post(req);
+			if (req.getErrorMessage()==null && req.getDeviceValues()!=null) {
+				batch.response = req;
+			} else {
+				logger.debug("Cannot read {} together, they will be read one at a time: {}", batch.names, req.getErrorMessage());
+			}
+		} catch (Exception ne) {
+			logger.debug("Cannot read "+batch.names+" together, they will be read one at a time", ne);
+		}
+	}
+
+	private DeviceRequest get(Batch batch, String name) throws EventException, InterruptedException {
+		if (batch.error instanceof InterruptedException) throw (InterruptedException)batch.error;
+		if (batch.error instanceof EventException) throw (EventException)batch.error;
+		if (batch.error!=null) throw new EventException(batch.error);
+		if (batch.isAlone()) return batch.response;
+
+		final DeviceRequest response = batch.response;
+		if (response==null) return requester.post(new DeviceRequest(name, DeviceType.SCANNABLE));
+		return get(response, name);
+	}
+
+	/**
+	 * @return the response to a read of many as if the scannable had been read on its own.
+	 */
+	private static DeviceRequest get(DeviceRequest response, String name) {
+		final DeviceRequest ret = new DeviceRequest(name, DeviceType.SCANNABLE);
+		final Map<String, String> errors = response.getDeviceErrors();
+		if (errors!=null && errors.containsKey(name)) {
+			ret.setErrorMessage(errors.get(name));
+			return ret;
+		}
+		ret.setDeviceValue(response.getDeviceValues().get(name));
+		final DeviceInformation<?> info = response.getDeviceInformation(name);
+		if (info!=null) ret.addDeviceInformation(info);
+		return ret;
+	}
+}
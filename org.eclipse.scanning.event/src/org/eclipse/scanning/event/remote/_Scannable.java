@@ -11,7 +11,6 @@
  *******************************************************************************/
 package org.eclipse.scanning.event.remote;
 
-import java.lang.reflect.Method;
 import java.net.URI;
 import java.util.Collection;
 import java.util.LinkedHashSet;
@@ -46,13 +45,22 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 	private static final Logger logger = LoggerFactory.getLogger(_Scannable.class);
 
 	private final ISubscriber<ILocationListener> subscriber;
+	private final PositionReader                 reader;
 
-	_Scannable(DeviceRequest req, URI uri, ISubscriber<ILocationListener> positionListener, IEventService eservice) throws EventException, InterruptedException {
+	/**
+	 * @param reader which reads the position together with those of other scannables of the service, may be null.
+	 */
+	_Scannable(DeviceRequest req, URI uri, ISubscriber<ILocationListener> positionListener, PositionReader reader, IEventService eservice) throws EventException, InterruptedException {
 		super(req,
-			  Long.getLong("org.eclipse.scanning.event.remote.scannableTimeout", 250),
+			  getRequestTimeout(),
 			  uri,
 			  eservice);
 		this.subscriber = positionListener;
+		this.reader     = reader;
+	}
+
+	static long getRequestTimeout() {
+		return Long.getLong("org.eclipse.scanning.event.remote.scannableTimeout", 250);
 	}
 
 	@SuppressWarnings("unchecked")
@@ -74,6 +82,7 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 		try {
 			// Will tell us that the value is changing by recording the time of the change
 			addListener();
+			if (reader!=null) reader.forget(info.getName());
 
 			DeviceRequest req = new DeviceRequest(info.getName(), DeviceType.SCANNABLE);
 			req.setDeviceAction(DeviceAction.SET);
@@ -114,7 +123,7 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 	@Override
 	protected DeviceRequest update() {
 		try {
-			DeviceRequest req = requester.post(new DeviceRequest(name, DeviceType.SCANNABLE));
+			DeviceRequest req = reader!=null ? reader.read(name) : requester.post(new DeviceRequest(name, DeviceType.SCANNABLE));
 			this.merge(req.getDeviceInformation()!=null ? (DeviceInformation<T>)req.getDeviceInformation() : this.info);
 			return req;
 		} catch (Exception ne) {
@@ -196,6 +205,7 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 
 	@Override
 	public void locationPerformed(LocationEvent evt) {
+		if (reader!=null) reader.forget(getName()); // It has moved
 		if (listeners == null) return;
 		if (listeners.isEmpty()) return;
 
@@ -208,9 +218,23 @@ class _Scannable<T> extends _AbstractRemoteDevice<T> implements IScannable<T>, I
 
 		IPositionListener[] ls = listeners.toArray(new IPositionListener[listeners.size()]);
 		try {
-			final Method method = IPositionListener.class.getMethod(loc.getType().toString(), PositionEvent.class);
 			for (IPositionListener l : ls)  {
-				method.invoke(l, evnt);
+				switch (loc.getType()) {
+				case positionWillPerform:
+					l.positionWillPerform(evnt);
+					break;
+				case levelPerformed:
+					l.levelPerformed(evnt);
+					break;
+				case positionChanged:
+					l.positionChanged(evnt);
+					break;
+				case positionPerformed:
+					l.positionPerformed(evnt);
+					break;
+				default:
+					break;
+				}
 			}
 		} catch (Exception ne) {
 			logger.error("Cannot diseminate event "+loc, ne);
@@ -11,11 +11,15 @@
  *******************************************************************************/
 package org.eclipse.scanning.event.remote;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import org.eclipse.scanning.api.IScannable;
@@ -24,13 +28,19 @@ import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.event.EventConstants;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
 import org.eclipse.scanning.api.event.core.IDisconnectable;
 import org.eclipse.scanning.api.event.core.IRequester;
 import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.ResponseConfiguration.ResponseWaiter;
+import org.eclipse.scanning.api.event.scan.DeviceAction;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.DeviceRequest;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.PositionEvent;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.ILocationListener;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
 
 class _ScannableDeviceService extends AbstractRemoteService implements IScannableDeviceService {
 
@@ -38,6 +48,20 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	private Map<String, IScannable<?>> scannables;
 	private ISubscriber<ILocationListener> subscriber;
 
+	/**
+	 * Reads, moves and subscribes to many scannables in one request.
+	 */
+	private IRequester<DeviceRequest>  batchRequester;
+	private PositionReader             reader;
+
+	/**
+	 * The updates of subscriptions to positions, with the requests which made the listeners' subscriptions.
+	 * The subscriptions are renewed in a third of their lease, or made again if they have expired.
+	 */
+	private ISubscriber<IBeanListener<DeviceRequest>> updateSubscriber;
+	private Map<IPositionListener, DeviceRequest>     subscriptions;
+	private ScheduledExecutorService                  renewer;
+
 	@Override
 	public void init() throws EventException {
 		requester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
@@ -47,10 +71,28 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 	    scannables = new HashMap<>();
 
 		subscriber = eservice.createSubscriber(uri, EventConstants.POSITION_TOPIC);
+
+		batchRequester = eservice.createRequestor(uri, IEventService.DEVICE_REQUEST_TOPIC, IEventService.DEVICE_RESPONSE_TOPIC);
+		batchRequester.setTimeout(_Scannable.getRequestTimeout(), TimeUnit.MILLISECONDS);
+		reader = new PositionReader(batchRequester);
+		subscriptions = new ConcurrentHashMap<>();
 	}
 
 	@Override
 	public void disconnect() throws EventException {
+		synchronized (this) {
+			if (renewer!=null) renewer.shutdownNow();
+			renewer = null;
+		}
+		for (IPositionListener listener : subscriptions.keySet()) {
+			try {
+				unsubscribe(subscriptions.remove(listener).getUniqueId());
+			} catch (ScanningException ne) {
+				logger.warn("Cannot stop the position updates of "+listener, ne);
+			}
+		}
+		if (updateSubscriber!=null) updateSubscriber.disconnect();
+		batchRequester.disconnect();
 		requester.disconnect(); // Requester can still be used again after a disconnect
 		for (String name : scannables.keySet()) {
 			IScannable<?> scannable = scannables.remove(name);
@@ -90,7 +132,7 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 
 		if (scannables.containsKey(name)) return (IScannable<T>)scannables.get(name);
 		try {
-			_Scannable<T> ret = new _Scannable<T>(new DeviceRequest(name, DeviceType.SCANNABLE), uri, subscriber, eservice);
+			_Scannable<T> ret = new _Scannable<T>(new DeviceRequest(name, DeviceType.SCANNABLE), uri, subscriber, reader, eservice);
 			scannables.put(name, ret);
 			return ret;
 		} catch (EventException | InterruptedException e) { // If no Scannable
@@ -98,6 +140,148 @@ class _ScannableDeviceService extends AbstractRemoteService implements IScannabl
 		}
 	}
 
+	@Override
+	public Map<String, Object> getPositions(List<String> names) throws ScanningException {
+		DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+		req.setDeviceNames(new ArrayList<>(names));
+		req = post(req, null);
+		if (req.getDeviceErrors()!=null) throw new ScanningException("Cannot read the positions of "+req.getDeviceErrors());
+		return req.getDeviceValues();
+	}
+
+	/**
+	 * Moves the scannables with one request and waits for up to
+	 * org.eclipse.scanning.event.remote.moveTimeout ms, default five minutes.
+	 */
+	@Override
+	public void setPositions(Map<String, Object> positions) throws ScanningException {
+		DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+		req.setDeviceNames(new ArrayList<>(positions.keySet()));
+		req.setDeviceValues(positions);
+		req.setDeviceAction(DeviceAction.SET);
+		for (String name : positions.keySet()) reader.forget(name);
+
+		final long start   = System.currentTimeMillis();
+		final long timeout = Long.getLong("org.eclipse.scanning.event.remote.moveTimeout", TimeUnit.MINUTES.toMillis(5));
+		post(req, () -> System.currentTimeMillis()-start < timeout);
+	}
+
+	/**
+	 * The server sends the positions which change to the listener, no more
+	 * often than the update interval, as the position of a positionChanged event.
+	 * The subscription is renewed until the listener is removed or the service
+	 * is disconnected.
+	 */
+	@Override
+	public void addPositionListener(List<String> names, long updateInterval, IPositionListener listener) throws ScanningException {
+
+		if (subscriptions.containsKey(listener)) throw new ScanningException("The listener is already subscribed to positions");
+		DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+		req.setDeviceNames(new ArrayList<>(names));
+		req.setDeviceAction(DeviceAction.SUBSCRIBE);
+		req.setUpdateInterval(updateInterval);
+
+		try {
+			getUpdateSubscriber().addListener(req.getUniqueId(), evt -> {
+				DeviceRequest update = evt.getBean();
+				if (update.getErrorMessage()!=null || update.getDeviceValues()==null) return;
+				try {
+					listener.positionChanged(new PositionEvent(new MapPosition(update.getDeviceValues()), null));
+				} catch (Exception ne) {
+					logger.error("Cannot tell "+listener+" of the positions "+update.getDeviceValues(), ne);
+				}
+			});
+		} catch (EventException ne) {
+			throw new ScanningException("Cannot listen to the positions of "+names, ne);
+		}
+		subscriptions.put(listener, req);
+		try {
+			post(copy(req), null);
+		} catch (ScanningException ne) {
+			subscriptions.remove(listener);
+			updateSubscriber.removeListeners(req.getUniqueId());
+			throw ne;
+		}
+		startRenewing();
+	}
+
+	@Override
+	public void removePositionListener(List<String> names, IPositionListener listener) throws ScanningException {
+		DeviceRequest req = subscriptions.remove(listener);
+		if (req!=null) unsubscribe(req.getUniqueId());
+	}
+
+	private synchronized void startRenewing() {
+		final long lease = DeviceRequest.getSubscriptionLease();
+		if (renewer!=null || lease<1) return;
+		renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread thread = new Thread(r, "Renew position subscriptions");
+			thread.setDaemon(true);
+			return thread;
+		});
+		final long period = Math.max(1, lease/3);
+		renewer.scheduleWithFixedDelay(this::renew, period, period, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Renews each subscription, making it again if it has expired,
+	 * for instance because the server was restarted.
+	 */
+	private void renew() {
+		for (DeviceRequest subscription : subscriptions.values()) {
+			DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+			req.setDeviceNames(new ArrayList<>());
+			req.setDeviceAction(DeviceAction.RENEW);
+			req.setDeviceValue(subscription.getUniqueId());
+			try {
+				post(req, null);
+			} catch (ScanningException expired) {
+				try {
+					logger.debug("Subscription "+subscription.getUniqueId()+" could not be renewed, it will be made again", expired);
+					post(copy(subscription), null);
+				} catch (ScanningException ne) {
+					logger.warn("Cannot renew the subscription to "+subscription.getDeviceNames(), ne);
+				}
+			}
+		}
+	}
+
+	/**
+	 * The requester fills in the request it posts, so each post of a subscription is a copy.
+	 */
+	private static DeviceRequest copy(DeviceRequest subscription) {
+		DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+		req.setUniqueId(subscription.getUniqueId());
+		req.setDeviceNames(new ArrayList<>(subscription.getDeviceNames()));
+		req.setDeviceAction(DeviceAction.SUBSCRIBE);
+		req.setUpdateInterval(subscription.getUpdateInterval());
+		return req;
+	}
+
+	private void unsubscribe(String id) throws ScanningException {
+		updateSubscriber.removeListeners(id);
+		DeviceRequest req = new DeviceRequest(DeviceType.SCANNABLE);
+		req.setDeviceNames(new ArrayList<>());
+		req.setDeviceAction(DeviceAction.UNSUBSCRIBE);
+		req.setDeviceValue(id);
+		post(req, null);
+	}
+
+	private synchronized ISubscriber<IBeanListener<DeviceRequest>> getUpdateSubscriber() {
+		if (updateSubscriber==null) updateSubscriber = eservice.createSubscriber(uri, IEventService.DEVICE_RESPONSE_TOPIC);
+		return updateSubscriber;
+	}
+
+	private DeviceRequest post(DeviceRequest req, ResponseWaiter waiter) throws ScanningException {
+		try {
+			req = batchRequester.post(req, waiter);
+			req.checkException();
+			return req;
+		} catch (Exception ne) {
+			throw new ScanningException("Cannot "+(req.getDeviceAction()!=null ? req.getDeviceAction() : "read")+" the scannables "+req.getDeviceNames(), ne);
+		}
+	}
+
 	@Override
 	public <T> void register(IScannable<T> device) {
 		throw new IllegalArgumentException("New scannables may not be registered on a remote service implementation!");
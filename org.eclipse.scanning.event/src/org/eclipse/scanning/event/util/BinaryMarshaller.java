@@ -0,0 +1,730 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.util;
+
+import java.beans.BeanInfo;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.IdBean;
+import org.eclipse.scanning.api.points.AbstractPosition;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+
+/**
+ * Writes beans as a compact tagged binary rather than as JSON. The properties
+ * of a bean are written in the order of its schema, which is the sorted list
+ * of properties which have a getter and a setter, so their names are not sent.
+ * Each class is named once in a message with a hash of its schema which is
+ * checked when it is read, so both ends must have the same version of the class.
+ * <p>
+ * Beans from the scanning bundles, positions, primitives, strings, enums,
+ * collections and maps are written in binary. Other objects, for instance
+ * regions of interest and detector models from other bundles, are written
+ * as JSON by the connector service inside the binary, as they may need the
+ * custom serialization which is registered with the JSON marshaller.
+ * <p>
+ * Classes are found by name using the class loader of the API bundle,
+ * so classes from other bundles, such as test beans, must be registered
+ * with {@link #registerClass(Class)} to be written as beans.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public final class BinaryMarshaller {
+
+	private static final byte VERSION = 1;
+
+	// Tags
+	private static final byte NULL     = 0;
+	private static final byte TRUE     = 1;
+	private static final byte FALSE    = 2;
+	private static final byte INT      = 3;
+	private static final byte LONG     = 4;
+	private static final byte DOUBLE   = 5;
+	private static final byte FLOAT    = 6;
+	private static final byte STRING   = 7;
+	private static final byte ENUM     = 8;
+	private static final byte BEAN     = 9;
+	private static final byte LIST     = 10;
+	private static final byte SET      = 11;
+	private static final byte MAP      = 12;
+	private static final byte POSITION = 13;
+	private static final byte JSON     = 14;
+	private static final byte DOUBLES  = 15;
+	private static final byte INTS     = 16;
+
+	private static final ClassLoader API_LOADER = IdBean.class.getClassLoader();
+
+	private static final Map<String, Class<?>> classes = new ConcurrentHashMap<>(89);
+	private static final Map<Class<?>, Schema> schemas = new ConcurrentHashMap<>(89);
+
+	/**
+	 * Register a class which is not in the scanning bundles, or cannot be found
+	 * from the API bundle, so that it may be written as a bean. The class must be
+	 * registered in the processes which write and read it.
+	 *
+	 * @param clazz
+	 */
+	public static void registerClass(Class<?> clazz) {
+		classes.put(clazz.getName(), clazz);
+		schemas.remove(clazz);
+	}
+
+	private final IEventConnectorService service;
+
+	/**
+	 * @param service used to write and read the objects which are sent as JSON.
+	 */
+	public BinaryMarshaller(IEventConnectorService service) {
+		this.service = service;
+	}
+
+	/**
+	 * @param bean
+	 * @return true if the bean itself can be written in binary, otherwise it should be sent as JSON.
+	 */
+	public boolean isMarshallable(Object bean) {
+		return bean!=null && getSchema(bean.getClass())!=null;
+	}
+
+	public byte[] marshal(Object bean) throws Exception {
+		final Output out = new Output();
+		out.writeByte(VERSION);
+		writeValue(out, bean);
+		return out.toByteArray();
+	}
+
+	public <U> U unmarshal(byte[] bytes, Class<U> beanClass) throws Exception {
+		return unmarshal(bytes, beanClass, null);
+	}
+
+	/**
+	 *
+	 * @param bytes
+	 * @param beanClass may be null
+	 * @param excluded names of properties, in any bean, which are not read. May be null.
+	 * @return
+	 * @throws Exception
+	 */
+	@SuppressWarnings("unchecked")
+	public <U> U unmarshal(byte[] bytes, Class<U> beanClass, Collection<String> excluded) throws Exception {
+		final Input in = new Input(bytes, excluded);
+		final byte version = in.readByte();
+		if (version!=VERSION) throw new IllegalArgumentException("Cannot read version "+version+" of the binary format, the version read is "+VERSION);
+		return (U)readValue(in, beanClass!=null ? beanClass : Object.class);
+	}
+
+	private void writeValue(Output out, Object value) throws Exception {
+
+		if (value==null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			out.writeString((String)value);
+		} else if (value instanceof Boolean) {
+			out.writeByte((Boolean)value ? TRUE : FALSE);
+		} else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+			out.writeByte(INT);
+			out.writeVarLong(zigZag(((Number)value).intValue()));
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeVarLong(zigZag((Long)value));
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeLong(Double.doubleToLongBits((Double)value));
+		} else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeInt(Float.floatToIntBits((Float)value));
+		} else if (value instanceof Enum && isResolvable(((Enum<?>)value).getDeclaringClass())) {
+			out.writeByte(ENUM);
+			out.writeClass(((Enum<?>)value).getDeclaringClass(), null);
+			out.writeString(((Enum<?>)value).name());
+		} else if (value instanceof IPosition) {
+			writePosition(out, (IPosition)value);
+		} else if (value instanceof double[]) {
+			double[] da = (double[])value;
+			out.writeByte(DOUBLES);
+			out.writeVarLong(da.length);
+			for (double d : da) out.writeLong(Double.doubleToLongBits(d));
+		} else if (value instanceof int[]) {
+			int[] ia = (int[])value;
+			out.writeByte(INTS);
+			out.writeVarLong(ia.length);
+			for (int i : ia) out.writeVarLong(zigZag(i));
+		} else if (value instanceof Object[]) {
+			writeCollection(out, LIST, Arrays.asList((Object[])value));
+		} else if (value instanceof Collection) {
+			writeCollection(out, value instanceof Set ? SET : LIST, (Collection<?>)value);
+		} else if (value instanceof Map) {
+			out.writeByte(MAP);
+			Map<?,?> map = (Map<?,?>)value;
+			out.writeVarLong(map.size());
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				writeValue(out, entry.getKey());
+				writeValue(out, entry.getValue());
+			}
+		} else {
+			final Schema schema = getSchema(value.getClass());
+			if (schema!=null) {
+				out.writeByte(BEAN);
+				out.writeClass(value.getClass(), schema);
+				for (Property property : schema.properties) writeValue(out, property.read.invoke(value));
+			} else {
+				out.writeByte(JSON);
+				out.writeClass(value.getClass(), null);
+				out.writeString(service.marshal(value));
+			}
+		}
+	}
+
+	private void writeCollection(Output out, byte tag, Collection<?> values) throws Exception {
+		out.writeByte(tag);
+		out.writeVarLong(values.size());
+		for (Object value : values) writeValue(out, value);
+	}
+
+	private void writePosition(Output out, IPosition pos) throws Exception {
+		out.writeByte(POSITION);
+		writeValue(out, pos.getValues());
+		writeValue(out, pos.getIndices());
+		out.writeVarLong(zigZag(pos.getStepIndex()));
+		writeValue(out, pos instanceof AbstractPosition ? ((AbstractPosition)pos).getDimensionNames() : null);
+	}
+
+	private Object readValue(Input in, Class<?> type) throws Exception {
+
+		final byte tag = in.readByte();
+		switch (tag) {
+		case NULL:
+			return null;
+		case TRUE:
+			return Boolean.TRUE;
+		case FALSE:
+			return Boolean.FALSE;
+		case INT:
+			return coerce((int)unZigZag(in.readVarLong()), type);
+		case LONG:
+			return coerce(unZigZag(in.readVarLong()), type);
+		case DOUBLE:
+			return coerce(Double.longBitsToDouble(in.readLong()), type);
+		case FLOAT:
+			return coerce(Float.intBitsToFloat(in.readInt()), type);
+		case STRING:
+			return in.readString();
+		case ENUM:
+			return readEnum(in);
+		case BEAN:
+			return readBean(in);
+		case LIST:
+		case SET:
+			return readCollection(in, tag, type);
+		case MAP:
+			return readMap(in, type);
+		case POSITION:
+			return readPosition(in);
+		case JSON:
+			return readJson(in, type);
+		case DOUBLES:
+			double[] da = new double[in.readLength()];
+			for (int i = 0; i < da.length; i++) da[i] = Double.longBitsToDouble(in.readLong());
+			return da;
+		case INTS:
+			int[] ia = new int[in.readLength()];
+			for (int i = 0; i < ia.length; i++) ia[i] = (int)unZigZag(in.readVarLong());
+			return ia;
+		default:
+			throw new IllegalArgumentException("Unknown tag "+tag+" at byte "+(in.position-1));
+		}
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object readEnum(Input in) throws Exception {
+		final ClassEntry entry = in.readClass(false);
+		return Enum.valueOf((Class<Enum>)entry.getType(), in.readString());
+	}
+
+	private Object readBean(Input in) throws Exception {
+
+		final ClassEntry entry  = in.readClass(true);
+		final Schema     schema = entry.getSchema();
+		final Object     bean   = schema.constructor.newInstance();
+		for (Property property : schema.properties) {
+			if (in.isExcluded(property.name)) {
+				skipValue(in);
+				continue;
+			}
+			final Object value = readValue(in, property.type);
+			property.set(bean, value);
+		}
+		return bean;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object readCollection(Input in, byte tag, Class<?> type) throws Exception {
+
+		final int size = in.readLength();
+		if (type.isArray()) {
+			final Class<?> ctype = type.getComponentType();
+			final Object   array = Array.newInstance(ctype, size);
+			for (int i = 0; i < size; i++) Array.set(array, i, readValue(in, ctype));
+			return array;
+		}
+		final Collection<Object> ret;
+		if (isInstantiable(type, Collection.class)) {
+			ret = (Collection<Object>)type.newInstance();
+		} else if (Set.class.isAssignableFrom(type) || (tag==SET && !List.class.isAssignableFrom(type))) {
+			ret = new LinkedHashSet<>(size);
+		} else {
+			ret = new ArrayList<>(size);
+		}
+		for (int i = 0; i < size; i++) ret.add(readValue(in, Object.class));
+		return ret;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object readMap(Input in, Class<?> type) throws Exception {
+
+		final int size = in.readLength();
+		final Map<Object,Object> ret = isInstantiable(type, Map.class) ? (Map<Object,Object>)type.newInstance() : new LinkedHashMap<>(size);
+		for (int i = 0; i < size; i++) {
+			Object key = readValue(in, Object.class);
+			ret.put(key, readValue(in, Object.class));
+		}
+		return ret;
+	}
+
+	@SuppressWarnings("unchecked")
+	private Object readPosition(Input in) throws Exception {
+
+		Map<String, Object>  values  = (Map<String, Object>)readValue(in, Map.class);
+		Map<String, Integer> indices = (Map<String, Integer>)readValue(in, Map.class);
+		int stepIndex = (int)unZigZag(in.readVarLong());
+		List<Collection<String>> dimensionNames = (List<Collection<String>>)readValue(in, List.class);
+
+		MapPosition pos = new MapPosition(values!=null ? values : new LinkedHashMap<String, Object>(7),
+				                          indices!=null ? indices : new LinkedHashMap<String, Integer>(7));
+		pos.setStepIndex(stepIndex);
+		pos.setDimensionNames(dimensionNames);
+		return pos;
+	}
+
+	private Object readJson(Input in, Class<?> type) throws Exception {
+
+		final ClassEntry entry = in.readClass(false);
+		String json = in.readString();
+		if (in.excluded!=null) json = JsonUtil.removeProperties(json, in.excluded);
+
+		Class<?> clazz = entry.findType();
+		if (clazz==null && type!=Object.class && !type.isInterface() && !Modifier.isAbstract(type.getModifiers())) clazz = type;
+		return service.unmarshal(json, clazz);
+	}
+
+	/**
+	 * Reads over a value without making it, for instance to leave out a property
+	 * whose classes may not be available where it is read.
+	 */
+	private void skipValue(Input in) throws Exception {
+
+		final byte tag = in.readByte();
+		switch (tag) {
+		case NULL:
+		case TRUE:
+		case FALSE:
+			return;
+		case INT:
+		case LONG:
+			in.readVarLong();
+			return;
+		case DOUBLE:
+			in.skip(8);
+			return;
+		case FLOAT:
+			in.skip(4);
+			return;
+		case STRING:
+			in.skip(in.readLength());
+			return;
+		case ENUM:
+		case JSON:
+			in.readClass(false);
+			in.skip(in.readLength());
+			return;
+		case BEAN:
+			final ClassEntry entry = in.readClass(true);
+			for (int i = 0; i < entry.count; i++) skipValue(in);
+			return;
+		case LIST:
+		case SET:
+			for (int i = in.readLength(); i > 0; i--) skipValue(in);
+			return;
+		case MAP:
+			for (int i = in.readLength()*2; i > 0; i--) skipValue(in);
+			return;
+		case POSITION:
+			skipValue(in);
+			skipValue(in);
+			in.readVarLong();
+			skipValue(in);
+			return;
+		case DOUBLES:
+			in.skip(in.readLength()*8);
+			return;
+		case INTS:
+			for (int i = in.readLength(); i > 0; i--) in.readVarLong();
+			return;
+		default:
+			throw new IllegalArgumentException("Unknown tag "+tag+" at byte "+(in.position-1));
+		}
+	}
+
+	private static boolean isInstantiable(Class<?> type, Class<?> required) {
+		if (!required.isAssignableFrom(type) || type.isInterface() || Modifier.isAbstract(type.getModifiers())) return false;
+		try {
+			return Modifier.isPublic(type.getConstructor().getModifiers());
+		} catch (NoSuchMethodException ne) {
+			return false;
+		}
+	}
+
+	/**
+	 * Numbers are written with the smallest tag which holds them,
+	 * they are made the type of the property which they are read into.
+	 */
+	private static Object coerce(Number value, Class<?> type) {
+		if (type==Object.class || type==Number.class || type.isInstance(value)) return value;
+		if (type==int.class    || type==Integer.class) return value.intValue();
+		if (type==long.class   || type==Long.class)    return value.longValue();
+		if (type==double.class || type==Double.class)  return value.doubleValue();
+		if (type==float.class  || type==Float.class)   return value.floatValue();
+		if (type==short.class  || type==Short.class)   return value.shortValue();
+		if (type==byte.class   || type==Byte.class)    return value.byteValue();
+		return value;
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * @param clazz
+	 * @return the schema of a class which can be written as a bean or null if it should be written as JSON.
+	 */
+	private static Schema getSchema(Class<?> clazz) {
+		Schema schema = schemas.get(clazz);
+		if (schema==null) {
+			schema = createSchema(clazz);
+			schemas.put(clazz, schema);
+		}
+		return schema==Schema.NONE ? null : schema;
+	}
+
+	private static Schema createSchema(Class<?> clazz) {
+
+		if (!Modifier.isPublic(clazz.getModifiers()) || clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) return Schema.NONE;
+		if (clazz.isArray() || clazz.isEnum() || IPosition.class.isAssignableFrom(clazz)) return Schema.NONE;
+		if (Collection.class.isAssignableFrom(clazz) || Map.class.isAssignableFrom(clazz)) return Schema.NONE;
+		if (!classes.containsKey(clazz.getName())) {
+			// Beans from other bundles may have custom JSON serialization.
+			if (!clazz.getName().startsWith("org.eclipse.scanning.") || !isResolvable(clazz)) return Schema.NONE;
+		}
+		try {
+			final Constructor<?> constructor = clazz.getConstructor();
+			final BeanInfo       info        = Introspector.getBeanInfo(clazz, Object.class);
+			final List<Property> properties  = new ArrayList<>();
+			for (PropertyDescriptor desc : info.getPropertyDescriptors()) {
+				Method read  = desc.getReadMethod();
+				Method write = desc.getWriteMethod();
+				if (read==null || write==null || desc.getPropertyType()==null) continue; // Others are worked out from these
+				read.setAccessible(true);
+				write.setAccessible(true);
+				properties.add(new Property(desc.getName(), read, write, desc.getPropertyType()));
+			}
+			Collections.sort(properties);
+			classes.putIfAbsent(clazz.getName(), clazz);
+			return new Schema(constructor, properties.toArray(new Property[properties.size()]));
+
+		} catch (Exception ne) {
+			return Schema.NONE;
+		}
+	}
+
+	private static boolean isResolvable(Class<?> clazz) {
+		if (classes.get(clazz.getName())==clazz) return true;
+		try {
+			return Class.forName(clazz.getName(), false, API_LOADER)==clazz;
+		} catch (ClassNotFoundException | LinkageError ne) {
+			return false;
+		}
+	}
+
+	private static Class<?> resolve(String name) {
+		Class<?> clazz = classes.get(name);
+		if (clazz!=null) return clazz;
+		try {
+			clazz = Class.forName(name, false, API_LOADER);
+			classes.put(name, clazz);
+			return clazz;
+		} catch (ClassNotFoundException | LinkageError ne) {
+			return null;
+		}
+	}
+
+	private static final class Schema {
+
+		static final Schema NONE = new Schema(null, new Property[0]);
+
+		final Constructor<?> constructor;
+		final Property[]     properties;
+		final int            hash;
+
+		Schema(Constructor<?> constructor, Property[] properties) {
+			this.constructor = constructor;
+			this.properties  = properties;
+			int result = 1;
+			for (Property property : properties) {
+				result = 31 * result + property.name.hashCode();
+				result = 31 * result + property.type.getName().hashCode();
+			}
+			this.hash = result;
+		}
+	}
+
+	private static final class Property implements Comparable<Property> {
+
+		final String   name;
+		final Method   read;
+		final Method   write;
+		final Class<?> type;
+
+		Property(String name, Method read, Method write, Class<?> type) {
+			this.name  = name;
+			this.read  = read;
+			this.write = write;
+			this.type  = type;
+		}
+
+		void set(Object bean, Object value) throws Exception {
+			if (value==null && type.isPrimitive()) return;
+			write.invoke(bean, value);
+		}
+
+		@Override
+		public int compareTo(Property other) {
+			return name.compareTo(other.name);
+		}
+	}
+
+	/**
+	 * A class named in a message.
+	 */
+	private static final class ClassEntry {
+
+		final String name;
+		final int    hash;
+		final int    count;
+
+		private Class<?> type;
+
+		ClassEntry(String name, int hash, int count) {
+			this.name  = name;
+			this.hash  = hash;
+			this.count = count;
+		}
+
+		Class<?> findType() {
+			if (type==null) type = resolve(name);
+			return type;
+		}
+
+		Class<?> getType() {
+			if (findType()==null) throw new IllegalArgumentException("The class "+name+" cannot be found!");
+			return type;
+		}
+
+		Schema getSchema() {
+			final Schema schema = BinaryMarshaller.getSchema(getType());
+			if (schema==null || schema.hash!=hash || schema.properties.length!=count) {
+				throw new IllegalArgumentException("The class "+name+" is not the same as the class which was written!");
+			}
+			return schema;
+		}
+	}
+
+	private static final class Output {
+
+		private final Map<Class<?>, Integer> classIds = new IdentityHashMap<>(7);
+		private byte[] buffer = new byte[256];
+		private int    size;
+
+		void writeByte(int b) {
+			ensure(1);
+			buffer[size++] = (byte)b;
+		}
+
+		void writeInt(int value) {
+			ensure(4);
+			for (int shift = 24; shift >= 0; shift-=8) buffer[size++] = (byte)(value >>> shift);
+		}
+
+		void writeLong(long value) {
+			ensure(8);
+			for (int shift = 56; shift >= 0; shift-=8) buffer[size++] = (byte)(value >>> shift);
+		}
+
+		void writeVarLong(long value) {
+			ensure(10);
+			while ((value & ~0x7FL) != 0) {
+				buffer[size++] = (byte)((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			buffer[size++] = (byte)value;
+		}
+
+		void writeString(String value) {
+			final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarLong(bytes.length);
+			ensure(bytes.length);
+			System.arraycopy(bytes, 0, buffer, size, bytes.length);
+			size+=bytes.length;
+		}
+
+		/**
+		 * Writes the id of a class in this message or its name if it
+		 * has not been written before, and the schema of a bean.
+		 */
+		void writeClass(Class<?> clazz, Schema schema) {
+			Integer id = classIds.get(clazz);
+			if (id!=null) {
+				writeVarLong(id);
+				return;
+			}
+			classIds.put(clazz, classIds.size()+1);
+			writeVarLong(0);
+			writeString(clazz.getName());
+			if (schema!=null) {
+				writeInt(schema.hash);
+				writeVarLong(schema.properties.length);
+			}
+		}
+
+		private void ensure(int length) {
+			if (size+length > buffer.length) buffer = Arrays.copyOf(buffer, Math.max(buffer.length*2, size+length));
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(buffer, size);
+		}
+	}
+
+	private static final class Input {
+
+		private final byte[]           bytes;
+		private final List<String>     excluded;
+		private final List<ClassEntry> classEntries = new ArrayList<>(7);
+		private int                    position;
+
+		Input(byte[] bytes, Collection<String> excluded) {
+			this.bytes    = bytes;
+			this.excluded = excluded==null || excluded.isEmpty() ? null : new ArrayList<>(excluded);
+		}
+
+		boolean isExcluded(String name) {
+			return excluded!=null && excluded.contains(name);
+		}
+
+		byte readByte() {
+			check(1);
+			return bytes[position++];
+		}
+
+		int readInt() {
+			check(4);
+			int value = 0;
+			for (int i = 0; i < 4; i++) value = (value << 8) | (bytes[position++] & 0xFF);
+			return value;
+		}
+
+		long readLong() {
+			check(8);
+			long value = 0;
+			for (int i = 0; i < 8; i++) value = (value << 8) | (bytes[position++] & 0xFF);
+			return value;
+		}
+
+		long readVarLong() {
+			long value = 0;
+			for (int shift = 0; shift < 64; shift+=7) {
+				final byte b = readByte();
+				value |= (long)(b & 0x7F) << shift;
+				if ((b & 0x80) == 0) return value;
+			}
+			throw new IllegalArgumentException("Badly formed number at byte "+position);
+		}
+
+		int readLength() {
+			long length = readVarLong();
+			if (length<0 || length>bytes.length) throw new IllegalArgumentException("Badly formed length "+length+" at byte "+position);
+			return (int)length;
+		}
+
+		String readString() {
+			final int length = readLength();
+			check(length);
+			final String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+			position+=length;
+			return value;
+		}
+
+		ClassEntry readClass(boolean bean) {
+			final int id = readLength();
+			if (id>0) {
+				if (id>classEntries.size()) throw new IllegalArgumentException("Unknown class "+id+" at byte "+position);
+				return classEntries.get(id-1);
+			}
+			final String name = readString();
+			final ClassEntry entry = bean ? new ClassEntry(name, readInt(), readLength()) : new ClassEntry(name, 0, 0);
+			classEntries.add(entry);
+			return entry;
+		}
+
+		void skip(int length) {
+			check(length);
+			position+=length;
+		}
+
+		private void check(int length) {
+			if (position+length > bytes.length) throw new IllegalArgumentException("The message ends before byte "+(position+length));
+		}
+	}
+}
@@ -11,7 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.event.util;
 
-import java.util.List;
+import java.util.Collection;
 
 public class JsonUtil {
 
@@ -24,47 +24,179 @@ public class JsonUtil {
 	 * For instance, there is no guarantee that the required detector models would 
 	 * be in the classpath. If they are not of interest to the subscriber then
 	 * they may be removed.
+	 * <p>
+	 * The json is read once, token by token, and the parts which are kept are
+	 * copied in blocks to the result. If none of the properties are in the json
+	 * it is returned without being copied. Json which cannot be read is
+	 * returned as it is so that the unmarshaller can report the error.
 	 * 
 	 * @param json
 	 * @param all properties in all objects with these names will be removed.
 	 * @return
 	 */
-	public static String removeProperties(String json, List<String> properties) {
+	public static String removeProperties(String json, Collection<String> properties) {
 		
-		if (properties==null) return json; // Nothing to filter!
+		if (json==null || properties==null || properties.isEmpty()) return json; // Nothing to filter!
+		
+		boolean found = false;
 		for (String property : properties) {
-			json = remove(json, property);
+			if (json.indexOf(property)>-1) {
+				found = true;
+				break;
+			}
+		}
+		if (!found) return json;
+		
+		try {
+			return new Filter(json, properties).filter();
+		} catch (IllegalArgumentException | IndexOutOfBoundsException ne) {
+			return json;
 		}
-		return json;
 	}
 	
-	private static String remove(String json, String property) {
+	/**
+	 * Reads the json copying everything apart from the excluded properties.
+	 */
+	private static final class Filter {
 		
-		final String frag = "\""+property+"\":";
-		int index = json.indexOf(frag);
-		if (index<0) return json; // Nothing to ignore.
+		private final String             json;
+		private final Collection<String> properties;
+		private StringBuilder            out;
+		private int                      pos;
+		private int                      copied;
+		private int                      skipping;
 		
-		StringBuilder ret = new StringBuilder();
-		ret.append(json.substring(0, index));
+		Filter(String json, Collection<String> properties) {
+			this.json       = json;
+			this.properties = properties;
+		}
 		
-
-		int i = index+frag.length();
-		int bracket = 0;
-		while(i<json.length()) {
-			char c = json.charAt(i);
-			if (c == '{') bracket++;
-			if (c == '}') bracket--;
-			if (c ==  ',') {
-				if (bracket==0) break;
+		String filter() {
+			value();
+			if (out==null) return json;
+			out.append(json, copied, json.length());
+			return out.toString();
+		}
+		
+		private void value() {
+			whitespace();
+			switch(json.charAt(pos)) {
+			case '{':
+				object();
+				break;
+			case '[':
+				array();
+				break;
+			case '"':
+				string();
+				break;
+			default:
+				literal();
+			}
+		}
+		
+		private void object() {
+			pos++; // {
+			boolean kept  = false;
+			int     comma = -1;
+			while(true) {
+				whitespace();
+				if (json.charAt(pos)=='}') {
+					pos++;
+					return;
+				}
+				
+				final int keyStart = pos;
+				string();
+				final boolean remove = skipping==0 && isRemoved(keyStart+1, pos-1);
+				whitespace();
+				if (json.charAt(pos)!=':') throw new IllegalArgumentException("Expected ':' at "+pos);
+				pos++;
+				
+				if (remove) skipping++; // Nothing is cut from a value which is removed
+				value();
+				if (remove) skipping--;
+				
+				if (remove) {
+					if (kept) {
+						cut(comma, pos); // Including the comma after the last property kept
+					} else {
+						whitespace();
+						if (json.charAt(pos)==',') { // Including the comma before the next property
+							pos++;
+							whitespace();
+						}
+						cut(keyStart, pos);
+						continue;
+					}
+				} else {
+					kept = true;
+				}
+				
+				whitespace();
+				final char c = json.charAt(pos);
+				if (c==',') {
+					comma = pos;
+					pos++;
+				} else if (c!='}') {
+					throw new IllegalArgumentException("Expected ',' or '}' at "+pos);
+				}
+			}
+		}
+		
+		private void array() {
+			pos++; // [
+			whitespace();
+			if (json.charAt(pos)==']') {
+				pos++;
+				return;
+			}
+			while(true) {
+				value();
+				whitespace();
+				final char c = json.charAt(pos++);
+				if (c==']') return;
+				if (c!=',') throw new IllegalArgumentException("Expected ',' or ']' at "+(pos-1));
+			}
+		}
+		
+		private void string() {
+			if (json.charAt(pos)!='"') throw new IllegalArgumentException("Expected '\"' at "+pos);
+			pos++;
+			while(true) {
+				final char c = json.charAt(pos++);
+				if (c=='"')  return;
+				if (c=='\\') pos++;
+			}
+		}
+		
+		private void literal() {
+			final int start = pos;
+			while(pos<json.length()) {
+				final char c = json.charAt(pos);
+				if (c==',' || c=='}' || c==']' || Character.isWhitespace(c)) break;
+				pos++;
 			}
-			i++;
+			if (pos==start) throw new IllegalArgumentException("Expected a value at "+pos);
 		}
 		
-		String end = json.substring(i+1, json.length());
-		ret.append(end);
-		String njson = ret.toString();
-		return remove(njson, property);
+		private void whitespace() {
+			while(pos<json.length() && Character.isWhitespace(json.charAt(pos))) pos++;
+		}
+		
+		private boolean isRemoved(int start, int end) {
+			final int len = end-start;
+			for (String property : properties) {
+				if (property.length()==len && json.regionMatches(start, property, 0, len)) return true;
+			}
+			return false;
+		}
+		
+		private void cut(int start, int end) {
+			if (out==null) out = new StringBuilder(json.length());
+			out.append(json, copied, start);
+			copied = end;
+		}
 	}
 
-
 }
@@ -0,0 +1,149 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.event.util;
+
+import java.util.List;
+
+import javax.jms.BytesMessage;
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+
+import org.eclipse.scanning.api.event.IEventConnectorService;
+
+/**
+ * The formats in which beans may be sent on a topic. JSON is the default
+ * and is understood by every client, for instance python clients using
+ * stomp. Binary messages are smaller and quicker to write and read but may
+ * only be read by subscribers which use this class.
+ * <p>
+ * The format used by publishers to a topic is set with the system property
+ * <code>org.eclipse.scanning.event.wireFormat.&lt;topic name&gt;</code>, or for
+ * every topic with <code>org.eclipse.scanning.event.wireFormat</code>, to
+ * "json" or "binary". Messages which are not JSON have the format in the
+ * string property {@link #PROPERTY} so that subscribers can read any format.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public enum WireFormat {
+
+	JSON {
+		@Override
+		public Message createMessage(Session session, Object bean, IEventConnectorService service) throws Exception {
+			return session.createTextMessage(service.marshal(bean));
+		}
+
+		@Override
+		public <U> U read(Message message, Class<U> beanClass, List<String> excluded, IEventConnectorService service) throws Exception {
+			String json = ((TextMessage)message).getText();
+			json = JsonUtil.removeProperties(json, excluded);
+			return service.unmarshal(json, beanClass);
+		}
+	},
+
+	BINARY {
+		@Override
+		public Message createMessage(Session session, Object bean, IEventConnectorService service) throws Exception {
+			final BinaryMarshaller marshaller = new BinaryMarshaller(service);
+			if (!marshaller.isMarshallable(bean)) return JSON.createMessage(session, bean, service);
+
+			final BytesMessage message = session.createBytesMessage();
+			message.writeBytes(marshaller.marshal(bean));
+			message.setStringProperty(PROPERTY, getName());
+			return message;
+		}
+
+		@Override
+		public <U> U read(Message message, Class<U> beanClass, List<String> excluded, IEventConnectorService service) throws Exception {
+			final BytesMessage bmessage = (BytesMessage)message;
+			final byte[]       bytes    = new byte[(int)bmessage.getBodyLength()];
+			bmessage.readBytes(bytes);
+			return new BinaryMarshaller(service).unmarshal(bytes, beanClass, excluded);
+		}
+	};
+
+	/**
+	 * The string property of a message which holds the name of its format.
+	 */
+	public static final String PROPERTY = "scanningWireFormat";
+
+	/**
+	 * @param session
+	 * @param bean
+	 * @param service used to marshal JSON.
+	 * @return a message holding the bean in this format.
+	 * @throws Exception
+	 */
+	public abstract Message createMessage(Session session, Object bean, IEventConnectorService service) throws Exception;
+
+	/**
+	 * @param message
+	 * @param beanClass may be null
+	 * @param excluded names of properties which should not be read, may be null.
+	 * @param service used to unmarshal JSON.
+	 * @return the bean in the message
+	 * @throws Exception
+	 */
+	public abstract <U> U read(Message message, Class<U> beanClass, List<String> excluded, IEventConnectorService service) throws Exception;
+
+	public String getName() {
+		return name().toLowerCase();
+	}
+
+	/**
+	 * @param name
+	 * @return the format with the name, JSON if the name is null.
+	 */
+	public static WireFormat fromName(String name) {
+		if (name==null) return JSON;
+		for (WireFormat format : values()) {
+			if (format.getName().equalsIgnoreCase(name.trim())) return format;
+		}
+		throw new IllegalArgumentException("There is no wire format called '"+name+"'");
+	}
+
+	/**
+	 * @param topicName
+	 * @return the format which publishers to the topic should use.
+	 */
+	public static WireFormat getWireFormat(String topicName) {
+		String name = System.getProperty("org.eclipse.scanning.event.wireFormat."+topicName);
+		if (name==null) name = System.getProperty("org.eclipse.scanning.event.wireFormat");
+		return fromName(name);
+	}
+
+	/**
+	 * @param message
+	 * @return the format of the message
+	 * @throws JMSException
+	 */
+	public static WireFormat getWireFormat(Message message) throws JMSException {
+		if (message instanceof TextMessage) return JSON;
+		return fromName(message.getStringProperty(PROPERTY));
+	}
+
+	/**
+	 * Reads the bean from a message in any format.
+	 *
+	 * @param message
+	 * @param beanClass may be null
+	 * @param excluded names of properties which should not be read, may be null.
+	 * @param service
+	 * @return
+	 * @throws Exception
+	 */
+	public static <U> U unmarshal(Message message, Class<U> beanClass, List<String> excluded, IEventConnectorService service) throws Exception {
+		return getWireFormat(message).read(message, beanClass, excluded, service);
+	}
+}
@@ -907,6 +907,12 @@ public class DummyMalcolmDevice extends AbstractMalcolmDevice<DummyMalcolmModel>
 			// do nothing
 		}
 
+		@Override
+		public void unsubscribeFromConnectionStateChange(IMalcolmDevice<?> device, IMalcolmListener<Boolean> listener)
+				throws MalcolmDeviceException {
+			// do nothing
+		}
+
 	}
 
 }
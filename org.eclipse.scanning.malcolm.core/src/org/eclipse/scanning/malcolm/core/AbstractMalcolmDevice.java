@@ -203,6 +203,9 @@ public abstract class AbstractMalcolmDevice<M extends IMalcolmModel> extends Abs
     protected void subscribeToConnectionStateChange(IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
     	connector.subscribeToConnectionStateChange(this, listener);
     }
+    protected void unsubscribeFromConnectionStateChange(IMalcolmListener<Boolean> listener) throws MalcolmDeviceException {
+    	connector.unsubscribeFromConnectionStateChange(this, listener);
+    }
 
 	/**
 	 *
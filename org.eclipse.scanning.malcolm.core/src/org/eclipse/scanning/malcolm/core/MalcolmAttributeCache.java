@@ -0,0 +1,157 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.malcolm.core;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+
+/**
+ * The replies to the reads of a Malcolm block, kept so that reads made over and
+ * over, by pre-scan checks and polling user interfaces for instance, need not
+ * go to the device each time.
+ *
+ * An attribute with a monitor is served for as long as the device is connected,
+ * its monitor keeping it up to date. Other attributes and the whole block are
+ * served for the maximum age after they were read. Every reply is dropped when
+ * a call or put is sent to the device or the connection is lost, so a read
+ * after a change always goes to the device.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MalcolmAttributeCache {
+
+	/**
+	 * The endpoint of the whole block.
+	 */
+	static final String BLOCK = "";
+
+	/**
+	 * Time in ms that a reply to an attribute without a monitor is served, default 1000.
+	 * Set org.eclipse.scanning.malcolm.core.attributeMaxAge to change, 0 only serves
+	 * the attributes with monitors.
+	 */
+	static long getMaxAge() {
+		return Long.getLong("org.eclipse.scanning.malcolm.core.attributeMaxAge", 1000);
+	}
+
+	private static final class Reply {
+		private final MalcolmMessage message;
+		private final long           time;
+		Reply(MalcolmMessage message) {
+			this.message = message;
+			this.time    = System.currentTimeMillis();
+		}
+	}
+
+	private final Map<String, Reply> replies   = new ConcurrentHashMap<>(7);
+	private final Set<String>        monitored = ConcurrentHashMap.newKeySet();
+
+	/**
+	 * Changed by each invalidate and monitor update so that a read which was
+	 * sent before a change is not kept if its reply comes back after it.
+	 */
+	private final AtomicLong generation = new AtomicLong();
+
+	private volatile boolean live;
+
+	/**
+	 * @param endpoint
+	 * @return the reply to the last read of the endpoint if it may be served, otherwise null.
+	 */
+	MalcolmMessage get(String endpoint) {
+		if (!live) return null;
+		final Reply reply = replies.get(endpoint);
+		if (reply==null) return null;
+		if (monitored.contains(endpoint)) return reply.message;
+		if (System.currentTimeMillis()-reply.time<getMaxAge()) return reply.message;
+		return null;
+	}
+
+	/**
+	 * Read before sending a get and give back to {@link #put(String, MalcolmMessage, long)}.
+	 */
+	long getGeneration() {
+		return generation.get();
+	}
+
+	/**
+	 * Keeps the reply of a get unless it failed or the device was changed while it was sent.
+	 */
+	void put(String endpoint, MalcolmMessage reply, long sent) {
+		if (reply==null || reply.getType()==Type.ERROR) return;
+		if (!monitored.contains(endpoint) && getMaxAge()<=0) return;
+		synchronized (generation) {
+			if (sent!=generation.get()) return;
+			replies.put(endpoint, new Reply(reply));
+		}
+	}
+
+	/**
+	 * Updates an attribute from its monitor. Only a reply which has been read since the
+	 * last change is updated, a monitor never starts one, and the block is dropped
+	 * to be read again. The generation changes as well, a get which was sent before the
+	 * update may carry the older value and must not be kept when it comes back.
+	 */
+	void update(MalcolmMessage update) {
+		if (update==null || update.getType()==Type.ERROR) return;
+		final String endpoint = update.getEndpoint();
+		if (endpoint==null || !monitored.contains(endpoint)) return;
+		synchronized (generation) {
+			generation.incrementAndGet();
+			if (replies.containsKey(endpoint)) replies.put(endpoint, new Reply(update));
+			replies.remove(BLOCK);
+		}
+	}
+
+	/**
+	 * Marks an endpoint as having a monitor, call once the monitor is subscribed.
+	 */
+	void monitor(String endpoint) {
+		monitored.add(endpoint);
+	}
+
+	boolean isMonitored(String endpoint) {
+		return monitored.contains(endpoint);
+	}
+
+	/**
+	 * Drops every reply, call when the device is changed.
+	 */
+	void invalidate() {
+		synchronized (generation) {
+			generation.incrementAndGet();
+			replies.clear();
+		}
+	}
+
+	/**
+	 * Replies are only served while the device is connected and its monitors are live.
+	 */
+	void setLive(boolean live) {
+		this.live = live;
+		if (!live) invalidate();
+	}
+
+	/**
+	 * Forgets the monitors, call when they are unsubscribed.
+	 */
+	void clear() {
+		setLive(false);
+		monitored.clear();
+	}
+}
@@ -14,10 +14,10 @@ package org.eclipse.scanning.malcolm.core;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -74,7 +74,9 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	// Frequencies and Timeouts
 	// broadcast every 250 milliseconds
-	private final static long POSITION_COMPLETE_FREQ = Long.getLong("org.eclipse.scanning.malcolm.core.positionCompleteFrequency", 250);
+	private final long getPositionCompleteFrequency() {
+		return Long.getLong("org.eclipse.scanning.malcolm.core.positionCompleteFrequency", 250);
+	}
 
 	// Standard timeout for Malcolm Calls
 	private final long getTimeout() {
@@ -90,19 +92,24 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	// Subscriber messages
     private MalcolmMessage                      stateSubscriber;
     private MalcolmMessage                      scanSubscriber;
+    private MalcolmMessage                      healthSubscriber;
+    private final List<MalcolmMessage>          attributeSubscribers = new CopyOnWriteArrayList<>();
+
+    // The attributes read from the device, kept up to date by the subscribers
+    private final MalcolmAttributeCache         cache = new MalcolmAttributeCache();
+    private final List<String>                  monitoredAttributes = new CopyOnWriteArrayList<>();
 
     // Our connection to the outside.
 	private IPublisher<ScanBean>             publisher;
 
 	// Data should be in model?
 	private MalcolmEventBean    meb;
-	private Iterator<IPosition> scanPositionIterator;
+	private final MalcolmProgress progress = new MalcolmProgress();
 
 	// Local data.
-	private long    lastBroadcastTime = System.currentTimeMillis();
-	private int     lastUpdateCount = 0;
 	private boolean succesfullyInitialised = false;
 	private boolean subscribedToStateChange = false;
+	private volatile IMalcolmListener<Boolean> connectionStateListener;
 
 
 	public MalcolmDevice() throws MalcolmDeviceException {
@@ -140,6 +147,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 				@Override
 				public void eventPerformed(MalcolmEvent<MalcolmMessage> e) {
+					cache.update(e.getBean());
 					try {
 						sendScanStateChange(e);
 					} catch (Exception ne) {
@@ -147,6 +155,10 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 					}
 				}
 			});
+			cache.monitor(STATE_ENDPOINT);
+
+			healthSubscriber = monitor(HEALTH_ENDPOINT);
+			for (String attributeName : monitoredAttributes) attributeSubscribers.add(monitor(attributeName));
 
 			scanSubscriber  = createSubscribeMessage(CURRENT_STEP_ENDPOINT);
 			subscribe(scanSubscriber, new IMalcolmListener<MalcolmMessage>() {
@@ -162,20 +174,27 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 			});
 			succesfullyInitialised = true;
 			setAlive(true);
+			cache.setLive(true);
 
 		} finally {
 			if (!subscribedToStateChange) {
 				subscribedToStateChange = true;
+				final IMalcolmListener<Boolean> listener = new IMalcolmListener<Boolean>() {
+					@Override
+					public void eventPerformed(MalcolmEvent<Boolean> e) {
+						handleConnectionStateChange(e.getBean());
+					}
+				};
+				connectionStateListener = listener;
 				Thread subscriberThread = new Thread() {
 					@Override
 					public void run() {
 						try {
-							subscribeToConnectionStateChange(new IMalcolmListener<Boolean>() {
-								@Override
-								public void eventPerformed(MalcolmEvent<Boolean> e) {
-									handleConnectionStateChange(e.getBean());
-								}
-							});
+							subscribeToConnectionStateChange(listener);
+							if (connectionStateListener!=listener) { // Disposed while waiting to connect
+								unsubscribeFromConnectionStateChange(listener);
+								return;
+							}
 							handleConnectionStateChange(true);
 							setAlive(true);
 						} catch (MalcolmDeviceException ex) {
@@ -197,20 +216,16 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
     @PointStart
     public void scanPoint(SubscanModerator moderator) {
     	Iterable<IPosition> scanPositions = moderator.getInnerIterable();
-        scanPositionIterator = scanPositions.iterator();
+        progress.start(scanPositions.iterator());
     }
 
 	protected void sendScanEvent(MalcolmEvent<MalcolmMessage> e) throws Exception {
 
 		MalcolmMessage msg      = e.getBean();
-		DeviceState newState = MalcolmUtil.getState(msg, false);
 
 		ScanBean bean = getBean();
 		bean.setDeviceName(getName());
 		bean.setPreviousDeviceState(bean.getDeviceState());
-		if (newState!=null) {
-			bean.setDeviceState(newState);
-		}
 
         Integer point = bean.getPoint();
         boolean newPoint = false;
@@ -225,38 +240,45 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
             newPoint = true;
 		}
 
-		// Fire a position complete only if it's past the timeout value
-		if (newPoint && scanPositionIterator != null) {
-			long currentTime = System.currentTimeMillis();
-
-			int positionDiff = point - lastUpdateCount;
-
-			IPosition scanPosition = null;
-			for (int i = 0; i < positionDiff; i++) {
-				if (scanPositionIterator.hasNext()) {
-					scanPosition = scanPositionIterator.next();
-				}
+		// A step has no state, looking for one costs an exception each step.
+		boolean stateChanged = false;
+		if (!newPoint || (value instanceof Map && ((Map<?,?>)value).containsKey("state"))) {
+			DeviceState newState = MalcolmUtil.getState(msg, false);
+			if (newState!=null) {
+				stateChanged = newState!=bean.getDeviceState();
+				bean.setDeviceState(newState);
 			}
+		}
 
-			lastUpdateCount = point;
-
-			if (scanPosition != null && currentTime - lastBroadcastTime >= POSITION_COMPLETE_FREQ) {
-				scanPosition.setStepIndex(point);
-            	firePositionComplete(scanPosition);
-
-	            lastBroadcastTime = System.currentTimeMillis();
-			}
+		// Only the last step is kept, the position and bean are sent at most once an interval.
+		if (newPoint && !progress.update(point, System.currentTimeMillis(), getPositionCompleteFrequency()) && !stateChanged) {
+			return;
 		}
+		if (newPoint) flushProgress();
 
 		if (publisher!=null) publisher.broadcast(bean);
 	}
 
+	/**
+	 * Fires a position complete for the last step the device completed if it has not been.
+	 * @return true if there was a step to report.
+	 */
+	private boolean flushProgress() throws Exception {
+		if (!progress.isPending()) return false;
+		IPosition scanPosition = progress.report();
+		if (scanPosition != null) firePositionComplete(scanPosition);
+		return true;
+	}
+
 	protected void sendScanStateChange(MalcolmEvent<MalcolmMessage> e) throws Exception {
 
 		MalcolmMessage msg = e.getBean();
 
 		DeviceState newState = MalcolmUtil.getState(msg, false);
 
+		// The steps since the last report are done before the state changed
+		flushProgress();
+
 		// Send scan state changed
 		ScanBean bean = getBean();
 		bean.setDeviceName(getName());
@@ -280,6 +302,90 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		eventDelegate.sendEvent(meb);
 	}
 
+	/**
+	 * Subscribes to an attribute so that reads of it may be served
+	 * without going to the device.
+	 * @return the subscribe message or null if the attribute cannot be monitored.
+	 */
+	private MalcolmMessage monitor(String attributeName) {
+		try {
+			MalcolmMessage subscriber = createSubscribeMessage(attributeName);
+			subscribe(subscriber, new IMalcolmListener<MalcolmMessage>() {
+				@Override
+				public void eventPerformed(MalcolmEvent<MalcolmMessage> e) {
+					cache.update(e.getBean());
+				}
+			});
+			cache.monitor(attributeName);
+			return subscriber;
+		} catch (MalcolmDeviceException ne) {
+			logger.warn("Cannot monitor '"+attributeName+"' of '"+getName()+"', it will be read from the device", ne);
+			return null;
+		}
+	}
+
+	/**
+	 * Sets attributes, in addition to state and health, which are monitored
+	 * so that reading them does not go to the device. Attributes not monitored
+	 * are served from the last read for org.eclipse.scanning.malcolm.core.attributeMaxAge ms.
+	 *
+	 * @param attributeNames
+	 */
+	public void setMonitoredAttributes(String... attributeNames) {
+		for (String attributeName : attributeNames) {
+			if (monitoredAttributes.contains(attributeName)) continue;
+			monitoredAttributes.add(attributeName);
+			if (succesfullyInitialised) attributeSubscribers.add(monitor(attributeName));
+		}
+	}
+
+	public List<String> getMonitoredAttributes() {
+		return monitoredAttributes;
+	}
+
+	/**
+	 * Reads an endpoint from the cache or from the device.
+	 *
+	 * @param endpoint
+	 * @param bypassCache true to always read from the device.
+	 * @return the reply
+	 */
+	private MalcolmMessage get(String endpoint, boolean bypassCache) throws Exception {
+		if (!bypassCache) {
+			final MalcolmMessage cached = cache.get(endpoint);
+			if (cached!=null) return cached;
+		}
+		final long generation = cache.getGeneration();
+		final MalcolmMessage reply = send(createGetMessage(endpoint), getTimeout());
+		cache.put(endpoint, reply, generation);
+		return reply;
+	}
+
+	/**
+	 * Calls and puts change the device, so the cache is dropped before they
+	 * are sent and again once they are done.
+	 */
+	@Override
+	protected MalcolmMessage send(MalcolmMessage message, long timeout) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+		if (message.getType()==Type.GET) return super.send(message, timeout);
+		cache.invalidate();
+		try {
+			return super.send(message, timeout);
+		} finally {
+			cache.invalidate();
+		}
+	}
+
+	@Override
+	protected MalcolmMessage call(MalcolmMethod method, long timeout, DeviceState... states) throws MalcolmDeviceException, InterruptedException, ExecutionException, TimeoutException {
+		cache.invalidate();
+		try {
+			return super.call(method, timeout, states);
+		} finally {
+			cache.invalidate();
+		}
+	}
+
 	/**
 	 * Handle a change in the connection state of this device.
 	 * Event is sent by the communications layer.
@@ -288,6 +394,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	private void handleConnectionStateChange(boolean connected) {
 		try {
 			setAlive(connected);
+			cache.setLive(connected && succesfullyInitialised);
 			if (connected) {
 				logger.info("Malcolm Device '" + getName() + "' connection state changed to connected");
 			    java.awt.EventQueue.invokeLater(new Runnable() {
@@ -314,9 +421,17 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public DeviceState getDeviceState() throws MalcolmDeviceException {
+		return getDeviceState(false);
+	}
+
+	/**
+	 * @param bypassCache true to read the state from the device rather than the monitor.
+	 * @return the state of the device
+	 * @throws MalcolmDeviceException
+	 */
+	public DeviceState getDeviceState(boolean bypassCache) throws MalcolmDeviceException {
 		try {
-			final MalcolmMessage message = createGetMessage(STATE_ENDPOINT);
-			final MalcolmMessage reply   = send(message, getTimeout());
+			final MalcolmMessage reply   = get(STATE_ENDPOINT, bypassCache);
 			if (reply.getType()==Type.ERROR) {
 				throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 			}
@@ -332,9 +447,17 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public String getDeviceHealth() throws MalcolmDeviceException {
+		return getDeviceHealth(false);
+	}
+
+	/**
+	 * @param bypassCache true to read the health from the device rather than the monitor.
+	 * @return the health of the device
+	 * @throws MalcolmDeviceException
+	 */
+	public String getDeviceHealth(boolean bypassCache) throws MalcolmDeviceException {
 		try {
-			final MalcolmMessage message = createGetMessage(HEALTH_ENDPOINT);
-			final MalcolmMessage reply   = send(message, getTimeout());
+			final MalcolmMessage reply   = get(HEALTH_ENDPOINT, bypassCache);
 			if (reply.getType()==Type.ERROR) {
 				throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 			}
@@ -406,8 +529,7 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 	 * Reset any variables used in counting progress
 	 */
 	private void resetProgressCounting() {
-		scanPositionIterator = null;
-		lastUpdateCount = 0;
+		progress.reset();
 	}
 
 	private EpicsMalcolmModel createEpicsMalcolmModel(M model) {
@@ -434,6 +556,11 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 		}
+		try {
+			if (flushProgress() && publisher!=null) publisher.broadcast(getBean());
+		} catch (Exception ne) {
+			logger.error("Cannot report the last step of '"+getName()+"'", ne);
+		}
 	}
 
 	@Override
@@ -489,8 +616,17 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public void dispose() throws MalcolmDeviceException {
+		cache.clear();
 		unsubscribe(stateSubscriber);
 		unsubscribe(scanSubscriber);
+		unsubscribe(healthSubscriber);
+		for (MalcolmMessage subscriber : attributeSubscribers) unsubscribe(subscriber);
+		attributeSubscribers.clear();
+
+		final IMalcolmListener<Boolean> listener = connectionStateListener;
+		connectionStateListener = null;
+		subscribedToStateChange = false;
+		if (listener!=null) unsubscribeFromConnectionStateChange(listener);
 
 		setAlive(false);
 	}
@@ -573,8 +709,17 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public <T> IDeviceAttribute<T> getAttribute(String attributeName) throws MalcolmDeviceException {
-		final MalcolmMessage message = createGetMessage(attributeName);
-		final MalcolmMessage reply   = wrap(()->send(message, getTimeout()));
+		return getAttribute(attributeName, false);
+	}
+
+	/**
+	 * @param attributeName
+	 * @param bypassCache true to read the attribute from the device.
+	 * @return the attribute
+	 * @throws MalcolmDeviceException
+	 */
+	public <T> IDeviceAttribute<T> getAttribute(String attributeName, boolean bypassCache) throws MalcolmDeviceException {
+		final MalcolmMessage reply   = wrap(()->get(attributeName, bypassCache));
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 		}
@@ -591,8 +736,16 @@ public class MalcolmDevice<M extends MalcolmModel> extends AbstractMalcolmDevice
 
 	@Override
 	public List<IDeviceAttribute<?>> getAllAttributes() throws MalcolmDeviceException {
-		final MalcolmMessage message = createGetMessage("");
-		final MalcolmMessage reply   = wrap(()->send(message, getTimeout()));
+		return getAllAttributes(false);
+	}
+
+	/**
+	 * @param bypassCache true to read the whole block from the device.
+	 * @return the attributes of the device
+	 * @throws MalcolmDeviceException
+	 */
+	public List<IDeviceAttribute<?>> getAllAttributes(boolean bypassCache) throws MalcolmDeviceException {
+		final MalcolmMessage reply   = wrap(()->get(MalcolmAttributeCache.BLOCK, bypassCache));
 		if (reply.getType()==Type.ERROR) {
 			throw new MalcolmDeviceException("Error from Malcolm Device Connection: " + reply.getMessage());
 		}
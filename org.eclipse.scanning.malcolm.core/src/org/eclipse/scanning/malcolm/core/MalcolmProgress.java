@@ -0,0 +1,115 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.malcolm.core;
+
+import java.util.Iterator;
+
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
+
+/**
+ * The progress of a Malcolm scan, from the number of steps which the device
+ * says it has completed. A fast device sends far more steps than are worth
+ * reporting, so each update only records the step and the position of the
+ * scan is found when it is reported, at most once an interval.
+ *
+ * Step n is the point with index n-1, which is seeked to directly if the
+ * points can be seeked, so the cost of a report does not depend on the
+ * number of steps since the last one.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class MalcolmProgress {
+
+	private Iterator<IPosition> iterator;
+	private int                 size;
+
+	// The number of points the iterator has moved over, if it cannot seek.
+	private int  position;
+
+	private int  step;
+	private int  reportedStep;
+	private long reportTime;
+
+	/**
+	 * Starts counting the progress over the points of the scan.
+	 */
+	synchronized void start(Iterator<IPosition> iterator) {
+		reset();
+		this.iterator = iterator;
+		this.size     = iterator instanceof ScanPointIterator ? ((ScanPointIterator)iterator).size() : -1;
+	}
+
+	synchronized void reset() {
+		iterator     = null;
+		size         = -1;
+		position     = 0;
+		step         = 0;
+		reportedStep = 0;
+		reportTime   = 0;
+	}
+
+	/**
+	 * Records the step completed by the device.
+	 *
+	 * @param step
+	 * @param now the time in ms
+	 * @param interval the time in ms to leave between reports
+	 * @return true if the step should be reported now, because the interval has passed or the scan has finished.
+	 */
+	synchronized boolean update(int step, long now, long interval) {
+		this.step = step;
+		if (step==reportedStep) return false;
+		return now-reportTime>=interval || step==size;
+	}
+
+	/**
+	 * @return true if a step has been recorded which has not been reported.
+	 */
+	synchronized boolean isPending() {
+		return step!=reportedStep;
+	}
+
+	/**
+	 * Moves to the last step recorded and marks it as reported.
+	 *
+	 * @return the position of the step or null if it is not known.
+	 */
+	synchronized IPosition report() {
+		reportedStep = step;
+		reportTime   = System.currentTimeMillis();
+		IPosition pos = moveTo(step);
+		if (pos!=null) pos.setStepIndex(step);
+		return pos;
+	}
+
+	private IPosition moveTo(int step) {
+		if (iterator==null || step<1) return null;
+		if (iterator instanceof SeekableScanPointIterator) {
+			final SeekableScanPointIterator it = (SeekableScanPointIterator)iterator;
+			try {
+				// The device may also go back, after a seek for instance.
+				int index = Math.min(step, it.size())-1;
+				it.seek(index);
+				return it.next();
+			} catch (UnsupportedOperationException ignored) {
+				// We move through the points one by one instead.
+			}
+		}
+		if (step<=position) return null;
+		IPosition pos = SeekableScanPointIterator.advance(iterator, step-position);
+		position = step;
+		return pos;
+	}
+}
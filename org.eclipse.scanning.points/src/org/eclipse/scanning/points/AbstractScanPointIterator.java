@@ -12,6 +12,7 @@
 package org.eclipse.scanning.points;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -27,25 +28,74 @@ import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.SectorROI;
-import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.AxisGenerator;
+import org.eclipse.scanning.points.spg.CompoundEngine;
+import org.eclipse.scanning.points.spg.Excluder;
+import org.eclipse.scanning.points.spg.PointMutator;
+import org.eclipse.scanning.points.spg.Region;
+import org.eclipse.scanning.points.spg.SpgIterator;
 import org.python.core.PyDictionary;
 import org.python.core.PyList;
 import org.python.core.PyObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public abstract class AbstractScanPointIterator implements ScanPointIterator, PySerializable {
+/**
+ * The points are generated by a {@link CompoundEngine}, which is the
+ * scanpointgenerator ported to Java, unless the system property
+ * org.eclipse.scanning.points.useJython is set, in which case the
+ * Jython scanpointgenerator is used. The Jython iterator is always
+ * available from getPyIterator() for serialising the scan with toDict().
+ */
+public abstract class AbstractScanPointIterator implements SeekableScanPointIterator, PySerializable {
 
 	private static Logger logger = LoggerFactory.getLogger(AbstractScanPointIterator.class);
 
 	private static Map<Class<?>, Function<IROI, PyObject>> roiDispatchMap = new HashMap<Class<?>, Function<IROI, PyObject>>();;
+	private static Map<Class<?>, Function<IROI, Region>>   regionDispatchMap = new HashMap<Class<?>, Function<IROI, Region>>();
+
+	/**
+	 * The iterator which the points come from.
+	 */
+	protected ScanPointIterator iterator;
 
 	protected ScanPointIterator pyIterator;
 
-	public Iterator<IPosition> getPyIterator() {
+	protected CompoundEngine    engine;
+
+	/**
+	 *
+	 * @return true if the points should be generated by the Jython scanpointgenerator.
+	 */
+	static boolean isJython() {
+		return Boolean.getBoolean("org.eclipse.scanning.points.useJython");
+	}
+
+	/**
+	 * Sets the iterator of the points to the Jython iterator if
+	 * that is switched on, otherwise to the points of the engine.
+	 *
+	 * @param engine
+	 * @param compound true to create positions with dimension names, false for a single generator
+	 */
+	protected void init(CompoundEngine engine, boolean compound) {
+		this.engine   = engine;
+		this.iterator = isJython() ? getPyIterator() : new SpgIterator(engine, compound);
+	}
+
+	/**
+	 * Creates the Jython iterator of the same points, which is done lazily
+	 * because the Java engine is used unless Jython is switched on.
+	 * @return
+	 */
+	protected abstract ScanPointIterator createPyIterator();
+
+	public synchronized ScanPointIterator getPyIterator() {
+		if (pyIterator==null) pyIterator = createPyIterator();
 		return pyIterator;
 	}
 
@@ -53,6 +103,26 @@ public abstract class AbstractScanPointIterator implements ScanPointIterator, Py
 		this.pyIterator = pyIterator;
 	}
 
+	/**
+	 * @return the engine of the points or null if they do not come from one.
+	 */
+	public CompoundEngine getEngine() {
+		return engine;
+	}
+
+	protected CompoundEngine createEngine(List<AxisGenerator> generators, Object[] regions,
+			String[] regionAxes, List<PointMutator> mutators) {
+		List<Region> rs = Arrays.asList(regions)
+				.stream()
+				.map(r -> makeRegion(r))
+				.filter(r -> r != null)
+				.collect(Collectors.toList());
+		List<Excluder> excluders = rs.size() > 0
+				? Arrays.asList(new Excluder(rs, Arrays.asList(regionAxes)))
+				: Collections.<Excluder>emptyList();
+		return new CompoundEngine(generators, excluders, mutators);
+	}
+
 	protected ScanPointIterator createSpgCompoundGenerator(Iterator<?>[] iterators, Object[] regions,
 			String[] regionAxes, PyObject[] mutators) {
 		JythonObjectFactory<PyObject> excluderFactory = ScanPointGeneratorFactory.JExcluderFactory();
@@ -94,17 +164,56 @@ public abstract class AbstractScanPointIterator implements ScanPointIterator, Py
 				((SectorROI) r).getPoint(), ((SectorROI) r).getRadii(), ((SectorROI) r).getAngles()));
 	}
 
-	protected static PyObject makePyRoi(Object region) {
-		IROI roi = null;
+	static {
+		regionDispatchMap.put(CircularROI.class, r -> Region.circle(
+				((CircularROI) r).getCentre(), ((CircularROI) r).getRadius()));
+		regionDispatchMap.put(EllipticalROI.class, r -> Region.ellipse(
+				((EllipticalROI) r).getPoint(), ((EllipticalROI) r).getSemiAxes(), ((EllipticalROI) r).getAngle()));
+		regionDispatchMap.put(LinearROI.class, r -> null); // not supported
+		regionDispatchMap.put(PointROI.class, r -> Region.point(((PointROI) r).getPoint()));
+		regionDispatchMap.put(PolygonalROI.class, r -> {
+			PolygonalROI p = (PolygonalROI) r;
+			double[] xPoints = new double[p.getNumberOfPoints()];
+			double[] yPoints = new double[p.getNumberOfPoints()];
+			for (int i = 0; i < xPoints.length; i++) {
+				PointROI point = p.getPoint(i);
+				xPoints[i] = point.getPointX();
+				yPoints[i] = point.getPointY();
+			}
+			return Region.polygon(xPoints, yPoints);
+		});
+		regionDispatchMap.put(RectangularROI.class, r -> Region.rectangle(
+				((RectangularROI) r).getPoint(), ((RectangularROI) r).getLength(0), ((RectangularROI) r).getLength(1),
+				((RectangularROI) r).getAngle()));
+		regionDispatchMap.put(SectorROI.class, r -> Region.sector(
+				((SectorROI) r).getPoint(), ((SectorROI) r).getRadii(), ((SectorROI) r).getAngles()));
+	}
+
+	protected static Region makeRegion(Object region) {
+		IROI roi = getRoi(region);
+		if (roi==null) return null;
+		if (regionDispatchMap.containsKey(roi.getClass())) {
+			return regionDispatchMap.get(roi.getClass()).apply(roi);
+		} else {
+			logger.error("Unsupported region type: " + roi.getClass());
+			return null;
+		}
+	}
+
+	private static IROI getRoi(Object region) {
 		if (region instanceof ScanRegion<?>) {
 			region = ((ScanRegion<?>) region).getRoi();
 		}
 		if (region instanceof IROI) {
-			roi = (IROI) region;
-		} else {
-			logger.error("Unknown region type: " + region.getClass());
-			return null;
+			return (IROI) region;
 		}
+		logger.error("Unknown region type: " + region.getClass());
+		return null;
+	}
+
+	protected static PyObject makePyRoi(Object region) {
+		IROI roi = getRoi(region);
+		if (roi==null) return null;
 		if (roiDispatchMap.containsKey(roi.getClass())) {
 			return roiDispatchMap.get(roi.getClass()).apply(roi);
 		} else {
@@ -118,21 +227,40 @@ public abstract class AbstractScanPointIterator implements ScanPointIterator, Py
 		return null;
 	}
 
+	/**
+	 * Subclasses which count the points they return should override
+	 * this to set their count as well.
+	 *
+	 * @throws UnsupportedOperationException if the points come from Jython
+	 */
+	@Override
+	public void seek(int index) {
+		getSeekableIterator().seek(index);
+	}
+
+	@Override
+	public int nextIndex() {
+		return getSeekableIterator().nextIndex();
+	}
+
+	private SeekableScanPointIterator getSeekableIterator() {
+		if (iterator instanceof SeekableScanPointIterator) return (SeekableScanPointIterator)iterator;
+		throw new UnsupportedOperationException("The points of "+getClass().getSimpleName()+" cannot be seeked");
+	}
+
 	@Override
 	public int size() {
-		return pyIterator.size();
+		return iterator.size();
 	}
 
 	@Override
 	public int[] getShape() {
-		return pyIterator.getShape();
+		return iterator.getShape();
 	}
 
 	@Override
 	public int getRank() {
-		return pyIterator.getRank();
+		return iterator.getRank();
 	}
 
-
-
 }
@@ -11,10 +11,15 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ArrayModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.ArrayAxisGenerator;
+import org.eclipse.scanning.points.spg.CompoundEngine;
 
 class ArrayIterator extends AbstractScanPointIterator {
 
@@ -24,23 +29,28 @@ class ArrayIterator extends AbstractScanPointIterator {
 	public ArrayIterator(ArrayGenerator gen) {
 		this.model= gen.getModel();
 
+		init(new CompoundEngine(Arrays.asList(new ArrayAxisGenerator(model.getName(), model.getPositions())),
+				Collections.emptyList(), Collections.emptyList()), false);
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+
         JythonObjectFactory<ScanPointIterator> arrayGeneratorFactory = ScanPointGeneratorFactory.JArrayGeneratorFactory();
 
         double[] points = model.getPositions();
 
-		ScanPointIterator iterator = arrayGeneratorFactory.createObject(
-				model.getName(), "mm", points);
-        pyIterator = iterator;
+		return arrayGeneratorFactory.createObject(model.getName(), "mm", points);
 	}
 
 	@Override
 	public boolean hasNext() {
-		return pyIterator.hasNext();
+		return iterator.hasNext();
 	}
 
 	@Override
 	public IPosition next() {
-		return pyIterator.next();
+		return iterator.next();
 	}
 
 	@Override
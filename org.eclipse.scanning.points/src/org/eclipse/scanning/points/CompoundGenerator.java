@@ -103,6 +103,39 @@ class CompoundGenerator extends AbstractGenerator<CompoundModel> implements PySe
 		return size;
 	}
 
+	/**
+	 * The shape of the compound scan without regions or mutators is
+	 * the shapes of the generators one after the other.
+	 */
+	@Override
+	protected int[] calculateShape() throws GeneratorException {
+		Iterator<IPosition> it = iteratorFromValidModel();
+		if (it instanceof CompoundSpgIterator) {
+			return ((CompoundSpgIterator)it).getShape();
+		}
+		int[] shape = new int[0];
+		for (IPointGenerator<?> gen : generators) {
+			int[] gshape = gen.getShape();
+			int[] joined = Arrays.copyOf(shape, shape.length+gshape.length);
+			System.arraycopy(gshape, 0, joined, shape.length, gshape.length);
+			shape = joined;
+		}
+		return shape;
+	}
+
+	/**
+	 * The shape may not be cached if a Jython generator is
+	 * anywhere in the compound, including in a nested compound.
+	 */
+	@Override
+	protected boolean isShapeCacheable() {
+		for (IPointGenerator<?> gen : generators) {
+			if (gen instanceof JythonGenerator) return false;
+			if (gen instanceof CompoundGenerator && !((CompoundGenerator)gen).isShapeCacheable()) return false;
+		}
+		return true;
+	}
+
     @Override
 	public PyDictionary toDict() {
 		Iterator<?> it = iteratorFromValidModel();
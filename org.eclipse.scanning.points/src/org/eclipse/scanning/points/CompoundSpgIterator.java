@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -30,6 +31,10 @@ import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.ScanRegion;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.CompoundEngine;
+import org.eclipse.scanning.points.spg.Excluder;
+import org.eclipse.scanning.points.spg.PointMutator;
+import org.eclipse.scanning.points.spg.Region;
 import org.python.core.PyDictionary;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,7 +55,6 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 	private IPosition             pos;
 	private Iterator<? extends IPosition>[] iterators;
 
-	private IPosition currentPoint;
 	private int index = -1;
 
 	public CompoundSpgIterator(CompoundGenerator gen) throws GeneratorException {
@@ -65,17 +69,48 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 			}
 		}
 
+		CompoundEngine engine = createEngine();
+		if (engine != null) {
+			init(engine, true);
+		} else {
+			// A generator or mutator which only Jython can iterate
+			this.iterator = getPyIterator();
+		}
+        index = -1;
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+
 		JythonObjectFactory<ScanPointIterator> compoundGeneratorFactory = ScanPointGeneratorFactory.JCompoundGeneratorFactory();
 
         Object[] excluders = getExcluders(gen.getModel().getRegions());
         Object[] mutators = getMutators(gen.getModel().getMutators());
         double duration = gen.getModel().getDuration();
 
-        ScanPointIterator iterator = compoundGeneratorFactory.createObject(
-				iterators, excluders, mutators, duration);
+        return compoundGeneratorFactory.createObject(iterators, excluders, mutators, duration);
+	}
 
-        index = -1;
-        pyIterator = iterator;
+	/**
+	 * Nests the engines of the iterators of the generators.
+	 * @return the engine or null if any of the iterators or mutators do not have a Java implementation.
+	 */
+	private CompoundEngine createEngine() {
+		List<CompoundEngine> engines = new ArrayList<>(iterators.length);
+		for (Iterator<? extends IPosition> it : iterators) {
+			if (!(it instanceof AbstractScanPointIterator)) return null;
+			CompoundEngine engine = ((AbstractScanPointIterator)it).getEngine();
+			if (engine == null) return null;
+			engines.add(engine);
+		}
+		List<PointMutator> mutators = new ArrayList<>();
+		if (gen.getModel().getMutators() != null) {
+			for (Object mutator : gen.getModel().getMutators()) {
+				if (!(mutator instanceof PointMutator)) return null;
+				mutators.add((PointMutator)mutator);
+			}
+		}
+		return CompoundEngine.nest(engines, getJavaExcluders(gen.getModel().getRegions()), mutators);
 	}
 
 	private IPosition createFirstPosition() throws GeneratorException {
@@ -90,34 +125,32 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 	@SuppressWarnings("unchecked")
 	@Override
     public PyDictionary toDict() {
-		return ((PySerializable) pyIterator).toDict();
+		return ((PySerializable) getPyIterator()).toDict();
     }
 
 	@Override
 	public boolean hasNext() {
-		if (pyIterator.hasNext()) {
-			currentPoint = pyIterator.next();
-			index++;
-			currentPoint.setStepIndex(index);
-			return true;
-		}
-		return false;
+		return iterator.hasNext();
 	}
 
+	/**
+	 * @return the next point or null if there are no more.
+	 */
 	@Override
 	public IPosition next() {
-		// TODO: This will return null if called without calling hasNext() and when the
-		// ROI will exclude all further points. Raise error if called without hasNext()
-		// first, or if point is null?
-		if (currentPoint == null) {
-			hasNext();
-		}
-		IPosition point = currentPoint;
-		currentPoint = null;
-
+		if (!hasNext()) return null;
+		IPosition point = iterator.next();
+		index++;
+		point.setStepIndex(index);
 		return point;
 	}
 
+	@Override
+	public void seek(int index) {
+		super.seek(index);
+		this.index = index-1;
+	}
+
 	public IPosition getNext() {
 
 		for (int i = iterators.length-1; i > -1; i--) {
@@ -207,9 +240,45 @@ public class CompoundSpgIterator extends AbstractScanPointIterator {
 		return pyExcluders.toArray();
 	}
 
+	/**
+	 * Creates the excluders of the regions, grouped in the same way as {@link #getExcluders(Collection)}
+	 * @param regions
+	 * @return
+	 */
+	public static List<Excluder> getJavaExcluders(Collection<?> regions) {
+		LinkedHashMap<List<String>, List<Region>> excluders = new LinkedHashMap<List<String>, List<Region>>();
+		if (regions != null) {
+			for (Object region : regions) {
+				if (region instanceof ScanRegion) {
+					ScanRegion<?> sr = (ScanRegion<?>) region;
+					Optional<List<Region>> excluderOptional = excluders.entrySet().stream()
+							.filter(e -> sr.getScannables().containsAll(e.getKey()))
+							.map(e -> e.getValue())
+							.findFirst();
+					List<Region> rois = excluderOptional.orElse(new LinkedList<Region>());
+					if (!excluderOptional.isPresent()) {
+						excluders.put(sr.getScannables(), rois);
+					}
+					try {
+						Region roi = makeRegion(region);
+						if (roi != null) rois.add(roi);
+					} catch (Exception e) {
+						logger.error("Could not convert ROI to Region", e);
+					}
+				} else {
+					logger.error("Region wasn't of type ScanRegion");
+				}
+			}
+		}
+		return excluders.entrySet().stream()
+				.filter(e -> e.getValue().size() > 0)
+				.map(e -> new Excluder(e.getValue(), e.getKey()))
+				.collect(Collectors.toList());
+	}
+
 	@Override
 	public String toString() {
 		return "CompoundSpgIterator [gen=" + gen + ", pos=" + pos + ", iterators=" + Arrays.toString(iterators)
-				+ ", currentPoint=" + currentPoint + ", index=" + index + "]";
+				+ ", index=" + index + "]";
 	}
 }
@@ -12,16 +12,21 @@
 package org.eclipse.scanning.points;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 
-import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.GridModel;
 import org.eclipse.scanning.api.points.models.RandomOffsetGridModel;
 import org.eclipse.scanning.api.points.models.RasterModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
-import org.python.core.PyDictionary;
-import org.python.core.PyList;
+import org.eclipse.scanning.points.mutators.RandomOffsetMutator;
+import org.eclipse.scanning.points.spg.AxisGenerator;
+import org.eclipse.scanning.points.spg.LineAxisGenerator;
 import org.python.core.PyObject;
 
 class GridIterator extends AbstractScanPointIterator {
@@ -35,7 +40,11 @@ class GridIterator extends AbstractScanPointIterator {
 	private final double xStep;
 	private final double yStep;
 
-	private Point currentPoint;
+	// Required to create the Jython iterator
+	private final boolean             slowSnake;
+	private final boolean             fastSnake;
+	private final Object[]            regions;
+	private final RandomOffsetMutator mutator;
 
 	public GridIterator(GridGenerator gen) {
 		GridModel model = gen.getModel();
@@ -49,18 +58,12 @@ class GridIterator extends AbstractScanPointIterator {
 		this.minX = model.getBoundingBox().getFastAxisStart() + xStep / 2;
 		this.minY = model.getBoundingBox().getSlowAxisStart() + yStep / 2;
 
-		JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator1DFactory();
-
-		ScanPointIterator outerLine = lineGeneratorFactory.createObject(
-				yName, "mm", minY, minY + (rows - 1) * yStep, rows, model.isSnake());
-
-		ScanPointIterator innerLine = lineGeneratorFactory.createObject(
-				xName, "mm", minX, minX + (columns - 1) * xStep, columns, model.isSnake());
-
-        Iterator<?>[] generators = {outerLine, innerLine};
+		this.slowSnake = model.isSnake();
+		this.fastSnake = model.isSnake();
+		this.regions   = gen.getRegions().toArray();
+		this.mutator   = null;
 
-		pyIterator = createSpgCompoundGenerator(generators, gen.getRegions().toArray(),
-				new String[] {xName, yName}, new PyObject[] {});
+		init(createEngine(createLines(), regions, new String[] {xName, yName}, Collections.emptyList()), true);
 	}
 
 	public GridIterator(RandomOffsetGridGenerator gen) {
@@ -75,31 +78,18 @@ class GridIterator extends AbstractScanPointIterator {
 		this.minX = model.getBoundingBox().getFastAxisStart() + xStep / 2;
 		this.minY = model.getBoundingBox().getSlowAxisStart() + yStep / 2;
 
-        JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator1DFactory();
-
-		ScanPointIterator outerLine = lineGeneratorFactory.createObject(
-				yName, "mm", minY, minY + (rows - 1) * yStep, rows);
-
-		ScanPointIterator innerLine = lineGeneratorFactory.createObject(
-				xName, "mm", minX, minX + (columns - 1) * xStep, columns, model.isSnake());
-
-        JythonObjectFactory<PyObject> randomOffsetMutatorFactory = ScanPointGeneratorFactory.JRandomOffsetMutatorFactory();
+		this.slowSnake = false;
+		this.fastSnake = model.isSnake();
+		this.regions   = gen.getRegions().toArray();
 
-        int seed = model.getSeed();
-        PyList axes = new PyList(Arrays.asList(new String[] {yName, xName}));
         double offset = xStep * model.getOffset() / 100;
 
-        PyDictionary maxOffset = new PyDictionary();
+        Map<String, Double> maxOffset = new HashMap<>();
         maxOffset.put(yName, offset);
         maxOffset.put(xName, offset);
+        this.mutator = new RandomOffsetMutator(model.getSeed(), Arrays.asList(yName, xName), maxOffset);
 
-		PyObject randomOffset = (PyObject) randomOffsetMutatorFactory.createObject(seed, axes, maxOffset);
-
-        Iterator<?>[] generators = {outerLine, innerLine};
-        PyObject[] mutators = {randomOffset};
-
-		pyIterator = createSpgCompoundGenerator(generators, gen.getRegions().toArray(),
-				new String[] {xName, yName}, mutators);
+		init(createEngine(createLines(), regions, new String[] {xName, yName}, Arrays.asList(mutator)), true);
 	}
 
 	public GridIterator(RasterGenerator gen) {
@@ -113,40 +103,50 @@ class GridIterator extends AbstractScanPointIterator {
 		this.columns = (int) Math.floor(model.getBoundingBox().getFastAxisLength() / xStep + 1);
 		this.rows = (int) Math.floor(model.getBoundingBox().getSlowAxisLength() / yStep + 1);
 
+		this.slowSnake = false;
+		this.fastSnake = model.isSnake();
+		this.regions   = gen.getRegions().toArray();
+		this.mutator   = null;
+
+		init(createEngine(createLines(), regions, new String[] {xName, yName}, Collections.emptyList()), true);
+	}
+
+	private List<AxisGenerator> createLines() {
+		return Arrays.asList(
+				new LineAxisGenerator(yName, minY, minY + (rows - 1) * yStep, rows, slowSnake),
+				new LineAxisGenerator(xName, minX, minX + (columns - 1) * xStep, columns, fastSnake));
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+
 		JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator1DFactory();
 
 		ScanPointIterator outerLine = lineGeneratorFactory.createObject(
-				yName, "mm", minY, minY + (rows - 1) * yStep, rows);
+				yName, "mm", minY, minY + (rows - 1) * yStep, rows, slowSnake);
+
 		ScanPointIterator innerLine = lineGeneratorFactory.createObject(
-				xName, "mm", minX, minX + (columns - 1) * xStep, columns, model.isSnake());
+				xName, "mm", minX, minX + (columns - 1) * xStep, columns, fastSnake);
 
         Iterator<?>[] generators = {outerLine, innerLine};
+        PyObject[] mutators = mutator != null
+        		            ? new PyObject[] {(PyObject) mutator.getMutatorAsJythonObject()}
+        		            : new PyObject[] {};
 
-		pyIterator = createSpgCompoundGenerator(generators, gen.getRegions().toArray(),
-				new String[] {xName, yName}, new PyObject[] {});
+		return createSpgCompoundGenerator(generators, regions, new String[] {xName, yName}, mutators);
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (pyIterator.hasNext()) {
-			currentPoint = (Point) pyIterator.next();
-			return true;
-		}
-		return false;
+		return iterator.hasNext();
 	}
 
+	/**
+	 * @return the next point or null if there are no more.
+	 */
 	@Override
-	public Point next() {
-		// TODO: This will return null if called without calling hasNext() and when the
-		// ROI will exclude all further points. Raise error if called without hasNext()
-		// first, or if point is null?
-		if (currentPoint == null) {
-			hasNext();
-		}
-		Point point = currentPoint;
-		currentPoint = null;
-
-		return point;
+	public IPosition next() {
+		return hasNext() ? iterator.next() : null;
 	}
 
 	@Override
@@ -157,8 +157,8 @@ class GridIterator extends AbstractScanPointIterator {
 	@Override
 	public String toString() {
 		return "GridIterator [columns=" + columns + ", rows=" + rows + ", xName=" + xName + ", yName=" + yName
-				+ ", minX=" + minX + ", minY=" + minY + ", xStep=" + xStep + ", yStep=" + yStep + ", currentPoint="
-				+ currentPoint + ", AbstractScanPointIterator [" + super.toString() + "]";
+				+ ", minX=" + minX + ", minY=" + minY + ", xStep=" + xStep + ", yStep=" + yStep
+				+ ", AbstractScanPointIterator [" + super.toString() + "]";
 	}
 
 }
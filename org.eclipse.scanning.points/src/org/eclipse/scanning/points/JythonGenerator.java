@@ -23,6 +23,14 @@ public class JythonGenerator extends AbstractGenerator<JythonGeneratorModel> {
 		return new JythonIterator(getModel());
 	}
 
+	/**
+	 * The script may be edited between scans of the same model.
+	 */
+	@Override
+	protected boolean isShapeCacheable() {
+		return false;
+	}
+
 	@Override
 	protected void validateModel() throws ValidationException {
 
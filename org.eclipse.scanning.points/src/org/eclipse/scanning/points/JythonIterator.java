@@ -17,9 +17,17 @@ class JythonIterator extends AbstractScanPointIterator implements Iterator<IPosi
 
 	private static final Logger logger = LoggerFactory.getLogger(JythonIterator.class);
 
-	private int               index;
+	private final JythonGeneratorModel model;
+	private int                        index;
 
 	JythonIterator(JythonGeneratorModel model) {
+		this.model    = model;
+		this.iterator = getPyIterator();
+		this.index    = 0;
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
 
 		try {
 			// Ensure that the module path is on the path
@@ -33,11 +41,10 @@ class JythonIterator extends AbstractScanPointIterator implements Iterator<IPosi
 		Object[] args = getArguments(model);
 		String[] kwds = getKeywords(model);
 		if (args==null) {
-			this.pyIterator = jythonObject.createObject();
+			return jythonObject.createObject();
 		} else {
-			this.pyIterator = jythonObject.createObject(args, kwds);
+			return jythonObject.createObject(args, kwds);
 		}
-		this.index = 0;
 	}
 
 	private String[] getKeywords(JythonGeneratorModel model) {
@@ -11,11 +11,16 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
 
+import org.eclipse.scanning.api.points.ArrayPosition;
 import org.eclipse.scanning.api.points.IPosition;
-import org.eclipse.scanning.api.points.MapPosition;
-import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.PositionSchema;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.BoundingLine;
 import org.eclipse.scanning.api.points.models.CollatedStepModel;
@@ -23,6 +28,8 @@ import org.eclipse.scanning.api.points.models.OneDEqualSpacingModel;
 import org.eclipse.scanning.api.points.models.OneDStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.CompoundEngine;
+import org.eclipse.scanning.points.spg.LineAxisGenerator;
 import org.python.core.PyList;
 
 class LineIterator extends AbstractScanPointIterator {
@@ -31,19 +38,30 @@ class LineIterator extends AbstractScanPointIterator {
 	private double value;
 	private int index;
 
+	// Required to create the Jython iterator
+	private final String[] names;
+	private final double[] start;
+	private final double[] stop;
+	private final int      numPoints;
+
+	// The names moved together by a CollatedStepModel, looked up once rather than for each point.
+	private PositionSchema collated;
+
 	public LineIterator(StepGenerator gen) {
 		this.model = gen.getModel();
 		value = model.getStart() - model.getStep();
-
-        JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator1DFactory();
-
-        String name   = model.getName();
-        double start  = model.getStart();
-        double stop   = model.getStop();
-        int numPoints = model.size();
-
-		ScanPointIterator iterator = lineGeneratorFactory.createObject(name, "mm", start, stop, numPoints);
-		pyIterator = iterator;
+		if (model instanceof CollatedStepModel && ((CollatedStepModel)model).getNames()!=null) {
+			final List<String> names = new ArrayList<>(new LinkedHashSet<>(((CollatedStepModel)model).getNames()));
+			this.collated = PositionSchema.of(names, Arrays.<Collection<String>>asList(names));
+		}
+
+		this.names = new String[] {model.getName()};
+		this.start = new double[] {model.getStart()};
+		this.stop  = new double[] {model.getStop()};
+		this.numPoints = model.size();
+
+		init(new CompoundEngine(Arrays.asList(new LineAxisGenerator(names[0], start[0], stop[0], numPoints, false)),
+				Collections.emptyList(), Collections.emptyList()), false);
 		this.index = 0;
 	}
 
@@ -51,21 +69,16 @@ class LineIterator extends AbstractScanPointIterator {
 		OneDEqualSpacingModel model= gen.getModel();
 		BoundingLine line = model.getBoundingLine();
 
-		JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator2DFactory();
-
-		int numPoints = model.getPoints();
+		this.numPoints = model.getPoints();
 		double step = line.getLength() / numPoints;
 		double xStep = step * Math.cos(line.getAngle());
 		double yStep = step * Math.sin(line.getAngle());
 
-		PyList names =  new PyList(Arrays.asList(new String[] {model.getFastAxisName(), model.getSlowAxisName()}));
-		PyList units = new PyList(Arrays.asList(new String[] {"mm", "mm"}));
-		double[] start = {line.getxStart() + xStep/2, line.getyStart() + yStep/2};
-		double[] stop = {line.getxStart() + xStep * (numPoints - 0.5), line.getyStart() + yStep * (numPoints - 0.5)};
+		this.names = new String[] {model.getFastAxisName(), model.getSlowAxisName()};
+		this.start = new double[] {line.getxStart() + xStep/2, line.getyStart() + yStep/2};
+		this.stop  = new double[] {line.getxStart() + xStep * (numPoints - 0.5), line.getyStart() + yStep * (numPoints - 0.5)};
 
-		ScanPointIterator iterator = lineGeneratorFactory.createObject(
-				names, units, start, stop, numPoints);
-		pyIterator = iterator;
+		init(createLine2D(), false);
 		this.index = 0;
 	}
 
@@ -73,45 +86,60 @@ class LineIterator extends AbstractScanPointIterator {
 		OneDStepModel model= gen.getModel();
 		BoundingLine line = model.getBoundingLine();
 
-        JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator2DFactory();
-
-		int numPoints = (int) Math.floor(line.getLength() / model.getStep()) + 1;
+		this.numPoints = (int) Math.floor(line.getLength() / model.getStep()) + 1;
         double xStep = model.getStep() * Math.cos(line.getAngle());
         double yStep = model.getStep() * Math.sin(line.getAngle());
 
-		PyList names =  new PyList(Arrays.asList(new String[] {model.getFastAxisName(), model.getSlowAxisName()}));
-		PyList units = new PyList(Arrays.asList(new String[] {"mm", "mm"}));
-		double[] start = {line.getxStart(), line.getyStart()};
-        double[] stop = {line.getxStart() + xStep * numPoints, line.getyStart() + yStep * numPoints};
+		this.names = new String[] {model.getFastAxisName(), model.getSlowAxisName()};
+		this.start = new double[] {line.getxStart(), line.getyStart()};
+		this.stop  = new double[] {line.getxStart() + xStep * numPoints, line.getyStart() + yStep * numPoints};
 
-		ScanPointIterator iterator = lineGeneratorFactory.createObject(
-				names, units, start, stop, numPoints);
-		pyIterator = iterator;
+		init(createLine2D(), false);
 		this.index = 0;
 	}
 
+	private CompoundEngine createLine2D() {
+		return new CompoundEngine(Arrays.asList(new LineAxisGenerator(Arrays.asList(names), start, stop, numPoints)),
+				Collections.emptyList(), Collections.emptyList());
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+		if (names.length == 1) {
+			JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator1DFactory();
+			return lineGeneratorFactory.createObject(names[0], "mm", start[0], stop[0], numPoints);
+		}
+		JythonObjectFactory<ScanPointIterator> lineGeneratorFactory = ScanPointGeneratorFactory.JLineGenerator2DFactory();
+		PyList pyNames = new PyList(Arrays.asList(names));
+		PyList units = new PyList(Arrays.asList(new String[] {"mm", "mm"}));
+		return lineGeneratorFactory.createObject(pyNames, units, start, stop, numPoints);
+	}
+
+	@Override
+	public void seek(int index) {
+		super.seek(index);
+		this.index = index;
+	}
+
 	@Override
 	public boolean hasNext() {
-		return pyIterator.hasNext();
+		return iterator.hasNext();
 	}
 
 	@Override
 	public IPosition next() {
 
 		IPosition next = null;
-        if (model instanceof CollatedStepModel) { // For AnnotatedScanTest
-			@SuppressWarnings("unchecked")
-			Scalar<Double> point = (Scalar<Double>) pyIterator.next();
-			value = point.getValue();
-        	final MapPosition mp = new MapPosition();
-        	for (String name : ((CollatedStepModel)model).getNames()) {
-           		mp.put(name, value);
-           		mp.putIndex(name, -1);
-			}
-        	next = mp;
+        if (collated!=null) { // For AnnotatedScanTest
+			value = iterator.next().getValue(names[0]);
+			final double[] vals = new double[collated.size()];
+			final int[]    inds = new int[collated.size()];
+			Arrays.fill(vals, value);
+			Arrays.fill(inds, -1);
+			next = new ArrayPosition(collated, vals, inds);
 
         } else {
-        	next = pyIterator.next();
+        	next = iterator.next();
         }
         if (next!=null && model!=null) {
 	        next.setExposureTime(model.getExposureTime()); // Usually 0
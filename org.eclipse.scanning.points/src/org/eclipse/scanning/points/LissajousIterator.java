@@ -12,12 +12,14 @@
 package org.eclipse.scanning.points;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 
-import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.LissajousModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.LissajousAxisGenerator;
 import org.python.core.PyDictionary;
 import org.python.core.PyList;
 import org.python.core.PyObject;
@@ -25,8 +27,7 @@ import org.python.core.PyObject;
 class LissajousIterator extends AbstractScanPointIterator {
 
 	private LissajousModel model;
-	
-	private Point currentPoint;
+	private Object[] regions;
 
 	public LissajousIterator(LissajousGenerator gen) {
 		this.model     = gen.getModel();
@@ -36,47 +37,61 @@ class LissajousIterator extends AbstractScanPointIterator {
 		double width = model.getBoundingBox().getFastAxisLength();
 		double height = model.getBoundingBox().getSlowAxisLength();
 		
+		this.regions = gen.getRegions().toArray();
+
+		LissajousAxisGenerator lissajous = new LissajousAxisGenerator(Arrays.asList(xName, yName),
+				getCentre(), new double[] {width, height}, getLobes(), model.getPoints());
+		init(createEngine(Arrays.asList(lissajous), regions, new String[] {xName, yName}, Collections.emptyList()), true);
+	}
+
+	private double[] getCentre() {
+		double width = model.getBoundingBox().getFastAxisLength();
+		double height = model.getBoundingBox().getSlowAxisLength();
+		return new double[] {model.getBoundingBox().getFastAxisStart() + width / 2,
+				             model.getBoundingBox().getSlowAxisStart() + height / 2};
+	}
+
+	private int getLobes() {
+		return (int) (model.getA() / model.getB());
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+
+		String xName = model.getFastAxisName();
+		String yName = model.getSlowAxisName();
+		double width = model.getBoundingBox().getFastAxisLength();
+		double height = model.getBoundingBox().getSlowAxisLength();
+
         JythonObjectFactory<ScanPointIterator> lissajousGeneratorFactory = ScanPointGeneratorFactory.JLissajousGeneratorFactory();
 
         PyDictionary box = new PyDictionary();
         box.put("width", width);
         box.put("height", height);
-        box.put("centre", new double[] {model.getBoundingBox().getFastAxisStart() + width / 2,
-        								model.getBoundingBox().getSlowAxisStart() + height / 2});
+        box.put("centre", getCentre());
 
         PyList names =  new PyList(Arrays.asList(new String[] {xName, yName}));
         PyList units = new PyList(Arrays.asList(new String[] {"mm", "mm"}));
-        int numLobes = (int) (model.getA() / model.getB());
+        int numLobes = getLobes();
         int numPoints = model.getPoints();
         
         ScanPointIterator lissajous = lissajousGeneratorFactory.createObject(
 				names, units, box, numLobes, numPoints);
-		pyIterator = createSpgCompoundGenerator(new Iterator[] {lissajous}, gen.getRegions().toArray(),
+		return createSpgCompoundGenerator(new Iterator[] {lissajous}, regions,
 				new String[] {xName, yName}, new PyObject[] {});
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (pyIterator.hasNext()) {
-			currentPoint = (Point) pyIterator.next();
-			return true;
-		}
-		
-		return false;
+		return iterator.hasNext();
 	}
 
+	/**
+	 * @return the next point or null if there are no more.
+	 */
 	@Override
-	public Point next() {
-		// TODO: This will return null if called without calling hasNext() and when the
-		// ROI will exclude all further points. Raise error if called without hasNext()
-		// first, or if point is null?
-		if (currentPoint == null) {
-			hasNext();
-		}
-		Point point = currentPoint;
-		currentPoint = null;
-		
-		return point;
+	public IPosition next() {
+		return hasNext() ? iterator.next() : null;
 	}
 
 	@Override
@@ -13,6 +13,7 @@ package org.eclipse.scanning.points;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.eclipse.scanning.api.points.IPosition;
@@ -20,6 +21,8 @@ import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.MultiStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.ArrayAxisGenerator;
+import org.eclipse.scanning.points.spg.CompoundEngine;
 
 /**
  * An iterator over multiple step ranges. Acts essentially as a sequence of
@@ -38,12 +41,16 @@ public class MultiStepIterator extends AbstractScanPointIterator {
 	public MultiStepIterator(MultiStepModel model) {
 		this.model = model;
 		
-		JythonObjectFactory<ScanPointIterator> arrayGeneratorFactory = ScanPointGeneratorFactory.JArrayGeneratorFactory();
-
 		createPositions();
 
-		ScanPointIterator iterator = arrayGeneratorFactory.createObject(model.getName(), "mm", points);
-		pyIterator = iterator;
+		init(new CompoundEngine(Arrays.asList(new ArrayAxisGenerator(model.getName(), points)),
+				Collections.emptyList(), Collections.emptyList()), false);
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+		JythonObjectFactory<ScanPointIterator> arrayGeneratorFactory = ScanPointGeneratorFactory.JArrayGeneratorFactory();
+		return arrayGeneratorFactory.createObject(model.getName(), "mm", points);
 	}
 	
 	private void createPositions() {
@@ -94,14 +101,20 @@ public class MultiStepIterator extends AbstractScanPointIterator {
 		}
 	}
 	
+	@Override
+	public void seek(int index) {
+		super.seek(index);
+		this.index = index;
+	}
+
 	@Override
 	public boolean hasNext() {
-		return pyIterator.hasNext();
+		return iterator.hasNext();
 	}
 
 	@Override
 	public IPosition next() {
-		IPosition next = pyIterator.next();
+		IPosition next = iterator.next();
         next.setExposureTime(times[index]);
         next.setStepIndex(index);
         index++;
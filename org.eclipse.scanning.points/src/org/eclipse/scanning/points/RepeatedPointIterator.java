@@ -13,10 +13,10 @@ package org.eclipse.scanning.points;
 
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Scalar;
-import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
 import org.eclipse.scanning.api.points.models.RepeatedPointModel;
 
-public class RepeatedPointIterator implements ScanPointIterator {
+public class RepeatedPointIterator implements SeekableScanPointIterator {
 
 	private RepeatedPointModel   model;
 	private int count = 0;
@@ -61,6 +61,20 @@ public class RepeatedPointIterator implements ScanPointIterator {
 		return point;
 	}
 
+	/**
+	 * Seeking does not sleep for the points moved over.
+	 */
+	@Override
+	public void seek(int index) {
+		if (index < 0 || index > model.getCount()) throw new IndexOutOfBoundsException("Cannot seek to "+index+", there are "+model.getCount()+" points");
+		count = index;
+	}
+
+	@Override
+	public int nextIndex() {
+		return count;
+	}
+
 	@Override
 	public void remove() {
         throw new UnsupportedOperationException("remove");
@@ -68,12 +82,12 @@ public class RepeatedPointIterator implements ScanPointIterator {
 
 	@Override
 	public int size() {
-		return count;
+		return model.getCount();
 	}
 
 	@Override
 	public int[] getShape() {
-		return new int[] { count };
+		return new int[] { model.getCount() };
 	}
 
 	@Override
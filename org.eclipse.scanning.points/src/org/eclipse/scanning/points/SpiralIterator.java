@@ -12,12 +12,14 @@
 package org.eclipse.scanning.points;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Iterator;
 
-import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.points.models.SpiralModel;
 import org.eclipse.scanning.jython.JythonObjectFactory;
+import org.eclipse.scanning.points.spg.SpiralAxisGenerator;
 import org.python.core.PyList;
 import org.python.core.PyObject;
 
@@ -29,8 +31,8 @@ class SpiralIterator extends AbstractScanPointIterator {
 	private final double xCentre;
 	private final double yCentre;
 	private final double maxRadius;
-	
-	private Point currentPoint;
+	private final double scale;
+	private final Object[] regions;
 
 	public SpiralIterator(SpiralGenerator gen) {
 		
@@ -44,42 +46,41 @@ class SpiralIterator extends AbstractScanPointIterator {
 		yCentre = model.getBoundingBox().getSlowAxisStart() + radiusY;
 		maxRadius = Math.sqrt(radiusX * radiusX + radiusY * radiusY);
         
+		this.scale   = model.getScale();
+		this.regions = gen.getRegions().toArray();
+
+		SpiralAxisGenerator spiral = new SpiralAxisGenerator(Arrays.asList(xName, yName), new double[] {xCentre, yCentre}, maxRadius, scale);
+		init(createEngine(Arrays.asList(spiral), regions, new String[] {xName, yName}, Collections.emptyList()), true);
+	}
+
+	@Override
+	protected ScanPointIterator createPyIterator() {
+
         JythonObjectFactory<ScanPointIterator> spiralGeneratorFactory = ScanPointGeneratorFactory.JSpiralGeneratorFactory();
 
         PyList names =  new PyList(Arrays.asList(new String[] {xName, yName}));
         PyList units = new PyList(Arrays.asList(new String[] {"mm", "mm"}));
         PyList centre = new PyList(Arrays.asList(new Double[] {xCentre, yCentre}));
         double radius = maxRadius;
-        double scale = model.getScale();
         boolean alternate = false;
         
 		ScanPointIterator spiral = spiralGeneratorFactory.createObject(
 				names, units, centre, radius, scale, alternate);
-		pyIterator = createSpgCompoundGenerator(new Iterator<?>[] {spiral}, gen.getRegions().toArray(),
+		return createSpgCompoundGenerator(new Iterator<?>[] {spiral}, regions,
 				new String[] {xName, yName}, new PyObject[] {});
 	}
 
 	@Override
 	public boolean hasNext() {
-		if (pyIterator.hasNext()) {
-			currentPoint = (Point) pyIterator.next();
-			return true;
-		}
-		return false;
+		return iterator.hasNext();
 	}
 
+	/**
+	 * @return the next point or null if there are no more.
+	 */
 	@Override
-	public Point next() {
-		// TODO: This will return null if called without calling hasNext() and when the
-		// ROI will exclude all further points. Raise error if called without hasNext()
-		// first, or if point is null?
-		if (currentPoint == null) {
-			hasNext();
-		}
-		Point point = currentPoint;
-		currentPoint = null;
-		
-		return point;
+	public IPosition next() {
+		return hasNext() ? iterator.next() : null;
 	}
 
 	@Override
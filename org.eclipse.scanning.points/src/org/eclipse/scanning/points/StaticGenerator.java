@@ -16,6 +16,7 @@ import org.eclipse.scanning.api.points.AbstractGenerator;
 import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
 import org.eclipse.scanning.api.points.StaticPosition;
 import org.eclipse.scanning.api.points.models.StaticModel;
 
@@ -26,7 +27,7 @@ import org.eclipse.scanning.api.points.models.StaticModel;
  */
 class StaticGenerator extends AbstractGenerator<StaticModel> {
 
-	private static class StaticPointIterator implements ScanPointIterator {
+	private static class StaticPointIterator implements SeekableScanPointIterator {
 
 		private final int size;
 		private int remaining = 0;
@@ -47,6 +48,17 @@ class StaticGenerator extends AbstractGenerator<StaticModel> {
 			return STATIC_POSITION;
 		}
 
+		@Override
+		public void seek(int index) {
+			if (index < 0 || index > size) throw new IndexOutOfBoundsException("Cannot seek to "+index+", there are "+size+" points");
+			remaining = size - index;
+		}
+
+		@Override
+		public int nextIndex() {
+			return size - remaining;
+		}
+
 		@Override
 		public int size() {
 			return size;
@@ -11,18 +11,25 @@
  *******************************************************************************/
 package org.eclipse.scanning.points;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 
+import org.eclipse.scanning.api.points.ArrayPosition;
 import org.eclipse.scanning.api.points.IPosition;
-import org.eclipse.scanning.api.points.MapPosition;
-import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.PositionSchema;
 import org.eclipse.scanning.api.points.models.CollatedStepModel;
 import org.eclipse.scanning.api.points.models.StepModel;
 
 class StepIterator implements Iterator<IPosition> {
 
-	private StepModel     model;
-	private double        value;
+	private StepModel      model;
+	private double         value;
+	private PositionSchema schema;
+	private PositionSchema collated;
 
 	public StepIterator(StepGenerator gen) {
 		this(gen.getModel());
@@ -31,6 +38,16 @@ class StepIterator implements Iterator<IPosition> {
 	public StepIterator(StepModel model) {
 		this.model = model;
 		value = model.getStart()-model.getStep();
+
+		// The names do not change so the schema is looked up once, not for each point.
+		if (model instanceof CollatedStepModel && ((CollatedStepModel)model).getNames()!=null) {
+			final List<String> names = new ArrayList<>(new LinkedHashSet<>(((CollatedStepModel)model).getNames()));
+			this.collated = PositionSchema.of(names, Arrays.<Collection<String>>asList(names));
+			this.schema   = null;
+		} else {
+			this.collated = null;
+			this.schema   = PositionSchema.of(model.getName());
+		}
 	}
 
 	@Override
@@ -49,21 +66,17 @@ class StepIterator implements Iterator<IPosition> {
 	public IPosition next() {
 		value = increment();
         ++index;
-        if (model instanceof CollatedStepModel) {
-        	final MapPosition mp = new MapPosition();
-        	CollatedStepModel cmodel = (CollatedStepModel)model;
-        	if (cmodel.getNames()!=null) {
-	        	for (String name : cmodel.getNames()) {
-	           		mp.put(name, value);
-	           		mp.putIndex(name, index);
-				}
-	        	return mp;
-        	} else {
-    		    return new Scalar<>(model.getName(), index, value, model.getExposureTime());
-        	}
-        } else {
-		    return new Scalar<>(model.getName(), index, value, model.getExposureTime());
+        if (collated!=null) {
+        	final double[] vals = new double[collated.size()];
+        	final int[]    inds = new int[collated.size()];
+        	Arrays.fill(vals, value);
+        	Arrays.fill(inds, index);
+        	return new ArrayPosition(collated, vals, inds);
         }
+        final ArrayPosition pos = new ArrayPosition(schema, new double[]{value}, new int[]{index});
+        pos.setStepIndex(index);
+        pos.setExposureTime(model.getExposureTime());
+        return pos;
 	}
 
 	@Override
@@ -20,6 +20,7 @@ import org.eclipse.scanning.api.device.models.ClusterProcessingModel;
 import org.eclipse.scanning.api.device.models.MalcolmModel;
 import org.eclipse.scanning.api.device.models.ProcessingModel;
 import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatBatch;
 import org.eclipse.scanning.api.event.alive.KillBean;
 import org.eclipse.scanning.api.event.alive.PauseBean;
 import org.eclipse.scanning.api.event.queues.beans.MonitorAtom;
@@ -35,6 +36,7 @@ import org.eclipse.scanning.api.event.scan.PositionerRequest;
 import org.eclipse.scanning.api.event.scan.SampleData;
 import org.eclipse.scanning.api.event.scan.ScanBean;
 import org.eclipse.scanning.api.event.scan.ScanEvent;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
 import org.eclipse.scanning.api.event.status.AdministratorMessage;
 import org.eclipse.scanning.api.event.status.StatusBean;
@@ -108,6 +110,7 @@ public class ScanningAPIClassRegistry implements IClassRegistry {
 		registerClass(tmp, AcquireRequest.class);
 		registerClass(tmp, ScanBean.class);
 		registerClass(tmp, ScanEvent.class);
+		registerClass(tmp, ScanProgressBean.class);
 		registerClass(tmp, SampleData.class);
 		registerClass(tmp, ScanRequest.class);
 		registerClass(tmp, ScanMetadata.class);
@@ -149,6 +152,7 @@ public class ScanningAPIClassRegistry implements IClassRegistry {
 		
 		// event.alive
 		registerClass(tmp, HeartbeatBean.class);
+		registerClass(tmp, HeartbeatBatch.class);
 		registerClass(tmp, KillBean.class);
 		registerClass(tmp, PauseBean.class);
 		
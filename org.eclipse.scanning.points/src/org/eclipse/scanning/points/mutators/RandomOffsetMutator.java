@@ -17,10 +17,11 @@ import java.util.Map;
 import org.eclipse.scanning.api.points.IMutator;
 import org.eclipse.scanning.jython.JythonObjectFactory;
 import org.eclipse.scanning.points.ScanPointGeneratorFactory;
+import org.eclipse.scanning.points.spg.PointMutator;
 import org.python.core.PyDictionary;
 import org.python.core.PyList;
 
-public class RandomOffsetMutator implements IMutator {
+public class RandomOffsetMutator implements IMutator, PointMutator {
 
 	private int seed;
 	private List<String> axes;
@@ -69,4 +70,70 @@ public class RandomOffsetMutator implements IMutator {
         
 		return randomOffsetMutatorFactory.createObject(seed, pyAxes, maxOffset);
 	}
+
+	/**
+	 * Offsets the positions of the axes by the same pseudo-random amounts
+	 * as the scanpointgenerator RandomOffsetMutator.
+	 */
+	@Override
+	public void mutate(int index, List<String> pointAxes, double[] positions) {
+		for (String axis : axes) {
+			final int slot = pointAxes.indexOf(axis);
+			if (slot < 0) throw new IllegalArgumentException("The axis '"+axis+"' is not in the scan "+pointAxes);
+			positions[slot] += calcOffset(axis, index);
+		}
+	}
+
+	private double calcOffset(String axis, int index) {
+		final double max = maxOffsets.get(axis);
+		long x = ((long)index << 4) + (axis.isEmpty() ? 0 : axis.charAt(0));
+		x ^= (long)seed << 12;
+		// Robert Jenkins 32 bit hash (avalanches well)
+		x = (x + 0x7ED55D16L) + (x << 12);
+		x &= 0xFFFFFFFFL; // act as 32 bit unsigned before doing any right-shifts
+		x = (x ^ 0xC761C23CL) ^ (x >> 19);
+		x = (x + 0x165667B1L) + (x << 5);
+		x = (x + 0xD3A2646CL) ^ (x << 9);
+		x = (x + 0xFD7046C5L) + (x << 3);
+		x &= 0xFFFFFFFFL;
+		x = (x ^ 0xB55A4F09L) ^ (x >> 16);
+		x &= 0xFFFFFFFFL;
+		double r = (double)x / (double)0xFFFFFFFFL; // r in interval [0, 1]
+		r = r * 2 - 1; // r in [-1, 1]
+		return max * r;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((axes == null) ? 0 : axes.hashCode());
+		result = prime * result + ((maxOffsets == null) ? 0 : maxOffsets.hashCode());
+		result = prime * result + seed;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		RandomOffsetMutator other = (RandomOffsetMutator) obj;
+		if (axes == null) {
+			if (other.axes != null)
+				return false;
+		} else if (!axes.equals(other.axes))
+			return false;
+		if (maxOffsets == null) {
+			if (other.maxOffsets != null)
+				return false;
+		} else if (!maxOffsets.equals(other.maxOffsets))
+			return false;
+		if (seed != other.seed)
+			return false;
+		return true;
+	}
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+/**
+ * Points from a given list of positions, the same
+ * as the scanpointgenerator ArrayGenerator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ArrayAxisGenerator extends AxisGenerator {
+
+	private final double[] points;
+
+	public ArrayAxisGenerator(String axis, double[] points) {
+		super(axis, points.length, false);
+		this.points = points;
+	}
+
+	@Override
+	protected double[][] createPositions() {
+
+		// The python interpolates between the points, extended by one at
+		// each end. At integer indices that is points[i]+0*(points[i+1]-points[i])
+		// which is kept so that signed zeros and infinities come out the same.
+		final int      len      = points.length;
+		final double[] extended = new double[len+2];
+		System.arraycopy(points, 0, extended, 1, len);
+		if (len > 1) {
+			extended[0]     = points[0] - (points[1] - points[0]);
+			extended[len+1] = points[len-1] + (points[len-1] - points[len-2]);
+		} else if (len == 1) {
+			extended[0] = extended[2] = points[0];
+		}
+
+		final double[] ret = new double[len];
+		for (int i = 0; i < len; i++) {
+			final double epsilon = 0d;
+			ret[i] = extended[i+1] + epsilon * (extended[i+2] - extended[i+1]);
+		}
+		return new double[][]{ret};
+	}
+}
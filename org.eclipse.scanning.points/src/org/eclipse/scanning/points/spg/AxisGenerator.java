@@ -0,0 +1,94 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+/**
+ * The Java equivalent of a scanpointgenerator Generator. It calculates
+ * the positions of one or more axes for each index along the generator.
+ * <p>
+ * The positions are calculated with the same arithmetic, in the same order,
+ * as the python generators in scripts/scanpointgenerator so that the points
+ * are the same as those the Jython engine produces. Bounds are not calculated
+ * because the Java positions do not hold them.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public abstract class AxisGenerator {
+
+	private final List<String> axes;
+	private final int          size;
+	private final boolean      alternate;
+
+	private volatile double[][] positions;
+
+	protected AxisGenerator(List<String> axes, int size, boolean alternate) {
+		if (axes.size() != new HashSet<>(axes).size()) {
+			throw new IllegalArgumentException("Axis names cannot be duplicated; given "+axes);
+		}
+		this.axes      = Collections.unmodifiableList(axes);
+		this.size      = size;
+		this.alternate = alternate;
+	}
+
+	protected AxisGenerator(String axis, int size, boolean alternate) {
+		this(Arrays.asList(axis), size, alternate);
+	}
+
+	/**
+	 * Calculates the positions at indices 0 to size-1.
+	 * @return an array of positions for each axis, in the order of the axes.
+	 */
+	protected abstract double[][] createPositions();
+
+	/**
+	 * The positions of each axis, calculated once. Only the
+	 * first call locks, after that they are read directly.
+	 * @return
+	 */
+	double[][] getPositions() {
+		double[][] ret = positions;
+		if (ret==null) {
+			synchronized (this) {
+				ret = positions;
+				if (ret==null) positions = ret = createPositions();
+			}
+		}
+		return ret;
+	}
+
+	double[] getPositions(String axis) {
+		return getPositions()[axes.indexOf(axis)];
+	}
+
+	public List<String> getAxes() {
+		return axes;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public boolean isAlternate() {
+		return alternate;
+	}
+
+	@Override
+	public String toString() {
+		return getClass().getSimpleName()+" [axes=" + axes + ", size=" + size + ", alternate=" + alternate + "]";
+	}
+}
@@ -0,0 +1,332 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nests generators, applies excluders to the generators of their axes
+ * and mutates each point. This is a Java port of the scanpointgenerator
+ * CompoundGenerator which calculates the same positions in the same order
+ * without the Jython interpreter.
+ * <p>
+ * The engine is prepared when it is constructed. Any point may then
+ * be calculated from its index using {@link #getPoint(int, double[], int[])}
+ * which is safe to call from more than one thread.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class CompoundEngine {
+
+	private final List<AxisGenerator> generators;
+	private final List<Excluder>      excluders;
+	private final List<PointMutator>  mutators;
+	private final List<String>        axes;
+
+	// Valid after prepare()
+	private List<Dimension>               dimensions;
+	private long[]                        dimensionRepeats;
+	private long[][]                      generatorRepeats; // For each generator of each dimension
+	private int[][][]                     generatorSlots;   // The index in axes of each axis of each generator
+	private double[][][][]                generatorPositions; // The positions of each axis of each generator
+	private int                           size;
+	private int[]                         shape;
+	private List<Collection<String>>      dimensionNames;
+	private Map<String, Integer>          indexLocations;
+
+	/**
+	 *
+	 * @param generators outer to inner
+	 * @param excluders
+	 * @param mutators
+	 * @throws IllegalArgumentException if the generators cannot be nested or the regions exclude every point.
+	 */
+	public CompoundEngine(List<AxisGenerator> generators, List<Excluder> excluders, List<PointMutator> mutators) {
+		this.generators = Collections.unmodifiableList(new ArrayList<>(generators));
+		this.excluders  = Collections.unmodifiableList(new ArrayList<>(excluders));
+		this.mutators   = Collections.unmodifiableList(new ArrayList<>(mutators));
+
+		final List<String> axes = new ArrayList<>();
+		for (AxisGenerator g : generators) axes.addAll(g.getAxes());
+		if (axes.size() != new HashSet<>(axes).size()) {
+			throw new IllegalArgumentException("Axis names cannot be duplicated; given "+axes);
+		}
+		this.axes = Collections.unmodifiableList(axes);
+		prepare();
+	}
+
+	/**
+	 * Nests the generators of some engines into one engine. The excluders
+	 * and mutators of the engines are added after those given, unless an
+	 * equal one has already been added.
+	 *
+	 * @param engines outer to inner
+	 * @param excluders
+	 * @param mutators
+	 * @return
+	 */
+	public static CompoundEngine nest(List<CompoundEngine> engines, List<Excluder> excluders, List<PointMutator> mutators) {
+		final List<AxisGenerator> gens = new ArrayList<>();
+		final List<Excluder>      excs = new ArrayList<>(excluders);
+		final List<PointMutator>  muts = new ArrayList<>(mutators);
+		for (CompoundEngine engine : engines) {
+			gens.addAll(engine.generators);
+			for (PointMutator m : engine.mutators) if (!muts.contains(m)) muts.add(m);
+			for (Excluder e : engine.excluders) if (!excs.contains(e)) excs.add(e);
+		}
+		return new CompoundEngine(gens, excs, muts);
+	}
+
+	private void prepare() {
+
+		// We're going to change these lists
+		final List<Excluder>      excluders  = new ArrayList<>(this.excluders);
+		final List<AxisGenerator> generators = new ArrayList<>(this.generators);
+
+		// A rectangle on two lines restricts the lines rather than merging
+		// them into one dimension, so that the scan stays a grid.
+		for (Excluder excluder : this.excluders) {
+			if (excluder.getRegions().size()!=1 || !(excluder.getRegions().get(0) instanceof Region.Rectangle)) continue;
+			final Region.Rectangle rect = (Region.Rectangle)excluder.getRegions().get(0);
+			if (rect.angle != 0) continue;
+
+			final String axis1 = excluder.getAxes().get(0);
+			final String axis2 = excluder.getAxes().get(1);
+			final AxisGenerator gen1 = getGenerator(generators, axis1);
+			final AxisGenerator gen2 = getGenerator(generators, axis2);
+			if (gen1 == gen2 || !isSingleLine(gen1) || !isSingleLine(gen2)) continue;
+
+			generators.set(generators.indexOf(gen1), restrict(gen1, rect.start[0], rect.width));
+			generators.set(generators.indexOf(gen2), restrict(gen2, rect.start[1], rect.height));
+			excluders.remove(excluder);
+		}
+
+		final List<Dimension> dimensions = new ArrayList<>(generators.size());
+		for (AxisGenerator g : generators) dimensions.add(new Dimension(g));
+
+		for (Excluder excluder : excluders) {
+			final String axis1 = excluder.getAxes().get(0);
+			final String axis2 = excluder.getAxes().get(1);
+			final int genDiff = generators.indexOf(getGenerator(generators, axis1))
+					          - generators.indexOf(getGenerator(generators, axis2));
+			if (genDiff < -1 || genDiff > 1) {
+				throw new IllegalArgumentException("Excluders must be defined on axes that are adjacent in generator order");
+			}
+
+			// Merge dimensions if the region spans two
+			Dimension dim1 = getDimension(dimensions, axis1);
+			Dimension dim2 = getDimension(dimensions, axis2);
+			int dimDiff = dimensions.indexOf(dim1) - dimensions.indexOf(dim2);
+			if (dimDiff == 1) {
+				Dimension tmp = dim1; dim1 = dim2; dim2 = tmp;
+				dimDiff = -1;
+			}
+			if (dim1.isAlternate() != dim2.isAlternate() && dim1 != dimensions.get(0)) {
+				throw new IllegalArgumentException("Generators tied by regions must have the same alternate setting");
+			}
+
+			final Dimension dim;
+			if (dimDiff == -1) {
+				// dim1 is outer, this preserves the axis order
+				dim = Dimension.merge(dim1, dim2);
+				dimensions.set(dimensions.indexOf(dim1), dim);
+				dimensions.remove(dim2);
+			} else {
+				dim = dim1;
+			}
+			dim.applyExcluder(excluder);
+		}
+
+		long size = 1;
+		for (Dimension dim : dimensions) {
+			dim.prepare();
+			if (dim.getSize() == 0) throw new IllegalArgumentException("Regions would exclude entire scan");
+			size *= dim.getSize();
+			if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("The scan has more than "+Integer.MAX_VALUE+" points");
+		}
+
+		final int[]  shape   = new int[dimensions.size()];
+		final long[] repeats = new long[dimensions.size()];
+		long repeat = size;
+		for (int i = 0; i < shape.length; i++) {
+			shape[i]   = dimensions.get(i).getSize();
+			repeat    /= shape[i];
+			repeats[i] = repeat;
+		}
+
+		final long[][]  generatorRepeats = new long[dimensions.size()][];
+		final int[][][] generatorSlots   = new int[dimensions.size()][][];
+		final double[][][][] generatorPositions = new double[dimensions.size()][][][];
+		for (int d = 0; d < dimensions.size(); d++) {
+			final List<AxisGenerator> gens = dimensions.get(d).getGenerators();
+			generatorRepeats[d]   = new long[gens.size()];
+			generatorSlots[d]     = new int[gens.size()][];
+			generatorPositions[d] = new double[gens.size()][][];
+			repeat = dimensions.get(d).getMaxLength();
+			for (int g = 0; g < gens.size(); g++) {
+				repeat /= gens.get(g).getSize();
+				generatorRepeats[d][g] = repeat;
+				generatorSlots[d][g]   = gens.get(g).getAxes().stream().mapToInt(axis -> axes.indexOf(axis)).toArray();
+				generatorPositions[d][g] = gens.get(g).getPositions();
+			}
+		}
+
+		final List<Collection<String>> names = new ArrayList<>(dimensions.size());
+		final Map<String, Integer> locations = new HashMap<>();
+		for (int i = 0; i < dimensions.size(); i++) {
+			names.add(Collections.unmodifiableList(dimensions.get(i).getAxes()));
+			for (String axis : dimensions.get(i).getAxes()) locations.put(axis, i);
+		}
+
+		this.dimensions       = dimensions;
+		this.dimensionRepeats = repeats;
+		this.generatorRepeats = generatorRepeats;
+		this.generatorSlots   = generatorSlots;
+		this.generatorPositions = generatorPositions;
+		this.size             = (int)size;
+		this.shape            = shape;
+		this.dimensionNames   = Collections.unmodifiableList(names);
+		this.indexLocations   = locations;
+	}
+
+	private static boolean isSingleLine(AxisGenerator gen) {
+		return gen instanceof LineAxisGenerator && gen.getAxes().size()==1;
+	}
+
+	/**
+	 * A line which contains only the points of the given line
+	 * between start and start+length.
+	 */
+	private static AxisGenerator restrict(AxisGenerator line, double start, double length) {
+		final String   axis      = line.getAxes().get(0);
+		final double[] positions = line.getPositions(axis);
+		final double[] valid     = new double[positions.length];
+		int count = 0;
+		for (double pos : positions) {
+			if (pos <= length + start && pos >= start) valid[count++] = pos;
+		}
+		if (count == 0) throw new IllegalArgumentException("Regions would exclude entire scan");
+		return new LineAxisGenerator(axis, valid[0], valid[count-1], count, line.isAlternate());
+	}
+
+	private static AxisGenerator getGenerator(List<AxisGenerator> generators, String axis) {
+		for (AxisGenerator g : generators) if (g.getAxes().contains(axis)) return g;
+		throw new IllegalArgumentException("There is no generator for the axis '"+axis+"'");
+	}
+
+	private static Dimension getDimension(List<Dimension> dimensions, String axis) {
+		for (Dimension d : dimensions) if (d.getAxes().contains(axis)) return d;
+		throw new IllegalArgumentException("There is no dimension for the axis '"+axis+"'");
+	}
+
+	/**
+	 * Calculates a point of the scan.
+	 *
+	 * @param n the index of the point, from 0 to size()-1
+	 * @param positions filled with the position of each axis in the order of {@link #getAxes()}
+	 * @param indexes filled with the index of the point in each dimension
+	 */
+	public void getPoint(int n, double[] positions, int[] indexes) {
+		if (n < 0 || n >= size) throw new IndexOutOfBoundsException("Requested point "+n+" is out of range");
+
+		// We need to know how far along each dimension we are and, for
+		// alternating dimensions, how many times we have run through them.
+		// Only whether that is odd or even is used so only that is kept.
+		int kc = 0;
+		for (int d = 0; d < dimensions.size(); d++) {
+			final Dimension dim = dimensions.get(d);
+			int i = (int)((n / dimensionRepeats[d]) % dim.getSize());
+			long k = dim.getIndex(i);
+			if (dim.isAlternate() && kc == 1) i = dim.getSize() - i - 1;
+			kc = (int)((kc * dim.getSize() + k) & 1);
+			k = dim.getIndex(i);
+			indexes[d] = i;
+
+			final List<AxisGenerator> gens = dim.getGenerators();
+			for (int g = 0; g < gens.size(); g++) {
+				final AxisGenerator gen = gens.get(g);
+				long j = k / generatorRepeats[d][g];
+				final long r = j / gen.getSize();
+				j %= gen.getSize();
+				// The outer generator's direction is handled by the reversed points being appended.
+				if (dim.isAlternate() && g > 0 && r % 2 == 1) j = gen.getSize() - j - 1;
+
+				final double[][] pos   = generatorPositions[d][g];
+				final int[]      slots = generatorSlots[d][g];
+				for (int a = 0; a < slots.length; a++) positions[slots[a]] = pos[a][(int)j];
+			}
+		}
+		for (PointMutator m : mutators) m.mutate(n, axes, positions);
+	}
+
+	/**
+	 * @return the number of points in the scan.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public int[] getShape() {
+		return shape.clone();
+	}
+
+	public int getRank() {
+		return shape.length;
+	}
+
+	/**
+	 * @return the axes of the generators, outer to inner.
+	 */
+	public List<String> getAxes() {
+		return axes;
+	}
+
+	/**
+	 * @return the axes of each dimension of the scan.
+	 */
+	public List<Collection<String>> getDimensionNames() {
+		return dimensionNames;
+	}
+
+	/**
+	 *
+	 * @param axis
+	 * @return the dimension of the scan which the axis is in.
+	 */
+	public int getDimension(String axis) {
+		return indexLocations.get(axis);
+	}
+
+	public List<AxisGenerator> getGenerators() {
+		return generators;
+	}
+
+	public List<Excluder> getExcluders() {
+		return excluders;
+	}
+
+	public List<PointMutator> getMutators() {
+		return mutators;
+	}
+
+	@Override
+	public String toString() {
+		return "CompoundEngine [generators=" + generators + ", excluders=" + excluders + ", mutators=" + mutators + ", size=" + size + "]";
+	}
+}
@@ -0,0 +1,232 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An unrolled set of generators joined by excluders, a single
+ * dimension of the scan. This is the scanpointgenerator Dimension
+ * except that the masks are not expanded to the length of the
+ * dimension until prepare() is called, and not at all if there
+ * are no excluders.
+ *
+ * @author Matthew Gerring
+ *
+ */
+class Dimension {
+
+	/**
+	 * A mask of the points of some generators of the dimension.
+	 * Each element is repeated by repeat and then the whole
+	 * mask is tiled by tile, which may end in .5 for an alternating
+	 * dimension, meaning that the first half is added on the end.
+	 */
+	private static final class Mask {
+		final long      repeat;
+		final double    tile;
+		final boolean[] mask;
+		Mask(long repeat, double tile, boolean[] mask) {
+			this.repeat = repeat;
+			this.tile   = tile;
+			this.mask   = mask;
+		}
+	}
+
+	private final List<AxisGenerator> generators;
+	private final List<String>        axes;
+	private final boolean             alternate;
+	private final long                maxLength;
+	private final List<Mask>          masks;
+
+	private int[] indices; // null if every point is included
+	private int   size = -1;
+
+	Dimension(AxisGenerator generator) {
+		this(Arrays.asList(generator), generator.getAxes(), generator.isAlternate(), generator.getSize(), new ArrayList<>());
+	}
+
+	private Dimension(List<AxisGenerator> generators, List<String> axes, boolean alternate, long maxLength, List<Mask> masks) {
+		this.generators = generators;
+		this.axes       = axes;
+		this.alternate  = alternate;
+		this.maxLength  = maxLength;
+		this.masks      = masks;
+	}
+
+	/**
+	 * Collapse two dimensions into one, scaling the masks of each.
+	 * Masks in the inner dimension are tiled by the length of the outer
+	 * dimension and those of the outer repeated by the length of the inner.
+	 *
+	 * @param outer
+	 * @param inner
+	 * @return
+	 */
+	static Dimension merge(Dimension outer, Dimension inner) {
+		final List<Mask> merged = new ArrayList<>(outer.masks.size()+inner.masks.size());
+		for (Mask m : outer.masks) merged.add(new Mask(m.repeat*inner.maxLength, m.tile, m.mask));
+		for (Mask m : inner.masks) merged.add(new Mask(m.repeat, m.tile*outer.maxLength, m.mask));
+
+		final List<AxisGenerator> generators = new ArrayList<>(outer.generators);
+		generators.addAll(inner.generators);
+		final List<String> axes = new ArrayList<>(outer.axes);
+		axes.addAll(inner.axes);
+		return new Dimension(generators, axes, outer.alternate || inner.alternate, outer.maxLength*inner.maxLength, merged);
+	}
+
+	/**
+	 * Apply an excluder with axes matching some axes in the
+	 * dimension to produce an internal mask.
+	 *
+	 * @param excluder
+	 */
+	void applyExcluder(Excluder excluder) {
+		if (size > -1) throw new IllegalStateException("Can not apply excluders after prepare has been called");
+
+		String axisInner = excluder.getAxes().get(0);
+		String axisOuter = excluder.getAxes().get(1);
+		AxisGenerator genInner = getGenerator(axisInner);
+		AxisGenerator genOuter = getGenerator(axisOuter);
+		double[] x = genInner.getPositions(axisInner);
+		double[] y = genOuter.getPositions(axisOuter);
+		if (generators.indexOf(genInner) > generators.indexOf(genOuter)) {
+			AxisGenerator gen = genInner; genInner = genOuter; genOuter = gen;
+			String axis = axisInner; axisInner = axisOuter; axisOuter = axis;
+			double[] tmp = x; x = y; y = tmp;
+		}
+
+		if (genInner == genOuter && alternate) {
+			x = appendReversed(x);
+			y = appendReversed(y);
+		} else if (alternate) {
+			x = repeat(appendReversed(x), genOuter.getSize());
+			y = tile(appendReversed(y), genInner.getSize());
+		} else if (genInner != genOuter) {
+			x = repeat(x, genOuter.getSize());
+			y = tile(y, genInner.getSize());
+		}
+
+		final boolean[] mask = axisInner.equals(excluder.getAxes().get(0))
+				             ? excluder.createMask(x, y)
+				             : excluder.createMask(y, x);
+
+		double  tile   = alternate ? 0.5 : 1;
+		long    repeat = 1;
+		boolean found  = false;
+		for (AxisGenerator g : generators) {
+			if (g.getAxes().contains(axisInner) || g.getAxes().contains(axisOuter)) {
+				found = true;
+			} else if (found) {
+				repeat *= g.getSize();
+			} else {
+				tile *= g.getSize();
+			}
+		}
+		masks.add(new Mask(repeat, tile, mask));
+	}
+
+	/**
+	 * Combine the masks into the indices of the points of the
+	 * dimension which are included.
+	 */
+	void prepare() {
+		if (size > -1) return;
+		if (masks.isEmpty()) {
+			if (maxLength > Integer.MAX_VALUE) throw new IllegalArgumentException("The dimension "+axes+" has more than "+Integer.MAX_VALUE+" points");
+			size = (int)maxLength;
+			return;
+		}
+		if (maxLength > Integer.MAX_VALUE) throw new IllegalArgumentException("The dimension "+axes+" is too large to apply regions to");
+
+		final int length = (int)maxLength;
+		final boolean[] mask = new boolean[length];
+		Arrays.fill(mask, true);
+		for (Mask m : masks) {
+			final long expanded = m.mask.length * m.repeat;
+			if (expanded * m.tile != length) throw new IllegalStateException("Mask lengths are not consistent");
+			// Each tile, including a trailing half tile, starts again at the start of the mask.
+			for (int p = 0; p < length; p++) {
+				mask[p] &= m.mask[(int)((p % expanded) / m.repeat)];
+			}
+		}
+
+		int count = 0;
+		for (boolean b : mask) if (b) count++;
+		indices = new int[count];
+		for (int p = 0, i = 0; p < length; p++) if (mask[p]) indices[i++] = p;
+		size = count;
+	}
+
+	/**
+	 *
+	 * @param i
+	 * @return the index of the point before the mask was applied
+	 */
+	int getIndex(int i) {
+		return indices == null ? i : indices[i];
+	}
+
+	private AxisGenerator getGenerator(String axis) {
+		for (AxisGenerator g : generators) if (g.getAxes().contains(axis)) return g;
+		throw new IllegalArgumentException("There is no generator for the axis '"+axis+"'");
+	}
+
+	private static double[] appendReversed(double[] points) {
+		final double[] ret = Arrays.copyOf(points, points.length*2);
+		for (int i = 0; i < points.length; i++) ret[ret.length-1-i] = points[i];
+		return ret;
+	}
+
+	private static double[] repeat(double[] points, int repeat) {
+		final double[] ret = new double[points.length*repeat];
+		for (int i = 0; i < ret.length; i++) ret[i] = points[i/repeat];
+		return ret;
+	}
+
+	private static double[] tile(double[] points, int tile) {
+		final double[] ret = new double[points.length*tile];
+		for (int i = 0; i < ret.length; i++) ret[i] = points[i%points.length];
+		return ret;
+	}
+
+	List<AxisGenerator> getGenerators() {
+		return generators;
+	}
+
+	List<String> getAxes() {
+		return axes;
+	}
+
+	boolean isAlternate() {
+		return alternate;
+	}
+
+	long getMaxLength() {
+		return maxLength;
+	}
+
+	/**
+	 *
+	 * @return the number of points after the masks are applied, valid after prepare()
+	 */
+	int getSize() {
+		return size;
+	}
+
+	@Override
+	public String toString() {
+		return "Dimension [axes=" + axes + ", alternate=" + alternate + ", size=" + size + "]";
+	}
+}
@@ -0,0 +1,81 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Excludes the points of two axes which are outside all of
+ * the regions, the same as the scanpointgenerator ROIExcluder.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class Excluder {
+
+	private final List<Region> regions;
+	private final List<String> axes;
+
+	/**
+	 *
+	 * @param regions points inside any of these are kept
+	 * @param axes the x and y axes of the regions
+	 */
+	public Excluder(List<Region> regions, List<String> axes) {
+		if (axes.size()!=2) throw new IllegalArgumentException("An excluder must have two axes, not "+axes);
+		this.regions = Collections.unmodifiableList(regions);
+		this.axes    = Collections.unmodifiableList(axes);
+	}
+
+	/**
+	 *
+	 * @param x
+	 * @param y
+	 * @return the union of the masks of the regions
+	 */
+	boolean[] createMask(double[] x, double[] y) {
+		if (x.length != y.length) throw new IllegalArgumentException("Points lengths must be equal");
+		final boolean[] mask = new boolean[x.length];
+		for (Region region : regions) {
+			final boolean[] rmask = region.mask(x, y);
+			for (int i = 0; i < mask.length; i++) mask[i] |= rmask[i];
+		}
+		return mask;
+	}
+
+	public List<Region> getRegions() {
+		return regions;
+	}
+
+	public List<String> getAxes() {
+		return axes;
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * regions.hashCode() + axes.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null || getClass() != obj.getClass()) return false;
+		Excluder other = (Excluder) obj;
+		return regions.equals(other.regions) && axes.equals(other.axes);
+	}
+
+	@Override
+	public String toString() {
+		return "Excluder [regions=" + regions + ", axes=" + axes + "]";
+	}
+}
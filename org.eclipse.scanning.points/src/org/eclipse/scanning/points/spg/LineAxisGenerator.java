@@ -0,0 +1,53 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.List;
+
+/**
+ * Equally spaced points along a line of one or more axes,
+ * the same as the scanpointgenerator LineGenerator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class LineAxisGenerator extends AxisGenerator {
+
+	private final double[] start;
+	private final double[] stop;
+
+	public LineAxisGenerator(String axis, double start, double stop, int size, boolean alternate) {
+		super(axis, size, alternate);
+		this.start = new double[]{start};
+		this.stop  = new double[]{stop};
+	}
+
+	public LineAxisGenerator(List<String> axes, double[] start, double[] stop, int size) {
+		super(axes, size, false);
+		if (axes.size()!=start.length || axes.size()!=stop.length) {
+			throw new IllegalArgumentException("Dimensions of axes, start and stop do not match");
+		}
+		this.start = start;
+		this.stop  = stop;
+	}
+
+	@Override
+	protected double[][] createPositions() {
+		final double[][] ret = new double[start.length][getSize()];
+		for (int axis = 0; axis < start.length; axis++) {
+			double step = stop[axis] - start[axis];
+			if (getSize() > 1) step /= (getSize() - 1); // If size is 1 it is a single point.
+			for (int i = 0; i < getSize(); i++) ret[axis][i] = (i * step) + start[axis];
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,60 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.List;
+
+/**
+ * The points of a Lissajous curve, the same as the
+ * scanpointgenerator LissajousGenerator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class LissajousAxisGenerator extends AxisGenerator {
+
+	private final double[] centre;
+	private final double   xMax, yMax;
+	private final int      xFreq, yFreq;
+	private final double   phaseDiff;
+
+	/**
+	 *
+	 * @param axes the x and y axes
+	 * @param centre of the curve
+	 * @param span the width and height of the curve
+	 * @param lobes the number of x lobes, there are lobes+1 y lobes
+	 * @param size the number of points
+	 */
+	public LissajousAxisGenerator(List<String> axes, double[] centre, double[] span, int lobes, int size) {
+		super(axes, size, false);
+		this.centre    = centre;
+		this.xFreq     = lobes;
+		this.yFreq     = lobes + 1;
+		this.xMax      = span[0]/2;
+		this.yMax      = span[1]/2;
+		// Phase is 0 for even lobes and pi/2 for odd lobes
+		this.phaseDiff = Math.PI/2 * (lobes % 2);
+	}
+
+	@Override
+	protected double[][] createPositions() {
+		final double[] x = new double[getSize()];
+		final double[] y = new double[getSize()];
+		final int size = getSize();
+		for (int t = 0; t < size; t++) {
+			x[t] = centre[0] + xMax * Math.sin(xFreq * 2*Math.PI * t/size + phaseDiff);
+			y[t] = centre[1] + yMax * Math.sin(yFreq * 2*Math.PI * t/size);
+		}
+		return new double[][]{x, y};
+	}
+}
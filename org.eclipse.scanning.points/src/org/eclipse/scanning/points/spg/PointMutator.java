@@ -0,0 +1,33 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.List;
+
+/**
+ * A mutator which may be applied to the points of a {@link CompoundEngine},
+ * the Java equivalent of a scanpointgenerator Mutator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public interface PointMutator {
+
+	/**
+	 * Changes the positions of a point in place.
+	 *
+	 * @param index the index of the point in the scan
+	 * @param axes the name of each position
+	 * @param positions the positions of the point, one for each axis
+	 */
+	void mutate(int index, List<String> axes, double[] positions);
+}
@@ -0,0 +1,255 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.Arrays;
+
+/**
+ * A region of interest which masks points, the same as the rois of
+ * scanpointgenerator. Use the static methods to create one.
+ * <p>
+ * The masks are calculated with the same arithmetic as the python
+ * mask_points() methods so that a point on the edge of a region
+ * is included or excluded in the same way.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public abstract class Region {
+
+	private static final double TWO_PI = 2*Math.PI;
+
+	private final double[] parameters; // Used to compare regions
+
+	private Region(double... parameters) {
+		this.parameters = parameters;
+	}
+
+	/**
+	 *
+	 * @param x
+	 * @param y
+	 * @return true for the points which are inside the region.
+	 */
+	public abstract boolean[] mask(double[] x, double[] y);
+
+	public static Region circle(double[] centre, double radius) {
+		if (radius == 0.0) throw new IllegalArgumentException("Circle must have some size");
+		return new Region(centre[0], centre[1], radius) {
+			@Override
+			public boolean[] mask(double[] px, double[] py) {
+				final boolean[] ret = new boolean[px.length];
+				final double r2 = radius * radius;
+				for (int i = 0; i < ret.length; i++) {
+					double x = px[i] - centre[0];
+					double y = py[i] - centre[1];
+					x *= x;
+					y *= y;
+					x += y;
+					ret[i] = x <= r2;
+				}
+				return ret;
+			}
+		};
+	}
+
+	public static Region ellipse(double[] centre, double[] semiaxes, double angle) {
+		if (semiaxes[0] <= 0.0 || semiaxes[1] <= 0.0) throw new IllegalArgumentException("Ellipse semi-axes must be greater than zero");
+		return new Region(centre[0], centre[1], semiaxes[0], semiaxes[1], angle) {
+			@Override
+			public boolean[] mask(double[] px, double[] py) {
+				final boolean[] ret = new boolean[px.length];
+				final double rx2 = semiaxes[0] * semiaxes[0];
+				final double ry2 = semiaxes[1] * semiaxes[1];
+				final double cos = Math.cos(-angle), sin = Math.sin(-angle);
+				for (int i = 0; i < ret.length; i++) {
+					double x = px[i] - centre[0];
+					double y = py[i] - centre[1];
+					if (angle != 0) {
+						final double tx = x * cos - y * sin;
+						final double ty = x * sin + y * cos;
+						x = tx;
+						y = ty;
+					}
+					x *= x;
+					x /= rx2;
+					y *= y;
+					y /= ry2;
+					x += y;
+					ret[i] = x <= 1;
+				}
+				return ret;
+			}
+		};
+	}
+
+	public static Region point(double[] point) {
+		return new Region(point[0], point[1]) {
+			@Override
+			public boolean[] mask(double[] px, double[] py) {
+				final boolean[] ret = new boolean[px.length];
+				for (int i = 0; i < ret.length; i++) {
+					double x = px[i] - point[0];
+					double y = py[i] - point[1];
+					x *= x;
+					y *= y;
+					x += y;
+					ret[i] = x <= 0;
+				}
+				return ret;
+			}
+		};
+	}
+
+	public static Region polygon(double[] xPoints, double[] yPoints) {
+		if (xPoints.length != yPoints.length) throw new IllegalArgumentException("Point arrays must be the same size");
+		if (xPoints.length < 3) throw new IllegalArgumentException("Polygon requires at least 3 vertices");
+		final double[] params = Arrays.copyOf(xPoints, xPoints.length*2);
+		System.arraycopy(yPoints, 0, params, xPoints.length, yPoints.length);
+		return new Region(params) {
+			@Override
+			public boolean[] mask(double[] x, double[] y) {
+				// Ray casting, each edge crossed to the right of the point toggles it.
+				final boolean[] ret = new boolean[x.length];
+				double v1x = xPoints[xPoints.length-1], v1y = yPoints[yPoints.length-1];
+				for (int v = 0; v < xPoints.length; v++) {
+					final double v2x = xPoints[v], v2y = yPoints[v];
+					if (v2y != v1y) { // skip horizontal edges
+						for (int i = 0; i < ret.length; i++) {
+							boolean crosses = (y[i] < v2y && y[i] >= v1y) | (y[i] < v1y && y[i] >= v2y);
+							final double t = (y[i] - v1y) / (v2y - v1y);
+							crosses &= x[i] < v1x + t * (v2x - v1x);
+							ret[i] ^= crosses;
+						}
+					}
+					v1x = v2x;
+					v1y = v2y;
+				}
+				return ret;
+			}
+		};
+	}
+
+	public static Region rectangle(double[] start, double width, double height, double angle) {
+		if (width == 0.0 || height == 0.0) throw new IllegalArgumentException("Rectangle must have some size");
+		return new Rectangle(start, width, height, angle);
+	}
+
+	public static Region sector(double[] centre, double[] radii, double[] angles) {
+		if (radii[0] < 0 || radii[1] < radii[0] || radii[1] <= 0.0) throw new IllegalArgumentException("Sector size is invalid");
+		final double[] constrained = constrainAngles(angles[0], angles[1]);
+		return new Region(centre[0], centre[1], radii[0], radii[1], constrained[0], constrained[1]) {
+			@Override
+			public boolean[] mask(double[] px, double[] py) {
+				final boolean[] ret = new boolean[px.length];
+				final double phi0 = constrained[0], phi1 = constrained[1];
+				final double phis = phi1 - phi0;
+				for (int i = 0; i < ret.length; i++) {
+					final double x  = px[i] - centre[0];
+					final double y  = py[i] - centre[1];
+					final double r2 = (x*x) + (y*y);
+					double phix = floorRemainder(TWO_PI + Math.atan2(y, x), TWO_PI);
+					phix -= phi0 + TWO_PI;
+					phix = floorRemainder(phix, TWO_PI);
+					// The python compares the square of the radius to the radii.
+					// That is kept so that the same points are excluded.
+					ret[i] = r2 <= radii[1] && r2 >= radii[0] && phix <= phis;
+				}
+				return ret;
+			}
+		};
+	}
+
+	/**
+	 * Constrains the angles so that angles[0] < angles[1],
+	 * angles[0] in [0, 2pi) and angles[1] <= angles[0] + 2pi
+	 */
+	private static double[] constrainAngles(double a1, double a2) {
+		if (a2 < a1) {
+			a2 += TWO_PI;
+			if (a2 < a1) return new double[]{0, TWO_PI}; // The full circle
+		}
+		final double diff = a2 - a1;
+		if (diff >= TWO_PI) return new double[]{0, TWO_PI};
+		a1 = modulo(a1 + TWO_PI, TWO_PI);
+		return new double[]{a1, a1+diff};
+	}
+
+	/**
+	 * The python modulo of two floats, the remainder has the sign of the divisor.
+	 */
+	private static double modulo(double a, double b) {
+		final double z = a % b;
+		if (z == 0.0) return Math.copySign(z, b);
+		return (z < 0) != (b < 0) ? z + b : z;
+	}
+
+	/**
+	 * The remainder with the sign of the divisor, as the
+	 * python numpy modulo of an array is calculated.
+	 */
+	private static double floorRemainder(double a, double b) {
+		return a - Math.floor(a / b) * b;
+	}
+
+	/**
+	 * Rectangles are also used to restrict a grid without masking it.
+	 */
+	static final class Rectangle extends Region {
+
+		final double[] start;
+		final double   width, height, angle;
+
+		private Rectangle(double[] start, double width, double height, double angle) {
+			super(start[0], start[1], width, height, angle);
+			this.start  = start;
+			this.width  = width;
+			this.height = height;
+			this.angle  = angle;
+		}
+
+		@Override
+		public boolean[] mask(double[] px, double[] py) {
+			final boolean[] ret = new boolean[px.length];
+			final double cos = Math.cos(-angle), sin = Math.sin(-angle);
+			for (int i = 0; i < ret.length; i++) {
+				double x = px[i] - start[0];
+				double y = py[i] - start[1];
+				if (angle != 0) {
+					final double rx = x * cos - y * sin;
+					final double ry = x * sin + y * cos;
+					x = rx;
+					y = ry;
+				}
+				ret[i] = x >= 0 && x <= width && y >= 0 && y <= height;
+			}
+			return ret;
+		}
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * getClass().hashCode() + Arrays.hashCode(parameters);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (obj == null || getClass() != obj.getClass()) return false;
+		return Arrays.equals(parameters, ((Region) obj).parameters);
+	}
+
+	@Override
+	public String toString() {
+		return "Region " + Arrays.toString(parameters);
+	}
+}
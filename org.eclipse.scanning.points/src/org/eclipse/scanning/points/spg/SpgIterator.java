@@ -0,0 +1,134 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.eclipse.scanning.api.points.ArrayPosition;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.PositionSchema;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
+
+/**
+ * Iterates the points of a {@link CompoundEngine}, creating positions
+ * equal to those the jython_spg_interface wrappers create. They are
+ * {@link ArrayPosition}s which share one schema, so a point costs its
+ * two arrays rather than maps of the names.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SpgIterator implements SeekableScanPointIterator {
+
+	private final CompoundEngine engine;
+	private final boolean        compound;
+	private final List<String>   axes;
+	private final int[]          locations;
+	private final PositionSchema schema;
+	private final int[]          slots; // The axis held in each value of the position
+
+	private int index;
+
+	/**
+	 *
+	 * @param engine
+	 * @param compound true to create positions with dimension names like a
+	 *        JCompoundGenerator, false for a single generator like a JLineGenerator1D
+	 */
+	public SpgIterator(CompoundEngine engine, boolean compound) {
+		this.engine    = engine;
+		this.compound  = compound;
+		this.axes      = engine.getAxes();
+		this.locations = axes.stream().mapToInt(axis -> engine.getDimension(axis)).toArray();
+
+		// The names and dimensions are those of the Scalar, Point or MapPosition made by Jython.
+		if (axes.size()==1) {
+			this.schema = PositionSchema.of(axes.get(0));
+			this.slots  = new int[]{0};
+		} else if (!compound) {
+			final List<String> names = Arrays.asList(axes.get(1), axes.get(0));
+			this.schema = PositionSchema.of(names, Arrays.<Collection<String>>asList(names));
+			this.slots  = new int[]{1, 0};
+		} else {
+			this.schema = PositionSchema.of(axes, engine.getDimensionNames());
+			this.slots  = new int[axes.size()];
+			for (int i = 0; i < slots.length; i++) slots[i] = i;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		return index < engine.size();
+	}
+
+	@Override
+	public IPosition next() {
+		if (!hasNext()) throw new NoSuchElementException("There are only "+engine.size()+" points");
+
+		final double[] positions = new double[axes.size()];
+		final int[]    indexes   = new int[engine.getRank()];
+		engine.getPoint(index, positions, indexes);
+		index++;
+
+		final double[] values = new double[slots.length];
+		final int[]    inds   = new int[slots.length];
+		for (int i = 0; i < slots.length; i++) {
+			values[i] = positions[slots[i]];
+			inds[i]   = compound ? indexes[locations[slots[i]]] : indexes[0];
+		}
+		final ArrayPosition pos = new ArrayPosition(schema, values, inds);
+		if (axes.size() == 1) pos.setStepIndex(indexes[0]); // As a Scalar does
+		return pos;
+	}
+
+	/**
+	 * Points are calculated from their index so seeking is constant time.
+	 */
+	@Override
+	public void seek(int index) {
+		if (index < 0 || index > engine.size()) throw new IndexOutOfBoundsException("Cannot seek to "+index+", there are "+engine.size()+" points");
+		this.index = index;
+	}
+
+	@Override
+	public int nextIndex() {
+		return index;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("remove");
+	}
+
+	@Override
+	public int size() {
+		return engine.size();
+	}
+
+	@Override
+	public int[] getShape() {
+		return engine.getShape();
+	}
+
+	@Override
+	public int getRank() {
+		return engine.getRank();
+	}
+
+	@Override
+	public String toString() {
+		return "SpgIterator [engine=" + engine + ", compound=" + compound + ", index=" + index + "]";
+	}
+}
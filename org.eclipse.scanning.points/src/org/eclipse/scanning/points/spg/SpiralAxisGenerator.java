@@ -0,0 +1,52 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.points.spg;
+
+import java.util.List;
+
+/**
+ * The points of an Archimedean spiral, the same as
+ * the scanpointgenerator SpiralGenerator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SpiralAxisGenerator extends AxisGenerator {
+
+	private final double[] centre;
+	private final double   alpha;
+	private final double   beta;
+
+	public SpiralAxisGenerator(List<String> axes, double[] centre, double radius, double scale) {
+		this(axes, centre, radius, scale, Math.sqrt(4 * Math.PI), scale / (2 * Math.PI));
+	}
+
+	private SpiralAxisGenerator(List<String> axes, double[] centre, double radius, double scale, double alpha, double beta) {
+		// spiral equation : r = b * phi, parameterised as phi(t) = k * sqrt(t)
+		super(axes, (int)Math.pow(radius / (alpha * beta), 2) + 1, false);
+		this.centre = centre;
+		this.alpha  = alpha;
+		this.beta   = beta;
+	}
+
+	@Override
+	protected double[][] createPositions() {
+		final double[] x = new double[getSize()];
+		final double[] y = new double[getSize()];
+		for (int i = 0; i < getSize(); i++) {
+			final double phi = alpha * Math.sqrt(i + 0.5);
+			x[i] = centre[0] + beta * phi * Math.sin(phi);
+			y[i] = centre[1] + beta * phi * Math.cos(phi);
+		}
+		return new double[][]{x, y};
+	}
+}
@@ -183,7 +183,10 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		if (model.getDetectors()!=null) {
 			runners = new DeviceRunner(model.getDetectors());
 			if (nexusScanFileManager.isNexusWritingEnabled()) {
-				writers = new DeviceWriter(model.getDetectors());
+				int depth = WriteBehindRunner.getDepth();
+				writers = depth>1
+						? new WriteBehindRunner(new DeviceWriter(model.getDetectors()), depth)
+						: new DeviceWriter(model.getDetectors());
 			} else {
 				writers = LevelRunner.createEmptyRunner();
 			}
@@ -337,8 +340,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 
 	        	exposureManager.setExposureTime(pos); // most of the time this does nothing.
 
-	        	IPosition written = writers.await();  // Wait for the previous write out to return, if any
-	       		if (written!=null) annotationManager.invoke(WriteComplete.class, written);
+	        	awaitWrites(false);                   // Wait for the previous write out to return, if any
 
  	        	runners.run(pos);                     // GDA8: collectData() / GDA9: run() for Malcolm
 	        	writers.run(pos, false);              // Do not block on the readout, move to the next position immediately.
@@ -351,8 +353,7 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 	        }
 
 	        // On the last iteration we must wait for the final readout.
-        	IPosition written = writers.await();          // Wait for the previous write out to return, if any
-       		annotationManager.invoke(WriteComplete.class, written);
+        	awaitWrites(true);                            // Wait for all the write outs to return
 
 
 		} catch (ScanningException | InterruptedException i) {
@@ -371,6 +372,24 @@ final class AcquisitionDevice extends AbstractRunnableDevice<ScanModel> implemen
 		}
 	}
 
+	/**
+	 * Waits for the previous write and notifies that it is complete. If
+	 * writes are queued behind the acquisition, this only blocks when the
+	 * queue is full and notifies each position written in order.
+	 *
+	 * @param all - true to wait for every outstanding write, for instance at the end of the scan.
+	 */
+	private void awaitWrites(boolean all) throws Exception {
+		if (writers instanceof WriteBehindRunner) {
+			WriteBehindRunner queue = (WriteBehindRunner)writers;
+			List<IPosition> written = all ? queue.drain() : queue.getCompleted();
+			for (IPosition pos : written) annotationManager.invoke(WriteComplete.class, pos);
+		} else {
+			IPosition written = writers.await();
+			if (written!=null || all) annotationManager.invoke(WriteComplete.class, written);
+		}
+	}
+
 	private void positionComplete(IPosition pos) throws EventException, ScanningException {
     	positionComplete(pos, location.getOuterCount(), location.getOuterSize());
 	}
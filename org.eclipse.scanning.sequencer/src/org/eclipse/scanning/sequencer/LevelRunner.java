@@ -31,6 +31,7 @@ import org.eclipse.scanning.api.INameable;
 import org.eclipse.scanning.api.annotation.scan.AnnotationManager;
 import org.eclipse.scanning.api.annotation.scan.LevelEnd;
 import org.eclipse.scanning.api.annotation.scan.LevelStart;
+import org.eclipse.scanning.api.points.ArrayPosition;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.MapPosition;
 import org.eclipse.scanning.api.scan.LevelInformation;
@@ -158,7 +159,7 @@ abstract class LevelRunner<L extends ILevel> {
 				    for (Future<IPosition> future : pos) {
 						if (!future.isDone()) throw new ScanningException("The timeout of "+timeout+"s has been reached waiting for level "+level+" objects "+toString(lobjects));
 					}
-				    pDelegate.fireLevelPerformed(level, lobjects, getPosition(loc, pos));
+				    if (pDelegate.isListened()) pDelegate.fireLevelPerformed(level, lobjects, getPosition(loc, pos));
 				}
 				managerMap.get(level).invoke(LevelEnd.class, loc, new LevelInformation(getLevelRole(), level, lobjects));
 			}
@@ -357,17 +358,28 @@ abstract class LevelRunner<L extends ILevel> {
 		return position;
 	}
 
+	/**
+	 * The positions reached at a level. ArrayPositions are compounded, which does not
+	 * copy them, if there are any other positions they are all copied into a MapPosition.
+	 */
 	private IPosition getPosition(IPosition position, List<Future<IPosition>> futures) throws InterruptedException, ExecutionException {
-		MapPosition ret = new MapPosition();
+		IPosition   arrays = null;
+		MapPosition ret    = null;
 	    for (Future<IPosition> future : futures) {
-	    	// Faster than using composite
 	    	IPosition pos = future.get();
 	    	if (pos==null) continue;
+	    	if (ret==null && pos instanceof ArrayPosition) {
+	    		arrays = arrays==null ? pos : pos.compound(arrays);
+	    		continue;
+	    	}
+	    	if (ret==null) {
+	    		ret = new MapPosition();
+	    		if (arrays!=null) ret.putAll(arrays);
+	    	}
 	    	ret.putAll(pos);
-	    	ret.putAllIndices(pos);
 		}
-	    if (ret.size()<1) return position;
-	    return ret;
+	    if (ret!=null && ret.size()>0) return ret;
+	    return arrays!=null ? arrays : position;
 	}
 
 	public static <T extends ILevel> LevelRunner<T> createEmptyRunner() {
@@ -9,6 +9,7 @@ import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
 import org.eclipse.scanning.api.points.models.CompoundModel;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.models.ScanModel;
@@ -137,6 +138,13 @@ public final class LocationManager {
 	public IPosition seek(int location, Iterator<IPosition> iterator) {
 		
 		stepNumber=0;
+		if (iterator instanceof SeekableScanPointIterator) {
+			try {
+				return seek(location, (SeekableScanPointIterator)iterator);
+			} catch (UnsupportedOperationException ne) {
+				// We run over the positions instead
+			}
+		}
 		/*
 		 * IMPORTANT We do not keep the positions in memory because there can be millions.
 		 * Running over them is fast however.
@@ -150,6 +158,28 @@ public final class LocationManager {
 		return null;
 	}
 
+	/**
+	 * Seek to the location without creating the positions before it.
+	 * @param location
+	 * @param iterator
+	 * @return null if position not found, in which case the iterator is at the end.
+	 */
+	private IPosition seek(int location, SeekableScanPointIterator iterator) {
+		final int step  = Math.max(innerSize, 1);
+		final int start = iterator.nextIndex();
+		final int index = start + location/step;
+		if (location < 0 || location % step != 0 || index >= iterator.size()) {
+			iterator.seek(iterator.size());
+			stepNumber = (iterator.size()-start)*step;
+			return null;
+		}
+		iterator.seek(index);
+		IPosition pos = iterator.next();
+		stepNumber = location;
+    	pos.setStepIndex(stepNumber);
+		return pos;
+	}
+
 	public boolean isInnerScan() {
 		return outerSize > 0 && innerSize > 0;
 	}
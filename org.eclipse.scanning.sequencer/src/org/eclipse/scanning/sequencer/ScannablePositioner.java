@@ -15,12 +15,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.points.ArrayPosition;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.PositionSchema;
 import org.eclipse.scanning.api.scan.LevelRole;
 import org.eclipse.scanning.api.scan.ScanningException;
 import org.eclipse.scanning.api.scan.event.IPositioner;
@@ -41,6 +45,9 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 	private List<IScannable<?>>         monitors;
 	private List<IScannable<?>>         scannables;
 
+	// The schema of the position reached by each scannable, so that it is looked up once rather than each move.
+	private final Map<String, PositionSchema> schemas = new ConcurrentHashMap<>(7);
+
 	ScannablePositioner(IScannableDeviceService service) {
 
 		setLevelCachingAllowed(false);
@@ -151,7 +158,7 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 			}
 			// achieved might not be equal to demand
 			if (achieved == null) achieved = scannable.getPosition();
-			return new MapPosition(scannable.getName(), position.getIndex(scannable.getName()), achieved);
+			return createPosition(scannable.getName(), position.getIndex(scannable.getName()), achieved);
 		}
 
 		@SuppressWarnings({ "rawtypes", "unchecked" })
@@ -184,6 +191,20 @@ final class ScannablePositioner extends LevelRunner<IScannable<?>> implements IP
 
 	}
 
+	/**
+	 * Doubles reached are held in an ArrayPosition of the scannable's schema, other
+	 * values in a MapPosition so that they are read back with the same type.
+	 */
+	private IPosition createPosition(String name, int index, Object achieved) {
+		if (!(achieved instanceof Double)) return new MapPosition(name, index, achieved);
+		PositionSchema schema = schemas.get(name);
+		if (schema==null) {
+			schema = PositionSchema.of(name);
+			schemas.put(name, schema);
+		}
+		return new ArrayPosition(schema, new double[]{(Double)achieved}, new int[]{index});
+	}
+
 	@Override
 	public List<IScannable<?>> getMonitors() {
 		return monitors;
@@ -0,0 +1,261 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.sequencer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.scan.LevelRole;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Queues up writes from a {@link DeviceWriter} so that more than one
+ * point may be written behind the acquisition.
+ *
+ * Writes are done point by point on a single background thread, so
+ * for a given detector point n is always written before point n+1.
+ * Within one point the detectors are written in parallel by level
+ * as the DeviceWriter normally does.
+ *
+ * At most depth points may be outstanding, after that run() blocks
+ * until a write has finished (backpressure). Positions which have
+ * been written are available in order from {@link #getCompleted()}
+ * so that the scan thread can notify WriteComplete as before.
+ *
+ * After an abort the writes which have not started are abandoned and
+ * any thread waiting for a slot is released, the runner may be used
+ * again once it has been reset.
+ *
+ * The depth is set using the system property
+ * "org.eclipse.scanning.sequencer.write.behind.depth", a depth of one
+ * or less means the DeviceWriter is used directly as it always was.
+ *
+ * @author Matthew Gerring
+ *
+ */
+final class WriteBehindRunner extends LevelRunner<IRunnableDevice<?>> {
+
+	private static Logger logger = LoggerFactory.getLogger(WriteBehindRunner.class);
+
+	private final DeviceWriter                     writer;
+	private final int                              depth;
+	private final Semaphore                        slots;
+	private final ConcurrentLinkedQueue<IPosition> completed;
+
+	private volatile ExecutorService   wservice;
+	private volatile ScanningException writeException;
+	private volatile boolean           aborted;
+
+	// Writes queued before an abort do not give back their slot, the slots are restored by reset().
+	private volatile int               generation;
+
+	WriteBehindRunner(DeviceWriter writer, int depth) {
+		if (depth<1) throw new IllegalArgumentException("The write behind depth must be at least one!");
+		this.writer    = writer;
+		this.depth     = depth;
+		this.slots     = new Semaphore(depth, true);
+		this.completed = new ConcurrentLinkedQueue<>();
+		setTimeout(writer.getTimeout(null));
+	}
+
+	/**
+	 * The write behind depth or 1 to use the writer directly.
+	 * @return
+	 */
+	static int getDepth() {
+		Integer depth = Integer.getInteger("org.eclipse.scanning.sequencer.write.behind.depth");
+		if (depth==null || depth<1) return 1;
+		return depth;
+	}
+
+	/**
+	 * Queues the write of this position. Blocks if there are already
+	 * depth writes outstanding until one of them has completed.
+	 *
+	 * The block flag is ignored, use {@link #drain()} to wait for all the
+	 * outstanding writes.
+	 */
+	@Override
+	protected boolean run(IPosition loc, boolean block) throws ScanningException, InterruptedException {
+
+		checkAborted();
+		checkWriteException();
+		this.position = loc;
+
+		if (!slots.tryAcquire(getTimeout(null), TimeUnit.SECONDS)) {
+			throw new ScanningException("The timeout of "+getTimeout(null)+"s has been reached waiting for one of "+depth+" queued writes, scan aborting. Please implement ITimeoutable to define how long your device needs to write.");
+		}
+		checkAborted();        // Might have been aborted while we were waiting, the slot is restored by reset().
+		checkWriteException(); // Might have failed while we were waiting.
+
+		synchronized (this) {
+			checkAborted(); // Do not start a new executor once aborted
+			if (wservice==null) this.wservice = Executors.newSingleThreadExecutor(r -> {
+				Thread thread = new Thread(r, "Write Behind Thread");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			final int queuedIn = generation;
+			wservice.submit(()-> {
+				try {
+					writer.run(loc, true);
+					completed.add(loc);
+				} catch (ScanningException ne) {
+					writeException = ne;
+				} catch (Exception ne) {
+					writeException = new ScanningException("Unable to write position "+loc, ne);
+				} finally {
+					if (queuedIn==generation) slots.release();
+				}
+			});
+		}
+		return true;
+	}
+
+	/**
+	 * The positions which have been written since the last time
+	 * this method was called in the order that they were run.
+	 *
+	 * @return positions written, never null
+	 * @throws ScanningException if one of the writes failed.
+	 */
+	List<IPosition> getCompleted() throws ScanningException {
+		checkWriteException();
+		List<IPosition> ret = new ArrayList<>(depth);
+		for (IPosition pos = completed.poll(); pos!=null; pos = completed.poll()) ret.add(pos);
+		return ret;
+	}
+
+	/**
+	 * Blocks until all the outstanding writes have completed.
+	 *
+	 * @return the positions written since the last call to getCompleted(), in order.
+	 * @throws InterruptedException
+	 * @throws ScanningException
+	 */
+	List<IPosition> drain() throws InterruptedException, ScanningException {
+
+		checkAborted();
+		long time = getTimeout(null);
+		// Each queued write may take the full timeout
+		long total = time>=Long.MAX_VALUE/depth ? Long.MAX_VALUE : time*depth;
+		if (!slots.tryAcquire(depth, total, TimeUnit.SECONDS)) {
+			throw new ScanningException("The timeout of "+total+"s has been reached waiting for "+depth+" queued writes, scan aborting. Please implement ITimeoutable to define how long your device needs to write.");
+		}
+		checkAborted();
+		slots.release(depth);
+		return getCompleted();
+	}
+
+	/**
+	 * Waits for the queued writes to finish.
+	 * @return the last position run.
+	 */
+	@Override
+	protected IPosition await(long time) throws InterruptedException, ScanningException {
+		drain();
+		return position;
+	}
+
+	private void checkWriteException() throws ScanningException {
+		if (writeException!=null) throw writeException;
+	}
+
+	private void checkAborted() throws ScanningException {
+		if (aborted) throw new ScanningException("The queued writes have been aborted");
+	}
+
+	@Override
+	public void abort() {
+		synchronized (this) {
+			aborted = true;
+			generation++;
+			if (wservice!=null) wservice.shutdownNow();
+		}
+		writer.abort();
+		completed.clear();
+		// Wake anything waiting for a slot, they see the abort and give up.
+		slots.release(depth+slots.getQueueLength());
+	}
+
+	/**
+	 * Drains the writes which have been queued, unless one of them has
+	 * failed or the runner has been aborted in which case the remaining
+	 * writes are abandoned.
+	 */
+	@Override
+	public void close() {
+		if (wservice==null) {
+			writer.close();
+			return;
+		}
+		try {
+			if (writeException!=null || aborted) {
+				wservice.shutdownNow();
+			} else {
+				wservice.shutdown();
+				long time = getTimeout(null);
+				wservice.awaitTermination(time>=Long.MAX_VALUE/depth ? Long.MAX_VALUE : time*depth, TimeUnit.SECONDS);
+			}
+		} catch (InterruptedException e) {
+			logger.debug("Unexpected forced termination of write behind queue", e);
+		} finally {
+			wservice = null;
+			writer.close();
+		}
+	}
+
+	@Override
+	public void reset() {
+		synchronized (this) {
+			if (aborted) {
+				// Writes queued before the abort no longer count against the slots.
+				slots.drainPermits();
+				slots.release(depth);
+				wservice = null; // Shut down by abort()
+				aborted  = false;
+			}
+		}
+		writeException = null;
+		completed.clear();
+		writer.reset();
+		super.reset();
+	}
+
+	@Override
+	protected Collection<IRunnableDevice<?>> getDevices() throws ScanningException {
+		return writer.getDevices();
+	}
+
+	@Override
+	protected Callable<IPosition> create(IRunnableDevice<?> levelObject, IPosition position) throws ScanningException {
+		return writer.create(levelObject, position);
+	}
+
+	@Override
+	protected LevelRole getLevelRole() {
+		return LevelRole.WRITE;
+	}
+
+}
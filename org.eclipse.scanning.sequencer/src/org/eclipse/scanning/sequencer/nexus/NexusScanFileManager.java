@@ -51,7 +51,9 @@ import org.eclipse.scanning.api.MonitorRole;
 import org.eclipse.scanning.api.device.AbstractRunnableDevice;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
 import org.eclipse.scanning.api.points.AbstractPosition;
+import org.eclipse.scanning.api.points.GeneratorException;
 import org.eclipse.scanning.api.points.IDeviceDependentIterable;
+import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.ScanPointIterator;
 import org.eclipse.scanning.api.scan.PositionEvent;
@@ -401,6 +403,12 @@ public class NexusScanFileManager implements INexusScanFileManager, IPositionLis
 		int scanRank = -1;
 		if (gen instanceof IDeviceDependentIterable) {
 			scanRank = ((IDeviceDependentIterable)gen).getScanRank();
+		} else if (gen instanceof IPointGenerator) {
+			try {
+				scanRank = ((IPointGenerator<?>)gen).getRank(); // Cached by model, no need to make an iterator
+			} catch (GeneratorException e) {
+				logger.warn("Cannot get the rank of the scan from the generator, using its points instead", e);
+			}
 		}
 		if (scanRank < 0) {
 			Iterator<IPosition> iter = gen.iterator();
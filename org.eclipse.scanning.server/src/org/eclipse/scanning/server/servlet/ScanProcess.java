@@ -39,6 +39,7 @@ import org.eclipse.scanning.api.event.core.IConsumerProcess;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.scan.DeviceInformation;
 import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
 import org.eclipse.scanning.api.event.scan.ScanRequest;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
@@ -80,6 +81,8 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 
 	private IDeviceController          controller;
 	private boolean                    blocking;
+	private String                     progressTopic;
+	private IPublisher<ScanProgressBean> progressPublisher;
 
 	public ScanProcess(ScanBean scanBean, IPublisher<ScanBean> response, boolean blocking) throws EventException {
 
@@ -172,13 +175,46 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 
 			if (ne instanceof EventException) throw (EventException)ne;
 			throw new EventException(ne);
+
+		} finally {
+			// A non-blocking scan disconnects its progress publisher when it finishes.
+			if (progressPublisher!=null) progressPublisher.disconnect();
 		}
 	}
 
+	/**
+	 * Disconnects the progress publisher once the device, which is
+	 * running in the background, has finished.
+	 *
+	 * @param device
+	 */
+	private void disconnectProgressWhenDone(final IRunnableDevice<?> device) {
+		final IPublisher<ScanProgressBean> publisher = progressPublisher;
+		if (publisher==null) return;
+		progressPublisher = null; // We no longer disconnect it when run() returns.
+
+		Thread waiter = new Thread(() -> {
+			try {
+				device.latch();
+			} catch (Exception ne) {
+				logger.debug("Cannot wait for "+device.getName()+" to finish", ne);
+			} finally {
+				try {
+					publisher.disconnect();
+				} catch (EventException ne) {
+					logger.warn("Cannot disconnect the progress publisher of "+device.getName(), ne);
+				}
+			}
+		}, "Progress publisher of "+device.getName());
+		waiter.setDaemon(true);
+		waiter.start();
+	}
+
 	private void executeNonBlocking(IDeviceController controller, ScanBean bean) throws ScanningException, InterruptedException, TimeoutException, ExecutionException {
 
 		logger.debug("Running non-blocking device {}", controller.getDevice().getName());
 		controller.getDevice().start(null);
+		disconnectProgressWhenDone(controller.getDevice());
 
 		long latchTime = Long.getLong("org.eclipse.scanning.server.servlet.asynchWaitTime", 500);
 		logger.debug("Latching on device {} for {}", controller.getDevice().getName(), latchTime);
@@ -348,10 +384,10 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 
 		try {
 			final ScanModel scanModel = new ScanModel();
-			IPointGenerator<?> generator = getGenerator(req);
+			IPointGenerator<?> generator = gen; // Already made for this request, its size and shape are known.
 			scanModel.setPositionIterable(generator);
 
-			ScanEstimator estimator = new ScanEstimator(Services.getGeneratorService(), bean.getScanRequest());
+			ScanEstimator estimator = new ScanEstimator(generator, req.getDetectors(), 0);
 			bean.setSize(estimator.getSize());
 			scanModel.setFilePath(bean.getFilePath());
 
@@ -369,6 +405,10 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 			configureDetectors(req.getDetectors(), scanModel, generator);
 
 			IPausableDevice<ScanModel> device = (IPausableDevice<ScanModel>) Services.getRunnableDeviceService().createRunnableDevice(scanModel, publisher, false);
+			if (progressTopic!=null && publisher!=null && device instanceof AbstractRunnableDevice) {
+				progressPublisher = Services.getEventService().createPublisher(publisher.getUri(), progressTopic);
+				((AbstractRunnableDevice<?>)device).setProgressPublisher(progressPublisher);
+			}
 			IDeviceController controller = Services.getWatchdogService().create(device);
 			if (controller.getObjects()!=null) scanModel.setAnnotationParticipants(controller.getObjects());
 
@@ -489,4 +529,18 @@ public class ScanProcess implements IConsumerProcess<ScanBean> {
 		return publisher;
 	}
 
+	public String getProgressTopic() {
+		return progressTopic;
+	}
+
+	/**
+	 * Set a topic to publish a ScanProgressBean on as points complete,
+	 * if null (the default) only the scan bean is published.
+	 *
+	 * @param progressTopic
+	 */
+	public void setProgressTopic(String progressTopic) {
+		this.progressTopic = progressTopic;
+	}
+
 }
\ No newline at end of file
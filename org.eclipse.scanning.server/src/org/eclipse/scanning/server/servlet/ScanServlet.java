@@ -35,6 +35,7 @@ import org.slf4j.LoggerFactory;
     {@literal    <property name="statusSet"   value="uk.ac.diamond.p45.statusSet"   />}
     {@literal    <property name="statusTopic" value="uk.ac.diamond.p45.statusTopic" />}
     {@literal    <property name="durable"     value="true" />}
+    {@literal    <property name="progressTopic" value="uk.ac.diamond.p45.progressTopic" />} (optional)
     {@literal </bean>}
      
     </pre>
@@ -49,6 +50,8 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 	
 	private static final Logger logger = LoggerFactory.getLogger(ScanServlet.class);
 	
+	private String progressTopic;
+
 	public ScanServlet() {
 		setPauseOnStart(true);
 	}
@@ -69,7 +72,23 @@ public class ScanServlet extends AbstractConsumerServlet<ScanBean> {
 		preprocess(scanBean);
 		debug("After processing bean (normally no change)", scanBean, response);		
 		
-		return new ScanProcess(scanBean, response, isBlocking());
+		ScanProcess process = new ScanProcess(scanBean, response, isBlocking());
+		process.setProgressTopic(progressTopic);
+		return process;
+	}
+
+	public String getProgressTopic() {
+		return progressTopic;
+	}
+
+	/**
+	 * Set the topic on which scans publish small progress events
+	 * as their points complete, null not to publish them.
+	 *
+	 * @param progressTopic
+	 */
+	public void setProgressTopic(String progressTopic) {
+		this.progressTopic = progressTopic;
 	}
 
 	private void debug(String message, ScanBean scanBean, IPublisher<ScanBean> response) {
@@ -15,16 +15,34 @@ import java.io.IOException;
 import java.net.DatagramSocket;
 import java.net.ServerSocket;
 import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.activemq.broker.BrokerService;
 import org.apache.activemq.usage.SystemUsage;
+import org.eclipse.scanning.connector.activemq.memory.MemoryBroker;
 
+/**
+ * Starts the broker for a test. Set org.eclipse.scanning.test.broker=memory to
+ * run the tests with a broker in memory, which is faster and uses no ports.
+ */
 public class BrokerDelegate {
 
+	private static final AtomicInteger memoryCount = new AtomicInteger();
+
 	private URI           uri;     
 	private BrokerService service;
 
+	public static boolean isMemory() {
+		return MemoryBroker.SCHEME.equals(System.getProperty("org.eclipse.scanning.test.broker"));
+	}
+
 	public void start() throws Exception {
+		if (isMemory()) {
+			uri = new URI(MemoryBroker.SCHEME+"://test-"+memoryCount.incrementAndGet()); // Each test uses a new broker.
+			System.setProperty("org.eclipse.scanning.broker.uri", uri.toString());
+			MemoryBroker.getBroker(uri);
+			return;
+		}
 		uri = createUri(); // Each test uses a new port if the port is running on another test.
 		System.setProperty("org.eclipse.scanning.broker.uri", uri.toString());
         service = new BrokerService();
@@ -40,6 +58,7 @@ public class BrokerDelegate {
 
 	public void stop() throws Exception {
 		
+		if (MemoryBroker.isMemory(uri)) MemoryBroker.stop(uri);
 		if (service!=null) {
 			service.stop();
 			service.waitUntilStopped();
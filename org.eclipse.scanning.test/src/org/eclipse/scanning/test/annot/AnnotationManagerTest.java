@@ -40,6 +40,7 @@ import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
 import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.Scalar;
 import org.eclipse.scanning.api.points.models.GridModel;
 import org.eclipse.scanning.api.scan.ScanInformation;
 import org.eclipse.scanning.example.scannable.MockScannableConnector;
@@ -171,6 +172,16 @@ public class AnnotationManagerTest {
 		assertTrue(firstPoint.equals(new Point(0, 10, 0, 20)));
 	}
 	
+	@Test
+	public void deepHierarchyInject() throws Exception {
+		
+		// IPosition is two levels up from this class
+		IPosition pos = new Scalar<Double>("x", 0, 10.0) {};
+		manager.invoke(PointStart.class, pos); 
+		assertEquals(1, edevice.getPositions().size());
+		assertTrue(edevice.getPositions().get(0)==pos);
+	}
+	
 	@Test
 	public void scanPointGeneratorInject() throws Exception {
 		
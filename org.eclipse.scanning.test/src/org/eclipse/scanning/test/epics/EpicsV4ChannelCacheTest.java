@@ -0,0 +1,178 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.epics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
+import org.eclipse.scanning.api.malcolm.event.IMalcolmListener;
+import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
+import org.eclipse.scanning.connector.epics.EpicsV4ChannelCache;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.eclipse.scanning.example.malcolm.EPICSv4ExampleModel;
+import org.eclipse.scanning.example.malcolm.IEPICSv4Device;
+import org.eclipse.scanning.malcolm.core.MalcolmService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the requests to a device share one channel, the example
+ * device is served by pvAccess in this process so no IOC is needed.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class EpicsV4ChannelCacheTest {
+
+	private static final int REQUESTS = 50;
+
+	private IEPICSv4Device epicsv4Device;
+
+	@Before
+	public void before() throws Exception {
+		epicsv4Device = new DeviceRunner().start();
+	}
+
+	@After
+	public void after() throws Exception {
+		if (epicsv4Device!=null) epicsv4Device.stop();
+		System.clearProperty("org.eclipse.scanning.connector.epics.channelIdleTime");
+	}
+
+	@Test
+	public void testRepeatedGetsShareChannel() throws Exception {
+
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		EpicsV4ChannelCache cache = connector.getChannelCache();
+		try (MalcolmService service = new MalcolmService(connector, null)) {
+			long time = getStates(service, REQUESTS);
+
+			System.out.println(REQUESTS+" gets with the cache took "+time+"ms, "+cache);
+			assertEquals(1, cache.getConnects());
+			assertTrue("Hits were "+cache.getHits(), cache.getHits()>=REQUESTS);
+			assertEquals(1, cache.size());
+		}
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testRepeatedGetsWithoutCache() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.connector.epics.channelIdleTime", "0");
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		EpicsV4ChannelCache cache = connector.getChannelCache();
+		try (MalcolmService service = new MalcolmService(connector, null)) {
+			long time = getStates(service, REQUESTS);
+
+			System.out.println(REQUESTS+" gets without the cache took "+time+"ms, "+cache);
+			assertTrue("Connects were "+cache.getConnects(), cache.getConnects()>=REQUESTS);
+			assertEquals(0, cache.getHits());
+			assertEquals(0, cache.size());
+		}
+	}
+
+	@Test
+	public void testIdleChannelExpires() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.connector.epics.channelIdleTime", "200");
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		EpicsV4ChannelCache cache = connector.getChannelCache();
+
+		// A device holds its channel for its monitors, so we use the cache directly.
+		cache.acquire(epicsv4Device.getRecordName(), 5.0).close();
+		cache.acquire(epicsv4Device.getRecordName(), 5.0).close();
+		assertEquals(1, cache.getConnects());
+		assertEquals(1, cache.getHits());
+		assertEquals(1, cache.size());
+
+		long start = System.currentTimeMillis();
+		while(cache.getExpired()<1 && System.currentTimeMillis()-start<5000) Thread.sleep(50);
+		assertEquals(1, cache.getExpired());
+		assertEquals(0, cache.size());
+
+		cache.acquire(epicsv4Device.getRecordName(), 5.0).close();
+		assertEquals(2, cache.getConnects());
+		connector.disconnect();
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testHeldChannelDoesNotExpire() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.connector.epics.channelIdleTime", "100");
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		EpicsV4ChannelCache cache = connector.getChannelCache();
+
+		try (EpicsV4ChannelCache.Lease lease = cache.acquire(epicsv4Device.getRecordName(), 5.0)) {
+			Thread.sleep(500);
+			assertEquals(0, cache.getExpired());
+			assertTrue(lease.isConnected());
+		} finally {
+			connector.disconnect();
+		}
+	}
+
+	@Test
+	public void testConnectionStateLeaseReleased() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.connector.epics.channelIdleTime", "100");
+		EpicsV4ConnectorService connector = new EpicsV4ConnectorService();
+		EpicsV4ChannelCache cache = connector.getChannelCache();
+
+		try (MalcolmService service = new MalcolmService(new EpicsV4ConnectorService(), null)) {
+			IMalcolmDevice<EPICSv4ExampleModel> device = service.getDevice(epicsv4Device.getRecordName());
+			IMalcolmListener<Boolean> listener = new IMalcolmListener<Boolean>() {
+				@Override
+				public void eventPerformed(MalcolmEvent<Boolean> e) {
+					// Nothing to do
+				}
+			};
+
+			connector.subscribeToConnectionStateChange(device, listener);
+			Thread.sleep(500);
+			assertEquals(1, cache.size()); // Held while subscribed
+
+			connector.unsubscribeFromConnectionStateChange(device, listener);
+			long start = System.currentTimeMillis();
+			while(cache.size()>0 && System.currentTimeMillis()-start<5000) Thread.sleep(50);
+			assertEquals(0, cache.size());
+			assertEquals(1, cache.getExpired());
+
+			connector.subscribeToConnectionStateChange(device, listener);
+		} finally {
+			connector.disconnect();
+		}
+		assertTrue(cache.isClosed());
+		assertEquals(0, cache.size());
+
+		connector.connect(null);
+		assertTrue(connector.getChannelCache()!=cache);
+		assertFalse(connector.getChannelCache().isClosed());
+		connector.disconnect();
+	}
+
+	private long getStates(MalcolmService service, int size) throws Exception {
+
+		IMalcolmDevice<EPICSv4ExampleModel> device = service.getDevice(epicsv4Device.getRecordName());
+		assertEquals(DeviceState.READY, device.getDeviceState()); // Device started
+
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < size; i++) {
+			assertEquals(DeviceState.READY, device.getDeviceState());
+		}
+		return System.currentTimeMillis()-start;
+	}
+}
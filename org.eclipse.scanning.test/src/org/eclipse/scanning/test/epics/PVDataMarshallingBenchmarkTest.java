@@ -0,0 +1,157 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.epics;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.epics.pvdata.pv.DoubleArrayData;
+import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVStructure;
+import org.epics.pvdata.pv.PVUnionArray;
+import org.epics.pvdata.pv.UnionArrayData;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Marshals large generators and regions into EPICS V4 structures and checks
+ * that what is sent is complete, that the positions and vertices are sent as
+ * arrays and that the structures of fixed shape are built once and shared.
+ * No time is asserted, so that the test does not depend on the machine.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class PVDataMarshallingBenchmarkTest {
+
+	private static final int POSITIONS = 1000000;
+	private static final int VERTICES  = 10000;
+
+	private EpicsV4ConnectorService connectorService;
+	private IPointGeneratorService  pgService;
+
+	@Before
+	public void create() throws Exception {
+		connectorService = new EpicsV4ConnectorService();
+		pgService        = new PointGeneratorService();
+	}
+
+	@Test
+	public void testLargeArrayGenerator() throws Exception {
+
+		double[] positions = new double[POSITIONS];
+		for (int i = 0; i < positions.length; i++) positions[i] = i*0.001;
+
+		ArrayModel model = new ArrayModel();
+		model.setName("x");
+		model.setPositions(positions);
+		IPointGenerator<?> scan = pgService.createCompoundGenerator(pgService.createGenerator(model));
+
+		PVStructure pvStructure = connectorService.pvMarshal(scan);
+
+		PVStructure generator = getUnionArray(pvStructure, "generators")[0];
+		assertArrayEquals(positions, getDoubles(generator, "points"), 0);
+	}
+
+	@Test
+	public void testLargePolygonInGrid() throws Exception {
+
+		PolygonalROI polygon = createPolygon(VERTICES);
+
+		GridModel grid = new GridModel("stage_x", "stage_y");
+		grid.setSlowAxisPoints(5);
+		grid.setFastAxisPoints(10);
+		IPointGenerator<?> scan = pgService.createCompoundGenerator(pgService.createGenerator(grid, Arrays.<IROI>asList(polygon)));
+
+		PVStructure pvStructure = connectorService.pvMarshal(scan);
+
+		PVStructure excluder = getUnionArray(pvStructure, "excluders")[0];
+		PVStructure roi      = getUnionArray(excluder, "rois")[0];
+		double[] x = getDoubles(roi, "points_x");
+		double[] y = getDoubles(roi, "points_y");
+		assertEquals(VERTICES, x.length);
+		assertEquals(VERTICES, y.length);
+		for (int i = 0; i < VERTICES; i++) {
+			assertEquals(polygon.getPoint(i).getPointX(), x[i], 0);
+			assertEquals(polygon.getPoint(i).getPointY(), y[i], 0);
+		}
+	}
+
+	@Test
+	public void testLargePolygon() throws Exception {
+
+		PolygonalROI polygon = createPolygon(VERTICES);
+
+		PVStructure pvStructure = connectorService.pvMarshal(polygon);
+		PolygonalROI read = connectorService.pvUnmarshal(pvStructure, PolygonalROI.class);
+
+		assertEquals(VERTICES, read.getNumberOfPoints());
+		for (int i = 0; i < VERTICES; i++) {
+			assertArrayEquals(polygon.getPoint(i).getPoint(), read.getPoint(i).getPoint(), 0);
+		}
+	}
+
+	@Test
+	public void testFixedStructuresAreShared() throws Exception {
+
+		// The structures of a region and of a model do not depend on their values.
+		PVStructure rect1 = connectorService.pvMarshal(new RectangularROI(1, 2, 3, 4, 0));
+		PVStructure rect2 = connectorService.pvMarshal(new RectangularROI(5, 6, 7, 8, 0.5));
+		assertSame(rect1.getStructure(), rect2.getStructure());
+		assertArrayEquals(new double[] { 3, 4 }, getDoubles(rect1, "lengths"), 0);
+		assertArrayEquals(new double[] { 7, 8 }, getDoubles(rect2, "lengths"), 0);
+
+		PVStructure step1 = connectorService.pvMarshal(new StepModel("x", 0, 10, 1));
+		PVStructure step2 = connectorService.pvMarshal(new StepModel("y", 1, 2, 0.5));
+		assertSame(step1.getStructure(), step2.getStructure());
+	}
+
+	private static PolygonalROI createPolygon(int vertices) {
+		PolygonalROI polygon = new PolygonalROI();
+		for (int i = 0; i < vertices; i++) {
+			double angle = 2*Math.PI*i/vertices;
+			polygon.insertPoint(new double[] { 1.5+1.5*Math.cos(angle), 1.5+1.5*Math.sin(angle) });
+		}
+		return polygon;
+	}
+
+	private static PVStructure[] getUnionArray(PVStructure pvStructure, String name) {
+		PVUnionArray array = pvStructure.getSubField(PVUnionArray.class, name);
+		UnionArrayData data = new UnionArrayData();
+		array.get(0, array.getLength(), data);
+		PVStructure[] ret = new PVStructure[array.getLength()];
+		for (int i = 0; i < ret.length; i++) ret[i] = (PVStructure)data.data[data.offset+i].get();
+		return ret;
+	}
+
+	private static double[] getDoubles(PVStructure pvStructure, String name) {
+		PVDoubleArray array = pvStructure.getSubField(PVDoubleArray.class, name);
+		assertNotNull(name+" is not an array of doubles", array);
+		DoubleArrayData data = new DoubleArrayData();
+		array.get(0, array.getLength(), data);
+		return Arrays.copyOfRange(data.data, data.offset, data.offset+array.getLength());
+	}
+}
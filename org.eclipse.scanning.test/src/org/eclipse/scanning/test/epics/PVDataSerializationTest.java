@@ -11,6 +11,7 @@
  *******************************************************************************/
 package org.eclipse.scanning.test.epics;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
 import java.util.Arrays;
@@ -28,6 +29,8 @@ import org.eclipse.dawnsci.analysis.dataset.roi.PointROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.SectorROI;
+import org.eclipse.scanning.api.malcolm.MalcolmTable;
+import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
 import org.eclipse.scanning.api.points.IMutator;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
@@ -45,10 +48,13 @@ import org.epics.pvdata.factory.FieldFactory;
 import org.epics.pvdata.factory.PVDataFactory;
 import org.epics.pvdata.pv.FieldCreate;
 import org.epics.pvdata.pv.PVBoolean;
+import org.epics.pvdata.pv.PVByteArray;
 import org.epics.pvdata.pv.PVDataCreate;
 import org.epics.pvdata.pv.PVDouble;
 import org.epics.pvdata.pv.PVDoubleArray;
+import org.epics.pvdata.pv.PVFloatArray;
 import org.epics.pvdata.pv.PVInt;
+import org.epics.pvdata.pv.PVShortArray;
 import org.epics.pvdata.pv.PVString;
 import org.epics.pvdata.pv.PVStringArray;
 import org.epics.pvdata.pv.PVStructure;
@@ -1280,5 +1286,64 @@ public class PVDataSerializationTest {
 		assertEquals(expectedCompGenPVStructure, pvStructure);
 	}
 
-}
+	@Test
+	public void testTableColumnsAreWidened() throws Exception {
+
+		FieldCreate fieldCreate = FieldFactory.getFieldCreate();
+
+		PVDataCreate pvDataCreate = PVDataFactory.getPVDataCreate();
+
+		Structure metaStructure = fieldCreate.createFieldBuilder().
+				add("description", ScalarType.pvString).
+				addArray("tags", ScalarType.pvString).
+				add("writeable", ScalarType.pvBoolean).
+				add("label", ScalarType.pvString).
+				createStructure();
 
+		Structure valueStructure = fieldCreate.createFieldBuilder().
+				addArray("rank", ScalarType.pvShort).
+				addArray("flag", ScalarType.pvByte).
+				addArray("gain", ScalarType.pvFloat).
+				addArray("value", ScalarType.pvDouble).
+				createStructure();
+
+		Structure tableStructure = fieldCreate.createFieldBuilder().
+				addArray("labels", ScalarType.pvString).
+				add("value", valueStructure).
+				add("meta", metaStructure).
+				setId("epics:nt/NTTable:1.0").
+				createStructure();
+
+		PVStructure tablePVStructure = pvDataCreate.createPVStructure(tableStructure);
+		String[] labels = new String[] {"rank", "flag", "gain", "value"};
+		tablePVStructure.getSubField(PVStringArray.class, "labels").put(0, labels.length, labels, 0);
+		PVStructure meta = tablePVStructure.getStructureField("meta");
+		meta.getSubField(PVString.class, "description").put("A table of each type");
+		meta.getSubField(PVString.class, "label").put("table");
+		meta.getSubField(PVBoolean.class, "writeable").put(false);
+
+		PVStructure value = tablePVStructure.getStructureField("value");
+		value.getSubField(PVShortArray.class, "rank").put(0, 3, new short[] {4, 2, 2}, 0);
+		value.getSubField(PVByteArray.class, "flag").put(0, 3, new byte[] {1, 0, 1}, 0);
+		value.getSubField(PVFloatArray.class, "gain").put(0, 3, new float[] {0.5f, 1.5f, 2.5f}, 0);
+		value.getSubField(PVDoubleArray.class, "value").put(0, 3, new double[] {0.1, 0.2, 0.3}, 0);
+
+		// Unmarshal with NTTableDeserialiser, short and byte columns become int arrays and float ones double.
+		TableAttribute attribute = (TableAttribute)connectorService.pvUnmarshal(tablePVStructure, Object.class);
+		assertArrayEquals(labels, attribute.getHeadings());
+		assertEquals("A table of each type", attribute.getDescription());
+
+		MalcolmTable table = attribute.getValue();
+		assertEquals(3, table.getNumRows());
+		assertArrayEquals(new int[] {4, 2, 2}, table.getIntColumn("rank"));
+		assertArrayEquals(new int[] {1, 0, 1}, table.getIntColumn("flag"));
+		assertArrayEquals(new double[] {0.5, 1.5, 2.5}, table.getDoubleColumn("gain"), 0);
+		assertArrayEquals(new double[] {0.1, 0.2, 0.3}, table.getDoubleColumn("value"), 0);
+
+		// A value which does not fit the array of a column makes it a column of objects.
+		table.getColumn("rank").set(1, "unknown");
+		assertEquals(Arrays.asList(4, "unknown", 2), table.getColumn("rank"));
+		assertEquals("unknown", table.getCellValue("rank", 1));
+	}
+
+}
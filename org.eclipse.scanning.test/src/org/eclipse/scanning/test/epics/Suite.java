@@ -17,7 +17,9 @@ import org.junit.runners.Suite.SuiteClasses;
 @RunWith(org.junit.runners.Suite.class)
 @SuiteClasses({
 	PVDataSerializationTest.class,
-	EpicsV4ConnectorTest.class
+	EpicsV4ConnectorTest.class,
+	EpicsV4ChannelCacheTest.class,
+	PVDataMarshallingBenchmarkTest.class
 })
 public class Suite {
 
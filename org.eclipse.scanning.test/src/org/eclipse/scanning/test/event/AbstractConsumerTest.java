@@ -24,7 +24,6 @@ import javax.jms.Queue;
 import javax.jms.Session;
 import javax.jms.TextMessage;
 
-import org.apache.activemq.ActiveMQConnectionFactory;
 import org.eclipse.dawnsci.analysis.api.persistence.IMarshallerService;
 import org.eclipse.dawnsci.json.MarshallerService;
 import org.eclipse.scanning.api.event.IEventService;
@@ -42,6 +41,7 @@ import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.dry.FastRunCreator;
 import org.eclipse.scanning.api.event.status.Status;
 import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
 import org.eclipse.scanning.event.Constants;
 import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
 import org.eclipse.scanning.test.BrokerTest;
@@ -81,7 +81,7 @@ public class AbstractConsumerTest extends BrokerTest {
 		StatusBean bean = doSubmit();
 
 		// Manually take the submission from the list not using event service for isolated test
-		ConnectionFactory connectionFactory = new ActiveMQConnectionFactory(submitter.getUri());
+		ConnectionFactory connectionFactory = (ConnectionFactory)new ActivemqConnectorService().createConnectionFactory(submitter.getUri());
 		Connection connection = connectionFactory.createConnection();
 
 		try {
@@ -18,6 +18,8 @@ import java.util.List;
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.ISubmitter;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.event.scan.IScanListener;
@@ -352,6 +354,53 @@ public class AbstractScanEventTest extends BrokerTest{
 		}
 	}
 	
+	@Test
+	public void statusSetUpdateTest() throws Exception {
+
+		final String setName = "org.eclipse.scanning.test.status.set."+System.currentTimeMillis();
+		publisher.setStatusSetName(setName);
+		publisher.setStatusSetAddRequired(true);
+
+		final ScanBean bean = new ScanBean();
+		bean.setName("fred");
+		final ScanBean bean2 = new ScanBean();
+		bean2.setName("fred2");
+
+		for (int i = 0; i <= 10; i++) {
+			bean.setPercentComplete(i*10);
+			publisher.broadcast(bean);
+			bean2.setPercentComplete(i*5);
+			publisher.broadcast(bean2);
+		}
+		checkStatusSet(setName, bean, bean2);
+
+		// Beans removed from the set are added again, not looked for where they were.
+		ISubmitter<ScanBean> submitter = eservice.createSubmitter(uri, setName);
+		try {
+			submitter.clearQueue(setName);
+		} finally {
+			submitter.disconnect();
+		}
+		bean.setPercentComplete(100);
+		publisher.broadcast(bean);
+		checkStatusSet(setName, bean);
+	}
+
+	private void checkStatusSet(String setName, ScanBean... beans) throws Exception {
+
+		IQueueReader<ScanBean> reader = eservice.createQueueReader(uri, setName);
+		try {
+			reader.setBeanClass(ScanBean.class);
+			List<ScanBean> set = reader.getQueue();
+			if (set.size()!=beans.length) throw new Exception("The status set should have "+beans.length+" beans but has "+set.size());
+			for (ScanBean bean : beans) {
+				if (!set.contains(bean)) throw new Exception("The status set does not have the latest "+bean.getName());
+			}
+		} finally {
+			reader.disconnect();
+		}
+	}
+
 	private void checkState(int i, DeviceState state, List<ScanBean> gotBack) throws Exception {
 	    if (gotBack.get(i).getDeviceState()!=state) throw new Exception("The "+i+" change was not "+state);
 	}
@@ -0,0 +1,202 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IAdmissionPolicy;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.dry.FastRunCreator;
+import org.eclipse.scanning.api.event.scan.ScanAdmissionPolicy;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.script.ScriptRequest;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a consumer running more than one bean at a time runs
+ * beans which use different resources together and those which
+ * share a resource one after the other, in the order submitted.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ConcurrentConsumerTest extends BrokerTest {
+
+	private IEventService                     eservice;
+	private ISubmitter<StatusBean>            submitter;
+	private IConsumer<StatusBean>             consumer;
+	private ISubscriber<IBeanListener<StatusBean>> subscriber;
+	private Map<String, Long>                 starts, ends;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+		submitter.setStatusTopicName(IEventService.STATUS_TOPIC);
+
+		consumer = eservice.createConsumer(uri, IEventService.SUBMISSION_QUEUE, IEventService.STATUS_SET, IEventService.STATUS_TOPIC, IEventService.HEARTBEAT_TOPIC, IEventService.CMD_TOPIC);
+		consumer.setRunner(new FastRunCreator<StatusBean>(0, 100, 10, 100, true)); // About a second each
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+
+		starts = new ConcurrentHashMap<>();
+		ends   = new ConcurrentHashMap<>();
+		subscriber = eservice.createSubscriber(uri, IEventService.STATUS_TOPIC);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				StatusBean bean = evt.getBean();
+				if (bean.getStatus()==Status.RUNNING) starts.putIfAbsent(bean.getName(), System.currentTimeMillis());
+				if (bean.getStatus().isFinal())       ends.putIfAbsent(bean.getName(), System.currentTimeMillis());
+			}
+		});
+	}
+
+	@After
+	public void dispose() throws Exception {
+		subscriber.disconnect();
+		submitter.disconnect();
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+		consumer.disconnect();
+	}
+
+	@Test
+	public void testSerialByDefault() throws Exception {
+
+		assertEquals(1, consumer.getConcurrency());
+		run("A", "B");
+		assertFalse(overlap("A", "B"));
+	}
+
+	@Test
+	public void testDisjointRunTogether() throws Exception {
+
+		consumer.setConcurrency(2);
+		consumer.setAdmissionPolicy(policy("A", "x", "B", "y"));
+		run("A", "B");
+		assertTrue(overlap("A", "B"));
+	}
+
+	@Test
+	public void testConflictingRunInOrder() throws Exception {
+
+		consumer.setConcurrency(3);
+		consumer.setAdmissionPolicy(policy("A", "x", "B", "y", "C", "x"));
+		run("A", "B", "C");
+
+		assertTrue(overlap("A", "B"));
+		assertFalse(overlap("A", "C"));
+		assertTrue(starts.get("C")>=ends.get("A"));
+	}
+
+	@Test
+	public void testNoResourcesRunsAlone() throws Exception {
+
+		consumer.setConcurrency(2);
+		consumer.setAdmissionPolicy(bean -> "A".equals(bean.getName()) ? null : Collections.<String>emptyList());
+		run("A", "B");
+		assertFalse(overlap("A", "B"));
+	}
+
+	@Test
+	public void testScanResources() throws Exception {
+
+		ScanRequest<?> req = new ScanRequest<>();
+		req.setCompoundModel(new CompoundModel<>(new StepModel("x", 0, 1, 1)));
+		req.setMonitorNames(Arrays.asList("beam"));
+		req.setStart(new MapPosition("shutter", 0, "Open"));
+		req.setEnd(new MapPosition("y", 0, 1.0));
+
+		ScanBean bean = new ScanBean();
+		bean.setScanRequest(req);
+		assertEquals(Arrays.asList("beam", "shutter", "y", "x"), new ArrayList<>(new ScanAdmissionPolicy().getResources(bean)));
+	}
+
+	@Test
+	public void testScanWithScriptRunsAlone() throws Exception {
+
+		ScanRequest<?> req = new ScanRequest<>();
+		req.setCompoundModel(new CompoundModel<>(new StepModel("x", 0, 1, 1)));
+		req.setBefore(new ScriptRequest("before.py"));
+
+		ScanBean bean = new ScanBean();
+		bean.setScanRequest(req);
+		assertNull(new ScanAdmissionPolicy().getResources(bean));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testConcurrencyAfterStart() throws Exception {
+		consumer.start();
+		consumer.awaitStart();
+		consumer.setConcurrency(2);
+	}
+
+	private void run(String... names) throws Exception {
+
+		for (String name : names) {
+			StatusBean bean = new StatusBean();
+			bean.setName(name);
+			bean.setStatus(Status.SUBMITTED);
+			submitter.submit(bean);
+		}
+		consumer.start();
+
+		long start = System.currentTimeMillis();
+		while(ends.size()<names.length && System.currentTimeMillis()-start<20000) Thread.sleep(100);
+		assertEquals(names.length, ends.size());
+	}
+
+	private boolean overlap(String name1, String name2) {
+		return starts.get(name1)<ends.get(name2) && starts.get(name2)<ends.get(name1);
+	}
+
+	/**
+	 * Pairs of bean name then the resource it uses.
+	 */
+	private static IAdmissionPolicy<StatusBean> policy(String... pairs) {
+		final Map<String, String> resources = new HashMap<>();
+		for (int i = 0; i < pairs.length; i+=2) resources.put(pairs[i], pairs[i+1]);
+		return bean -> Arrays.asList(resources.get(bean.getName()));
+	}
+}
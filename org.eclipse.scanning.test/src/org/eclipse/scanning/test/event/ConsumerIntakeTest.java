@@ -0,0 +1,146 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.alive.ConsumerStatus;
+import org.eclipse.scanning.api.event.alive.PauseBean;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.core.IntakeStatistics;
+import org.eclipse.scanning.api.event.dry.FastRunCreator;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that an idle consumer starts a bean as soon as it is
+ * submitted rather than when it next looks at the queue.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ConsumerIntakeTest extends BrokerTest {
+
+	private IEventService          eservice;
+	private ISubmitter<StatusBean> submitter;
+	private IConsumer<StatusBean>  consumer;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+		submitter.setStatusTopicName(IEventService.STATUS_TOPIC);
+
+		consumer = eservice.createConsumer(uri, IEventService.SUBMISSION_QUEUE, IEventService.STATUS_SET, IEventService.STATUS_TOPIC, IEventService.HEARTBEAT_TOPIC, IEventService.CMD_TOPIC);
+		consumer.setRunner(new FastRunCreator<StatusBean>(10L, true));
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+		consumer.start();
+	}
+
+	@After
+	public void dispose() throws Exception {
+		submitter.disconnect();
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+		consumer.clearQueue(IEventService.CMD_SET);
+		consumer.disconnect();
+	}
+
+	@Test
+	public void testIdleConsumerStartsQuickly() throws Exception {
+
+		Thread.sleep(2000); // The consumer is waiting for a bean
+
+		final CountDownLatch running = new CountDownLatch(1);
+		ISubscriber<IBeanListener<StatusBean>> subscriber = eservice.createSubscriber(uri, IEventService.STATUS_TOPIC);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				if (evt.getBean().getStatus()==Status.RUNNING) running.countDown();
+			}
+		});
+
+		try {
+			final long start = System.currentTimeMillis();
+			submitter.submit(createBean("Quick"));
+			assertTrue(running.await(5, TimeUnit.SECONDS));
+			final long time = System.currentTimeMillis()-start;
+
+			// The consumer waits for up to 10s between looking at the queue when it is not woken.
+			assertTrue("The bean took "+time+"ms to start", time<1000);
+
+			IntakeStatistics stats = consumer.getIntakeStatistics();
+			assertEquals(1, stats.getStarted());
+			assertTrue(stats.getLastLatency()<1000);
+			assertTrue(stats.getMeanLatency()<=stats.getMaxLatency());
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	@Test
+	public void testPauseAndResume() throws Exception {
+
+		IPublisher<PauseBean> pauser = eservice.createPublisher(uri, IEventService.CMD_TOPIC);
+		pauser.setStatusSetName(IEventService.CMD_SET);
+		pauser.setStatusSetAddRequired(true);
+		try {
+			PauseBean pause = new PauseBean();
+			pause.setQueueName(consumer.getSubmitQueueName());
+			pauser.broadcast(pause);
+			Thread.sleep(500);
+			assertEquals(ConsumerStatus.PAUSED, consumer.getConsumerStatus());
+
+			submitter.submit(createBean("Held"));
+			Thread.sleep(1000);
+			assertEquals(1, consumer.getSubmissionQueue().size());
+
+			pause.setPause(false);
+			pauser.broadcast(pause);
+			long start = System.currentTimeMillis();
+			while(!consumer.getSubmissionQueue().isEmpty() && System.currentTimeMillis()-start<5000) Thread.sleep(100);
+			assertTrue(consumer.getSubmissionQueue().isEmpty());
+			assertEquals(ConsumerStatus.RUNNING, consumer.getConsumerStatus());
+		} finally {
+			pauser.disconnect();
+		}
+	}
+
+	private StatusBean createBean(String name) {
+		StatusBean bean = new StatusBean();
+		bean.setName(name);
+		bean.setStatus(Status.SUBMITTED);
+		return bean;
+	}
+}
@@ -0,0 +1,175 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.DespatchStatistics;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that a subscriber with despatch threads keeps the events
+ * of each bean in order and that a slow bean does not hold up the others.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class DespatchThreadsTest extends BrokerTest {
+
+	private IEventService                        eservice;
+	private IPublisher<ScanBean>                 publisher;
+	private ISubscriber<IBeanListener<ScanBean>> subscriber;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		publisher  = eservice.createPublisher(uri,  "org.eclipse.scanning.test.despatch.topic");
+		subscriber = eservice.createSubscriber(uri, "org.eclipse.scanning.test.despatch.topic");
+	}
+
+	@After
+	public void dispose() throws EventException {
+		publisher.disconnect();
+		subscriber.disconnect();
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testSetThreadsAfterListening() throws Exception {
+		subscriber.addListener(evt -> {});
+		subscriber.setDespatchThreads(4);
+	}
+
+	@Test
+	public void testOrderedByBean() throws Exception {
+
+		subscriber.setDespatchThreads(4);
+		assertEquals(4, subscriber.getDespatchThreads());
+
+		// The slow bean does not share its thread with the others when there are four.
+		final String[]                   ids     = new String[]{"slow", "fred", "bill", "jim"};
+		final int                        size    = 50;
+		final Map<String, List<Integer>> points  = new ConcurrentHashMap<>();
+		final Set<String>                threads = ConcurrentHashMap.newKeySet();
+		final CountDownLatch             fast    = new CountDownLatch((ids.length-1)*size);
+		final CountDownLatch             all     = new CountDownLatch(ids.length*size);
+
+		subscriber.addListener(new IBeanListener<ScanBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+				ScanBean bean = evt.getBean();
+				threads.add(Thread.currentThread().getName());
+				if ("slow".equals(bean.getUniqueId())) {
+					try {
+						Thread.sleep(50);
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				points.computeIfAbsent(bean.getUniqueId(), id -> Collections.synchronizedList(new ArrayList<>())).add(bean.getPoint());
+				if (!"slow".equals(bean.getUniqueId())) fast.countDown();
+				all.countDown();
+			}
+		});
+
+		for (int point = 0; point < size; point++) {
+			for (String id : ids) {
+				ScanBean bean = new ScanBean();
+				bean.setUniqueId(id);
+				bean.setPoint(point);
+				publisher.broadcast(bean);
+			}
+		}
+
+		// The slow beans take at least 2.5s, the others should not wait for them
+		assertTrue(fast.await(2, TimeUnit.SECONDS));
+		assertTrue(points.get("slow").size()<size);
+
+		assertTrue(all.await(10, TimeUnit.SECONDS));
+		for (String id : ids) {
+			List<Integer> ps = points.get(id);
+			assertEquals(size, ps.size());
+			for (int i = 0; i < size; i++) assertEquals(i, ps.get(i).intValue());
+		}
+		assertTrue(threads.size()>1);
+
+		Thread.sleep(100); // Statistics are recorded after the listeners return
+		DespatchStatistics stats = subscriber.getDespatchStatistics();
+		assertEquals(0, stats.getQueueDepth());
+		assertEquals(ids.length*size, stats.getDespatched());
+		assertTrue(stats.getMaxLatency()>=50);
+		assertTrue(stats.getMeanLatency()<=stats.getMaxLatency());
+	}
+
+	@Test
+	public void testPendingEventsDespatchedOnDisconnect() throws Exception {
+
+		subscriber.setDespatchThreads(2);
+
+		final int            size     = 20;
+		final List<Integer>  points   = Collections.synchronizedList(new ArrayList<>());
+		final CountDownLatch received = new CountDownLatch(1);
+
+		subscriber.addListener(new IBeanListener<ScanBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<ScanBean> evt) {
+				received.countDown();
+				try {
+					Thread.sleep(20);
+				} catch (InterruptedException e) {
+					return;
+				}
+				points.add(evt.getBean().getPoint());
+			}
+		});
+
+		for (int point = 0; point < size; point++) {
+			ScanBean bean = new ScanBean();
+			bean.setUniqueId("fred");
+			bean.setPoint(point);
+			publisher.broadcast(bean);
+		}
+		assertTrue(received.await(5, TimeUnit.SECONDS));
+		Thread.sleep(100); // Let the broker deliver the rest to the lane
+
+		// The lane is still despatching, the events it holds are not thrown away.
+		subscriber.disconnect();
+		assertEquals(size, points.size());
+		for (int i = 0; i < size; i++) assertEquals(i, points.get(i).intValue());
+	}
+}
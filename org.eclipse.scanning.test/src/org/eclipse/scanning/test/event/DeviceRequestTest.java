@@ -21,6 +21,9 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import javax.jms.Connection;
@@ -228,6 +231,39 @@ public class DeviceRequestTest extends BrokerTest {
 		if (res.getDevices().size()!=1) throw new Exception("There were no devices found and at least the mandelbrot example should have been!");
 	}
 
+	@Test
+	public void testConcurrentRequests() throws Exception {
+
+		// Another requester on the same topics shares the connection of the first.
+		final IRequester<DeviceRequest> other = eservice.createRequestor(uri, EventConstants.DEVICE_REQUEST_TOPIC, EventConstants.DEVICE_RESPONSE_TOPIC);
+		other.setTimeout(10, TimeUnit.SECONDS);
+		try {
+			final ExecutorService     exec    = Executors.newFixedThreadPool(8);
+			final List<Future<DeviceRequest>> results = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				final IRequester<DeviceRequest> req = i%2==0 ? requester : other;
+				final String name = i%4<2 ? "mandelbrot" : "fred";
+				results.add(exec.submit(() -> req.post(new DeviceRequest(name))));
+			}
+			for (int i = 0; i < results.size(); i++) {
+				DeviceRequest res = results.get(i).get(1, TimeUnit.MINUTES);
+				if (i%4<2) {
+					assertEquals(1, res.getDevices().size());
+					assertEquals("mandelbrot", res.getDeviceInformation().getName());
+				} else {
+					assertTrue(res.isEmpty());
+				}
+			}
+			exec.shutdown();
+		} finally {
+			other.disconnect();
+		}
+
+		// The first requester may still be used.
+		DeviceRequest res = requester.post(new DeviceRequest("mandelbrot"));
+		assertEquals(1, res.getDevices().size());
+	}
+
 	@Test
 	public void testInvalidName() throws Exception {
 		DeviceRequest req = new DeviceRequest();
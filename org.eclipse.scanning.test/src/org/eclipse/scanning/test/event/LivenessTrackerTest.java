@@ -0,0 +1,154 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.alive.ConsumerStatus;
+import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.eclipse.scanning.api.event.alive.HeartbeatEvent;
+import org.eclipse.scanning.api.event.alive.IHeartbeatListener;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.dry.FastRunCreator;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.Constants;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the heartbeats of several consumers in one process are
+ * seen by subscribers and that the tracker knows which are alive.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class LivenessTrackerTest extends BrokerTest {
+
+	private IEventService         eservice;
+	private IConsumer<StatusBean> consumer1, consumer2;
+	private ILivenessTracker      tracker;
+
+	@Before
+	public void createServices() throws Exception {
+
+		Constants.setNotificationFrequency(100);
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		consumer1 = createConsumer("Consumer 1", "org.eclipse.scanning.test.liveness.queue1");
+		consumer2 = createConsumer("Consumer 2", "org.eclipse.scanning.test.liveness.queue2");
+
+		tracker = eservice.createLivenessTracker(uri, IEventService.HEARTBEAT_TOPIC);
+		tracker.connect();
+	}
+
+	private IConsumer<StatusBean> createConsumer(String name, String queueName) throws EventException {
+		IConsumer<StatusBean> consumer = eservice.createConsumer(uri, queueName, queueName+".status", IEventService.STATUS_TOPIC, IEventService.HEARTBEAT_TOPIC, null);
+		consumer.setName(name);
+		consumer.setRunner(new FastRunCreator<StatusBean>(true));
+		return consumer;
+	}
+
+	@After
+	public void dispose() throws Exception {
+		tracker.disconnect();
+		consumer1.disconnect();
+		consumer2.disconnect();
+		Constants.setNotificationFrequency(2000);
+	}
+
+	@Test
+	public void testBothBeat() throws Exception {
+
+		final Set<String> names = ConcurrentHashMap.newKeySet();
+		ISubscriber<IHeartbeatListener> subscriber = eservice.createSubscriber(uri, IEventService.HEARTBEAT_TOPIC);
+		try {
+			subscriber.addListener(new IHeartbeatListener() {
+				@Override
+				public void heartbeatPerformed(HeartbeatEvent evt) {
+					if (evt.getBean().getConsumerName()!=null) names.add(evt.getBean().getConsumerName());
+				}
+			});
+			consumer1.start();
+			consumer2.start();
+
+			assertTrue(tracker.awaitAlive("Consumer 1", 2000));
+			assertTrue(tracker.awaitAlive("Consumer 2", 2000));
+			assertEquals(2, tracker.getAlive().size());
+			assertTrue(names.contains("Consumer 1"));
+			assertTrue(names.contains("Consumer 2"));
+			assertTrue(tracker.getLastBeat("Consumer 1").getHostName()!=null);
+
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	@Test
+	public void testStopped() throws Exception {
+
+		consumer1.start();
+		consumer2.start();
+		assertTrue(tracker.awaitAlive("Consumer 1", 2000));
+		assertTrue(tracker.awaitAlive("Consumer 2", 2000));
+
+		consumer1.stop(); // Says that it has stopped
+		Thread.sleep(200);
+		assertFalse(tracker.isAlive("Consumer 1"));
+		assertTrue(tracker.isAlive("Consumer 2"));
+	}
+
+	@Test
+	public void testStale() throws Exception {
+
+		tracker.setStaleTime(500);
+
+		// One beat and no more
+		IPublisher<HeartbeatBean> publisher = eservice.createPublisher(uri, IEventService.HEARTBEAT_TOPIC);
+		try {
+			HeartbeatBean beat = new HeartbeatBean();
+			beat.setConsumerName("Consumer 3");
+			beat.setConsumerStatus(ConsumerStatus.RUNNING);
+			publisher.broadcast(beat);
+		} finally {
+			publisher.disconnect();
+		}
+
+		assertTrue(tracker.awaitAlive("Consumer 3", 2000));
+		Thread.sleep(700);
+		assertFalse(tracker.isAlive("Consumer 3"));
+		assertEquals("Consumer 3", tracker.getLastBeat("Consumer 3").getConsumerName());
+	}
+
+	@Test
+	public void testNeverAlive() throws Exception {
+		assertFalse(tracker.awaitAlive("Consumer 3", 500));
+		assertEquals(null, tracker.getLastBeat("Consumer 3"));
+	}
+}
@@ -1,6 +1,10 @@
 package org.eclipse.scanning.test.event;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.util.Arrays;
 import java.util.HashMap;
@@ -235,4 +239,99 @@ public class MalcolmAttributesSerializationTest {
 		assertEquals(attrib, newAttrib);
 	}
 
+	@Test
+	public void testSerializeTableAttributeWithArrayColumns() throws Exception {
+		MalcolmTable table = new MalcolmTable();
+		table.addColumn("name", new String[] { "x", "y", "z" });
+		table.addColumn("rank", new int[] { 4, 2, 2 });
+		table.addColumn("uid", new long[] { 1L, 2L, 3L });
+		table.addColumn("value", new double[] { 0.5, 1.5, 2.5 });
+		table.addColumn("enabled", new boolean[] { true, false, true });
+
+		TableAttribute attrib = new TableAttribute();
+		attrib.setName("tableAttribute");
+		attrib.setHeadings(new String[] { "name", "rank", "uid", "value", "enabled" });
+		attrib.setValue(table);
+
+		String json = service.marshal(attrib);
+		TableAttribute newAttrib = service.unmarshal(json, TableAttribute.class);
+		assertEquals(attrib, newAttrib);
+
+		MalcolmTable newTable = newAttrib.getValue();
+		assertArrayEquals(new String[] { "x", "y", "z" }, newTable.getStringColumn("name"));
+		assertArrayEquals(new int[] { 4, 2, 2 }, newTable.getIntColumn("rank"));
+		assertArrayEquals(new long[] { 1L, 2L, 3L }, newTable.getLongColumn("uid"));
+		assertArrayEquals(new double[] { 0.5, 1.5, 2.5 }, newTable.getDoubleColumn("value"), 0);
+		assertTrue(newTable.getBooleanColumn("enabled")[2]);
+	}
+
+	@Test
+	public void testTableColumnsAreArrays() throws Exception {
+		double[] values = new double[] { 0.5, 1.5, 2.5 };
+		MalcolmTable table = new MalcolmTable();
+		table.addColumn("value", values);
+		table.addColumn("rank", new int[] { 4, 2, 2 });
+
+		// The arrays are not copied, the list of a column reads the same array.
+		assertSame(values, table.getDoubleColumn("value"));
+		assertEquals(Arrays.asList(0.5, 1.5, 2.5), table.getColumn("value"));
+		assertEquals(Double.valueOf(1.5), table.getRow(1).get("value"));
+
+		double sum = 0;
+		int count = 0;
+		for (MalcolmTable.Cursor row = table.cursor(); row.next();) {
+			sum += row.getDouble("value") * row.getInt("rank");
+			count++;
+		}
+		assertEquals(3, count);
+		assertEquals(0.5*4 + 1.5*2 + 2.5*2, sum, 0);
+
+		Map<String, Object> row = new HashMap<>();
+		row.put("value", 3.5);
+		row.put("rank", 1);
+		table.addRow(row);
+		assertEquals(4, table.getNumRows());
+		assertArrayEquals(new double[] { 0.5, 1.5, 2.5, 3.5 }, table.getDoubleColumn("value"), 0);
+	}
+
+	@Test
+	public void testTableColumnOfOtherValues() throws Exception {
+		Map<String, Class<?>> types = new LinkedHashMap<>();
+		types.put("rank", Integer.class);
+		MalcolmTable table = new MalcolmTable(types);
+
+		Map<String, Object> row = new HashMap<>();
+		row.put("rank", 1);
+		table.addRow(row);
+		row.put("rank", "unknown");
+		table.addRow(row);
+
+		// A value which is not an int keeps the column as objects.
+		assertEquals(Arrays.asList(1, "unknown"), table.getColumn("rank"));
+		boolean thrown = false;
+		try {
+			table.getIntColumn("rank");
+		} catch (IllegalArgumentException expected) {
+			thrown = true;
+		}
+		assertTrue(thrown);
+		assertFalse(table.getColumn("rank").isEmpty());
+	}
+
+	@Test
+	public void testSetTableCellOfOtherValue() throws Exception {
+		MalcolmTable table = new MalcolmTable();
+		table.addColumn("rank", new int[] { 4, 2, 2 });
+
+		List<Object> rank = table.getColumn("rank");
+		assertEquals(2, rank.set(1, 3));
+		assertArrayEquals(new int[] { 4, 3, 2 }, table.getIntColumn("rank"));
+
+		// A value which is not an int makes the column one of objects, for the list already held too.
+		assertEquals(3, rank.set(1, "unknown"));
+		assertEquals(Arrays.asList(4, "unknown", 2), rank);
+		assertEquals(Arrays.asList(4, "unknown", 2), table.getColumn("rank"));
+		assertEquals("unknown", table.getRow(1).get("rank"));
+	}
+
 }
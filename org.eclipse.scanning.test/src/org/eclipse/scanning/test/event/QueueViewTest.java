@@ -0,0 +1,197 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.IQueueView;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.core.QueueViewEvent;
+import org.eclipse.scanning.api.event.core.QueueViewEvent.Type;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the queue view reads the queues and then follows
+ * the changes broadcast on the status topic.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class QueueViewTest extends BrokerTest {
+
+	private IEventService          eservice;
+	private ISubmitter<StatusBean> submitter;
+	private IQueueView<StatusBean> view;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+		submitter.setStatusTopicName(IEventService.STATUS_TOPIC);
+		submitter.clearQueue(IEventService.SUBMISSION_QUEUE);
+		submitter.clearQueue(IEventService.STATUS_SET);
+
+		view = eservice.createQueueView(uri, IEventService.SUBMISSION_QUEUE, IEventService.STATUS_SET, IEventService.STATUS_TOPIC);
+		view.setBeanClass(StatusBean.class);
+	}
+
+	@After
+	public void dispose() throws Exception {
+		view.disconnect();
+		submitter.clearQueue(IEventService.SUBMISSION_QUEUE);
+		submitter.clearQueue(IEventService.STATUS_SET);
+		submitter.disconnect();
+	}
+
+	@Test
+	public void testReadOnConnect() throws Exception {
+
+		List<StatusBean> beans = submit(10);
+		view.connect();
+
+		assertEquals(10, view.size());
+		assertEquals(beans, view.getSubmissionQueue());
+		assertTrue(view.getStatusSet().isEmpty());
+		assertEquals(beans.get(5), view.get(beans.get(5).getUniqueId()));
+	}
+
+	@Test
+	public void testSubmissionsFollowed() throws Exception {
+
+		view.connect();
+		final List<QueueViewEvent<StatusBean>> events = new CopyOnWriteArrayList<>();
+		view.addQueueViewListener(evt -> events.add(evt));
+
+		List<StatusBean> beans = submit(10);
+		waitFor(10);
+
+		assertEquals(beans, view.getSubmissionQueue());
+		assertEquals(10, events.size());
+		for (QueueViewEvent<StatusBean> evt : events) {
+			assertEquals(Type.ADDED, evt.getType());
+			assertEquals(IEventService.SUBMISSION_QUEUE, evt.getQueueName());
+		}
+	}
+
+	@Test
+	public void testStatusMovesBean() throws Exception {
+
+		List<StatusBean> beans = submit(3);
+		view.connect();
+
+		StatusBean running = beans.get(0);
+		running.setStatus(Status.RUNNING);
+		IPublisher<StatusBean> publisher = eservice.createPublisher(uri, IEventService.STATUS_TOPIC);
+		try {
+			publisher.broadcast(running);
+			long start = System.currentTimeMillis();
+			while(view.getStatusSet().isEmpty() && System.currentTimeMillis()-start<5000) Thread.sleep(10);
+
+			assertEquals(2, view.getSubmissionQueue().size());
+			assertEquals(1, view.getStatusSet().size());
+			assertEquals(Status.RUNNING, view.get(running.getUniqueId()).getStatus());
+
+			running.setPercentComplete(50);
+			publisher.broadcast(running);
+			start = System.currentTimeMillis();
+			while(view.get(running.getUniqueId()).getPercentComplete()<50 && System.currentTimeMillis()-start<5000) Thread.sleep(10);
+			assertEquals(50, view.get(running.getUniqueId()).getPercentComplete(), 0.0001);
+			assertEquals(3, view.size());
+		} finally {
+			publisher.disconnect();
+		}
+	}
+
+	@Test
+	public void testRemoveInThisProcess() throws Exception {
+
+		List<StatusBean> beans = submit(3);
+		view.connect();
+
+		assertTrue(submitter.remove(beans.get(1)));
+		assertNull(view.get(beans.get(1).getUniqueId()));
+		assertEquals(2, view.getSubmissionQueue().size());
+		assertEquals(beans.get(2), view.getSubmissionQueue().get(1));
+	}
+
+	@Test
+	public void testChangeInAnotherProcess() throws Exception {
+
+		submit(3);
+		view.connect();
+
+		// Another process takes a bean without this one knowing and then says that the queue changed.
+		ConnectionFactory connectionFactory = (ConnectionFactory)eservice.getEventConnectorService().createConnectionFactory(uri);
+		Connection connection = connectionFactory.createConnection();
+		try {
+			Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			connection.start();
+			MessageConsumer consumer = session.createConsumer(session.createQueue(IEventService.SUBMISSION_QUEUE));
+			assertNotNull(consumer.receive(1000));
+			consumer.close();
+
+			MessageProducer producer = session.createProducer(session.createTopic(IEventService.SUBMISSION_QUEUE+".changed"));
+			producer.send(session.createTextMessage(IEventService.SUBMISSION_QUEUE));
+		} finally {
+			connection.close();
+		}
+
+		long start = System.currentTimeMillis();
+		while(view.size()>2 && System.currentTimeMillis()-start<5000) Thread.sleep(10);
+		assertEquals(2, view.getSubmissionQueue().size());
+	}
+
+	private List<StatusBean> submit(int size) throws Exception {
+		final List<StatusBean> beans = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			StatusBean bean = new StatusBean();
+			bean.setName("Bean "+i);
+			bean.setStatus(Status.SUBMITTED);
+			bean.setUniqueId(Integer.toString(i));
+			submitter.submit(bean);
+			beans.add(bean);
+		}
+		return beans;
+	}
+
+	private void waitFor(int size) throws InterruptedException {
+		long start = System.currentTimeMillis();
+		while(view.getSubmissionQueue().size()<size && System.currentTimeMillis()-start<5000) Thread.sleep(10);
+	}
+}
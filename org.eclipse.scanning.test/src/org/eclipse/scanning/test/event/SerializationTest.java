@@ -474,6 +474,28 @@ public class SerializationTest {
 		assertTrue(bean.getScanRequest()==null);
 	}
 
+	@Test
+	public void testRemoveFirstAndLastProperties() throws Exception {
+		
+		final String json = "{\"a\":1,\"b\":{\"a\":[1,2,{\"c\":3}],\"d\":\"a\"},\"c\":[{\"a\":null}]}";
+		assertEquals("{\"b\":{\"d\":\"a\"},\"c\":[{}]}", JsonUtil.removeProperties(json, Arrays.asList("a")));
+		assertEquals("{\"a\":1,\"b\":{\"a\":[1,2,{}],\"d\":\"a\"}}", JsonUtil.removeProperties(json, Arrays.asList("c")));
+		assertEquals("{}", JsonUtil.removeProperties(json, Arrays.asList("a", "b", "c")));
+	}
+
+	@Test
+	public void testRemovePropertiesWithStrings() throws Exception {
+		
+		// Commas, brackets and quotes in strings are not structure
+		final String json = "{ \"name\" : \"a, {b}\", \"message\" : \"[\\\"c\\\", d\", \"point\" : 0 }";
+		assertEquals("{ \"name\" : \"a, {b}\", \"point\" : 0 }", JsonUtil.removeProperties(json, Arrays.asList("message")));
+		assertEquals("{ \"message\" : \"[\\\"c\\\", d\", \"point\" : 0 }", JsonUtil.removeProperties(json, Arrays.asList("name")));
+		
+		// Same instance when there is nothing to remove
+		assertTrue(json==JsonUtil.removeProperties(json, Arrays.asList("detectors")));
+		assertTrue(json==JsonUtil.removeProperties(json, Arrays.asList("d")));
+	}
+
 	@Test
 	public void testSerializeDeviceRequestWithNumber() throws Exception {
 		Number value = 1.234;
@@ -0,0 +1,242 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.MessageConsumer;
+import javax.jms.Session;
+
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventService;
+import org.eclipse.scanning.api.event.alive.PauseBean;
+import org.eclipse.scanning.api.event.bean.BeanEvent;
+import org.eclipse.scanning.api.event.bean.IBeanListener;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.core.ISubmitter;
+import org.eclipse.scanning.api.event.core.ISubscriber;
+import org.eclipse.scanning.api.event.dry.FastRunCreator;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.event.status.StatusBean;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.EventServiceImpl;
+import org.eclipse.scanning.test.BrokerTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that beans are moved, removed and replaced in the order of a
+ * submission queue and that the consumer runs them in that order.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SubmissionOrderTest extends BrokerTest {
+
+	private IEventService          eservice;
+	private ISubmitter<StatusBean> submitter;
+	private IConsumer<StatusBean>  consumer;
+	private IPublisher<PauseBean>  pauser;
+	private PauseBean              pause;
+
+	@Before
+	public void createServices() throws Exception {
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE!
+		setUpNonOSGIActivemqMarshaller();
+		eservice = new EventServiceImpl(new ActivemqConnectorService()); // Do not copy this get the service from OSGi!
+
+		submitter = eservice.createSubmitter(uri, IEventService.SUBMISSION_QUEUE);
+		submitter.setStatusTopicName(IEventService.STATUS_TOPIC);
+
+		consumer = eservice.createConsumer(uri, IEventService.SUBMISSION_QUEUE, IEventService.STATUS_SET, IEventService.STATUS_TOPIC, IEventService.HEARTBEAT_TOPIC, IEventService.CMD_TOPIC);
+		consumer.setRunner(new FastRunCreator<StatusBean>(100L, true));
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+
+		// The consumer orders the queue when it connects, we then hold it.
+		consumer.start();
+		Thread.sleep(1000);
+		pauser = eservice.createPublisher(uri, IEventService.CMD_TOPIC);
+		pause  = new PauseBean();
+		pause.setQueueName(consumer.getSubmitQueueName());
+		pauser.broadcast(pause);
+		Thread.sleep(1000);
+	}
+
+	@After
+	public void dispose() throws Exception {
+		submitter.disconnect();
+		pauser.disconnect();
+		consumer.clearQueue(IEventService.SUBMISSION_QUEUE);
+		consumer.clearQueue(IEventService.STATUS_SET);
+		consumer.clearQueue(IEventService.CMD_SET);
+		consumer.disconnect();
+	}
+
+	@Test
+	public void testMoveTo() throws Exception {
+
+		List<StatusBean> beans = submit(5);
+		assertEquals(Arrays.asList("0", "1", "2", "3", "4"), getIds(submitter.getQueue()));
+
+		assertTrue(submitter.moveTo(beans.get(4), 0));
+		assertEquals(Arrays.asList("4", "0", "1", "2", "3"), getIds(submitter.getQueue()));
+
+		assertTrue(submitter.moveTo(beans.get(4), 4));
+		assertEquals(Arrays.asList("0", "1", "2", "3", "4"), getIds(submitter.getQueue()));
+	}
+
+	@Test
+	public void testReorder() throws Exception {
+
+		List<StatusBean> beans = submit(5);
+
+		assertTrue(submitter.reorder(beans.get(3), 2)); // Towards the head
+		assertEquals(Arrays.asList("0", "3", "1", "2", "4"), getIds(submitter.getQueue()));
+
+		assertTrue(submitter.reorder(beans.get(0), -1)); // Towards the tail
+		assertEquals(Arrays.asList("3", "0", "1", "2", "4"), getIds(submitter.getQueue()));
+	}
+
+	@Test(expected=EventException.class)
+	public void testReorderHead() throws Exception {
+		List<StatusBean> beans = submit(3);
+		submitter.reorder(beans.get(0), 1);
+	}
+
+	@Test(expected=EventException.class)
+	public void testReorderTail() throws Exception {
+		List<StatusBean> beans = submit(3);
+		submitter.reorder(beans.get(2), -1);
+	}
+
+	@Test
+	public void testRemoveAndReplace() throws Exception {
+
+		List<StatusBean> beans = submit(5);
+		submitter.moveTo(beans.get(4), 0);
+
+		assertTrue(submitter.remove(beans.get(2)));
+		assertFalse(submitter.remove(beans.get(2)));
+		assertEquals(Arrays.asList("4", "0", "1", "3"), getIds(submitter.getQueue()));
+
+		StatusBean changed = beans.get(1);
+		changed.setName("Changed");
+		assertTrue(submitter.replace(changed));
+
+		List<StatusBean> queue = submitter.getQueue();
+		assertEquals(Arrays.asList("4", "0", "1", "3"), getIds(queue));
+		assertEquals("Changed", queue.get(2).getName());
+	}
+
+	@Test
+	public void testRunInOrder() throws Exception {
+
+		final List<String> run = new CopyOnWriteArrayList<>();
+		ISubscriber<IBeanListener<StatusBean>> subscriber = eservice.createSubscriber(uri, IEventService.STATUS_TOPIC);
+		subscriber.addListener(new IBeanListener<StatusBean>() {
+			@Override
+			public void beanChangePerformed(BeanEvent<StatusBean> evt) {
+				StatusBean bean = evt.getBean();
+				if (bean.getStatus()==Status.RUNNING && !run.contains(bean.getUniqueId())) run.add(bean.getUniqueId());
+			}
+		});
+
+		try {
+			List<StatusBean> beans = submit(4);
+			submitter.moveTo(beans.get(3), 0);
+			submitter.reorder(beans.get(1), -1);
+
+			pause.setPause(false);
+			pauser.broadcast(pause);
+			long start = System.currentTimeMillis();
+			while(run.size()<4 && System.currentTimeMillis()-start<10000) Thread.sleep(100);
+
+			assertEquals(Arrays.asList("3", "0", "2", "1"), run);
+		} finally {
+			subscriber.disconnect();
+		}
+	}
+
+	@Test
+	public void testLockedOrderNotMadeAgain() throws Exception {
+
+		submit(2);
+
+		// Another client holds the order while we submit.
+		ConnectionFactory connectionFactory = (ConnectionFactory)eservice.getEventConnectorService().createConnectionFactory(uri);
+		Connection connection = connectionFactory.createConnection();
+		System.setProperty("org.eclipse.scanning.event.order.lockTimeout", "500");
+		try {
+			Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+			connection.start();
+			MessageConsumer holder = session.createConsumer(session.createQueue(IEventService.SUBMISSION_QUEUE+".order"));
+			assertNotNull(holder.receive(1000));
+
+			try {
+				StatusBean bean = new StatusBean();
+				bean.setName("Bean 2");
+				bean.setStatus(Status.SUBMITTED);
+				bean.setUniqueId("2");
+				submitter.submit(bean);
+				fail("The bean was submitted without the order");
+			} catch (EventException expected) {
+				// The order is not free
+			}
+			session.rollback();
+
+			Session browser = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+			@SuppressWarnings("unchecked")
+			List<Object> orders = Collections.list(browser.createBrowser(browser.createQueue(IEventService.SUBMISSION_QUEUE+".order")).getEnumeration());
+			assertEquals(1, orders.size());
+		} finally {
+			System.clearProperty("org.eclipse.scanning.event.order.lockTimeout");
+			connection.close();
+		}
+		assertEquals(Arrays.asList("0", "1"), getIds(submitter.getQueue()));
+	}
+
+	private List<StatusBean> submit(int size) throws Exception {
+		final List<StatusBean> beans = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			StatusBean bean = new StatusBean();
+			bean.setName("Bean "+i);
+			bean.setStatus(Status.SUBMITTED);
+			bean.setUniqueId(Integer.toString(i));
+			submitter.submit(bean);
+			beans.add(bean);
+		}
+		return beans;
+	}
+
+	private static List<String> getIds(List<StatusBean> beans) {
+		final List<String> ids = new ArrayList<>(beans.size());
+		for (StatusBean bean : beans) ids.add(bean.getUniqueId());
+		return ids;
+	}
+}
@@ -24,7 +24,14 @@ import org.junit.runners.Suite.SuiteClasses;
 	AnyBeanEventTest.class,
 	HeartbeatTest.class,
 	DeviceRequestTest.class,
-	AcquireRequestTest.class
+	AcquireRequestTest.class,
+	WireFormatTest.class,
+	DespatchThreadsTest.class,
+	QueueViewTest.class,
+	SubmissionOrderTest.class,
+	ConsumerIntakeTest.class,
+	ConcurrentConsumerTest.class,
+	LivenessTrackerTest.class
 	// MConsumerTest.class  Takes too long! TODO Make shorter
 })
 public class Suite {
@@ -0,0 +1,262 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.alive.HeartbeatBean;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
+import org.eclipse.scanning.api.event.scan.ScanRequest;
+import org.eclipse.scanning.api.event.status.Status;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.event.util.BinaryMarshaller;
+import org.eclipse.scanning.event.util.WireFormat;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.detector.MandelbrotModel;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.test.ScanningTestClassRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that beans are the same after being written in binary and read
+ * and compares the time and size of binary and JSON messages.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class WireFormatTest {
+
+	private IEventConnectorService service;
+	private BinaryMarshaller       marshaller;
+
+	@Before
+	public void create() throws Exception {
+		// Non-OSGi for test - do not copy!
+		ActivemqConnectorService.setJsonMarshaller(new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry(),
+						new ScanningTestClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				));
+		service    = new ActivemqConnectorService();
+		marshaller = new BinaryMarshaller(service);
+	}
+
+	@Test
+	public void testScanBean() throws Exception {
+		ScanBean bean = createPointBean(12);
+		assertEquals(bean, roundTrip(bean));
+		assertEquals(bean.getPosition(), roundTrip(bean).getPosition());
+	}
+
+	@Test
+	public void testScanBeanWithRequest() throws Exception {
+		ScanBean bean = createScanBean();
+		ScanBean naeb = roundTrip(bean);
+		assertEquals(bean, naeb);
+		assertEquals(bean.getScanRequest(), naeb.getScanRequest());
+	}
+
+	@Test
+	public void testPosition() throws Exception {
+		Point pnt = new Point("xNex", 2, 1.5, "yNex", 3, 2.5);
+		pnt.setStepIndex(12);
+		IPosition sop = marshaller.unmarshal(marshaller.marshal(pnt), IPosition.class);
+		assertEquals(pnt, sop);
+		assertEquals(12, sop.getStepIndex());
+		assertEquals(3, sop.getIndex("yNex"));
+	}
+
+	@Test
+	public void testHeartbeatAndProgress() throws Exception {
+
+		HeartbeatBean beat = new HeartbeatBean();
+		beat.setBeamline("BL45P");
+		beat.setConsumerName("Scan Consumer");
+		beat.setPublishTime(System.currentTimeMillis());
+		assertEquals(beat, roundTrip(beat));
+
+		ScanProgressBean progress = new ScanProgressBean(UUID.randomUUID().toString(), 12, 25, 48d);
+		assertEquals(progress, roundTrip(progress));
+	}
+
+	@Test
+	public void testExcludedProperty() throws Exception {
+		ScanBean bean = createScanBean();
+		ScanBean naeb = marshaller.unmarshal(marshaller.marshal(bean), ScanBean.class, Arrays.asList("scanRequest"));
+		assertNull(naeb.getScanRequest());
+		assertEquals(bean.getUniqueId(), naeb.getUniqueId());
+		assertEquals(bean.getStatus(), naeb.getStatus());
+		assertEquals(bean.getPosition(), naeb.getPosition());
+	}
+
+	@Test
+	public void testOnlyBeansAreBinary() throws Exception {
+		assertTrue(marshaller.isMarshallable(new ScanBean()));
+		assertFalse(marshaller.isMarshallable(new HashMap<String,Object>()));
+		assertFalse(marshaller.isMarshallable("Hello World"));
+		assertFalse(marshaller.isMarshallable(new RectangularROI(0, 0, 3, 3, 0)));
+	}
+
+	@Test
+	public void testWireFormatNames() throws Exception {
+		assertEquals(WireFormat.JSON,   WireFormat.fromName(null));
+		assertEquals(WireFormat.BINARY, WireFormat.fromName("binary"));
+		assertEquals(WireFormat.JSON,   WireFormat.getWireFormat("org.eclipse.scanning.test.wireFormat.topic"));
+		System.setProperty("org.eclipse.scanning.event.wireFormat.org.eclipse.scanning.test.wireFormat.topic", "binary");
+		try {
+			assertEquals(WireFormat.BINARY, WireFormat.getWireFormat("org.eclipse.scanning.test.wireFormat.topic"));
+		} finally {
+			System.clearProperty("org.eclipse.scanning.event.wireFormat.org.eclipse.scanning.test.wireFormat.topic");
+		}
+	}
+
+	/**
+	 * Not a test of speed which may be different on different machines,
+	 * this prints the time and size of each format for some usual beans.
+	 */
+	@Test
+	public void testBenchmark() throws Exception {
+
+		Map<String, Object> beans = new LinkedHashMap<>();
+		beans.put("Progress",                 new ScanProgressBean(UUID.randomUUID().toString(), 12, 25, 48d));
+		beans.put("Heartbeat",                createHeartbeat());
+		beans.put("ScanBean point",           createPointBean(12));
+		beans.put("ScanBean with request",    createScanBean());
+
+		System.out.println(String.format("%-25s %10s %10s %14s %14s %14s %14s", "Bean", "json B", "binary B", "json write us", "binary write us", "json read us", "binary read us"));
+		for (String name : beans.keySet()) {
+
+			final Object bean  = beans.get(name);
+			final Class<?> clazz = bean.getClass();
+			final String json  = service.marshal(bean);
+			final byte[] bytes = marshaller.marshal(bean);
+			assertEquals(bean, marshaller.unmarshal(bytes, clazz));
+			assertTrue(name+" is larger in binary", bytes.length < json.getBytes(StandardCharsets.UTF_8).length);
+
+			final int count = 2000;
+			for (int i = 0; i < count; i++) { // Warm up
+				service.unmarshal(service.marshal(bean), clazz);
+				marshaller.unmarshal(marshaller.marshal(bean), clazz);
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < count; i++) service.marshal(bean);
+			final double jsonWrite = (System.nanoTime()-start)/1000d/count;
+
+			start = System.nanoTime();
+			for (int i = 0; i < count; i++) marshaller.marshal(bean);
+			final double binaryWrite = (System.nanoTime()-start)/1000d/count;
+
+			start = System.nanoTime();
+			for (int i = 0; i < count; i++) service.unmarshal(json, clazz);
+			final double jsonRead = (System.nanoTime()-start)/1000d/count;
+
+			start = System.nanoTime();
+			for (int i = 0; i < count; i++) marshaller.unmarshal(bytes, clazz);
+			final double binaryRead = (System.nanoTime()-start)/1000d/count;
+
+			System.out.println(String.format("%-25s %10d %10d %14.1f %14.1f %14.1f %14.1f", name, json.getBytes(StandardCharsets.UTF_8).length, bytes.length,
+					                         jsonWrite, binaryWrite, jsonRead, binaryRead));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T roundTrip(T bean) throws Exception {
+		T naeb = (T)marshaller.unmarshal(marshaller.marshal(bean), bean.getClass());
+		assertNotNull(naeb);
+		return naeb;
+	}
+
+	private HeartbeatBean createHeartbeat() {
+		HeartbeatBean beat = new HeartbeatBean();
+		beat.setBeamline("BL45P");
+		beat.setConsumerName("Scan Consumer");
+		beat.setHostName("bl45p-control");
+		beat.setPublishTime(System.currentTimeMillis());
+		beat.setConceptionTime(System.currentTimeMillis()-10000);
+		beat.setLastAlive(System.currentTimeMillis());
+		return beat;
+	}
+
+	private ScanBean createPointBean(int step) {
+		final ScanBean bean = new ScanBean();
+		bean.setDeviceName("detector");
+		bean.setPoint(step);
+		bean.setSize(25);
+		Point pnt = new Point("xNex", 2, 1.5, "yNex", 2, 1.5);
+		pnt.setStepIndex(step);
+		bean.setPosition(pnt);
+		bean.setDeviceState(DeviceState.RUNNING);
+		bean.setPreviousDeviceState(DeviceState.RUNNING);
+		bean.setUniqueId(UUID.randomUUID().toString());
+		bean.setPreviousStatus(Status.RUNNING);
+		bean.setStatus(Status.RUNNING);
+		bean.setPercentComplete(52);
+		bean.setHostName("bl45p-control");
+		bean.setMessage("Point "+(step+1)+" of 25");
+		return bean;
+	}
+
+	private ScanBean createScanBean() {
+
+		final ScanBean bean = createPointBean(12);
+		bean.setName("Hello Scanning World");
+
+		final ScanRequest<IROI> req = new ScanRequest<IROI>();
+		CompoundModel<IROI> model = new CompoundModel<>();
+		model.setModelsVarArgs(new StepModel("T", 290, 300, 1), new SpiralModel("x", "y", 1, new BoundingBox(0, -5, 10, 5)), new GridModel("fast", "slow"));
+		model.setRegionsVarArgs(new ScanRegion<IROI>(new CircularROI(2, 0, 0), "x", "y"), new ScanRegion<IROI>(new RectangularROI(1,2,0), "fast", "slow"));
+		req.setCompoundModel(model);
+		req.setMonitorNames(Arrays.asList("monitor", "metadata"));
+		req.setFilePath("/dls/p45/data/2016/cm12345-1/p45-12345.nxs");
+		req.setStart(new MapPosition("T", 0, 290d));
+
+		final MandelbrotModel mandyModel = new MandelbrotModel();
+		mandyModel.setName("mandelbrot");
+		mandyModel.setRealAxisName("xNex");
+		mandyModel.setImaginaryAxisName("yNex");
+		req.putDetector("mandelbrot", mandyModel);
+
+		bean.setScanRequest(req);
+		return bean;
+	}
+}
@@ -18,8 +18,10 @@ import java.util.UUID;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.core.IAdmissionPolicy;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IProcessCreator;
+import org.eclipse.scanning.api.event.core.IntakeStatistics;
 import org.eclipse.scanning.api.event.status.StatusBean;
 
 public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
@@ -33,6 +35,8 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 
 	private String statusQueueName = "statQ", submitQueueName = "submQ";
 	private String name;
+	private int concurrency = 1;
+	private IAdmissionPolicy<U> admissionPolicy;
 
 	private List<U> statusSet = new ArrayList<>(), submitQueue = new ArrayList<>();
 
@@ -94,6 +98,12 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 		return false;
 	}
 
+	@Override
+	public boolean moveTo(U bean, String queueName, int index) throws EventException {
+		// TODO Auto-generated method stub
+		return false;
+	}
+
 	@Override
 	public boolean remove(U bean, String queueName) throws EventException {
 		// TODO Auto-generated method stub
@@ -277,6 +287,26 @@ public class MockConsumer<U extends StatusBean> implements IConsumer<U> {
 		this.pauseOnStart = pauseOnStart;
 	}
 	@Override
+	public IntakeStatistics getIntakeStatistics() {
+		return new IntakeStatistics(0, 0, 0, 0);
+	}
+	@Override
+	public void setConcurrency(int concurrency) {
+		this.concurrency = concurrency;
+	}
+	@Override
+	public int getConcurrency() {
+		return concurrency;
+	}
+	@Override
+	public void setAdmissionPolicy(IAdmissionPolicy<U> policy) {
+		this.admissionPolicy = policy;
+	}
+	@Override
+	public IAdmissionPolicy<U> getAdmissionPolicy() {
+		return admissionPolicy;
+	}
+	@Override
 	public void awaitStart() {
 		throw new IllegalArgumentException("The method awaitStart() is not implemented for "+getClass().getSimpleName());
 	}
@@ -23,9 +23,11 @@ import org.eclipse.scanning.api.event.IEventConnectorService;
 import org.eclipse.scanning.api.event.IEventService;
 import org.eclipse.scanning.api.event.IdBean;
 import org.eclipse.scanning.api.event.alive.ConsumerCommandBean;
+import org.eclipse.scanning.api.event.alive.ILivenessTracker;
 import org.eclipse.scanning.api.event.core.IConsumer;
 import org.eclipse.scanning.api.event.core.IPublisher;
 import org.eclipse.scanning.api.event.core.IQueueReader;
+import org.eclipse.scanning.api.event.core.IQueueView;
 import org.eclipse.scanning.api.event.core.IRequester;
 import org.eclipse.scanning.api.event.core.IResponder;
 import org.eclipse.scanning.api.event.core.ISubmitter;
@@ -51,6 +53,18 @@ public class MockEventService implements IEventService {
 		return null;
 	}
 
+	@Override
+	public <U extends StatusBean> IQueueView<U> createQueueView(URI uri, String submissionQueueName, String statusSetName, String statusTopicName) {
+		// TODO Auto-generated method stub
+		return null;
+	}
+
+	@Override
+	public ILivenessTracker createLivenessTracker(URI uri, String heartbeatTopicName) {
+		// TODO Auto-generated method stub
+		return null;
+	}
+
 	@SuppressWarnings("unchecked")
 	@Override
 	public <T extends EventListener> ISubscriber<T> createSubscriber(URI uri, String topicName) {
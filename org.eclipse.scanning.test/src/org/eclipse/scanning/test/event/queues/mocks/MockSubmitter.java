@@ -101,6 +101,11 @@ public class MockSubmitter<T extends StatusBean> implements ISubmitter<T> {
 		throw new EventException("Wrong reorder");
 	}
 
+	@Override
+	public boolean moveTo(T bean, String queueName, int index) throws EventException {
+		throw new EventException("Wrong moveTo");
+	}
+
 	@Override
 	public boolean remove(T bean, String queueName) throws EventException {
 		throw new EventException("Wrong remove");
@@ -17,6 +17,7 @@ import java.util.List;
 
 import org.eclipse.scanning.api.event.EventException;
 import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.core.DespatchStatistics;
 import org.eclipse.scanning.api.event.core.ISubscriber;
 
 public class MockSubscriber<T extends EventListener> implements ISubscriber<T> {
@@ -131,4 +132,22 @@ public class MockSubscriber<T extends EventListener> implements ISubscriber<T> {
 		return false;
 	}
 
+	@Override
+	public void setDespatchThreads(int threads) {
+		// TODO Auto-generated method stub
+		
+	}
+
+	@Override
+	public int getDespatchThreads() {
+		// TODO Auto-generated method stub
+		return 0;
+	}
+
+	@Override
+	public DespatchStatistics getDespatchStatistics() {
+		// TODO Auto-generated method stub
+		return null;
+	}
+
 }
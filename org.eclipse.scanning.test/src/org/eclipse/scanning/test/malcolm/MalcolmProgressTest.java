@@ -0,0 +1,237 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.malcolm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.scanning.api.malcolm.MalcolmDeviceException;
+import org.eclipse.scanning.api.malcolm.event.MalcolmEvent;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
+import org.eclipse.scanning.api.malcolm.message.Type;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.scan.PositionEvent;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.event.IPositionListener;
+import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
+import org.eclipse.scanning.example.malcolm.EPICSv4ExampleModel;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.sequencer.SubscanModerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Sends the steps of a fast Malcolm scan to a device as quickly as they can be
+ * made and checks that they are reported once an interval rather than once a step,
+ * and that the position of a step is only made when it is reported. No Malcolm
+ * is needed, the steps are given straight to the device.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MalcolmProgressTest {
+
+	private static final long INTERVAL = 100;
+
+	private IPointGeneratorService pgService;
+	private StepSource             device;
+	private List<IPosition>        reported;
+	private CountingIterator       points;
+
+	@Before
+	public void before() throws Exception {
+		System.setProperty("org.eclipse.scanning.malcolm.core.positionCompleteFrequency", String.valueOf(INTERVAL));
+		pgService = new PointGeneratorService();
+		device    = new StepSource();
+		reported  = Collections.synchronizedList(new ArrayList<>());
+		device.addPositionListener(new IPositionListener() {
+			@Override
+			public void positionPerformed(PositionEvent evt) throws ScanningException {
+				reported.add(evt.getPosition());
+			}
+		});
+	}
+
+	@After
+	public void after() throws Exception {
+		System.clearProperty("org.eclipse.scanning.malcolm.core.positionCompleteFrequency");
+	}
+
+	@Test
+	public void testHighRateSteps() throws Exception {
+
+		IPointGenerator<?> gen = createGrid(1000, 1000);
+		device.scanPoint(countPoints(gen));
+		final int size = gen.size();
+
+		long start = System.nanoTime();
+		for (int step = 1; step <= size; step++) device.step(step);
+		long time = TimeUnit.NANOSECONDS.toMillis(System.nanoTime()-start);
+
+		// One position an interval, not one a step
+		assertTrue("Reported "+reported.size()+" positions in "+time+"ms", reported.size() <= time/INTERVAL+2);
+
+		// The points of the scan are seeked to and one is made for each report,
+		// however fast the machine is none are made for the steps which are not reported.
+		assertEquals(reported.size(), points.made);
+		assertEquals(reported.size(), points.seeks);
+
+		// The last step is always reported and is the last point of the scan
+		IPosition last = reported.get(reported.size()-1);
+		assertEquals(size, last.getStepIndex());
+		assertEquals(getPoint(gen, size-1).getValues(), last.getValues());
+	}
+
+	@Test
+	public void testStepsReportedWhenStateChanges() throws Exception {
+
+		System.setProperty("org.eclipse.scanning.malcolm.core.positionCompleteFrequency", "60000");
+		IPointGenerator<?> gen = createGrid(10, 10);
+		device.scanPoint(new SubscanModerator(gen, Arrays.asList(device), pgService));
+
+		for (int step = 1; step <= 50; step++) device.step(step);
+		assertEquals(1, reported.size()); // The first step only, the rest are within the interval
+		assertEquals(1, reported.get(0).getStepIndex());
+
+		device.state("Paused");
+		assertEquals(2, reported.size());
+		assertEquals(50, reported.get(1).getStepIndex());
+		assertEquals(getPoint(gen, 49).getValues(), reported.get(1).getValues());
+
+		// Malcolm may be seeked back after a pause
+		device.step(20);
+		device.state("Running");
+		assertEquals(3, reported.size());
+		assertEquals(getPoint(gen, 19).getValues(), reported.get(2).getValues());
+	}
+
+	/**
+	 * @return a moderator for the scan whose inner points are counted as they are made.
+	 */
+	private SubscanModerator countPoints(IPointGenerator<?> gen) throws Exception {
+		return new SubscanModerator(gen, Arrays.asList(device), pgService) {
+			@Override
+			public Iterable<IPosition> getInnerIterable() {
+				final Iterable<IPosition> inner = super.getInnerIterable();
+				return () -> points = new CountingIterator((SeekableScanPointIterator)inner.iterator());
+			}
+		};
+	}
+
+	private IPointGenerator<?> createGrid(int slow, int fast) throws Exception {
+		GridModel grid = new GridModel("x", "y");
+		grid.setSlowAxisPoints(slow);
+		grid.setFastAxisPoints(fast);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		return pgService.createCompoundGenerator(pgService.createGenerator(grid));
+	}
+
+	private static IPosition getPoint(IPointGenerator<?> gen, int index) {
+		SeekableScanPointIterator it = (SeekableScanPointIterator)gen.iterator();
+		it.seek(index);
+		return it.next();
+	}
+
+	/**
+	 * Counts the points made and the seeks of the points of a scan.
+	 */
+	private static final class CountingIterator implements SeekableScanPointIterator {
+
+		private final SeekableScanPointIterator iterator;
+		private int made, seeks;
+
+		CountingIterator(SeekableScanPointIterator iterator) {
+			this.iterator = iterator;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public IPosition next() {
+			made++;
+			return iterator.next();
+		}
+
+		@Override
+		public void seek(int index) {
+			seeks++;
+			iterator.seek(index);
+		}
+
+		@Override
+		public int nextIndex() {
+			return iterator.nextIndex();
+		}
+
+		@Override
+		public int size() {
+			return iterator.size();
+		}
+
+		@Override
+		public int[] getShape() {
+			return iterator.getShape();
+		}
+
+		@Override
+		public int getRank() {
+			return iterator.getRank();
+		}
+	}
+
+	/**
+	 * A Malcolm device which is given its steps and states rather than reading them.
+	 */
+	private static class StepSource extends MalcolmDevice<EPICSv4ExampleModel> {
+
+		StepSource() throws MalcolmDeviceException {
+			super("stepSource", new EpicsV4ConnectorService(), null, null);
+		}
+
+		@SuppressWarnings("unchecked")
+		@Override
+		public <T> T getAttributeValue(String attributeName) throws MalcolmDeviceException {
+			if ("axesToMove".equals(attributeName)) return (T)new String[] { "x", "y" };
+			return super.getAttributeValue(attributeName);
+		}
+
+		void step(int step) throws Exception {
+			MalcolmMessage msg = new MalcolmMessage();
+			msg.setType(Type.UPDATE);
+			msg.setValue(Collections.singletonMap("value", step));
+			sendScanEvent(new MalcolmEvent<MalcolmMessage>(msg));
+		}
+
+		void state(String state) throws Exception {
+			MalcolmMessage msg = new MalcolmMessage();
+			msg.setType(Type.UPDATE);
+			msg.setValue(state);
+			sendScanStateChange(new MalcolmEvent<MalcolmMessage>(msg));
+		}
+	}
+}
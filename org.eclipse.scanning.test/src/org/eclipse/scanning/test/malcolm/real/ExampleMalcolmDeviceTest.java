@@ -18,15 +18,18 @@ import static org.junit.Assert.fail;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.dawnsci.analysis.api.roi.IROI;
 import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.event.scan.DeviceState;
 import org.eclipse.scanning.api.malcolm.IMalcolmDevice;
 import org.eclipse.scanning.api.malcolm.IMalcolmService;
 import org.eclipse.scanning.api.malcolm.MalcolmTable;
 import org.eclipse.scanning.api.malcolm.attributes.HealthAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.IDeviceAttribute;
 import org.eclipse.scanning.api.malcolm.attributes.TableAttribute;
+import org.eclipse.scanning.api.malcolm.message.MalcolmMessage;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.models.BoundingBox;
@@ -35,6 +38,7 @@ import org.eclipse.scanning.connector.epics.EpicsV4ConnectorService;
 import org.eclipse.scanning.example.malcolm.EPICSv4ExampleModel;
 import org.eclipse.scanning.example.malcolm.IEPICSv4Device;
 import org.eclipse.scanning.malcolm.core.AbstractMalcolmDevice;
+import org.eclipse.scanning.malcolm.core.MalcolmDevice;
 import org.eclipse.scanning.malcolm.core.MalcolmService;
 import org.eclipse.scanning.points.PointGeneratorService;
 import org.eclipse.scanning.test.epics.DeviceRunner;
@@ -369,4 +373,74 @@ public class ExampleMalcolmDeviceTest {
 		}
 	}
 
+	/**
+	 * Once initialised, the device reads state and health from its monitors
+	 * and only goes back to the device when asked to or when it has been changed.
+	 * @throws Exception
+	 */
+	@Test
+	public void readStateFromMonitors() throws Exception {
+
+		final AtomicInteger gets = new AtomicInteger();
+		this.service = new MalcolmService(new EpicsV4ConnectorService() {
+			@Override
+			protected MalcolmMessage sendGetMessage(IMalcolmDevice<?> device, MalcolmMessage message) throws Exception {
+				gets.incrementAndGet();
+				return super.sendGetMessage(device, message);
+			}
+		}, null);
+
+		try {
+			// Start the dummy test device
+			DeviceRunner runner = new DeviceRunner();
+			epicsv4Device = runner.start();
+
+			MalcolmDevice<EPICSv4ExampleModel> modelledDevice = (MalcolmDevice<EPICSv4ExampleModel>)service.<EPICSv4ExampleModel>getDevice(epicsv4Device.getRecordName());
+			modelledDevice.initialize(); // Done by register() in the server
+			assertEquals(DeviceState.READY, modelledDevice.getDeviceState());
+			assertEquals("Test Health", modelledDevice.getDeviceHealth());
+
+			int count = gets.get();
+			for (int i = 0; i < 100; i++) {
+				assertEquals(DeviceState.READY, modelledDevice.getDeviceState());
+				assertEquals("Test Health", modelledDevice.getDeviceHealth());
+				assertTrue(!modelledDevice.isDeviceBusy());
+			}
+			assertEquals(count, gets.get());
+
+			// Bypass goes to the device
+			assertEquals(DeviceState.READY, modelledDevice.getDeviceState(true));
+			assertEquals(count+1, gets.get());
+
+			// The block is kept for the maximum age
+			assertEquals(11, modelledDevice.getAllAttributes().size());
+			assertEquals(11, modelledDevice.getAllAttributes().size());
+			assertEquals(count+2, gets.get());
+			assertEquals(11, modelledDevice.getAllAttributes(true).size());
+			assertEquals(count+3, gets.get());
+
+			// Configure changes the state, which must be read again
+			List<IROI> regions = new LinkedList<>();
+			regions.add(new CircularROI(2, 0, 0));
+			IPointGeneratorService pgService = new PointGeneratorService();
+			IPointGenerator<SpiralModel> temp = pgService.createGenerator(
+					new SpiralModel("stage_x", "stage_y", 1, new BoundingBox(0, -5, 8, 3)), regions);
+			modelledDevice.setPointGenerator(pgService.createCompoundGenerator(temp));
+
+			EPICSv4ExampleModel pmac1 = new EPICSv4ExampleModel();
+			pmac1.setExposureTime(23.1);
+			pmac1.setFileDir("/path/to/ixx-1234");
+			modelledDevice.configure(pmac1);
+
+			assertEquals(DeviceState.ARMED, modelledDevice.getDeviceState());
+
+			modelledDevice.dispose();
+
+		} finally {
+			// Stop the device
+			epicsv4Device.stop();
+			service.dispose();
+		}
+	}
+
 }
@@ -0,0 +1,242 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.messaging;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.jms.Connection;
+import javax.jms.ConnectionFactory;
+import javax.jms.DeliveryMode;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageProducer;
+import javax.jms.Queue;
+import javax.jms.QueueBrowser;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import javax.jms.Topic;
+
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.connector.activemq.memory.MemoryBroker;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the parts of JMS which the event service uses with the in memory broker.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class MemoryBrokerTest {
+
+	private URI        uri;
+	private Connection connection;
+	private Session    session;
+
+	@Before
+	public void connect() throws Exception {
+		uri = new URI("memory://"+getClass().getSimpleName()+"-"+System.nanoTime());
+		ConnectionFactory factory = (ConnectionFactory)new ActivemqConnectorService().createConnectionFactory(uri);
+		connection = factory.createConnection();
+		session    = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+		connection.start();
+	}
+
+	@After
+	public void stop() throws Exception {
+		connection.close();
+		MemoryBroker.stop(uri);
+	}
+
+	@Test
+	public void testSendAndReceive() throws Exception {
+
+		Queue queue = session.createQueue("test.queue");
+		send(queue, "one", "two");
+
+		MessageConsumer consumer = session.createConsumer(queue);
+		assertEquals("one", ((TextMessage)consumer.receive(100)).getText());
+		assertEquals("two", ((TextMessage)consumer.receive(100)).getText());
+		assertNull(consumer.receiveNoWait());
+		assertEquals(0, MemoryBroker.getBroker(uri).getQueueSize("test.queue"));
+	}
+
+	@Test
+	public void testSelectors() throws Exception {
+
+		Queue queue = session.createQueue("test.queue");
+		MessageProducer producer = session.createProducer(queue);
+		TextMessage unordered = session.createTextMessage("unordered");
+		producer.send(unordered);
+		for (int i = 0; i < 3; i++) {
+			TextMessage message = session.createTextMessage("bean "+i);
+			message.setStringProperty("scanningUniqueId", Integer.toString(i));
+			producer.send(message);
+		}
+
+		assertEquals(Arrays.asList("bean 0", "bean 1", "bean 2"), browse(queue, "scanningUniqueId IS NOT NULL"));
+		assertEquals(Arrays.asList("unordered"), browse(queue, "scanningUniqueId IS NULL"));
+
+		MessageConsumer consumer = session.createConsumer(queue, "scanningUniqueId = '1'");
+		assertEquals("bean 1", ((TextMessage)consumer.receive(100)).getText());
+		assertNull(consumer.receiveNoWait());
+		consumer.close();
+
+		consumer = session.createConsumer(queue, "JMSMessageID = '"+unordered.getJMSMessageID()+"'");
+		assertEquals("unordered", ((TextMessage)consumer.receive(100)).getText());
+		consumer.close();
+
+		assertEquals(Arrays.asList("bean 0", "bean 2"), browse(queue, null));
+	}
+
+	@Test
+	public void testRollback() throws Exception {
+
+		Queue queue = session.createQueue("test.queue");
+		send(queue, "one");
+
+		Session transacted = connection.createSession(true, Session.SESSION_TRANSACTED);
+		MessageConsumer consumer = transacted.createConsumer(queue);
+		Message message = consumer.receive(100);
+		assertFalse(message.getJMSRedelivered());
+		transacted.createProducer(queue).send(transacted.createTextMessage("two"));
+
+		// Held and pending messages are seen by nobody else.
+		assertNull(session.createConsumer(queue).receiveNoWait());
+		assertEquals(Arrays.asList("one"), browse(queue, null));
+
+		transacted.rollback();
+		message = consumer.receive(100);
+		assertEquals("one", ((TextMessage)message).getText());
+		assertTrue(message.getJMSRedelivered());
+		assertNull(consumer.receiveNoWait());
+
+		transacted.createProducer(queue).send(transacted.createTextMessage("three"));
+		transacted.commit();
+		assertEquals(Arrays.asList("three"), browse(queue, null));
+		transacted.close();
+	}
+
+	@Test
+	public void testTopic() throws Exception {
+
+		Topic topic = session.createTopic("test.topic");
+		MessageConsumer all      = session.createConsumer(topic);
+		MessageConsumer selected = session.createConsumer(topic, "colour = 'red'");
+
+		final List<String>   heard = new ArrayList<>();
+		final CountDownLatch latch = new CountDownLatch(2);
+		session.createConsumer(topic).setMessageListener(m -> {
+			try {
+				heard.add(((TextMessage)m).getText());
+			} catch (Exception ne) {
+				ne.printStackTrace();
+			}
+			latch.countDown();
+		});
+
+		MessageProducer producer = session.createProducer(topic);
+		TextMessage message = session.createTextMessage("red");
+		message.setStringProperty("colour", "red");
+		producer.send(message);
+		producer.send(session.createTextMessage("blue"));
+
+		assertEquals("red",  ((TextMessage)all.receive(100)).getText());
+		assertEquals("blue", ((TextMessage)all.receive(100)).getText());
+		assertEquals("red",  ((TextMessage)selected.receive(100)).getText());
+		assertNull(selected.receiveNoWait());
+		assertTrue(latch.await(1, TimeUnit.SECONDS));
+		assertEquals(Arrays.asList("red", "blue"), heard);
+	}
+
+	@Test
+	public void testExpiry() throws Exception {
+
+		Queue queue = session.createQueue("test.queue");
+		MessageProducer producer = session.createProducer(queue);
+		producer.send(session.createTextMessage("short"), DeliveryMode.NON_PERSISTENT, 4, 10);
+		producer.send(session.createTextMessage("long"),  DeliveryMode.NON_PERSISTENT, 4, 0);
+		Thread.sleep(50);
+
+		assertEquals(Arrays.asList("long"), browse(queue, null));
+	}
+
+	@Test
+	public void testCloseWhileReceiving() throws Exception {
+
+		final MessageConsumer consumer = session.createConsumer(session.createQueue("test.queue"));
+		final CountDownLatch  returned = new CountDownLatch(1);
+		final List<Message>   received = new ArrayList<>();
+		Thread thread = new Thread(() -> {
+			try {
+				received.add(consumer.receive());
+			} catch (Exception ne) {
+				ne.printStackTrace();
+			}
+			returned.countDown();
+		});
+		thread.start();
+		Thread.sleep(100);
+		assertEquals(1, returned.getCount());
+
+		consumer.close();
+		assertTrue(returned.await(1, TimeUnit.SECONDS));
+		assertEquals(1, received.size());
+		assertNull(received.get(0));
+	}
+
+	@Test
+	public void testThroughput() throws Exception {
+
+		final int size = 10000;
+		Queue queue = session.createQueue("test.queue");
+		MessageProducer producer = session.createProducer(queue);
+		MessageConsumer consumer = session.createConsumer(queue);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < size; i++) {
+			producer.send(session.createTextMessage("{\"uniqueId\":\""+i+"\"}"));
+			assertNotNull(consumer.receiveNoWait());
+		}
+		long time = System.nanoTime()-start;
+		System.out.println("Sent and received "+size+" messages in memory in "+TimeUnit.NANOSECONDS.toMillis(time)+"ms");
+	}
+
+	private void send(Queue queue, String... texts) throws Exception {
+		MessageProducer producer = session.createProducer(queue);
+		for (String text : texts) producer.send(session.createTextMessage(text));
+		producer.close();
+	}
+
+	private List<String> browse(Queue queue, String selector) throws Exception {
+		final List<String> texts = new ArrayList<>();
+		QueueBrowser browser = selector!=null ? session.createBrowser(queue, selector) : session.createBrowser(queue);
+		@SuppressWarnings("rawtypes")
+		Enumeration e = browser.getEnumeration();
+		while(e.hasMoreElements()) texts.add(((TextMessage)e.nextElement()).getText());
+		browser.close();
+		return texts;
+	}
+}
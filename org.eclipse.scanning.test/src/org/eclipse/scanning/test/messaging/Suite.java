@@ -22,6 +22,7 @@ import org.junit.runners.Suite.SuiteClasses;
 	XcenMessagingAPITest.class,
 	ScanBeanMessagingAPITest.class,
 	TopicAndQueueNameTest.class,
+	MemoryBrokerTest.class,
 })
 public class Suite {
 
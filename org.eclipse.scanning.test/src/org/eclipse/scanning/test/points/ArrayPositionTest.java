@@ -0,0 +1,165 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.eclipse.scanning.api.points.ArrayPosition;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.points.Point;
+import org.eclipse.scanning.api.points.PositionSchema;
+import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.junit.Test;
+
+public class ArrayPositionTest {
+
+	private IPointGeneratorService service = new PointGeneratorService();
+
+	@Test
+	public void testSchemaShared() {
+		assertSame(PositionSchema.of("x", "y"), PositionSchema.of("x", "y"));
+		assertSame(new ArrayPosition("x", 0, 1.0).getSchema(), new ArrayPosition("x", 1, 2.0).getSchema());
+	}
+
+	@Test
+	public void testSameAsScalar() {
+		ArrayPosition apos = new ArrayPosition("x", 2, 1.5);
+		Scalar<Double> spos = new Scalar<>("x", 2, 1.5);
+		assertEquals(spos, apos);
+		assertEquals(apos, spos);
+		assertEquals(spos.hashCode(), apos.hashCode());
+		assertEquals(1.5, apos.getValue("x"), 0);
+		assertEquals(2, apos.getIndex("x"));
+	}
+
+	@Test
+	public void testCompoundSameAsMapPosition() {
+		IPosition apos = new ArrayPosition("x", 1, 2.0).compound(new ArrayPosition("y", 3, 4.0));
+		IPosition mpos = new Scalar<>("x", 1, 2.0).compound(new Scalar<>("y", 3, 4.0));
+
+		assertEquals(Arrays.asList("y", "x"), apos.getNames());
+		assertEquals(mpos, apos);
+		assertEquals(apos, mpos);
+		assertEquals(mpos.hashCode(), apos.hashCode());
+		assertEquals(mpos.getValues(), apos.getValues());
+		assertEquals(mpos.getIndices(), apos.getIndices());
+	}
+
+	@Test
+	public void testCompoundWithNonNumeric() {
+		MapPosition parent = new MapPosition();
+		parent.put("mode", "fast");
+		parent.putIndex("mode", 0);
+		IPosition pos = new ArrayPosition("x", 1, 2.0).compound(parent);
+		assertEquals("fast", pos.get("mode"));
+		assertEquals(2.0, pos.getValue("x"), 0);
+	}
+
+	@Test
+	public void testCompoundDoesNotGrow() {
+		// Compounding each inner point with the last position, the
+		// way the scan loop does, must not keep the previous points.
+		IPosition outer = new ArrayPosition("y", 0, 10.0);
+		IPosition last  = outer;
+		for (int i = 0; i < 1000; i++) {
+			last = new ArrayPosition("x", i, i).compound(last);
+		}
+		assertEquals(2, last.size());
+		assertEquals(999.0, last.getValue("x"), 0);
+		assertEquals(10.0, last.getValue("y"), 0);
+	}
+
+	@Test
+	public void testStepGeneratorPositions() throws Exception {
+
+		IPointGenerator<StepModel> gen = service.createGenerator(new StepModel("x", 0, 4, 1));
+		PositionSchema schema = null;
+		int i = 0;
+		for (IPosition pos : gen) {
+			assertTrue(pos instanceof ArrayPosition);
+			if (schema==null) schema = ((ArrayPosition)pos).getSchema();
+			assertSame(schema, ((ArrayPosition)pos).getSchema());
+			assertEquals(new Scalar<>("x", i, (double)i), pos);
+			++i;
+		}
+		assertEquals(5, i);
+	}
+
+	@Test
+	public void testGridGeneratorPositions() throws Exception {
+
+		GridModel model = new GridModel("x", "y");
+		model.setSlowAxisPoints(3);
+		model.setFastAxisPoints(4);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+
+		IPointGenerator<GridModel> gen = service.createGenerator(model);
+		PositionSchema schema = null;
+		int i = 0;
+		for (IPosition pos : gen) {
+			assertTrue(pos instanceof ArrayPosition);
+			if (schema==null) schema = ((ArrayPosition)pos).getSchema();
+			assertSame(schema, ((ArrayPosition)pos).getSchema());
+
+			// The same as the Point which the Jython grid makes
+			Point point = new Point("x", i%4, pos.getValue("x"), "y", i/4, pos.getValue("y"));
+			point.setStepIndex(pos.getStepIndex());
+			assertEquals(point, pos);
+			assertEquals(point.getNames(), pos.getNames());
+			++i;
+		}
+		assertEquals(12, i);
+	}
+
+	@Test
+	public void testCompoundGeneratorPositions() throws Exception {
+
+		GridModel grid = new GridModel("x", "y");
+		grid.setSlowAxisPoints(3);
+		grid.setFastAxisPoints(4);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+
+		IPointGenerator<?> gen = service.createCompoundGenerator(service.createGenerator(new StepModel("T", 290, 292, 1)), service.createGenerator(grid));
+		PositionSchema schema = null;
+		int i = 0;
+		for (IPosition pos : gen) {
+			assertTrue(pos instanceof ArrayPosition);
+			if (schema==null) schema = ((ArrayPosition)pos).getSchema();
+			assertSame(schema, ((ArrayPosition)pos).getSchema());
+			assertEquals(Arrays.asList("T", "y", "x"), pos.getNames());
+			assertEquals(290+i/12, pos.getValue("T"), 0);
+			assertEquals(i/12, pos.getIndex("T"));
+			assertEquals(i, pos.getStepIndex());
+			++i;
+		}
+		assertEquals(36, i);
+	}
+
+	@Test
+	public void testValueOf() {
+		IPosition mpos = new Scalar<>("x", 1, 2.0).compound(new Scalar<>("y", 3, 4.0));
+		ArrayPosition apos = ArrayPosition.valueOf(mpos);
+		assertEquals(mpos, apos);
+		assertTrue(apos.getSchema().getNames().equals(mpos.getNames()));
+	}
+}
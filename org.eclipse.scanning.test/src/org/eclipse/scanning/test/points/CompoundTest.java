@@ -47,7 +47,7 @@ public class CompoundTest {
 		service = new PointGeneratorService();
 	}
 
-	@Test(expected=org.python.core.PyException.class)
+	@Test(expected=IllegalArgumentException.class)
 	public void testCompoundCompoundException() throws Exception {
 
 		IPointGenerator<StepModel> pos = service.createGenerator(new StepModel("Position", 1, 4, 0.6));
@@ -68,7 +68,7 @@ public class CompoundTest {
 		IPointGenerator<?> scan2 = service.createCompoundGenerator(pos, scan);
 		scan2.iterator();
 	}
-	@Test(expected=org.python.core.PyException.class)
+	@Test(expected=IllegalArgumentException.class)
 	public void testDuplicateAxisNameException() throws Exception {
 
 		IPointGenerator<StepModel> pos1 = service.createGenerator(new StepModel("Position", 1, 4, 0.6));
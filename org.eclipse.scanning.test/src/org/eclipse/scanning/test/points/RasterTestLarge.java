@@ -23,7 +23,6 @@ import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
 import org.eclipse.scanning.api.points.IPointGenerator;
 import org.eclipse.scanning.api.points.IPointGeneratorService;
 import org.eclipse.scanning.api.points.IPosition;
-import org.eclipse.scanning.api.points.Point;
 import org.eclipse.scanning.api.points.models.RasterModel;
 import org.eclipse.scanning.points.PointGeneratorService;
 import org.junit.Before;
@@ -86,7 +85,7 @@ public class RasterTestLarge {
 		// Now iterate a few, shouldn't take that long
 		int count = 0;
 		while (it.hasNext()) {
-			Point point = (Point) it.next();
+			IPosition point = it.next();
 			count++;
 			if (count>10000) break;
 		}
@@ -95,7 +94,7 @@ public class RasterTestLarge {
 		assertTrue(after1>(after2-200)); // Shouldn't take that long to make it!
 
 		while (it.hasNext()) { // 10mill!
-			Point point = (Point) it.next();
+			IPosition point = it.next();
 			count++;
 		}
 		
@@ -159,8 +159,8 @@ public class ScanRankTest {
 		spiralTest(7);
 	}
 	
-	@Test(expected=org.python.core.PyException.class)
-	public void testScanLengthOver32BitRaisesPyException() throws Exception {
+	@Test(expected=IllegalArgumentException.class)
+	public void testScanLengthOver32BitRaisesException() throws Exception {
 		spiralTest(8);
 	}
 
@@ -0,0 +1,174 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.AbstractGenerator;
+import org.eclipse.scanning.api.points.GeneratorException;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.Scalar;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.Test;
+
+/**
+ * Checks that the size and shape of a scan are only calculated
+ * once for generators with equal models.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ScanShapeCacheTest extends AbstractGeneratorTest {
+
+	/**
+	 * A generator which counts how often its size and shape are calculated.
+	 */
+	private static class CountingGenerator extends AbstractGenerator<StepModel> {
+
+		private int sizeCount, shapeCount;
+
+		CountingGenerator(StepModel model) {
+			setModel(model);
+		}
+
+		@Override
+		protected Iterator<IPosition> iteratorFromValidModel() {
+			return new Iterator<IPosition>() {
+				private int index;
+				@Override
+				public boolean hasNext() {
+					return index < model.size();
+				}
+				@Override
+				public IPosition next() {
+					if (!hasNext()) throw new NoSuchElementException();
+					IPosition pos = new Scalar<>(model.getName(), index, model.getStart()+index*model.getStep());
+					index++;
+					return pos;
+				}
+			};
+		}
+
+		@Override
+		protected int sizeOfValidModel() throws GeneratorException {
+			sizeCount++;
+			return super.sizeOfValidModel();
+		}
+
+		@Override
+		protected int[] calculateShape() throws GeneratorException {
+			shapeCount++;
+			return super.calculateShape();
+		}
+	}
+
+	@Test
+	public void testEqualModelsCalculatedOnce() throws Exception {
+
+		final String name = "equal"+System.nanoTime(); // Not in the cache from another test
+		CountingGenerator gen1 = new CountingGenerator(new StepModel(name, 0, 9, 1));
+		CountingGenerator gen2 = new CountingGenerator(new StepModel(name, 0, 9, 1));
+
+		assertEquals(10, gen1.size());
+		assertArrayEquals(new int[] { 10 }, gen1.getShape());
+		assertEquals(10, gen2.size());
+		assertArrayEquals(new int[] { 10 }, gen2.getShape());
+		assertEquals(1, gen2.getRank());
+
+		assertEquals(1, gen1.sizeCount);
+		assertEquals(1, gen1.shapeCount);
+		assertEquals(0, gen2.sizeCount);
+		assertEquals(0, gen2.shapeCount);
+	}
+
+	@Test
+	public void testChangedModelCalculatedAgain() throws Exception {
+
+		final StepModel model = new StepModel("changed"+System.nanoTime(), 0, 9, 1);
+		CountingGenerator gen = new CountingGenerator(model);
+		assertEquals(10, gen.size());
+		assertArrayEquals(new int[] { 10 }, gen.getShape());
+
+		model.setStop(19);
+		assertEquals(20, gen.size());
+		assertArrayEquals(new int[] { 20 }, gen.getShape());
+		assertEquals(2, gen.sizeCount);
+		assertEquals(2, gen.shapeCount);
+
+		// A new generator for the original model still has the original size.
+		CountingGenerator orig = new CountingGenerator(new StepModel(model.getName(), 0, 9, 1));
+		assertEquals(10, orig.size());
+		assertArrayEquals(new int[] { 10 }, orig.getShape());
+	}
+
+	@Test
+	public void testShapeReturnedIsACopy() throws Exception {
+
+		final String name = "copy"+System.nanoTime();
+		CountingGenerator gen = new CountingGenerator(new StepModel(name, 0, 9, 1));
+		gen.getShape()[0] = 100;
+		assertArrayEquals(new int[] { 10 }, new CountingGenerator(new StepModel(name, 0, 9, 1)).getShape());
+	}
+
+	@Test
+	public void testRegionsAreNotShared() throws Exception {
+
+		GridModel model = new GridModel("x", "y");
+		model.setSlowAxisPoints(20);
+		model.setFastAxisPoints(20);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+
+		IPointGenerator<?> all    = service.createGenerator(model);
+		IPointGenerator<?> circle = service.createGenerator(model, new CircularROI(1, 1.5, 1.5));
+
+		assertEquals(400, all.size());
+		assertArrayEquals(new int[] { 20, 20 }, all.getShape());
+		assertEquals(circle.createPoints().size(), circle.size());
+		assertArrayEquals(new int[] { circle.size() }, circle.getShape());
+	}
+
+	@Test
+	public void testCompoundWithRegion() throws Exception {
+
+		GridModel grid = new GridModel("x", "y");
+		grid.setSlowAxisPoints(20);
+		grid.setFastAxisPoints(20);
+		grid.setSnake(true);
+		grid.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+
+		CompoundModel<IROI> cmodel = new CompoundModel<>(Arrays.<Object>asList(new StepModel("T", 290, 294, 1), grid));
+		cmodel.setRegions(Arrays.asList(new ScanRegion<IROI>(new CircularROI(1, 1.5, 1.5), Arrays.asList("x", "y"))));
+
+		IPointGenerator<?> gen = service.createCompoundGenerator(cmodel);
+		final int size = gen.createPoints().size();
+		assertEquals(size, gen.size());
+		assertArrayEquals(new int[] { 5, size/5 }, gen.getShape());
+
+		// Another generator for an equal request, as happens when a scan is validated and run.
+		IPointGenerator<?> again = service.createCompoundGenerator(cmodel);
+		assertEquals(size, again.size());
+		assertArrayEquals(new int[] { 5, size/5 }, again.getShape());
+		assertEquals(2, again.getRank());
+	}
+}
@@ -0,0 +1,152 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.SeekableScanPointIterator;
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.MultiStepModel;
+import org.eclipse.scanning.api.points.models.StaticModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.Test;
+
+/**
+ * Checks that points got by index are the same as
+ * those got by iterating.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SeekTest extends AbstractGeneratorTest {
+
+	@Test
+	public void testStep() throws Exception {
+		checkSeek(service.createGenerator(new StepModel("x", 0, 10, 0.5)));
+	}
+
+	@Test
+	public void testSnakeGridCircle() throws Exception {
+		checkSeek(service.createGenerator(createGrid(), new CircularROI(1.2, 1.5, 1.5)));
+	}
+
+	@Test
+	public void testArray() throws Exception {
+		ArrayModel model = new ArrayModel();
+		model.setName("x");
+		model.setPositions(0.1, 0.5, -2.0, 7.25);
+		checkSeek(service.createGenerator(model));
+	}
+
+	@Test
+	public void testMultiStep() throws Exception {
+		MultiStepModel model = new MultiStepModel();
+		model.setName("x");
+		model.addRange(10, 20, 2, 1.0);
+		model.addRange(25, 50, 5, 2.0);
+		checkSeek(service.createGenerator(model));
+	}
+
+	@Test
+	public void testStatic() throws Exception {
+		checkSeek(service.createGenerator(new StaticModel(5)));
+	}
+
+	@Test
+	public void testCompound() throws Exception {
+		IPointGenerator<?> temp = service.createGenerator(new StepModel("T", 290, 295, 1));
+		IPointGenerator<?> grid = service.createGenerator(createGrid(), new CircularROI(1.2, 1.5, 1.5));
+		checkSeek(service.createCompoundGenerator(temp, grid));
+	}
+
+	@Test
+	public void testSeekBackwards() throws Exception {
+		IPointGenerator<?> gen = service.createGenerator(createGrid());
+		List<IPosition> points = gen.createPoints();
+
+		SeekableScanPointIterator it = (SeekableScanPointIterator) gen.iterator();
+		it.seek(50);
+		assertEquals(50, it.nextIndex());
+		assertEquals(points.get(50), it.next());
+		it.seek(3);
+		assertEquals(points.get(3), it.next());
+		assertEquals(points.get(4), it.next());
+		it.seek(points.size());
+		assertFalse(it.hasNext());
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testSeekPastEnd() throws Exception {
+		IPointGenerator<?> gen = service.createGenerator(createGrid());
+		((SeekableScanPointIterator) gen.iterator()).seek(gen.size()+1);
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testNoSuchPoint() throws Exception {
+		IPointGenerator<?> gen = service.createGenerator(new StepModel("x", 0, 10, 1));
+		gen.getPoint(11);
+	}
+
+	@Test
+	public void testAdvance() throws Exception {
+		IPointGenerator<?> gen = service.createGenerator(createGrid(), new CircularROI(1.2, 1.5, 1.5));
+		List<IPosition> points = gen.createPoints();
+
+		Iterator<IPosition> it = gen.iterator();
+		assertNull(SeekableScanPointIterator.advance(it, 0));
+		assertEquals(points.get(0), SeekableScanPointIterator.advance(it, 1));
+		assertEquals(points.get(10), SeekableScanPointIterator.advance(it, 10));
+		assertEquals(points.get(points.size()-1), SeekableScanPointIterator.advance(it, points.size()));
+		assertFalse(it.hasNext());
+		assertNull(SeekableScanPointIterator.advance(it, 1));
+	}
+
+	private void checkSeek(IPointGenerator<?> gen) throws Exception {
+
+		final List<IPosition> points = new ArrayList<>();
+		for (IPosition pos : gen) points.add(pos);
+		assertTrue(gen.iterator() instanceof SeekableScanPointIterator);
+
+		for (int i = points.size()-1; i > -1; i--) {
+			assertEquals("Point "+i+" is different", points.get(i), gen.getPoint(i));
+		}
+		assertEquals(points.subList(1, 3), gen.getPoints(1, 2));
+		assertEquals(points.subList(points.size()-2, points.size()), gen.getPoints(points.size()-2, 10));
+		assertTrue(gen.getPoints(points.size(), 1).isEmpty());
+
+		final int start = points.size()/2;
+		final List<IPosition> rest = new ArrayList<>();
+		for (Iterator<IPosition> it = gen.iterator(start); it.hasNext();) rest.add(it.next());
+		assertEquals(points.subList(start, points.size()), rest);
+	}
+
+	private static GridModel createGrid() {
+		GridModel model = new GridModel("x", "y");
+		model.setSlowAxisPoints(7);
+		model.setFastAxisPoints(9);
+		model.setSnake(true);
+		model.setBoundingBox(new BoundingBox(0, 0, 3, 3));
+		return model;
+	}
+}
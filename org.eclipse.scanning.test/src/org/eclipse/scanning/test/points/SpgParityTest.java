@@ -0,0 +1,231 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.points;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.dawnsci.analysis.api.roi.IROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.CircularROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.PolygonalROI;
+import org.eclipse.dawnsci.analysis.dataset.roi.RectangularROI;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.ArrayModel;
+import org.eclipse.scanning.api.points.models.BoundingBox;
+import org.eclipse.scanning.api.points.models.BoundingLine;
+import org.eclipse.scanning.api.points.models.CompoundModel;
+import org.eclipse.scanning.api.points.models.GridModel;
+import org.eclipse.scanning.api.points.models.MultiStepModel;
+import org.eclipse.scanning.api.points.models.OneDEqualSpacingModel;
+import org.eclipse.scanning.api.points.models.OneDStepModel;
+import org.eclipse.scanning.api.points.models.RandomOffsetGridModel;
+import org.eclipse.scanning.api.points.models.RasterModel;
+import org.eclipse.scanning.api.points.models.ScanRegion;
+import org.eclipse.scanning.api.points.models.SpiralModel;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Checks that the points generated in Java are exactly the
+ * same as those of the Jython scanpointgenerator.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class SpgParityTest extends AbstractGeneratorTest {
+
+	private static final String USE_JYTHON = "org.eclipse.scanning.points.useJython";
+
+	@After
+	public void after() {
+		System.clearProperty(USE_JYTHON);
+	}
+
+	@Test
+	public void testStep() throws Exception {
+		checkParity(service.createGenerator(new StepModel("x", 0, 3, 0.3)));
+	}
+
+	@Test
+	public void testOneDEqualSpacing() throws Exception {
+		OneDEqualSpacingModel model = new OneDEqualSpacingModel();
+		model.setPoints(10);
+		model.setBoundingLine(createLine());
+		checkParity(service.createGenerator(model));
+	}
+
+	@Test
+	public void testOneDStep() throws Exception {
+		OneDStepModel model = new OneDStepModel();
+		model.setStep(0.3);
+		model.setBoundingLine(createLine());
+		checkParity(service.createGenerator(model));
+	}
+
+	@Test
+	public void testGrid() throws Exception {
+		checkParity(service.createGenerator(createGrid(false)));
+	}
+
+	@Test
+	public void testSnakeGrid() throws Exception {
+		checkParity(service.createGenerator(createGrid(true)));
+	}
+
+	@Test
+	public void testSnakeGridCircle() throws Exception {
+		checkParity(service.createGenerator(createGrid(true), new CircularROI(1.2, 1.5, 1.5)));
+	}
+
+	@Test
+	public void testGridRectangle() throws Exception {
+		checkParity(service.createGenerator(createGrid(true), new RectangularROI(0.5, 0.5, 1.5, 2, 0)));
+	}
+
+	@Test
+	public void testGridRotatedRectangle() throws Exception {
+		checkParity(service.createGenerator(createGrid(false), new RectangularROI(0.5, 0.5, 1.5, 2, 0.3)));
+	}
+
+	@Test
+	public void testRasterPolygon() throws Exception {
+		RasterModel model = new RasterModel("x", "y");
+		model.setFastAxisStep(0.25);
+		model.setSlowAxisStep(0.3);
+		model.setSnake(true);
+		model.setBoundingBox(createBox());
+
+		PolygonalROI diamond = new PolygonalROI(new double[] { 1.5, 0 });
+		diamond.insertPoint(new double[] { 3, 1.5 });
+		diamond.insertPoint(new double[] { 1.5, 3 });
+		diamond.insertPoint(new double[] { 0, 1.5 });
+		checkParity(service.createGenerator(model, diamond));
+	}
+
+	@Test
+	public void testRandomOffsetGrid() throws Exception {
+		RandomOffsetGridModel model = new RandomOffsetGridModel("x", "y");
+		model.setSlowAxisPoints(5);
+		model.setFastAxisPoints(7);
+		model.setBoundingBox(createBox());
+		model.setSeed(10);
+		model.setOffset(25);
+		checkParity(service.createGenerator(model));
+	}
+
+	@Test
+	public void testSpiral() throws Exception {
+		checkParity(service.createGenerator(new SpiralModel("x", "y", 0.5, createBox())));
+	}
+
+	@Test
+	public void testSpiralCircle() throws Exception {
+		checkParity(service.createGenerator(new SpiralModel("x", "y", 0.5, createBox()), new CircularROI(1, 1, 1)));
+	}
+
+	@Test
+	public void testArray() throws Exception {
+		ArrayModel model = new ArrayModel();
+		model.setName("x");
+		model.setPositions(0.1, 0.5, -2.0, 7.25);
+		checkParity(service.createGenerator(model));
+	}
+
+	@Test
+	public void testMultiStep() throws Exception {
+		MultiStepModel model = new MultiStepModel();
+		model.setName("x");
+		model.addRange(10, 20, 2, 1.0);
+		model.addRange(25, 50, 5, 2.0);
+		checkParity(service.createGenerator(model));
+	}
+
+	@Test
+	public void testCompoundStepGridCircle() throws Exception {
+		IPointGenerator<?> temp = service.createGenerator(new StepModel("T", 290, 295, 1));
+		IPointGenerator<?> grid = service.createGenerator(createGrid(true), new CircularROI(1.2, 1.5, 1.5));
+		checkParity(service.createCompoundGenerator(temp, grid));
+	}
+
+	@Test
+	public void testCompoundModelRegions() throws Exception {
+		CompoundModel<IROI> cmodel = new CompoundModel<>(Arrays.<Object>asList(new StepModel("T", 290, 292, 1), createGrid(true)));
+		cmodel.setRegions(Arrays.asList(new ScanRegion<IROI>(new CircularROI(1.2, 1.5, 1.5), Arrays.asList("x", "y"))));
+		checkParity(service.createCompoundGenerator(cmodel));
+	}
+
+	@Test
+	public void testCompoundThreeSteps() throws Exception {
+		IPointGenerator<?> a = service.createGenerator(new StepModel("a", 0, 2, 1));
+		IPointGenerator<?> b = service.createGenerator(new StepModel("b", 10, 13, 1));
+		IPointGenerator<?> c = service.createGenerator(new StepModel("c", -1, 1, 0.5));
+		checkParity(service.createCompoundGenerator(a, b, c));
+	}
+
+	private void checkParity(IPointGenerator<?> gen) throws Exception {
+
+		System.clearProperty(USE_JYTHON);
+		final List<IPosition> java  = iterate(gen);
+		final int[]           shape = gen.getShape();
+
+		System.setProperty(USE_JYTHON, "true");
+		final List<IPosition> jython = iterate(gen);
+
+		assertEquals(jython.size(), gen.size());
+		assertArrayEquals(gen.getShape(), shape);
+		assertEquals(jython.size(), java.size());
+		for (int i = 0; i < jython.size(); i++) {
+			assertEquals("Point "+i+" is different", jython.get(i), java.get(i));
+			assertEquals(jython.get(i).getClass(), java.get(i).getClass());
+		}
+	}
+
+	private static List<IPosition> iterate(IPointGenerator<?> gen) {
+		final List<IPosition> ret = new ArrayList<>();
+		for (Iterator<IPosition> it = gen.iterator(); it.hasNext();) ret.add(it.next());
+		return ret;
+	}
+
+	private static GridModel createGrid(boolean snake) {
+		GridModel model = new GridModel("x", "y");
+		model.setSlowAxisPoints(7);
+		model.setFastAxisPoints(9);
+		model.setSnake(snake);
+		model.setBoundingBox(createBox());
+		return model;
+	}
+
+	private static BoundingBox createBox() {
+		BoundingBox box = new BoundingBox();
+		box.setFastAxisStart(0);
+		box.setSlowAxisStart(0);
+		box.setFastAxisLength(3);
+		box.setSlowAxisLength(3);
+		return box;
+	}
+
+	private static BoundingLine createLine() {
+		BoundingLine line = new BoundingLine();
+		line.setxStart(0.0);
+		line.setyStart(0.0);
+		line.setLength(Math.hypot(3.0, 3.0));
+		line.setAngle(Math.PI/4);
+		return line;
+	}
+}
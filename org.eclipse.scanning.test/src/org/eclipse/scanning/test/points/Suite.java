@@ -18,6 +18,7 @@ import org.junit.runners.Suite.SuiteClasses;
 @SuiteClasses({
 
 	ArrayTest.class,
+	ArrayPositionTest.class,
 	CompoundTest.class, 
 	GridTest.class, 
 	LinearTest.class, 
@@ -29,7 +30,10 @@ import org.junit.runners.Suite.SuiteClasses;
 	RasterTest.class, 
 	ScanPointGeneratorFactoryTest.class,
 	ScanRankTest.class,
+	ScanShapeCacheTest.class,
 	ScanShapeTest.class,
+	SeekTest.class,
+	SpgParityTest.class,
 	SpiralTest.class,
 	StaticTest.class,
 	StepTest.class,
@@ -14,11 +14,21 @@ package org.eclipse.scanning.test.remote;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.eclipse.scanning.api.IScannable;
 import org.eclipse.scanning.api.device.IScannableDeviceService;
@@ -33,6 +43,7 @@ import org.eclipse.scanning.api.scan.event.IPositionListener;
 import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
 import org.eclipse.scanning.event.EventServiceImpl;
 import org.eclipse.scanning.event.remote.RemoteServiceFactory;
+import org.eclipse.scanning.example.scannable.MockScannable;
 import org.eclipse.scanning.example.scannable.MockScannableConnector;
 import org.eclipse.scanning.server.servlet.AbstractResponderServlet;
 import org.eclipse.scanning.server.servlet.DeviceServlet;
@@ -186,4 +197,153 @@ public class RemoteScannableServiceTest extends BrokerTest {
         assertEquals(10, positions.size());
 	}
 
+	@Test
+	public void testGetPositions() throws Exception {
+
+		cservice.getScannable("a").setPosition(1d);
+		cservice.getScannable("b").setPosition(2d);
+		cservice.getScannable("c").setPosition(3d);
+
+		Map<String, Object> positions = rservice.getPositions(Arrays.asList("a", "b", "c"));
+		assertEquals(Arrays.asList("a", "b", "c"), new ArrayList<>(positions.keySet()));
+		assertEquals(1d, positions.get("a"));
+		assertEquals(2d, positions.get("b"));
+		assertEquals(3d, positions.get("c"));
+	}
+
+	@Test
+	public void testSetPositions() throws Exception {
+
+		Map<String, Object> positions = new LinkedHashMap<>();
+		positions.put("a", 4d);
+		positions.put("b", 5d);
+		rservice.setPositions(positions);
+
+		assertEquals(4d, cservice.getScannable("a").getPosition());
+		assertEquals(5d, cservice.getScannable("b").getPosition());
+	}
+
+	@Test
+	public void testConcurrentReads() throws Exception {
+
+		final List<String> names = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			names.add("T"+i);
+			cservice.getScannable("T"+i).setPosition(i*1d);
+		}
+
+		// Reads made while others are being sent are sent together.
+		ExecutorService pool = Executors.newFixedThreadPool(names.size());
+		try {
+			List<Future<Object>> reads = new ArrayList<>();
+			for (String name : names) {
+				IScannable<Object> scannable = rservice.getScannable(name);
+				reads.add(pool.submit((Callable<Object>)scannable::getPosition));
+			}
+			for (int i = 0; i < names.size(); i++) {
+				assertEquals(i*1d, reads.get(i).get(10, TimeUnit.SECONDS));
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSequentialReads() throws Exception {
+
+		cservice.getScannable("a").setPosition(1d);
+		cservice.getScannable("b").setPosition(2d);
+		IScannable<Object> a = rservice.getScannable("a");
+		IScannable<Object> b = rservice.getScannable("b");
+
+		// Reads one after the other read the scannables read recently with them.
+		for (int i = 0; i < 3; i++) {
+			assertEquals(1d, a.getPosition());
+			assertEquals(2d, b.getPosition());
+		}
+
+		// A position read ahead is not used once the scannable is moved.
+		assertEquals(1d, a.getPosition());
+		b.setPosition(3d);
+		assertEquals(3d, b.getPosition());
+	}
+
+	@Test
+	public void testReadsWithBrokenScannable() throws Exception {
+
+		final AtomicBoolean broken = new AtomicBoolean(false);
+		cservice.register(new MockScannable("broken", 0d) {
+			@Override
+			public Number getPosition() {
+				if (broken.get()) throw new IllegalStateException("The scannable is broken");
+				return super.getPosition();
+			}
+		});
+		cservice.getScannable("a").setPosition(1d);
+		IScannable<Object> a = rservice.getScannable("a");
+		IScannable<Object> b = rservice.getScannable("broken");
+		assertEquals(0d, b.getPosition());
+
+		broken.set(true);
+		try {
+			// The broken scannable is read with a but does not stop a being read.
+			for (int i = 0; i < 3; i++) {
+				assertEquals(1d, a.getPosition());
+				try {
+					b.getPosition();
+					fail("The broken scannable was read");
+				} catch (EventException expected) {
+					assertTrue(expected.getMessage().contains("broken"));
+				}
+			}
+
+			// A read of many gives the errors by name.
+			try {
+				rservice.getPositions(Arrays.asList("a", "broken"));
+				fail("The broken scannable was read");
+			} catch (ScanningException expected) {
+				assertTrue(expected.getMessage().contains("broken"));
+			}
+
+			broken.set(false);
+			assertEquals(0d, b.getPosition());
+			assertEquals(1d, a.getPosition());
+
+		} finally {
+			broken.set(false);
+		}
+	}
+
+	@Test
+	public void testPositionSubscription() throws Exception {
+
+		IScannable<Double> temp = cservice.getScannable("T");
+		final List<Double> positions = new CopyOnWriteArrayList<>();
+		IPositionListener listener = new IPositionListener() {
+			@Override
+			public void positionChanged(PositionEvent evt) throws ScanningException {
+				positions.add((Double)evt.getPosition().get("T"));
+			}
+		};
+
+		rservice.addPositionListener(Arrays.asList("T"), 200, listener);
+		try {
+			// The move changes T ten times, which are sent at most every 200ms.
+			double target = temp.getPosition()+5;
+			temp.setPosition(target);
+			Thread.sleep(1000);
+
+			assertTrue(positions.size()>1);
+			assertTrue(positions.size()<10);
+			assertEquals(target, positions.get(positions.size()-1), 0.0001);
+		} finally {
+			rservice.removePositionListener(Arrays.asList("T"), listener);
+		}
+
+		int size = positions.size();
+		temp.setPosition(temp.getPosition()-5);
+		Thread.sleep(500);
+		assertEquals(size, positions.size());
+	}
+
 }
@@ -0,0 +1,210 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.eclipse.scanning.api.device.AbstractRunnableDevice;
+import org.eclipse.scanning.api.event.EventException;
+import org.eclipse.scanning.api.event.IEventConnectorService;
+import org.eclipse.scanning.api.event.core.IConsumer;
+import org.eclipse.scanning.api.event.core.IPublisher;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.event.scan.ScanBean;
+import org.eclipse.scanning.api.event.scan.ScanProgressBean;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.MapPosition;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks that the scan bean is published no more often than the
+ * maximum progress rate as points complete, apart from the first
+ * and last points and changes of state.
+ *
+ * @author Matthew Gerring
+ *
+ */
+public class ProgressRateTest {
+
+	private ProgressDevice                     device;
+	private RecordingPublisher<ScanBean>       publisher;
+	private RecordingPublisher<ScanProgressBean> progressPublisher;
+
+	@Before
+	public void setup() throws Exception {
+		device = new ProgressDevice();
+		publisher = new RecordingPublisher<>();
+		device.setPublisher(publisher);
+		device.setDeviceState(DeviceState.RUNNING);
+		publisher.points.clear();
+	}
+
+	@Test
+	public void testEveryPointByDefault() throws Exception {
+		assertEquals(0d, device.getMaxProgressRate(), 0d);
+		run(100);
+		assertEquals(100, publisher.points.size());
+	}
+
+	@Test
+	public void testRateLimited() throws Exception {
+
+		device.setMaxProgressRate(1);
+		run(1000);
+
+		// Much less than a second so only the first and last are sent.
+		assertEquals(Arrays.asList(1, 1000), publisher.points);
+		assertEquals("Point 1000 of 1000", device.getBean().getMessage());
+		assertEquals(1000, device.getBean().getPoint());
+	}
+
+	@Test
+	public void testStateChangeIsPublished() throws Exception {
+
+		device.setMaxProgressRate(1);
+		device.complete(1, 10);
+		device.complete(2, 10);
+		device.setDeviceState(DeviceState.PAUSED);
+		device.setDeviceState(DeviceState.RUNNING);
+		device.complete(3, 10);
+		device.complete(4, 10);
+
+		assertEquals(Arrays.asList(1, 2, 2, 3), publisher.points);
+		assertEquals("Point 3 of 10", device.getBean().getMessage());
+	}
+
+	@Test
+	public void testProgressDeltas() throws Exception {
+
+		progressPublisher = new RecordingPublisher<>();
+		device.setProgressPublisher(progressPublisher);
+		device.setMaxProgressRate(1);
+		device.setMaxProgressDeltaRate(0);
+		run(1000);
+
+		assertEquals(2, publisher.points.size());
+		assertEquals(1000, progressPublisher.points.size());
+		ScanProgressBean last = progressPublisher.beans.get(999);
+		assertEquals(device.getBean().getUniqueId(), last.getUniqueId());
+		assertEquals(1000, last.getPoint());
+		assertEquals(1000, last.getSize());
+		assertEquals(100d, last.getPercentComplete(), 0.0001);
+		assertTrue(last.getTime()>0);
+	}
+
+	private void run(int size) throws Exception {
+		for (int i = 1; i <= size; i++) device.complete(i, size);
+	}
+
+	private static class ProgressDevice extends AbstractRunnableDevice<Object> {
+
+		ProgressDevice() {
+			super(null);
+			setName("progress");
+		}
+
+		@Override
+		public void run(IPosition position) throws ScanningException, InterruptedException {
+			// Do nothing
+		}
+
+		@Override
+		public void setDeviceState(DeviceState nstate) throws ScanningException {
+			super.setDeviceState(nstate);
+		}
+
+		/**
+		 * Completes a point in the same way as the acquisition device,
+		 * which counts the point before it is complete.
+		 */
+		void complete(int count, int size) throws Exception {
+			MapPosition pos = new MapPosition();
+			pos.setStepIndex(count-1);
+			positionComplete(pos, count, size);
+		}
+	}
+
+	private static class RecordingPublisher<T> implements IPublisher<T> {
+
+		final List<T>       beans  = new ArrayList<>();
+		final List<Integer> points = new ArrayList<>();
+
+		@Override
+		public void broadcast(T bean) throws EventException {
+			beans.add(bean);
+			if (bean instanceof ScanBean) points.add(((ScanBean)bean).getPoint());
+			if (bean instanceof ScanProgressBean) points.add(((ScanProgressBean)bean).getPoint());
+		}
+
+		@Override
+		public String getTopicName() {
+			return null;
+		}
+
+		@Override
+		public void setTopicName(String topic) throws EventException {
+		}
+
+		@Override
+		public void disconnect() throws EventException {
+		}
+
+		@Override
+		public URI getUri() {
+			return null;
+		}
+
+		@Override
+		public IEventConnectorService getConnectorService() {
+			return null;
+		}
+
+		@Override
+		public void setAlive(boolean alive) throws EventException {
+		}
+
+		@Override
+		public boolean isAlive() {
+			return true;
+		}
+
+		@Override
+		public String getStatusSetName() {
+			return null;
+		}
+
+		@Override
+		public void setStatusSetName(String queueName) {
+		}
+
+		@Override
+		public void setStatusSetAddRequired(boolean isRequired) {
+		}
+
+		@Override
+		public void setLoggingStream(PrintStream stream) {
+		}
+
+		@Override
+		public void setConsumer(IConsumer<?> consumer) {
+		}
+	}
+}
@@ -31,7 +31,9 @@ import org.junit.runners.Suite.SuiteClasses;
 	RunnableDeviceServiceConfigureTest.class,
 	WatchdogTopupTest.class,
 	WatchdogShutterTest.class,
-	WatchdogCombinedTest.class
+	WatchdogCombinedTest.class,
+	WriteBehindTest.class,
+	ProgressRateTest.class
 	// ThreadScanTest.class  Not reliable on traivs.
 })
 public class Suite {
@@ -0,0 +1,331 @@
+/*-
+ *******************************************************************************
+ * Copyright (c) 2011, 2016 Diamond Light Source Ltd.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *    Matthew Gerring - initial API and implementation and/or initial documentation
+ *******************************************************************************/
+package org.eclipse.scanning.test.scan;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.eclipse.dawnsci.hdf5.nexus.NexusFileFactoryHDF5;
+import org.eclipse.dawnsci.json.MarshallerService;
+import org.eclipse.dawnsci.nexus.builder.impl.DefaultNexusBuilderFactory;
+import org.eclipse.dawnsci.remotedataset.test.mock.LoaderServiceMock;
+import org.eclipse.scanning.api.annotation.scan.ScanFinally;
+import org.eclipse.scanning.api.annotation.scan.WriteComplete;
+import org.eclipse.scanning.api.device.IRunnableDevice;
+import org.eclipse.scanning.api.device.IRunnableDeviceService;
+import org.eclipse.scanning.api.device.IScannableDeviceService;
+import org.eclipse.scanning.api.event.scan.DeviceState;
+import org.eclipse.scanning.api.points.IPointGenerator;
+import org.eclipse.scanning.api.points.IPointGeneratorService;
+import org.eclipse.scanning.api.points.IPosition;
+import org.eclipse.scanning.api.points.models.StepModel;
+import org.eclipse.scanning.api.scan.ScanningException;
+import org.eclipse.scanning.api.scan.models.ScanModel;
+import org.eclipse.scanning.connector.activemq.ActivemqConnectorService;
+import org.eclipse.scanning.example.classregistry.ScanningExampleClassRegistry;
+import org.eclipse.scanning.example.scannable.MockScannableConnector;
+import org.eclipse.scanning.points.PointGeneratorService;
+import org.eclipse.scanning.points.classregistry.ScanningAPIClassRegistry;
+import org.eclipse.scanning.points.serialization.PointsModelMarshaller;
+import org.eclipse.scanning.sequencer.RunnableDeviceServiceImpl;
+import org.eclipse.scanning.sequencer.ServiceHolder;
+import org.eclipse.scanning.test.ScanningTestClassRegistry;
+import org.eclipse.scanning.test.scan.mock.MockDetectorModel;
+import org.eclipse.scanning.test.scan.mock.MockWritableDetector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Runs scans with the writes queued behind the acquisition and
+ * checks that every point is written and notified in order.
+ */
+public class WriteBehindTest {
+
+	private IRunnableDeviceService      dservice;
+	private IScannableDeviceService     connector;
+	private IPointGeneratorService      gservice;
+
+	@Before
+	public void setup() throws Exception {
+
+		ActivemqConnectorService.setJsonMarshaller(new MarshallerService(
+				Arrays.asList(new ScanningAPIClassRegistry(),
+						new ScanningExampleClassRegistry(),
+						new ScanningTestClassRegistry()),
+				Arrays.asList(new PointsModelMarshaller())
+				));
+
+		// We wire things together without OSGi here
+		// DO NOT COPY THIS IN NON-TEST CODE
+		connector = new MockScannableConnector(null);
+		dservice  = new RunnableDeviceServiceImpl(connector);
+		RunnableDeviceServiceImpl impl = (RunnableDeviceServiceImpl)dservice;
+		impl._register(MockDetectorModel.class, MockWritableDetector.class);
+		gservice  = new PointGeneratorService();
+
+		ServiceHolder.setTestServices(new LoaderServiceMock(), new DefaultNexusBuilderFactory(), null);
+		org.eclipse.dawnsci.nexus.ServiceHolder.setNexusFileFactory(new NexusFileFactoryHDF5());
+
+		System.setProperty("org.eclipse.scanning.sequencer.write.behind.depth", "4");
+	}
+
+	@After
+	public void clear() {
+		System.clearProperty("org.eclipse.scanning.sequencer.write.behind.depth");
+	}
+
+	@Test
+	public void testWritesCompleteInOrder() throws Exception {
+
+		SlowWritingDetector det = new SlowWritingDetector(10);
+		WriteRecorder recorder = new WriteRecorder();
+		IRunnableDevice<ScanModel> scanner = createStepScan(25, det, recorder);
+		scanner.run(null);
+
+		assertEquals(DeviceState.ARMED, scanner.getDeviceState());
+		assertEquals(25, det.getModel().getWritten());
+		assertEquals(25, recorder.written.size());
+		for (int i = 0; i < recorder.written.size(); i++) {
+			assertEquals(i, recorder.written.get(i).getStepIndex());
+		}
+		assertEquals(25, recorder.writtenBeforeFinally);
+	}
+
+	@Test
+	public void testWritesOverlapAcquisition() throws Exception {
+
+		// The write of the first point waits for the second point to be run,
+		// which only happens if the write is behind the acquisition.
+		OverlapDetector det = new OverlapDetector();
+		IRunnableDevice<ScanModel> scanner = createStepScan(20, det, new WriteRecorder());
+		scanner.run(null);
+
+		assertEquals(20, det.getModel().getWritten());
+		assertTrue("The writes did not overlap the acquisition", det.overlapped);
+	}
+
+	@Test
+	public void testAbortReleasesBlockedScan() throws Exception {
+
+		// The first write never finishes by itself, so the queue fills and the scan waits for a slot.
+		BlockingDetector det = new BlockingDetector(-1);
+		IRunnableDevice<ScanModel> scanner = createStepScan(20, det, new WriteRecorder());
+		try {
+			ScanThread scan = new ScanThread(scanner);
+			scan.start();
+
+			assertTrue("The scan did not fill the write queue", det.waitForRuns(5, 10000));
+			Thread.sleep(200);
+			assertEquals("The scan ran past a full write queue", 5, det.runs.get());
+
+			scanner.abort();
+			scan.join(5000);
+			assertFalse("The scan was not released by the abort", scan.isAlive());
+			assertTrue(scan.exception instanceof ScanningException);
+		} finally {
+			det.release.countDown();
+		}
+	}
+
+	@Test
+	public void testCloseDoesNotWaitForPendingWrites() throws Exception {
+
+		// The first write fails, the second never finishes by itself so writes are pending when the scan closes.
+		BlockingDetector det = new BlockingDetector(0);
+		IRunnableDevice<ScanModel> scanner = createStepScan(20, det, new WriteRecorder());
+		try {
+			ScanThread scan = new ScanThread(scanner);
+			scan.start();
+
+			scan.join(5000);
+			assertFalse("The scan waited for the pending writes", scan.isAlive());
+			assertTrue(scan.exception instanceof ScanningException);
+			assertTrue("No write was pending when the scan closed", det.release.getCount()>0 && det.blocked);
+		} finally {
+			det.release.countDown();
+		}
+	}
+
+	private IRunnableDevice<ScanModel> createStepScan(int size, MockWritableDetector det, Object participant) throws Exception {
+
+		final IPointGenerator<?> gen = gservice.createGenerator(new StepModel("xNex", 0, size-1, 1));
+
+		final ScanModel  smodel = new ScanModel();
+		smodel.setPositionIterable(gen);
+		smodel.setDetectors(det);
+		smodel.setAnnotationParticipants(Arrays.asList(participant));
+
+		File output = File.createTempFile("test_write_behind", ".nxs");
+		output.deleteOnExit();
+		smodel.setFilePath(output.getAbsolutePath());
+
+		return dservice.createRunnableDevice(smodel, null);
+	}
+
+	private static class SlowWritingDetector extends MockWritableDetector {
+
+		private final long writeTime;
+
+		SlowWritingDetector(long writeTime) {
+			super("slowWriter");
+			this.writeTime = writeTime;
+			MockDetectorModel model = new MockDetectorModel(0);
+			model.setName(getName());
+			model.setCreateImage(false);
+			setModel(model);
+		}
+
+		@Override
+		public boolean write(IPosition position) throws ScanningException {
+			try {
+				Thread.sleep(writeTime);
+			} catch (InterruptedException e) {
+				throw new ScanningException(e);
+			}
+			return super.write(position);
+		}
+	}
+
+	private static class OverlapDetector extends MockWritableDetector {
+
+		private final CountDownLatch secondRun = new CountDownLatch(1);
+		private volatile boolean     overlapped;
+
+		OverlapDetector() {
+			super("overlapWriter");
+			MockDetectorModel model = new MockDetectorModel(0);
+			model.setName(getName());
+			model.setCreateImage(false);
+			setModel(model);
+		}
+
+		@Override
+		public void run(IPosition position) throws ScanningException {
+			if (position.getStepIndex()==1) secondRun.countDown();
+			super.run(position);
+		}
+
+		@Override
+		public boolean write(IPosition position) throws ScanningException {
+			if (position.getStepIndex()==0) {
+				try {
+					overlapped = secondRun.await(10, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					throw new ScanningException(e);
+				}
+			}
+			return super.write(position);
+		}
+	}
+
+	/**
+	 * Fails the write of one point once the next points have been run and blocks the writes
+	 * of the others until released, interrupting the writing thread does not release it.
+	 */
+	private static class BlockingDetector extends MockWritableDetector {
+
+		private final int            failAt;
+		private final AtomicInteger  runs    = new AtomicInteger();
+		private final CountDownLatch release = new CountDownLatch(1);
+		private volatile boolean     blocked;
+
+		BlockingDetector(int failAt) {
+			super("blockingWriter");
+			this.failAt = failAt;
+			MockDetectorModel model = new MockDetectorModel(0);
+			model.setName(getName());
+			model.setCreateImage(false);
+			setModel(model);
+		}
+
+		@Override
+		public void run(IPosition position) throws ScanningException {
+			super.run(position);
+			runs.incrementAndGet();
+		}
+
+		@Override
+		public boolean write(IPosition position) throws ScanningException {
+			if (position.getStepIndex()==failAt) {
+				try {
+					waitForRuns(failAt+3, 5000); // So that the next writes are queued when this one fails
+				} catch (InterruptedException e) {
+					throw new ScanningException(e);
+				}
+				throw new ScanningException("Write of point "+failAt+" failed");
+			}
+			blocked = true;
+			while (release.getCount()>0) {
+				try {
+					release.await();
+				} catch (InterruptedException ignored) {
+					// Keep blocking, the runner must not rely on the write stopping.
+				}
+			}
+			return super.write(position);
+		}
+
+		boolean waitForRuns(int count, long timeout) throws InterruptedException {
+			long start = System.currentTimeMillis();
+			while (runs.get()<count && System.currentTimeMillis()-start<timeout) Thread.sleep(10);
+			return runs.get()>=count;
+		}
+	}
+
+	private static class ScanThread extends Thread {
+
+		private final IRunnableDevice<ScanModel> scanner;
+		private volatile Exception               exception;
+
+		ScanThread(IRunnableDevice<ScanModel> scanner) {
+			super("Write Behind Test Scan");
+			this.scanner = scanner;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			try {
+				scanner.run(null);
+			} catch (Exception ne) {
+				exception = ne;
+			}
+		}
+	}
+
+	public static class WriteRecorder {
+
+		private final List<IPosition> written = Collections.synchronizedList(new ArrayList<>());
+		private int writtenBeforeFinally = -1;
+
+		@WriteComplete
+		public void writeComplete(IPosition position) {
+			written.add(position);
+		}
+
+		@ScanFinally
+		public void scanFinally() {
+			writtenBeforeFinally = written.size();
+		}
+	}
+}